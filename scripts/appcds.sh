@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Builds an AppCDS (class-data sharing) archive for the packaged application,
+# so the JVM can map the classes of Spring, Hibernate, Jackson and the
+# application from the archive instead of loading and verifying them at each
+# start.  Run by `mvn -Pappcds package`; see docs/appcds.md.
+#
+#   scripts/appcds.sh [jar]
+#
+# Lays out target/appcds:
+#   example.jar  the application's classes (the jar before Spring Boot repackages it)
+#   lib/         the dependency jars, from the executable jar's BOOT-INF/lib
+#   classpath    the class path to run with; the archive only matches this one
+#   app.jsa      the archive
+#   jar.sha256   checksum of the executable jar it was made from
+# then starts the application once from there with -XX:ArchiveClassesAtExit
+# (production profile, in-memory H2), sends it a few requests and stops it.
+# The JVM writes the archive as it exits.  scripts/start.sh runs with it.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+jar=${1:-$(ls target/example-*.jar | grep -v original | head -1)}
+original="$jar.original"
+[ -f "$jar" ] && [ -f "$original" ] || { echo "no $jar and $original; run mvn package first" >&2; exit 1; }
+
+dir=target/appcds
+rm -rf "$dir"
+mkdir -p "$dir/lib"
+cp "$original" "$dir/example.jar"
+unzip -q -j "$jar" 'BOOT-INF/lib/*' -d "$dir/lib"
+# relative to the project directory, where the build runs and where start.sh runs from
+echo "$dir/example.jar:$(ls "$dir"/lib/*.jar | sort | paste -sd: -)" > "$dir/classpath"
+
+log="$dir/training.log"
+: > "$log"
+java -XX:ArchiveClassesAtExit="$dir/app.jsa" -Xlog:cds=off -Xlog:cds+dynamic=info \
+  -cp "$(cat "$dir/classpath")" edu.ucsb.cs156.example.ExampleApplication \
+  --spring.profiles.active=production \
+  --server.port=0 \
+  "--spring.datasource.url=jdbc:h2:mem:appcds;DB_CLOSE_ON_EXIT=FALSE" \
+  --spring.datasource.username=sa \
+  --spring.datasource.password= \
+  --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect \
+  > "$log" 2>&1 &
+pid=$!
+
+port=""
+for ((t = 0; t < 600; t++)); do
+  port=$(sed -nE 's/.*Tomcat started on port\(s\): ([0-9]+).*/\1/p' "$log" | head -1)
+  grep -q "Started ExampleApplication in" "$log" && break
+  kill -0 $pid 2> /dev/null || { echo "training run failed; see $log" >&2; tail -20 "$log" >&2; exit 1; }
+  sleep 0.5
+done
+[ -n "$port" ] || { kill $pid; echo "training run did not start; see $log" >&2; exit 1; }
+
+# load the classes the first requests need: security, MVC, Jackson, the frontend
+for path in / /api/docs /api/currentUser /api/systemInfo /api/ucsbdates/all /swagger-ui/index.html; do
+  curl -s -o /dev/null "http://localhost:$port$path" || true
+done
+
+kill -TERM $pid
+wait $pid || true
+[ -f "$dir/app.jsa" ] || { echo "no archive written; see $log" >&2; exit 1; }
+# start.sh only uses the archive for the jar it was made from
+sha256sum "$jar" > "$dir/jar.sha256"
+echo "wrote $dir/app.jsa ($(du -h "$dir/app.jsa" | cut -f1)) for $(wc -l < <(ls "$dir"/lib)) jars"
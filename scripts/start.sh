@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Starts the packaged application for production (see Procfile), from the
+# project directory.  If the build made an AppCDS archive (mvn -Pappcds
+# package; see docs/appcds.md) from the jar in target, runs with it;
+# otherwise runs the jar.
+#
+# Uses PORT (default 8080) and JAVA_OPTS as Heroku's default command does.
+# Arguments are passed to the application.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+dir=target/appcds
+jar=$(ls target/example-*.jar | grep -v original | head -1)
+
+if [ -f "$dir/app.jsa" ] && [ -f "$dir/classpath" ] && [ -f "$dir/jar.sha256" ]; then
+  # a later build without -Pappcds leaves the old archive and classes behind
+  if [ "$(sha256sum < "$jar" | cut -d' ' -f1)" = "$(cut -d' ' -f1 "$dir/jar.sha256")" ]; then
+    # shellcheck disable=SC2086
+    exec java -Dserver.port="${PORT:-8080}" ${JAVA_OPTS:-} -XX:SharedArchiveFile="$dir/app.jsa" \
+      -cp "$(cat "$dir/classpath")" edu.ucsb.cs156.example.ExampleApplication "$@"
+  fi
+  echo "$dir was made from another build of the jar; running $jar without it" >&2
+fi
+
+# shellcheck disable=SC2086
+exec java -Dserver.port="${PORT:-8080}" ${JAVA_OPTS:-} -jar "$jar" "$@"
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Measures how long the packaged application takes to start, for each set of
+# Spring profiles given, and prints the median of several runs.
+#
+#   mvn -B -DskipTests package
+#   scripts/startup-benchmark.sh [-n runs] [-j "java options"] [-l launcher] profiles...
+#
+# e.g. scripts/startup-benchmark.sh -n 5 development development,faststart
+#
+# The launcher is how the JVM is started:
+#   jar        java -jar target/example-*.jar (the default)
+#   classpath  from target/appcds's class path, without the archive
+#   appcds     from target/appcds's class path, with the archive (mvn -Pappcds package)
+#
+# Each run starts the jar on a free port, waits for "Started ExampleApplication",
+# and stops it.  Times are as Spring reports them: from SpringApplication.run,
+# and from JVM start.  See docs/startup.md.
+
+set -euo pipefail
+
+runs=5
+java_opts=""
+launcher=jar
+while getopts "n:j:l:" opt; do
+  case $opt in
+    n) runs=$OPTARG ;;
+    j) java_opts=$OPTARG ;;
+    l) launcher=$OPTARG ;;
+    *) sed -n '2,18p' "$0"; exit 2 ;;
+  esac
+done
+shift $((OPTIND - 1))
+[ $# -gt 0 ] || set -- development development,faststart
+
+cd "$(dirname "$0")/.."
+case $launcher in
+  jar)
+    jar=$(ls target/example-*.jar | grep -v original | head -1)
+    [ -f "$jar" ] || { echo "no jar in target; run mvn -B -DskipTests package" >&2; exit 1; }
+    launch=(-jar "$jar")
+    ;;
+  classpath | appcds)
+    [ -f target/appcds/app.jsa ] || { echo "no archive; run mvn -B -DskipTests -Pappcds package" >&2; exit 1; }
+    launch=(-cp "$(cat target/appcds/classpath)" edu.ucsb.cs156.example.ExampleApplication)
+    [ "$launcher" = appcds ] && launch=(-XX:SharedArchiveFile=target/appcds/app.jsa "${launch[@]}")
+    ;;
+  *) echo "unknown launcher $launcher" >&2; exit 2 ;;
+esac
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+printf "%-32s %10s %8s %12s %12s\n" "profiles" "launcher" "runs" "app (s)" "JVM (s)"
+for profiles in "$@"; do
+  app_times=()
+  jvm_times=()
+  for ((i = 0; i < runs; i++)); do
+    # shellcheck disable=SC2086
+    java $java_opts "${launch[@]}" --server.port=0 --spring.profiles.active="$profiles" > "$log" 2>&1 &
+    pid=$!
+    line=""
+    for ((t = 0; t < 600; t++)); do
+      line=$(grep -m1 "Started ExampleApplication in" "$log" || true)
+      [ -n "$line" ] && break
+      kill -0 $pid 2> /dev/null || break
+      sleep 0.2
+    done
+    kill $pid 2> /dev/null || true
+    wait $pid 2> /dev/null || true
+    if [ -z "$line" ]; then
+      echo "$profiles: did not start; last lines of its log:" >&2
+      tail -20 "$log" >&2
+      exit 1
+    fi
+    # "Started ExampleApplication in 12.8 seconds (JVM running for 14.1)"
+    app_times+=("$(sed -E 's/.* in ([0-9.]+) seconds.*/\1/' <<< "$line")")
+    jvm_times+=("$(sed -E 's/.*JVM running for ([0-9.]+).*/\1/' <<< "$line")")
+  done
+  printf "%-32s %10s %8d %12s %12s\n" "$profiles" "$launcher" "$runs" \
+    "$(printf "%s\n" "${app_times[@]}" | median)" "$(printf "%s\n" "${jvm_times[@]}" | median)"
+done
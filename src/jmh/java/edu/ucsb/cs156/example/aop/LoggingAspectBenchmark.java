@@ -0,0 +1,78 @@
+package edu.ucsb.cs156.example.aop;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import edu.ucsb.cs156.example.services.EndpointMetricsService;
+
+/**
+ * What LoggingAspect adds to a controller call when the request is not
+ * logged: the advised call against the same call on the bare controller.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+  @RequestMapping("/api/things")
+  public static class ThingsController {
+    @GetMapping("/all")
+    public String all() {
+      return "all";
+    }
+  }
+
+  private ThingsController controller;
+  private ThingsController advised;
+
+  @Setup
+  public void setup() {
+    LoggingAspect aspect = new LoggingAspect();
+    aspect.endpointMetricsService = new EndpointMetricsService();
+    aspect.defaultSampleEvery = 0;
+
+    controller = new ThingsController();
+    AspectJProxyFactory factory = new AspectJProxyFactory(controller);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    advised = factory.getProxy();
+
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/things/all")));
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public String baseline() {
+    return controller.all();
+  }
+
+  @Benchmark
+  public String advised() {
+    return advised.all();
+  }
+}
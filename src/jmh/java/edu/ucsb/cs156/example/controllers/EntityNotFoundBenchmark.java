@@ -0,0 +1,54 @@
+package edu.ucsb.cs156.example.controllers;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+
+/**
+ * The 404 path every entity controller takes for an unknown id: throwing
+ * EntityNotFoundException and turning it into the response body in
+ * ApiController, against building the same body without an exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityNotFoundBenchmark {
+
+  static class Controller extends ApiController {
+  }
+
+  private final Controller controller = new Controller();
+
+  long id = 7L;
+
+  @Benchmark
+  public Object throwAndHandle() {
+    try {
+      throw new EntityNotFoundException(HelpRequest.class, id);
+    } catch (EntityNotFoundException e) {
+      return controller.handleGenericException(e);
+    }
+  }
+
+  @Benchmark
+  public Object bodyWithoutException() {
+    return Map.of(
+        "type", EntityNotFoundException.class.getSimpleName(),
+        "message", "%s with id %s not found".formatted(HelpRequest.class.getSimpleName(), Long.toString(id)));
+  }
+}
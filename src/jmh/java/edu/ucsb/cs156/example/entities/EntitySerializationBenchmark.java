@@ -0,0 +1,100 @@
+package edu.ucsb.cs156.example.entities;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of the entities the /all endpoints return, one at a
+ * time (<code>count=1</code>) and as a list, with short and long free text
+ * (explanation, comments).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySerializationBenchmark {
+
+  @Param({ "1", "100" })
+  int count;
+
+  @Param({ "100", "10000" })
+  int textLength;
+
+  // configured as Spring MVC configures its own
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private List<HelpRequest> helpRequests;
+  private List<MenuItemReview> menuItemReviews;
+  private List<Article> articles;
+
+  @Setup
+  public void setup() {
+    String text = "x".repeat(textLength);
+    LocalDateTime time = LocalDateTime.parse("2022-10-01T17:00:00");
+    helpRequests = new ArrayList<>();
+    menuItemReviews = new ArrayList<>();
+    articles = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      helpRequests.add(HelpRequest.builder()
+          .id(i)
+          .requesterEmail("cgaucho@ucsb.edu")
+          .teamId("f22-6pm-4")
+          .tableOrBreakoutRoom("7")
+          .requestTime(time.plusMinutes(i))
+          .explanation(text)
+          .solved(i % 2 == 0)
+          .build());
+      menuItemReviews.add(MenuItemReview.builder()
+          .id(i)
+          .itemId(i % 10)
+          .reviewerEmail("cgaucho@ucsb.edu")
+          .stars(i % 5 + 1)
+          .dateReviewed(time.plusMinutes(i))
+          .comments(text)
+          .build());
+      articles.add(Article.builder()
+          .id(i)
+          .title("Article " + i)
+          .url("https://example.org/articles/" + i)
+          .explanation(text)
+          .email("cgaucho@ucsb.edu")
+          .dateAdded(time.plusMinutes(i))
+          .build());
+    }
+  }
+
+  @Benchmark
+  public byte[] helpRequests() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(count == 1 ? helpRequests.get(0) : helpRequests);
+  }
+
+  @Benchmark
+  public byte[] menuItemReviews() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(count == 1 ? menuItemReviews.get(0) : menuItemReviews);
+  }
+
+  @Benchmark
+  public byte[] articles() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(count == 1 ? articles.get(0) : articles);
+  }
+}
@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+/**
+ * CurrentUserServiceImpl.getCurrentUser for a signed-in user who is already
+ * in the users table.  The repository is a Mockito mock, so the figures are
+ * the service's own work plus the mock's, without a database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrentUserServiceBenchmark {
+
+  private CurrentUserServiceImpl currentUserService;
+
+  @Setup
+  public void setup() {
+    User user = User.builder().id(1L).email("cgaucho@ucsb.edu").fullName("Chris Gaucho").build();
+    UserRepository userRepository = mock(UserRepository.class);
+    when(userRepository.findByEmail("cgaucho@ucsb.edu")).thenReturn(Optional.of(user));
+
+    AdminResolutionService adminResolutionService = new AdminResolutionService();
+    adminResolutionService.userRepository = userRepository;
+    adminResolutionService.setAdminEmails(List.of("phtcon@ucsb.edu"));
+
+    currentUserService = new CurrentUserServiceImpl();
+    ReflectionTestUtils.setField(currentUserService, "userRepository", userRepository);
+    currentUserService.grantedAuthoritiesService = new GrantedAuthoritiesService();
+    currentUserService.adminResolutionService = adminResolutionService;
+
+    Map<String, Object> attributes = Map.of(
+        "sub", "1234567890",
+        "email", "cgaucho@ucsb.edu",
+        "name", "Chris Gaucho",
+        "email_verified", true);
+    List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    DefaultOAuth2User principal = new DefaultOAuth2User(authorities, attributes, "sub");
+    SecurityContextHolder.setContext(
+        new SecurityContextImpl(new OAuth2AuthenticationToken(principal, authorities, "google")));
+  }
+
+  @TearDown
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public CurrentUser getCurrentUser() {
+    return currentUserService.getCurrentUser();
+  }
+}
@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Writes the Swagger document and the Swagger UI's configuration to a
+ * directory, for ApiDocsController to serve, e.g.
+ * <code>target/classes/api-docs</code> (the build does this before packaging
+ * the jar; see docs/api-docs.md).
+ *
+ * Starts the application with the production profile, runtime Springfox on
+ * and an in-memory H2 database, on a free port, and reads the documents from
+ * Springfox's own endpoints.  Further arguments are passed to the
+ * application.
+ */
+public class ApiDocsGenerator {
+
+  // Springfox endpoint -> file
+  static final Map<String, String> DOCUMENTS = Map.of(
+      "/api/docs", "swagger.json",
+      "/swagger-resources", "swagger-resources.json",
+      "/swagger-resources/configuration/ui", "ui.json",
+      "/swagger-resources/configuration/security", "security.json");
+
+  static final List<String> ARGS = List.of(
+      "--spring.profiles.active=production",
+      "--springfox.documentation.enabled=true",
+      "--server.port=0",
+      "--spring.datasource.url=jdbc:h2:mem:apidocs;DB_CLOSE_ON_EXIT=FALSE",
+      "--spring.datasource.username=sa",
+      "--spring.datasource.password=",
+      "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+      "--spring.main.banner-mode=off");
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("usage: ApiDocsGenerator <output directory> [application arguments]");
+      System.exit(2);
+    }
+    // devtools would run main again in a restart class loader, and an error there would not fail the build
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    Path output = Path.of(args[0]);
+    List<String> applicationArgs = new ArrayList<>(ARGS);
+    applicationArgs.addAll(Arrays.asList(args).subList(1, args.length));
+
+    SpringApplication application = new SpringApplication(ExampleApplication.class);
+    try (ConfigurableApplicationContext context = application.run(applicationArgs.toArray(String[]::new))) {
+      String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+      RestTemplate restTemplate = new RestTemplate();
+      ObjectMapper mapper = new ObjectMapper();
+      Files.createDirectories(output);
+      for (Map.Entry<String, String> document : DOCUMENTS.entrySet()) {
+        String json = restTemplate.getForObject(base + document.getKey(), String.class);
+        if (document.getKey().equals("/api/docs")) {
+          // the host is this run's; without it, clients use the host they fetched the document from
+          ObjectNode swagger = (ObjectNode) mapper.readTree(json);
+          swagger.remove("host");
+          json = mapper.writeValueAsString(swagger);
+        }
+        Files.writeString(output.resolve(document.getValue()), json);
+        System.out.printf("%-45s -> %s (%,d bytes)%n", document.getKey(), output.resolve(document.getValue()),
+            json.length());
+      }
+    }
+  }
+}
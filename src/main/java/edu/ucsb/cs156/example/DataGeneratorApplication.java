@@ -0,0 +1,48 @@
+package edu.ucsb.cs156.example;
+
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.ucsb.cs156.example.datagen.SyntheticDataGenerator;
+import edu.ucsb.cs156.example.entities.User;
+
+/**
+ * Fills the configured database with synthetic data and exits, e.g.
+ * <code>--app.datagen.scale=2 --app.datagen.seed=42</code>.
+ * See docs/synthetic-data.md.
+ *
+ * Only the datasource and JPA are configured; controllers, security and the
+ * app's services are not started.  This class is deliberately not a
+ * <code>@Configuration</code>, so ExampleApplication's component scan and the
+ * test slices do not pick it up.
+ */
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = User.class)
+public class DataGeneratorApplication {
+
+  public static void main(String[] args) {
+    SpringApplication application = new SpringApplication(DataGeneratorApplication.class);
+    application.setWebApplicationType(WebApplicationType.NONE);
+    try (ConfigurableApplicationContext context = application.run(args)) {
+      Environment environment = context.getEnvironment();
+      SyntheticDataGenerator generator = new SyntheticDataGenerator(
+          context.getBean(DataSource.class),
+          context.getBean(EntityManagerFactory.class),
+          context.getBean(PlatformTransactionManager.class));
+      Map<String, Integer> added = generator.generate(
+          environment.getProperty("app.datagen.scale", Double.class, 1.0),
+          environment.getProperty("app.datagen.seed", Long.class, 1L));
+      added.forEach((table, rows) -> System.out.printf("%-30s %,10d%n", table, rows));
+    }
+  }
+}
@@ -2,12 +2,19 @@ package edu.ucsb.cs156.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ExampleApplication {
 
+  // enough for every startup step; later steps are dropped
+  static final int STARTUP_STEPS = 10_000;
+
   public static void main(String[] args) {
-    SpringApplication.run(ExampleApplication.class, args);
+    SpringApplication application = new SpringApplication(ExampleApplication.class);
+    // recorded steps are reported at /api/systemInfo/startup
+    application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+    application.run(args);
   }
 
 }
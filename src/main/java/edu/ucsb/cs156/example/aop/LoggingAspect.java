@@ -1,20 +1,55 @@
 package edu.ucsb.cs156.example.aop;
 
+import edu.ucsb.cs156.example.jfr.ControllerInvocationEvent;
+import edu.ucsb.cs156.example.services.EndpointMetricsService;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
 
-import java.util.ArrayList;
+import jdk.jfr.EventType;
+
+import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Logs controller calls, records their latency with EndpointMetricsService
+ * and emits a {@link ControllerInvocationEvent} for each when JFR is
+ * recording them.
+ *
+ * Everything about a handler method (its endpoint, its recorder, how often it
+ * is logged) is worked out once, when the context starts, so a request costs
+ * a map lookup and does not allocate unless it is actually logged or JFR is
+ * recording controller invocations.
+ *
+ * Each handler logs one request in <code>app.logging.requests.sampleEvery</code>
+ * (default 1, i.e. all of them), which can be set per handler, e.g.
+ * <code>app.logging.requests.sampleEvery.UCSBDatesController.allUCSBDates=100</code>;
+ * 0 turns logging off for that handler.
+ */
 @Slf4j
 @Aspect
 @Component
@@ -29,25 +64,151 @@ public class LoggingAspect {
       @annotation(org.springframework.web.bind.annotation.PatchMapping)
       """;
 
-  private ArrayList<String> stoplist = new ArrayList<String>(Arrays.asList(
-      "edu.ucsb.cs156.example.controllers.FrontendProxyController"));
-
-  @Before(pointcut)
-  public void logControllers(JoinPoint joinPoint) {
-    getCurrentHttpRequest().ifPresent(
-        request -> {
-          String declaringTypeName = joinPoint.getSignature().getDeclaringTypeName();
-          if (!stoplist.contains(declaringTypeName)) {
-            log.info("===== %s %s handled by %s in %s".formatted(request.getMethod(), request.getRequestURI(),
-                joinPoint.getSignature().getName(), declaringTypeName));
-          }
-        });
-  }
-
-  private static Optional<HttpServletRequest> getCurrentHttpRequest() {
-    return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
-        .filter(ServletRequestAttributes.class::isInstance)
-        .map(ServletRequestAttributes.class::cast)
-        .map(ServletRequestAttributes::getRequest);
+  private static final String SAMPLE_EVERY = "app.logging.requests.sampleEvery";
+
+  // checked before creating an event, since the event outlives proceed() and escape analysis cannot remove it
+  private static final EventType CONTROLLER_INVOCATION = EventType.getEventType(ControllerInvocationEvent.class);
+
+  // handlers in these classes are never logged
+  private static final Set<String> stoplist = Set.of(
+      "edu.ucsb.cs156.example.controllers.FrontendProxyController");
+
+  private record Handler(String declaringTypeName, String name, String qualifiedName, String endpoint,
+      int sampleEvery, EndpointMetricsService.Recorder recorder) {
+  }
+
+  @Autowired
+  EndpointMetricsService endpointMetricsService;
+
+  @Autowired(required = false)
+  Environment environment;
+
+  @Value("${" + SAMPLE_EVERY + ":1}")
+  int defaultSampleEvery = 1;
+
+  private final ConcurrentHashMap<Method, Handler> handlers = new ConcurrentHashMap<>();
+
+  @Around(pointcut)
+  public Object logControllers(ProceedingJoinPoint joinPoint) throws Throwable {
+    Handler handler = handlerFor(joinPoint);
+    if (shouldLog(handler)) {
+      RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+      if (attributes instanceof ServletRequestAttributes) {
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        log.info("===== {} {} handled by {} in {}", request.getMethod(), request.getRequestURI(),
+            handler.name(), handler.declaringTypeName());
+      }
+    }
+
+    ControllerInvocationEvent event = null;
+    if (CONTROLLER_INVOCATION.isEnabled()) {
+      event = new ControllerInvocationEvent();
+      event.begin();
+    }
+    long start = System.nanoTime();
+    Object result = null;
+    Throwable thrown = null;
+    try {
+      result = joinPoint.proceed();
+      return result;
+    } catch (Throwable t) {
+      thrown = t;
+      throw t;
+    } finally {
+      handler.recorder().record(System.nanoTime() - start, thrown != null);
+      if (event != null && event.shouldCommit()) {
+        commit(event, handler, result, thrown);
+      }
+    }
+  }
+
+  private static void commit(ControllerInvocationEvent event, Handler handler, Object result, Throwable thrown) {
+    event.handler = handler.qualifiedName();
+    event.endpoint = handler.endpoint();
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes) {
+      ServletRequestAttributes servletAttributes = (ServletRequestAttributes) attributes;
+      event.httpMethod = servletAttributes.getRequest().getMethod();
+      if (thrown == null && servletAttributes.getResponse() != null) {
+        event.status = servletAttributes.getResponse().getStatus();
+      }
+    }
+    if (result instanceof ResponseEntity) {
+      event.status = ((ResponseEntity<?>) result).getStatusCodeValue();
+    } else if (thrown instanceof ResponseStatusException) {
+      event.status = ((ResponseStatusException) thrown).getRawStatusCode();
+    }
+    if (thrown != null) {
+      event.exception = thrown.getClass().getName();
+    }
+    event.commit();
+  }
+
+  /**
+   * Describes every mapped handler up front, using the mapped paths.
+   */
+  @EventListener
+  public void onContextRefreshed(ContextRefreshedEvent event) {
+    Map<String, RequestMappingHandlerMapping> mappings = event.getApplicationContext()
+        .getBeansOfType(RequestMappingHandlerMapping.class);
+    mappings.values().forEach(mapping -> mapping.getHandlerMethods().forEach((info, handlerMethod) -> {
+      handlers.computeIfAbsent(handlerMethod.getMethod(),
+          m -> describe(m, handlerMethod.getBeanType(), endpointOf(info)));
+    }));
+    log.info("request logging prepared for {} handlers", handlers.size());
+  }
+
+  private static boolean shouldLog(Handler handler) {
+    int sampleEvery = handler.sampleEvery();
+    return sampleEvery > 0
+        && log.isInfoEnabled()
+        && (sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0);
+  }
+
+  private Handler handlerFor(ProceedingJoinPoint joinPoint) {
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Handler handler = handlers.get(method);
+    if (handler == null) {
+      // not mapped when the context started; described from its annotations
+      Class<?> controllerClass = ClassUtils.getUserClass(joinPoint.getTarget());
+      handler = handlers.computeIfAbsent(method,
+          m -> describe(m, controllerClass, endpointOf(controllerClass, m)));
+    }
+    return handler;
+  }
+
+  private Handler describe(Method method, Class<?> controllerClass, String endpoint) {
+    String declaringTypeName = method.getDeclaringClass().getName();
+    String name = controllerClass.getSimpleName() + "." + method.getName();
+    int sampleEvery = stoplist.contains(declaringTypeName) ? 0 : defaultSampleEvery;
+    if (environment != null) {
+      sampleEvery = environment.getProperty(SAMPLE_EVERY + "." + name, Integer.class, sampleEvery);
+    }
+    return new Handler(declaringTypeName, method.getName(), name, endpoint, sampleEvery,
+        endpointMetricsService.recorder(endpoint, name));
+  }
+
+  // e.g. "GET /api/ucsbdates/all"; "*" when the mapping accepts any method
+  static String endpointOf(RequestMappingInfo info) {
+    Set<?> methods = info.getMethodsCondition().getMethods();
+    String httpMethods = methods.isEmpty()
+        ? "*"
+        : String.join(",", methods.stream().map(Object::toString).sorted().toList());
+    String path = info.getPatternValues().stream().sorted().findFirst().orElse("");
+    return httpMethods + " " + path;
+  }
+
+  static String endpointOf(Class<?> controllerClass, Method method) {
+    RequestMapping classMapping = AnnotatedElementUtils.findMergedAnnotation(controllerClass, RequestMapping.class);
+    RequestMapping methodMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+
+    String httpMethods = methodMapping == null || methodMapping.method().length == 0
+        ? "*"
+        : String.join(",", Arrays.stream(methodMapping.method()).map(Enum::name).toList());
+    return httpMethods + " " + firstPath(classMapping) + firstPath(methodMapping);
+  }
+
+  private static String firstPath(RequestMapping mapping) {
+    return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
   }
 }
@@ -0,0 +1,127 @@
+package edu.ucsb.cs156.example.aop;
+
+import edu.ucsb.cs156.example.jfr.RepositoryCallEvent;
+import edu.ucsb.cs156.example.services.RepositoryMetricsService;
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call to a Spring Data repository bean and counts the rows it
+ * returned (or, for a <code>@Modifying</code> query, changed), and emits a
+ * {@link RepositoryCallEvent} for each call when JFR is recording them.
+ * While no recording enables the event, no event object is created.
+ *
+ * Calls are recorded per repository interface and method, e.g.
+ * <code>UserRepository.findByEmail</code>, so the CrudRepository methods each
+ * repository inherits are told apart too.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+  private record Target(String method, RepositoryMetricsService.Recorder recorder, boolean modifying) {
+  }
+
+  private static final EventType REPOSITORY_CALL = EventType.getEventType(RepositoryCallEvent.class);
+
+  @Autowired
+  RepositoryMetricsService repositoryMetricsService;
+
+  // repository proxy class -> method -> target
+  private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Method, Target>> targets = new ConcurrentHashMap<>();
+
+  @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+  public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+    Target target = targetFor(joinPoint);
+    RepositoryCallEvent event = beginEvent();
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = joinPoint.proceed();
+    } catch (Throwable t) {
+      target.recorder().recordFailure(System.nanoTime() - start);
+      commit(event, target, 0, true);
+      throw t;
+    }
+    long rows = rows(result, target.modifying());
+    target.recorder().recordSuccess(System.nanoTime() - start, rows);
+    commit(event, target, rows, false);
+    return result;
+  }
+
+  // null unless a recording enables the event
+  static RepositoryCallEvent beginEvent() {
+    if (!REPOSITORY_CALL.isEnabled()) {
+      return null;
+    }
+    RepositoryCallEvent event = new RepositoryCallEvent();
+    event.begin();
+    return event;
+  }
+
+  private static void commit(RepositoryCallEvent event, Target target, long rows, boolean failed) {
+    if (event != null && event.shouldCommit()) {
+      event.method = target.method();
+      event.rows = rows;
+      event.failed = failed;
+      event.commit();
+    }
+  }
+
+  private Target targetFor(ProceedingJoinPoint joinPoint) {
+    Class<?> repositoryClass = joinPoint.getTarget().getClass();
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Map<Method, Target> byMethod = targets.computeIfAbsent(repositoryClass, c -> new ConcurrentHashMap<>());
+    Target target = byMethod.get(method);
+    if (target == null) {
+      target = byMethod.computeIfAbsent(method, m -> {
+        String name = repositoryName(repositoryClass) + "." + m.getName();
+        return new Target(name, repositoryMetricsService.recorder(name), m.isAnnotationPresent(Modifying.class));
+      });
+    }
+    return target;
+  }
+
+  // the application's repository interface that the proxy implements
+  static String repositoryName(Class<?> repositoryClass) {
+    for (Class<?> candidate : repositoryClass.getInterfaces()) {
+      if (Repository.class.isAssignableFrom(candidate) && candidate != Repository.class
+          && !candidate.getName().startsWith("org.springframework.")) {
+        return candidate.getSimpleName();
+      }
+    }
+    return repositoryClass.getSimpleName();
+  }
+
+  static long rows(Object result, boolean modifying) {
+    if (result == null) {
+      return 0;
+    } else if (result instanceof Collection) {
+      return ((Collection<?>) result).size();
+    } else if (result instanceof Optional) {
+      return ((Optional<?>) result).isPresent() ? 1 : 0;
+    } else if (result instanceof Slice) {
+      return ((Slice<?>) result).getNumberOfElements();
+    } else if (result instanceof Number && modifying) {
+      return ((Number) result).longValue();
+    } else if (result instanceof Iterable) {
+      // not a collection; counting would mean iterating it for the caller
+      return 0;
+    }
+    return 1;
+  }
+}
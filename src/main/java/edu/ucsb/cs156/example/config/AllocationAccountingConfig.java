@@ -0,0 +1,35 @@
+package edu.ucsb.cs156.example.config;
+
+import java.lang.management.ManagementFactory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.ucsb.cs156.example.services.AllocationMetricsService;
+
+/**
+ * Records the bytes allocated and CPU time used by each request, per
+ * handler, when <code>app.metrics.allocation.enabled=true</code> (the default).
+ * The figures are reported at /api/admin/metrics/allocation.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "app.metrics.allocation.enabled", havingValue = "true")
+public class AllocationAccountingConfig {
+
+  @Bean
+  public FilterRegistrationBean<AllocationAccountingFilter> allocationAccountingFilter(
+      AllocationMetricsService allocationMetricsService) {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    FilterRegistrationBean<AllocationAccountingFilter> registration = new FilterRegistrationBean<>(
+        new AllocationAccountingFilter(allocationMetricsService, threads));
+    // just inside StatementBudgetFilter, outside everything else
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    return registration;
+  }
+}
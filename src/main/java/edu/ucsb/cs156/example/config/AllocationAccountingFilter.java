@@ -0,0 +1,82 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.ucsb.cs156.example.services.AllocationMetricsService;
+
+/**
+ * Reads the request thread's allocated bytes and CPU time before and after
+ * the rest of the filter chain, and adds the difference to the handler that
+ * served the request.  The figures include security filters and writing the
+ * response body, i.e. everything the request costs on its thread.
+ *
+ * Requests that no controller method handled (static resources, errors
+ * before dispatch) are not recorded.
+ */
+public class AllocationAccountingFilter extends OncePerRequestFilter {
+
+  private final AllocationMetricsService allocationMetricsService;
+  private final ThreadMXBean threads;
+  private final boolean allocationSupported;
+  private final boolean cpuTimeSupported;
+
+  private final ConcurrentHashMap<Method, AllocationMetricsService.Recorder> recorders = new ConcurrentHashMap<>();
+
+  public AllocationAccountingFilter(AllocationMetricsService allocationMetricsService, ThreadMXBean threads) {
+    this.allocationMetricsService = allocationMetricsService;
+    this.threads = threads;
+    this.allocationSupported = threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    this.cpuTimeSupported = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    long bytesBefore = allocatedBytes();
+    long cpuBefore = cpuNanos();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      long bytes = allocationSupported ? allocatedBytes() - bytesBefore : -1;
+      long cpu = cpuTimeSupported ? cpuNanos() - cpuBefore : -1;
+      Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+      if (handler instanceof HandlerMethod) {
+        recorderFor((HandlerMethod) handler, request).record(bytes, cpu);
+      }
+    }
+  }
+
+  private long allocatedBytes() {
+    return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+  }
+
+  private long cpuNanos() {
+    return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+  }
+
+  // the endpoint is taken from the first request the handler serves
+  private AllocationMetricsService.Recorder recorderFor(HandlerMethod handlerMethod, HttpServletRequest request) {
+    AllocationMetricsService.Recorder recorder = recorders.get(handlerMethod.getMethod());
+    if (recorder == null) {
+      String handler = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+      String endpoint = request.getMethod() + " "
+          + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      recorder = recorders.computeIfAbsent(handlerMethod.getMethod(),
+          m -> allocationMetricsService.recorder(handler, endpoint));
+    }
+    return recorder;
+  }
+}
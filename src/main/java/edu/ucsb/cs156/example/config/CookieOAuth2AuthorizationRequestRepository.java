@@ -0,0 +1,109 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.util.SerializationUtils;
+
+import edu.ucsb.cs156.example.util.RotatingHmacSigner;
+
+/**
+ * Keeps the pending OAuth2 authorization request in a short-lived signed
+ * cookie instead of the HttpSession, so the redirect back from the provider
+ * can land on any node.  The signature is checked before the cookie is
+ * deserialized.  The cookie is marked Secure when <code>secure</code> is set,
+ * as it is outside development: behind a TLS-terminating router the request
+ * itself arrives over plain HTTP.
+ */
+public class CookieOAuth2AuthorizationRequestRepository
+    implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+  static final String COOKIE_NAME = "oauth2_auth_request";
+  static final String PURPOSE = "oauth2-authorization-request";
+  private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+  private final RotatingHmacSigner signer;
+  private final boolean secure;
+
+  public CookieOAuth2AuthorizationRequestRepository(RotatingHmacSigner signer, boolean secure) {
+    this.signer = signer;
+    this.secure = secure;
+  }
+
+  @Override
+  public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+    String state = request.getParameter(OAuth2ParameterNames.STATE);
+    if (state == null) {
+      return null;
+    }
+    OAuth2AuthorizationRequest authorizationRequest = read(request).orElse(null);
+    if (authorizationRequest == null || !state.equals(authorizationRequest.getState())) {
+      return null;
+    }
+    return authorizationRequest;
+  }
+
+  @Override
+  public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest, HttpServletRequest request,
+      HttpServletResponse response) {
+    if (authorizationRequest == null) {
+      setCookie(response, "", Duration.ZERO);
+      return;
+    }
+    String value = signer.sign(PURPOSE, SerializationUtils.serialize(authorizationRequest));
+    setCookie(response, value, MAX_AGE);
+  }
+
+  @Override
+  public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request,
+      HttpServletResponse response) {
+    OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+    if (authorizationRequest != null) {
+      setCookie(response, "", Duration.ZERO);
+    }
+    return authorizationRequest;
+  }
+
+  @Deprecated
+  @Override
+  public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request) {
+    // cannot clear the cookie without the response; it expires on its own
+    return loadAuthorizationRequest(request);
+  }
+
+  private Optional<OAuth2AuthorizationRequest> read(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return Optional.empty();
+    }
+    for (Cookie cookie : cookies) {
+      if (COOKIE_NAME.equals(cookie.getName())) {
+        return signer.verify(PURPOSE, cookie.getValue())
+            .map(SerializationUtils::deserialize)
+            .filter(OAuth2AuthorizationRequest.class::isInstance)
+            .map(OAuth2AuthorizationRequest.class::cast);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private void setCookie(HttpServletResponse response, String value, Duration maxAge) {
+    ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+        .path("/")
+        .httpOnly(true)
+        .secure(secure)
+        .sameSite("Lax")
+        .maxAge(maxAge)
+        .build();
+    response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+  }
+}
@@ -0,0 +1,58 @@
+package edu.ucsb.cs156.example.config;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Beans that are created at startup even when
+ * <code>spring.main.lazy-initialization=true</code> (the faststart profile):
+ *
+ * <ul>
+ * <li>beans with <code>@Scheduled</code> methods, which would otherwise
+ * never be scheduled, since nothing asks for them;</li>
+ * <li>beans with <code>@PostConstruct</code> methods, whose start-up work
+ * (switching Hibernate statistics on, backfilling the help request rollups)
+ * would otherwise wait for the first request that needs them, or never
+ * happen;</li>
+ * <li>the DataSource and EntityManagerFactory, so that a database that is
+ * down or a schema that does not validate stops the application at startup
+ * rather than failing its first request.</li>
+ * </ul>
+ */
+
+@Configuration
+public class LazyInitializationConfig {
+
+  @Bean
+  static LazyInitializationExcludeFilter eagerBeans() {
+    return (beanName, beanDefinition, beanType) -> isEager(beanType);
+  }
+
+  static boolean isEager(Class<?> beanType) {
+    return DataSource.class.isAssignableFrom(beanType)
+        || EntityManagerFactory.class.isAssignableFrom(beanType)
+        || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType)
+        || hasAnnotatedMethods(beanType, Scheduled.class)
+        || hasAnnotatedMethods(beanType, PostConstruct.class);
+  }
+
+  private static boolean hasAnnotatedMethods(Class<?> beanType, Class<? extends Annotation> annotation) {
+    Map<Method, Boolean> annotated = MethodIntrospector.selectMethods(beanType,
+        (MethodIntrospector.MetadataLookup<Boolean>) method -> AnnotatedElementUtils.hasAnnotation(method,
+            annotation) ? Boolean.TRUE : null);
+    return !annotated.isEmpty();
+  }
+}
@@ -0,0 +1,13 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs <code>@Scheduled</code> methods, e.g. SharedSessionRepository's write-behind flush and sweeper.
+ */
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
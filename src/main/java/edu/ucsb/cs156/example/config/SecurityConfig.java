@@ -4,11 +4,13 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -24,15 +26,20 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizationRequestRedirectFilter;
 import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
 import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
-import edu.ucsb.cs156.example.entities.User;
-import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AdminResolutionService;
+import edu.ucsb.cs156.example.util.RotatingHmacSigner;
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -41,11 +48,32 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
-  @Value("${app.admin.emails}")
-  private final List<String> adminEmails = new ArrayList<String>();
-
   @Autowired
-  UserRepository userRepository;
+  AdminResolutionService adminResolutionService;
+
+  // When true, logins are kept in a signed cookie instead of the HttpSession
+  @Value("${app.auth.stateless:false}")
+  private boolean stateless;
+
+  @Value("${app.auth.token.secret:}")
+  private String tokenSecret;
+
+  // secrets that replaced cookies may still be signed with, newest first
+  @Value("${app.auth.token.previousSecrets:}")
+  private List<String> previousTokenSecrets;
+
+  // false only where the app is served over plain HTTP, i.e. in development
+  @Value("${app.auth.token.secureCookie:true}")
+  private boolean secureCookie;
+
+  @Value("${app.auth.token.ttlMinutes:30}")
+  private long tokenTtlMinutes;
+
+  @Value("${app.auth.token.maxLifetimeHours:12}")
+  private long tokenMaxLifetimeHours;
+
+  @Value("${app.auth.token.keyRotationHours:24}")
+  private long keyRotationHours;
 
   @Override
   protected void configure(HttpSecurity http) throws Exception {
@@ -60,6 +88,48 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         .logout(logout -> logout
             .logoutRequestMatcher(new AntPathRequestMatcher("/logout"))
             .logoutSuccessUrl("/"));
+
+    if (stateless) {
+      configureStateless(http);
+    }
+  }
+
+  private void configureStateless(HttpSecurity http) throws Exception {
+    if (tokenSecret.length() < 32) {
+      throw new IllegalStateException("app.auth.stateless requires app.auth.token.secret of at least 32 characters");
+    }
+    List<byte[]> secrets = new ArrayList<>();
+    secrets.add(tokenSecret.getBytes(StandardCharsets.UTF_8));
+    for (String previous : previousTokenSecrets) {
+      if (previous.length() < 32) {
+        throw new IllegalStateException("app.auth.token.previousSecrets must each be at least 32 characters");
+      }
+      secrets.add(previous.getBytes(StandardCharsets.UTF_8));
+    }
+    Clock clock = Clock.systemUTC();
+    RotatingHmacSigner signer = new RotatingHmacSigner(secrets, Duration.ofHours(keyRotationHours), clock);
+    SessionTokenCookies sessionTokenCookies = new SessionTokenCookies(signer, "SESSION_TOKEN",
+        Duration.ofMinutes(tokenTtlMinutes), Duration.ofHours(tokenMaxLifetimeHours), secureCookie,
+        adminResolutionService::isAdmin, clock);
+    SimpleUrlAuthenticationSuccessHandler redirectHome = new SimpleUrlAuthenticationSuccessHandler("/");
+    SimpleUrlAuthenticationFailureHandler loginFailed = new SimpleUrlAuthenticationFailureHandler("/login?error");
+    loginFailed.setAllowSessionCreation(false);
+
+    http.sessionManagement(session -> session
+        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .oauth2Login(oauth2 -> oauth2
+            .authorizationEndpoint(endpoint -> endpoint
+                .authorizationRequestRepository(new CookieOAuth2AuthorizationRequestRepository(signer, secureCookie)))
+            .successHandler((request, response, authentication) -> {
+              sessionTokenCookies.issue(request, response, (OAuth2AuthenticationToken) authentication);
+              redirectHome.onAuthenticationSuccess(request, response, authentication);
+            })
+            .failureHandler(loginFailed))
+        .logout(logout -> logout
+            .addLogoutHandler((request, response, authentication) -> sessionTokenCookies.clear(request, response)))
+        .addFilterBefore(new SessionTokenFilter(sessionTokenCookies), OAuth2AuthorizationRequestRedirectFilter.class);
+    log.info("stateless sessions enabled; signing keys rotate every {} hours, {} previous secrets accepted",
+        keyRotationHours, previousTokenSecrets.size());
   }
 
   @Override
@@ -72,13 +142,13 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
       Set<GrantedAuthority> mappedAuthorities = new HashSet<>();
 
       authorities.forEach(authority -> {
-        log.info("********** authority={}", authority);
+        log.debug("********** authority={}", authority);
         mappedAuthorities.add(authority);
         if (OAuth2UserAuthority.class.isInstance(authority)) {
           OAuth2UserAuthority oauth2UserAuthority = (OAuth2UserAuthority) authority;
 
           Map<String, Object> userAttributes = oauth2UserAuthority.getAttributes();
-          log.info("********** userAttributes={}", userAttributes);
+          log.debug("********** userAttributes={}", userAttributes);
 
           String email = (String) userAttributes.get("email");
           if (getAdmin(email)) {
@@ -96,10 +166,6 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
   }
 
   public boolean getAdmin(String email) {
-    if (adminEmails.contains(email)) {
-      return true;
-    }
-    Optional<User> u = userRepository.findByEmail(email);
-    return u.isPresent() && u.get().getAdmin();
+    return adminResolutionService.isAdmin(email);
   }
 }
\ No newline at end of file
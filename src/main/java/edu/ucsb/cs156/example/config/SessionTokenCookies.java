@@ -0,0 +1,202 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.util.RotatingHmacSigner;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads and writes the signed session cookie used when
+ * <code>app.auth.stateless</code> is on.
+ *
+ * The cookie carries the OAuth user attributes the app reads (email, name,
+ * picture, ...) and the granted roles, so a request is authenticated from the
+ * cookie alone.  It expires after <code>ttl</code>; a request in the second
+ * half of that window gets a fresh cookie, until <code>maxLifetime</code>
+ * after login, when the user has to log in again.
+ *
+ * A refresh asks <code>isAdmin</code> again and adds or drops ROLE_ADMIN to
+ * match, so a change to a user's admin flag reaches a signed-in user within
+ * half the <code>ttl</code>, not at their next login.
+ *
+ * The cookie is marked Secure when <code>secure</code> is set.  That is
+ * configured rather than taken from the request, since behind a
+ * TLS-terminating router (Heroku's, for one) the request reaches the app over
+ * plain HTTP.
+ */
+@Slf4j
+public class SessionTokenCookies {
+
+  static final String PURPOSE = "session";
+  static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+  // the attributes CurrentUserServiceImpl reads; everything else is dropped to keep the cookie small
+  private static final List<String> ATTRIBUTES = List.of(
+      "sub", "email", "name", "given_name", "family_name", "picture", "email_verified", "locale", "hd");
+
+  private record Payload(
+      String registrationId,
+      Map<String, Object> attributes,
+      List<String> roles,
+      long issuedAt,
+      long expiresAt) {
+  }
+
+  private final RotatingHmacSigner signer;
+  private final String cookieName;
+  private final Duration ttl;
+  private final Duration maxLifetime;
+  private final boolean secure;
+  private final Predicate<String> isAdmin;
+  private final Clock clock;
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  public SessionTokenCookies(RotatingHmacSigner signer, String cookieName, Duration ttl, Duration maxLifetime,
+      boolean secure, Predicate<String> isAdmin, Clock clock) {
+    this.signer = signer;
+    this.cookieName = cookieName;
+    this.ttl = ttl;
+    this.maxLifetime = maxLifetime;
+    this.secure = secure;
+    this.isAdmin = isAdmin;
+    this.clock = clock;
+  }
+
+  public String getCookieName() {
+    return cookieName;
+  }
+
+  /**
+   * Sets a new cookie after a successful login.
+   */
+  public void issue(HttpServletRequest request, HttpServletResponse response,
+      OAuth2AuthenticationToken authentication) throws IOException {
+    Map<String, Object> attributes = new HashMap<>();
+    for (String name : ATTRIBUTES) {
+      Object value = authentication.getPrincipal().getAttribute(name);
+      if (value != null) {
+        attributes.put(name, value);
+      }
+    }
+    List<String> roles = new ArrayList<>();
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      roles.add(authority.getAuthority());
+    }
+    long now = clock.millis();
+    write(response, new Payload(authentication.getAuthorizedClientRegistrationId(),
+        attributes, roles, now, now + ttl.toMillis()));
+  }
+
+  /**
+   * Returns the authentication carried by the request's cookie, if it has a
+   * valid one, refreshing the cookie and its admin role when it is past half
+   * its lifetime.
+   */
+  public Optional<OAuth2AuthenticationToken> read(HttpServletRequest request, HttpServletResponse response) {
+    Optional<Payload> found = readPayload(request);
+    if (found.isEmpty()) {
+      return Optional.empty();
+    }
+    Payload payload = found.get();
+    long now = clock.millis();
+
+    if (payload.expiresAt() - now < ttl.toMillis() / 2) {
+      long expiresAt = Math.min(now + ttl.toMillis(), payload.issuedAt() + maxLifetime.toMillis());
+      if (expiresAt > payload.expiresAt()) {
+        payload = new Payload(payload.registrationId(), payload.attributes(), currentRoles(payload),
+            payload.issuedAt(), expiresAt);
+        try {
+          write(response, payload);
+        } catch (IOException e) {
+          log.warn("could not refresh session cookie", e);
+        }
+      }
+    }
+
+    List<GrantedAuthority> authorities = new ArrayList<>();
+    payload.roles().forEach(role -> authorities.add(new SimpleGrantedAuthority(role)));
+    DefaultOAuth2User user = new DefaultOAuth2User(authorities, payload.attributes(), "sub");
+    return Optional.of(new OAuth2AuthenticationToken(user, authorities, payload.registrationId()));
+  }
+
+  public void clear(HttpServletRequest request, HttpServletResponse response) {
+    response.addHeader(HttpHeaders.SET_COOKIE, cookie("", Duration.ZERO).toString());
+  }
+
+  // the payload's roles, with ROLE_ADMIN as isAdmin now says
+  private List<String> currentRoles(Payload payload) {
+    List<String> roles = new ArrayList<>(payload.roles());
+    roles.remove(ADMIN_ROLE);
+    Object email = payload.attributes().get("email");
+    if (email instanceof String address && isAdmin.test(address)) {
+      roles.add(ADMIN_ROLE);
+    }
+    return roles;
+  }
+
+  private Optional<Payload> readPayload(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return Optional.empty();
+    }
+    for (Cookie cookie : cookies) {
+      if (!cookieName.equals(cookie.getName())) {
+        continue;
+      }
+      Optional<byte[]> bytes = signer.verify(PURPOSE, cookie.getValue());
+      if (bytes.isEmpty()) {
+        log.debug("ignoring session cookie with a bad signature or an expired key");
+        return Optional.empty();
+      }
+      try {
+        Payload payload = mapper.readValue(bytes.get(), Payload.class);
+        if (payload.expiresAt() <= clock.millis()) {
+          return Optional.empty();
+        }
+        return Optional.of(payload);
+      } catch (IOException e) {
+        log.warn("ignoring signed session cookie that could not be read", e);
+        return Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+
+  private void write(HttpServletResponse response, Payload payload) throws IOException {
+    String value = signer.sign(PURPOSE, mapper.writeValueAsBytes(payload));
+    Duration maxAge = Duration.ofMillis(payload.expiresAt() - clock.millis());
+    response.addHeader(HttpHeaders.SET_COOKIE, cookie(value, maxAge).toString());
+  }
+
+  private ResponseCookie cookie(String value, Duration maxAge) {
+    return ResponseCookie.from(cookieName, value)
+        .path("/")
+        .httpOnly(true)
+        .secure(secure)
+        // Lax, so the cookie survives the redirect back from the OAuth provider
+        .sameSite("Lax")
+        .maxAge(maxAge)
+        .build();
+  }
+}
@@ -0,0 +1,34 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Authenticates requests from the signed session cookie, without a session
+ * or a database lookup.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+  private final SessionTokenCookies sessionTokenCookies;
+
+  public SessionTokenFilter(SessionTokenCookies sessionTokenCookies) {
+    this.sessionTokenCookies = sessionTokenCookies;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (SecurityContextHolder.getContext().getAuthentication() == null) {
+      sessionTokenCookies.read(request, response)
+          .ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
+    }
+    chain.doFilter(request, response);
+  }
+}
@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+/**
+ * Replaces the servlet container's sessions with SharedSessionRepository when
+ * <code>app.session.shared=true</code>, so any node can serve any session.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "app.session.shared", havingValue = "true")
+@EnableSpringHttpSession
+public class SharedSessionConfig {
+}
@@ -0,0 +1,43 @@
+package edu.ucsb.cs156.example.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import edu.ucsb.cs156.example.util.StatementCounter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warns, with the stack of the first statement over the limit, when one
+ * request issues more than <code>app.sql.warnStatementsPerRequest</code> SQL
+ * statements, which is the usual sign of an N+1 query.
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+  private final long warnAbove;
+
+  public StatementBudgetFilter(long warnAbove) {
+    this.warnAbove = warnAbove;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    StatementCounter.startRequest(warnAbove);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      Throwable firstOver = StatementCounter.endRequest();
+      if (firstOver != null) {
+        log.warn("{} {} issued {} SQL statements (more than {}); possible N+1 query", request.getMethod(),
+            request.getRequestURI(), StatementCounter.count(), warnAbove, firstOver);
+      }
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package edu.ucsb.cs156.example.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import edu.ucsb.cs156.example.util.StatementCountingDataSource;
+
+/**
+ * Counts the SQL statements each request issues when
+ * <code>app.sql.countStatements=true</code> (on in the development profile),
+ * and logs a warning for requests over <code>app.sql.warnStatementsPerRequest</code>.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "app.sql.countStatements", havingValue = "true")
+public class StatementCountingConfig {
+
+  @Bean
+  public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof StatementCountingDataSource)) {
+          return new StatementCountingDataSource((DataSource) bean);
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(
+      @Value("${app.sql.warnStatementsPerRequest:20}") long warnAbove) {
+    FilterRegistrationBean<StatementBudgetFilter> registration = new FilterRegistrationBean<>(
+        new StatementBudgetFilter(warnAbove));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Serves the Swagger UI when runtime Springfox is off, as Springfox would
+ * when it is on.  The UI reads the document and its configuration from
+ * ApiDocsController.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "false")
+public class SwaggerUiConfig implements WebMvcConfigurer {
+
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/swagger-ui/**")
+        .addResourceLocations("classpath:/META-INF/resources/webjars/springfox-swagger-ui/")
+        .resourceChain(false);
+  }
+
+  @Override
+  public void addViewControllers(ViewControllerRegistry registry) {
+    registry.addViewController("/swagger-ui/").setViewName("forward:/swagger-ui/index.html");
+  }
+}
@@ -0,0 +1,96 @@
+package edu.ucsb.cs156.example.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves the Swagger document that ApiDocsGenerator wrote at build time, and
+ * the Swagger UI configuration, at the paths runtime Springfox would use.
+ * Active when runtime Springfox is off (everywhere but development).
+ *
+ * Each document is read once and sent with an ETag, so a client that already
+ * has it gets a 304.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "false")
+public class ApiDocsController {
+
+  private record Document(byte[] body, String eTag) {
+  }
+
+  private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+  private final ResourceLoader resourceLoader;
+  private final String location;
+  private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+  public ApiDocsController(ResourceLoader resourceLoader,
+      @Value("${app.apiDocs.location:classpath:api-docs/}") String location) {
+    this.resourceLoader = resourceLoader;
+    this.location = location;
+  }
+
+  @GetMapping(value = "${springfox.documentation.swagger.v2.path:/v2/api-docs}",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> swagger() {
+    return serve("swagger.json");
+  }
+
+  @GetMapping(value = "/swagger-resources", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> swaggerResources() {
+    return serve("swagger-resources.json");
+  }
+
+  @GetMapping(value = "/swagger-resources/configuration/ui", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> uiConfiguration() {
+    return serve("ui.json");
+  }
+
+  @GetMapping(value = "/swagger-resources/configuration/security", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> securityConfiguration() {
+    return serve("security.json");
+  }
+
+  // a request whose If-None-Match has the ETag gets a 304 without the body
+  private ResponseEntity<byte[]> serve(String name) {
+    Document document = documents.computeIfAbsent(name, this::load);
+    return ResponseEntity.ok()
+        .eTag(document.eTag())
+        .cacheControl(CACHE_CONTROL)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(document.body());
+  }
+
+  private Document load(String name) {
+    Resource resource = resourceLoader.getResource(location + name);
+    if (!resource.exists()) {
+      log.warn("{} not found; was the jar built with -Dapidocs.skip=true?", resource);
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "API documentation was not generated");
+    }
+    try (InputStream in = resource.getInputStream()) {
+      byte[] body = in.readAllBytes();
+      return new Document(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+    } catch (IOException e) {
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "could not read " + resource, e);
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.HelpRequestQueueService;
+import edu.ucsb.cs156.example.services.HelpRequestRollupService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -12,7 +15,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,10 +28,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
 @Api(description = "HelpRequest")
 @RequestMapping("/api/helprequest")
 @RestController
@@ -33,6 +44,12 @@ public class HelpRequestController extends ApiController {
     @Autowired
     HelpRequestRepository helpRequestRepository;
 
+    @Autowired
+    HelpRequestQueueService helpRequestQueueService;
+
+    @Autowired
+    HelpRequestRollupService helpRequestRollupService;
+
     @ApiOperation(value = "List all help requests")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
@@ -52,9 +69,40 @@ public class HelpRequestController extends ApiController {
         return helpRequest;
     }
 
+    @ApiOperation(value = "List unsolved help requests, oldest first (served from memory)")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/queue")
+    public List<HelpRequest> queue() {
+        return helpRequestQueueService.getQueue();
+    }
+
+    @ApiOperation(value = "Stream the unsolved help request queue as server-sent events (snapshot, then add/solve/remove)")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/queue/stream")
+    public SseEmitter queueStream() {
+        return helpRequestQueueService.subscribe();
+    }
+
+    @ApiOperation(value = "Get help request counts per team and room, by hour or by day")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/stats")
+    public Iterable<HelpRequestRollup> stats(
+            @ApiParam("granularity (hour or day)") @RequestParam(defaultValue = "hour") String granularity,
+            @ApiParam("from (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @ApiParam("to (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        HelpRequestRollup.Granularity g;
+        try {
+            g = HelpRequestRollup.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "granularity must be hour or day");
+        }
+        return helpRequestRollupService.getRollups(g, from, to);
+    }
+
     @ApiOperation(value = "Create a new help request")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
+    @Transactional
     public HelpRequest postHelpRequest(
             @ApiParam("requesterEmail") @RequestParam String requesterEmail,
             @ApiParam("teamId") @RequestParam String teamId,
@@ -76,6 +124,8 @@ public class HelpRequestController extends ApiController {
         helpRequest.setSolved(solved);
 
         HelpRequest savedHelpRequest = helpRequestRepository.save(helpRequest);
+        helpRequestRollupService.recordCreated(savedHelpRequest);
+        afterCommit(() -> helpRequestQueueService.upsert(savedHelpRequest));
 
         return savedHelpRequest;
     }
@@ -83,18 +133,22 @@ public class HelpRequestController extends ApiController {
     @ApiOperation(value = "Delete a HelpRequest")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping("")
+    @Transactional
     public Object deleteHelpRequest(
             @ApiParam("id") @RequestParam Long id) {
         HelpRequest helpRequest = helpRequestRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
 
         helpRequestRepository.delete(helpRequest);
+        helpRequestRollupService.recordDeleted(helpRequest);
+        afterCommit(() -> helpRequestQueueService.remove(id));
         return genericMessage("Help request with id %s deleted".formatted(id));
     }
 
     @ApiOperation(value = "Update a single help request")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping("")
+    @Transactional
     public HelpRequest updateHelpRequest(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid HelpRequest incoming) {
@@ -102,6 +156,7 @@ public class HelpRequestController extends ApiController {
         HelpRequest helpRequest = helpRequestRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
 
+        HelpRequest before = helpRequest.toBuilder().build();
         helpRequest.setRequesterEmail(incoming.getRequesterEmail());
         helpRequest.setTeamId(incoming.getTeamId());
         helpRequest.setTableOrBreakoutRoom(incoming.getTableOrBreakoutRoom());
@@ -110,8 +165,24 @@ public class HelpRequestController extends ApiController {
         helpRequest.setSolved(incoming.getSolved());
 
         helpRequestRepository.save(helpRequest);
+        helpRequestRollupService.recordUpdated(before, helpRequest);
+        afterCommit(() -> helpRequestQueueService.upsert(helpRequest));
 
         return helpRequest;
     }
 
+    // The queue is told about a change only once it is committed.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
 }
@@ -0,0 +1,58 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.HibernateStats;
+import edu.ucsb.cs156.example.services.HibernateStatisticsService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@Api(description = "Hibernate statistics (admin only)")
+@RequestMapping("/api/admin/hibernate-stats")
+@RestController
+public class HibernateStatsController extends ApiController {
+
+    @Autowired
+    HibernateStatisticsService hibernateStatisticsService;
+
+    @ApiOperation(value = "Get Hibernate statistics for the current window")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("")
+    public HibernateStats getStats() {
+        return hibernateStatisticsService.getStats();
+    }
+
+    @ApiOperation(value = "Get Hibernate statistics for the window closed by the last reset")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/previous")
+    public HibernateStats getPrevious() {
+        return hibernateStatisticsService.getPrevious()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "statistics have not been reset"));
+    }
+
+    @ApiOperation(value = "Close the current window and start a new one; returns the closed window")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/reset")
+    public HibernateStats reset() {
+        return hibernateStatisticsService.reset();
+    }
+
+    @ApiOperation(value = "Turn Hibernate statistics on or off")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PutMapping("/enabled")
+    public HibernateStats setEnabled(
+            @ApiParam("true to collect statistics") @RequestParam boolean enabled) {
+        hibernateStatisticsService.setEnabled(enabled);
+        return hibernateStatisticsService.getStats();
+    }
+}
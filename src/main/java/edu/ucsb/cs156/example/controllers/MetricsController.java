@@ -0,0 +1,71 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.models.EndpointAllocation;
+import edu.ucsb.cs156.example.models.EndpointLatency;
+import edu.ucsb.cs156.example.models.RepositoryMethodStats;
+import edu.ucsb.cs156.example.services.AllocationMetricsService;
+import edu.ucsb.cs156.example.services.CacheStatsProvider;
+import edu.ucsb.cs156.example.services.EndpointMetricsService;
+import edu.ucsb.cs156.example.services.RepositoryMetricsService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Api(description = "Runtime metrics (admin only)")
+@RequestMapping("/api/admin/metrics")
+@RestController
+public class MetricsController extends ApiController {
+
+    @Autowired(required = false)
+    List<CacheStatsProvider> cacheStatsProviders = new ArrayList<>();
+
+    @Autowired
+    EndpointMetricsService endpointMetricsService;
+
+    @Autowired
+    RepositoryMetricsService repositoryMetricsService;
+
+    @Autowired
+    AllocationMetricsService allocationMetricsService;
+
+    @ApiOperation(value = "Get hit/miss counts for the in-memory caches")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/caches")
+    public List<CacheStats> caches() {
+        List<CacheStats> stats = new ArrayList<>();
+        cacheStatsProviders.forEach(provider -> stats.add(provider.getCacheStats()));
+        stats.sort(Comparator.comparing(CacheStats::getName));
+        return stats;
+    }
+
+    @ApiOperation(value = "Get latency percentiles, error and request counts per endpoint")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/endpoints")
+    public List<EndpointLatency> endpoints() {
+        return endpointMetricsService.getLatencies();
+    }
+
+    @ApiOperation(value = "Get call counts, latency percentiles and rows per repository method")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/repositories")
+    public List<RepositoryMethodStats> repositories() {
+        return repositoryMetricsService.getStats();
+    }
+
+    @ApiOperation(value = "Get bytes allocated and CPU time per request for each handler, most bytes first")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/allocation")
+    public List<EndpointAllocation> allocation() {
+        return allocationMetricsService.getAllocations();
+    }
+}
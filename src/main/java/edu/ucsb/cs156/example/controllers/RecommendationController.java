@@ -3,6 +3,7 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.Recommendation;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.services.RecommendationDeadlineService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -11,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,10 +22,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Api(description = "RecommendationRequest")
 @RequestMapping("/api/Recommendation")
@@ -34,6 +39,9 @@ public class RecommendationController extends ApiController {
    @Autowired
    RecommendationRepository recommendationRepository;
 
+   @Autowired
+   RecommendationDeadlineService recommendationDeadlineService;
+
    @ApiOperation(value = "List all recommendation requests")
    @PreAuthorize("hasRole('ROLE_USER')")
    @GetMapping("/all")
@@ -52,6 +60,18 @@ public class RecommendationController extends ApiController {
       return recommendation;
    }
 
+   @ApiOperation(value = "List recommendations that are not done and are needed within the given period, soonest first")
+   @PreAuthorize("hasRole('ROLE_USER')")
+   @GetMapping("/due")
+   public List<Recommendation> dueRecommendations(
+	   @ApiParam("within (ISO-8601 duration, e.g. P7D)") @RequestParam(defaultValue = "P7D") Duration within,
+	   @ApiParam("professorEmail (optional)") @RequestParam(required = false) String professorEmail) {
+      if (within.isNegative()) {
+         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "within must not be negative");
+      }
+      return recommendationDeadlineService.dueWithin(within, professorEmail);
+   }
+
    @ApiOperation(value = "Create a new recommendation")
    @PreAuthorize("hasRole('ROLE_ADMIN')")
    @PostMapping("/post")
@@ -75,6 +95,7 @@ public class RecommendationController extends ApiController {
       recommendation.setDone(done);
 
       Recommendation savedRecommendation = recommendationRepository.save(recommendation);
+      recommendationDeadlineService.upsert(savedRecommendation);
 
       return savedRecommendation;
    }
@@ -88,6 +109,7 @@ public class RecommendationController extends ApiController {
 	            .orElseThrow(() -> new EntityNotFoundException(Recommendation.class, id));
 
 	   recommendationRepository.delete(recommendation);
+	   recommendationDeadlineService.remove(id);
 	   return genericMessage("Recommendation with id %s deleted".formatted(id));
    }
 
@@ -109,6 +131,7 @@ public class RecommendationController extends ApiController {
       recommendation.setDone(incoming.getDone());
 
       recommendationRepository.save(recommendation);
+      recommendationDeadlineService.upsert(recommendation);
 
       return recommendation;
    }
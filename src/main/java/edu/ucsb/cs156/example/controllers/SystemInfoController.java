@@ -1,14 +1,20 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.models.StartupTimeline;
+import edu.ucsb.cs156.example.models.SystemHealth;
 import edu.ucsb.cs156.example.models.SystemInfo;
+import edu.ucsb.cs156.example.services.StartupTimelineService;
+import edu.ucsb.cs156.example.services.SystemHealthService;
 import edu.ucsb.cs156.example.services.SystemInfoService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Api(description = "System Information")
@@ -19,6 +25,12 @@ public class SystemInfoController extends ApiController {
     @Autowired
     private SystemInfoService systemInfoService;
 
+    @Autowired
+    private SystemHealthService systemHealthService;
+
+    @Autowired
+    private StartupTimelineService startupTimelineService;
+
     @ApiOperation(value = "Get global information about the application")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @GetMapping("")
@@ -26,4 +38,19 @@ public class SystemInfoController extends ApiController {
         return systemInfoService.getSystemInfo();
     }
 
-}
\ No newline at end of file
+    @ApiOperation(value = "Get memory, GC, thread, connection pool and cache health, as of the last snapshot")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/health")
+    public SystemHealth getSystemHealth() {
+        return systemHealthService.getSystemHealth();
+    }
+
+    @ApiOperation(value = "Get how long startup took and its slowest steps")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/startup")
+    public StartupTimeline getStartupTimeline(
+            @ApiParam("how many of the slowest steps to list") @RequestParam(defaultValue = "20") int top) {
+        return startupTimelineService.getStartupTimeline(top);
+    }
+
+}
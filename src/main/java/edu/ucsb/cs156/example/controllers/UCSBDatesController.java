@@ -3,6 +3,8 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.UCSBDateIndexService;
+import edu.ucsb.cs156.example.services.UCSBDateQuarterCache;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.RestController;
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Api(description = "UCSBDates")
 @RequestMapping("/api/ucsbdates")
@@ -35,6 +38,12 @@ public class UCSBDatesController extends ApiController {
     @Autowired
     UCSBDateRepository ucsbDateRepository;
 
+    @Autowired
+    UCSBDateIndexService ucsbDateIndexService;
+
+    @Autowired
+    UCSBDateQuarterCache ucsbDateQuarterCache;
+
     @ApiOperation(value = "List all ucsb dates")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
@@ -54,6 +63,31 @@ public class UCSBDatesController extends ApiController {
         return ucsbDate;
     }
 
+    @ApiOperation(value = "List the dates for one quarter")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/quarter")
+    public List<UCSBDate> datesForQuarter(
+            @ApiParam("quarterYYYYQ, e.g. 20222 for S22") @RequestParam String quarterYYYYQ) {
+        return ucsbDateQuarterCache.findAllByQuarterYYYYQ(quarterYYYYQ);
+    }
+
+    @ApiOperation(value = "List dates between start and end (inclusive), in order")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/range")
+    public List<UCSBDate> datesInRange(
+            @ApiParam("start (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @ApiParam("end (in iso format, e.g. YYYY-mm-ddTHH:MM:SS)") @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ucsbDateIndexService.between(start, end);
+    }
+
+    @ApiOperation(value = "List the next upcoming dates, in order")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/upcoming")
+    public List<UCSBDate> upcomingDates(
+            @ApiParam("count") @RequestParam(defaultValue = "10") int count) {
+        return ucsbDateIndexService.upcoming(count);
+    }
+
     @ApiOperation(value = "Create a new date")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
@@ -74,6 +108,8 @@ public class UCSBDatesController extends ApiController {
         ucsbDate.setLocalDateTime(localDateTime);
 
         UCSBDate savedUcsbDate = ucsbDateRepository.save(ucsbDate);
+        ucsbDateIndexService.upsert(savedUcsbDate);
+        ucsbDateQuarterCache.invalidate(quarterYYYYQ);
 
         return savedUcsbDate;
     }
@@ -87,6 +123,8 @@ public class UCSBDatesController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
 
         ucsbDateRepository.delete(ucsbDate);
+        ucsbDateIndexService.remove(id);
+        ucsbDateQuarterCache.invalidate(ucsbDate.getQuarterYYYYQ());
         return genericMessage("UCSBDate with id %s deleted".formatted(id));
     }
 
@@ -100,11 +138,15 @@ public class UCSBDatesController extends ApiController {
         UCSBDate ucsbDate = ucsbDateRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
 
+        String previousQuarterYYYYQ = ucsbDate.getQuarterYYYYQ();
         ucsbDate.setQuarterYYYYQ(incoming.getQuarterYYYYQ());
         ucsbDate.setName(incoming.getName());
         ucsbDate.setLocalDateTime(incoming.getLocalDateTime());
 
         ucsbDateRepository.save(ucsbDate);
+        ucsbDateIndexService.upsert(ucsbDate);
+        ucsbDateQuarterCache.invalidate(previousQuarterYYYYQ);
+        ucsbDateQuarterCache.invalidate(ucsbDate.getQuarterYYYYQ());
 
         return ucsbDate;
     }
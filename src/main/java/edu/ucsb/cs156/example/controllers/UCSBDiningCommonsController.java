@@ -2,13 +2,18 @@ package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.DiningCommonsMenu;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.DiningCommonsFilterService;
+import edu.ucsb.cs156.example.services.DiningMenuSnapshotService;
+import edu.ucsb.cs156.example.util.FlagIndex;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +23,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
 
 import javax.validation.Valid;
 
@@ -31,6 +39,12 @@ public class UCSBDiningCommonsController extends ApiController {
     @Autowired
     UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+    @Autowired
+    DiningMenuSnapshotService diningMenuSnapshotService;
+
+    @Autowired
+    DiningCommonsFilterService diningCommonsFilterService;
+
     @ApiOperation(value = "List all ucsb dining commons")
     @PreAuthorize("hasRole('ROLE_USER')")
     @GetMapping("/all")
@@ -50,6 +64,33 @@ public class UCSBDiningCommonsController extends ApiController {
         return commons;
     }
 
+    @ApiOperation(value = "Get the menu of a commons, grouped by station")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/menu")
+    public DiningCommonsMenu getMenu(
+            @ApiParam("code") @RequestParam String code) {
+        return diningMenuSnapshotService.getMenu(code);
+    }
+
+    @ApiOperation(value = "List the commons that have all (or any) of the given features")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/filter")
+    public List<UCSBDiningCommons> filterCommons(
+            @ApiParam("features: hasSackMeal, hasTakeOutMeal, hasDiningCam") @RequestParam(defaultValue = "") List<String> features,
+            @ApiParam("all or any") @RequestParam(defaultValue = "all") String match) {
+        FlagIndex.Match parsedMatch;
+        try {
+            parsedMatch = FlagIndex.Match.valueOf(match.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "match must be all or any");
+        }
+        try {
+            return diningCommonsFilterService.filter(features, parsedMatch);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @ApiOperation(value = "Create a new commons")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
@@ -74,6 +115,7 @@ public class UCSBDiningCommonsController extends ApiController {
         commons.setLongitude(longitude);
 
         UCSBDiningCommons savedCommons = ucsbDiningCommonsRepository.save(commons);
+        diningCommonsFilterService.upsert(savedCommons);
 
         return savedCommons;
     }
@@ -87,6 +129,7 @@ public class UCSBDiningCommonsController extends ApiController {
                 .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
 
         ucsbDiningCommonsRepository.delete(commons);
+        diningCommonsFilterService.remove(code);
         return genericMessage("UCSBDiningCommons with id %s deleted".formatted(code));
     }
 
@@ -109,6 +152,7 @@ public class UCSBDiningCommonsController extends ApiController {
         commons.setLongitude(incoming.getLongitude());
 
         ucsbDiningCommonsRepository.save(commons);
+        diningCommonsFilterService.upsert(commons);
 
         return commons;
     }
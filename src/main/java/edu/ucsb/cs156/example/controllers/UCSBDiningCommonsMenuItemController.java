@@ -3,6 +3,7 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.DiningMenuSnapshotService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -29,6 +30,9 @@ import javax.validation.Valid;
 public class UCSBDiningCommonsMenuItemController extends ApiController {
     @Autowired
     UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+    @Autowired
+    DiningMenuSnapshotService diningMenuSnapshotService;
     
     @ApiOperation(value = "List all ucsb dining commons menu items")
     @PreAuthorize("hasRole('ROLE_USER')")
@@ -65,6 +69,7 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
         menuItem.setStation(station);
 
         UCSBDiningCommonsMenuItem savedMenuItem = ucsbDiningCommonsMenuItemRepository.save(menuItem);
+        diningMenuSnapshotService.upsert(savedMenuItem);
         return savedMenuItem;
 
     }
@@ -80,6 +85,7 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
             .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
 
         ucsbDiningCommonsMenuItemRepository.delete(menuItem);
+        diningMenuSnapshotService.remove(id);
         return genericMessage("UCSBDiningCommonsMenuItem with id %s deleted".formatted(id));
     }
 
@@ -98,6 +104,7 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
         menuItem.setStation(incoming.getStation());
 
         ucsbDiningCommonsMenuItemRepository.save(menuItem);
+        diningMenuSnapshotService.upsert(menuItem);
         return menuItem;
     }
 
@@ -0,0 +1,511 @@
+package edu.ucsb.cs156.example.datagen;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.entities.User;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills every entity table with synthetic rows shaped like production data:
+ * a few hundred menu items whose reviews follow a Zipf distribution, help
+ * requests clustered in office-hour windows, article explanations with a
+ * long tail of lengths, and so on.
+ *
+ * Row counts are multiplied by the scale factor (1.0 is about 240,000 rows).
+ * On an empty database the same seed and scale always produce the same rows;
+ * each table draws from its own random stream, so changing one table's size
+ * does not change the others.  Rows are added to what is already there, and
+ * helprequestrollup is filled from the generated help requests.  That makes
+ * the rows depend on what is there too: emails and organization codes, which
+ * must be unique, continue after the synthetic ones already in the table, and
+ * reviews are spread over every menu item, not just the new ones.
+ *
+ * Rows are written with JDBC batch inserts, using the table and column names
+ * Hibernate maps the entities to, so the generator works on H2 and
+ * PostgreSQL alike.  Text longer than its column is cut to fit.  On PostgreSQL, <code>reWriteBatchedInserts=true</code>
+ * in the JDBC URL makes the batches several times faster.
+ */
+@Slf4j
+public class SyntheticDataGenerator {
+
+  static final int BATCH_SIZE = 1000;
+
+  // all generated times are relative to this, not to the clock
+  static final LocalDateTime EPOCH = LocalDateTime.of(2022, 9, 22, 0, 0);
+
+  static final int USERS = 200;
+  static final int MENU_ITEMS = 300;
+  static final int MENU_ITEM_REVIEWS = 200_000;
+  static final int HELP_REQUESTS = 20_000;
+  static final int ARTICLES = 5_000;
+  static final int RECOMMENDATIONS = 2_000;
+  static final int UCSB_DATES = 1_000;
+  static final int UCSB_ORGANIZATIONS = 200;
+
+  // Zipf exponent for menu item popularity
+  static final double ITEM_SKEW = 1.1;
+
+  private static final String[][] DINING_COMMONS = {
+      { "carrillo", "Carrillo", "34.409953", "-119.85277" },
+      { "de-la-guerra", "De La Guerra", "34.409811", "-119.845026" },
+      { "ortega", "Ortega", "34.410987", "-119.84709" },
+      { "portola", "Portola", "34.417723", "-119.867427" },
+  };
+  private static final String[] STATIONS = { "Entrees", "Grill", "Pizza", "Salad Bar", "Vegan", "Soups", "Desserts" };
+  private static final String[] DISH_ADJECTIVES = { "Roasted", "Spicy", "Grilled", "Baked", "Crispy", "Braised",
+      "Lemon", "Garlic", "Smoked", "Teriyaki", "Pesto", "Chipotle" };
+  private static final String[] DISHES = { "Chicken", "Tofu", "Salmon", "Pasta", "Rice Bowl", "Burger", "Tacos",
+      "Curry", "Pizza", "Salad", "Soup", "Cookies" };
+  private static final String[] GIVEN_NAMES = { "Chris", "Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey",
+      "Riley", "Jamie", "Avery", "Quinn", "Drew" };
+  private static final String[] FAMILY_NAMES = { "Gaucho", "Nguyen", "Garcia", "Smith", "Kim", "Patel", "Lopez",
+      "Chen", "Johnson", "Martinez", "Lee", "Brown" };
+  private static final String[] DATE_NAMES = { "First day of classes", "Last day of classes", "Finals week",
+      "Pass 1 begins", "Pass 2 begins", "Pass 3 begins", "Drop deadline", "Grades due", "Noon on Monday" };
+  private static final String[] WORDS = { "the", "test", "fails", "when", "we", "run", "it", "on", "GitHub",
+      "actions", "but", "passes", "locally", "and", "mutation", "coverage", "is", "low", "for", "controller",
+      "frontend", "storybook", "component", "needs", "review", "please", "help", "with", "merge", "conflict" };
+  private static final String[] ORG_WORDS = { "Student", "Engineering", "Computing", "Science", "Society",
+      "Association", "Club", "Council", "Women", "Robotics", "Gaming", "Hackers" };
+
+  // weights for 1 to 5 stars
+  private static final double[] STAR_WEIGHTS = { 0.05, 0.08, 0.17, 0.35, 0.35 };
+
+  // office hours start at these times of day, with these weights
+  private static final int[] OFFICE_HOUR_STARTS = { 10, 14, 18 };
+  private static final double[] OFFICE_HOUR_WEIGHTS = { 0.2, 0.3, 0.5 };
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final SessionFactoryImplementor sessionFactory;
+
+  public SyntheticDataGenerator(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+      PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+  }
+
+  /**
+   * Adds the rows for <code>scale</code> and <code>seed</code>, and returns
+   * the number of rows added to each table.
+   */
+  public Map<String, Integer> generate(double scale, long seed) {
+    if (!(scale > 0)) {
+      throw new IllegalArgumentException("scale must be positive, was " + scale);
+    }
+    Map<String, Integer> added = new LinkedHashMap<>();
+    long start = System.nanoTime();
+
+    List<String> emails = users(count(USERS, scale), random(seed, 1), added);
+    diningCommons(added);
+    List<Long> menuItemIds = menuItems(count(MENU_ITEMS, scale), random(seed, 2), added);
+    menuItemReviews(count(MENU_ITEM_REVIEWS, scale), random(seed, 3), menuItemIds, emails, added);
+    helpRequests(count(HELP_REQUESTS, scale), random(seed, 4), emails, added);
+    articles(count(ARTICLES, scale), random(seed, 5), emails, added);
+    recommendations(count(RECOMMENDATIONS, scale), random(seed, 6), emails, added);
+    ucsbDates(count(UCSB_DATES, scale), random(seed, 7), added);
+    ucsbOrganizations(count(UCSB_ORGANIZATIONS, scale), random(seed, 8), added);
+
+    log.info("generated {} in {} ms (scale {}, seed {})", added,
+        (System.nanoTime() - start) / 1_000_000, scale, seed);
+    return added;
+  }
+
+  static int count(int base, double scale) {
+    return (int) Math.max(1, Math.round(base * scale));
+  }
+
+  private static Random random(long seed, int stream) {
+    return new Random(seed * 1_000_003L + stream);
+  }
+
+  private List<String> users(int n, Random random, Map<String, Integer> added) {
+    List<String> emails = new ArrayList<>(n);
+    List<Object[]> rows = new ArrayList<>(n);
+    Insert insert = new Insert(User.class, "email", "googleSub", "pictureUrl",
+        "fullName", "givenName", "familyName", "emailVerified", "locale", "hostedDomain", "admin");
+    // emails continue after the ones already generated, since they must be unique
+    Integer existing = jdbcTemplate.queryForObject("select count(*) from " + insert.table
+        + " where " + insert.columns.get(0) + " like '%.syn%@ucsb.edu'", Integer.class);
+    int first = existing == null ? 0 : existing;
+    for (int i = first; i < first + n; i++) {
+      String given = pick(random, GIVEN_NAMES);
+      String family = pick(random, FAMILY_NAMES);
+      String email = "%s.%s.syn%05d@ucsb.edu".formatted(given.toLowerCase(), family.toLowerCase(), i);
+      emails.add(email);
+      rows.add(new Object[] { email, Long.toString(100_000_000_000L + random.nextInt(1_000_000_000)),
+          "https://lh3.googleusercontent.com/a/" + i, given + " " + family, given, family, true, "en",
+          "ucsb.edu", random.nextDouble() < 0.01 });
+    }
+    insert.run(rows, added);
+    return emails;
+  }
+
+  private void diningCommons(Map<String, Integer> added) {
+    // a fixed set, added only where missing
+    Insert insert = new Insert(UCSBDiningCommons.class, "code", "name", "hasSackMeal", "hasTakeOutMeal",
+        "hasDiningCam", "latitude", "longitude");
+    List<Object[]> rows = new ArrayList<>();
+    for (String[] commons : DINING_COMMONS) {
+      Integer existing = jdbcTemplate.queryForObject(
+          "select count(*) from " + insert.table + " where " + insert.columns.get(0) + " = ?", Integer.class,
+          commons[0]);
+      if (existing == null || existing == 0) {
+        rows.add(new Object[] { commons[0], commons[1], !commons[0].equals("portola"), true, true,
+            Double.parseDouble(commons[2]), Double.parseDouble(commons[3]) });
+      }
+    }
+    insert.run(rows, added);
+  }
+
+  private List<Long> menuItems(int n, Random random, Map<String, Integer> added) {
+    Insert insert = new Insert(UCSBDiningCommonsMenuItem.class, "diningCommonsCode", "name", "station");
+    List<Object[]> rows = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      rows.add(new Object[] { DINING_COMMONS[random.nextInt(DINING_COMMONS.length)][0],
+          pick(random, DISH_ADJECTIVES) + " " + pick(random, DISHES), pick(random, STATIONS) });
+    }
+    insert.run(rows, added);
+    List<Long> ids = jdbcTemplate.queryForList(
+        "select " + insert.idColumn + " from " + insert.table + " order by " + insert.idColumn, Long.class);
+    // popularity should not follow id order
+    Collections.shuffle(ids, random);
+    return ids;
+  }
+
+  private void menuItemReviews(int n, Random random, List<Long> menuItemIds, List<String> emails,
+      Map<String, Integer> added) {
+    Insert insert = new Insert(MenuItemReview.class, "itemId", "reviewerEmail", "stars", "dateReviewed",
+        "comments");
+    double[] popularity = zipf(menuItemIds.size(), ITEM_SKEW);
+    List<Object[]> rows = new ArrayList<>(Math.min(n, BATCH_SIZE));
+    for (int i = 0; i < n; i++) {
+      int stars = weighted(random, STAR_WEIGHTS) + 1;
+      rows.add(new Object[] { menuItemIds.get(sample(random, popularity)), pick(random, emails), stars,
+          timestamp(EPOCH.minusMinutes(random.nextInt(2 * 365 * 24 * 60))),
+          random.nextDouble() < 0.3 ? null : sentence(random, 3 + random.nextInt(25)) });
+      if (rows.size() == BATCH_SIZE) {
+        insert.run(rows, added);
+        rows.clear();
+      }
+    }
+    insert.run(rows, added);
+  }
+
+  private void helpRequests(int n, Random random, List<String> emails, Map<String, Integer> added) {
+    Insert insert = new Insert(HelpRequest.class, "requesterEmail", "teamId", "tableOrBreakoutRoom",
+        "requestTime", "explanation", "solved");
+    Insert rollupInsert = new Insert(HelpRequestRollup.class, "granularity", "bucketStart", "teamId",
+        "tableOrBreakoutRoom", "requestCount", "solvedCount");
+    Map<List<Object>, long[]> rollups = new HashMap<>();
+    List<Object[]> rows = new ArrayList<>(Math.min(n, BATCH_SIZE));
+    for (int i = 0; i < n; i++) {
+      LocalDateTime requestTime = officeHourTime(random);
+      String section = new String[] { "5pm", "6pm", "7pm" }[random.nextInt(3)];
+      String teamId = "f22-" + section + "-" + (1 + random.nextInt(4));
+      String room = random.nextBoolean() ? "Table " + (1 + random.nextInt(12))
+          : "Breakout Room " + (1 + random.nextInt(8));
+      // older requests are more likely to be solved
+      long ageDays = ChronoUnit.DAYS.between(requestTime, EPOCH);
+      boolean solved = random.nextDouble() < Math.min(0.98, 0.5 + ageDays / 60.0);
+      rows.add(new Object[] { pick(random, emails), teamId, room, timestamp(requestTime),
+          sentence(random, 5 + random.nextInt(30)), solved });
+
+      for (HelpRequestRollup.Granularity granularity : HelpRequestRollup.Granularity.values()) {
+        LocalDateTime bucketStart = requestTime.truncatedTo(
+            granularity == HelpRequestRollup.Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+        long[] counts = rollups.computeIfAbsent(List.of(granularity.name(), bucketStart, teamId, room),
+            k -> new long[2]);
+        counts[0]++;
+        counts[1] += solved ? 1 : 0;
+      }
+      if (rows.size() == BATCH_SIZE) {
+        insert.run(rows, added);
+        rows.clear();
+      }
+    }
+    insert.run(rows, added);
+
+    List<Object[]> rollupRows = new ArrayList<>(rollups.size());
+    rollups.forEach((key, counts) -> rollupRows.add(new Object[] { key.get(0),
+        timestamp((LocalDateTime) key.get(1)), key.get(2), key.get(3), counts[0], counts[1] }));
+    // HashMap order is not reproducible across JVMs; insert in key order
+    rollupRows.sort((a, b) -> {
+      int c = ((Timestamp) a[1]).compareTo((Timestamp) b[1]);
+      for (int k : new int[] { 0, 2, 3 }) {
+        if (c != 0) {
+          return c;
+        }
+        c = ((String) a[k]).compareTo((String) b[k]);
+      }
+      return c;
+    });
+    // buckets that already exist (from an earlier run) are incremented, the rest inserted
+    List<String> c = rollupInsert.columns;
+    String increment = "update " + rollupInsert.table + " set " + c.get(4) + " = " + c.get(4) + " + ?, "
+        + c.get(5) + " = " + c.get(5) + " + ? where " + c.get(0) + " = ? and " + c.get(1) + " = ? and "
+        + c.get(2) + " = ? and " + c.get(3) + " = ?";
+    List<Object[]> newRollupRows = new ArrayList<>();
+    for (int from = 0; from < rollupRows.size(); from += BATCH_SIZE) {
+      List<Object[]> batch = rollupRows.subList(from, Math.min(from + BATCH_SIZE, rollupRows.size()));
+      List<Object[]> args = new ArrayList<>(batch.size());
+      batch.forEach(r -> args.add(new Object[] { r[4], r[5], r[0], r[1], r[2], r[3] }));
+      int[] updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(increment, args));
+      for (int i = 0; i < batch.size(); i++) {
+        if (updated[i] == 0) {
+          newRollupRows.add(batch.get(i));
+        }
+      }
+    }
+    rollupInsert.run(newRollupRows, added);
+  }
+
+  private void articles(int n, Random random, List<String> emails, Map<String, Integer> added) {
+    Insert insert = new Insert(Article.class, "title", "url", "explanation", "email", "dateAdded");
+    List<Object[]> rows = new ArrayList<>(Math.min(n, BATCH_SIZE));
+    for (int i = 0; i < n; i++) {
+      // log-normal word count: median about 20 words, a few in the hundreds
+      int words = (int) Math.min(2_000, Math.max(1, Math.exp(3.0 + 0.8 * random.nextGaussian())));
+      rows.add(new Object[] { capitalize(sentence(random, 3 + random.nextInt(6))),
+          "https://example.org/articles/" + i, sentence(random, words), pick(random, emails),
+          timestamp(EPOCH.minusMinutes(random.nextInt(365 * 24 * 60))) });
+      if (rows.size() == BATCH_SIZE) {
+        insert.run(rows, added);
+        rows.clear();
+      }
+    }
+    insert.run(rows, added);
+  }
+
+  private void recommendations(int n, Random random, List<String> emails, Map<String, Integer> added) {
+    Insert insert = new Insert(Recommendation.class, "requesterEmail", "professorEmail", "explanation",
+        "dateRequested", "dateNeeded", "done");
+    List<Object[]> rows = new ArrayList<>(Math.min(n, BATCH_SIZE));
+    for (int i = 0; i < n; i++) {
+      LocalDateTime requested = EPOCH.minusMinutes(random.nextInt(180 * 24 * 60));
+      LocalDateTime needed = requested.plusDays(7 + random.nextInt(54));
+      boolean done = needed.isBefore(EPOCH) ? random.nextDouble() < 0.9 : random.nextDouble() < 0.2;
+      rows.add(new Object[] { pick(random, emails), "professor" + random.nextInt(40) + "@ucsb.edu",
+          sentence(random, 5 + random.nextInt(20)), timestamp(requested), timestamp(needed), done });
+      if (rows.size() == BATCH_SIZE) {
+        insert.run(rows, added);
+        rows.clear();
+      }
+    }
+    insert.run(rows, added);
+  }
+
+  private void ucsbDates(int n, Random random, Map<String, Integer> added) {
+    Insert insert = new Insert(UCSBDate.class, "quarterYYYYQ", "name", "localDateTime");
+    List<Object[]> rows = new ArrayList<>(Math.min(n, BATCH_SIZE));
+    for (int i = 0; i < n; i++) {
+      int year = 2010 + random.nextInt(15);
+      int quarter = 1 + random.nextInt(4);
+      LocalDateTime quarterStart = LocalDateTime.of(year, 1 + (quarter - 1) * 3, 1, 0, 0);
+      rows.add(new Object[] { "%d%d".formatted(year, quarter), pick(random, DATE_NAMES),
+          timestamp(quarterStart.plusMinutes(random.nextInt(90 * 24 * 60))) });
+      if (rows.size() == BATCH_SIZE) {
+        insert.run(rows, added);
+        rows.clear();
+      }
+    }
+    insert.run(rows, added);
+  }
+
+  private void ucsbOrganizations(int n, Random random, Map<String, Integer> added) {
+    Insert insert = new Insert(UCSBOrganization.class, "orgCode", "orgTranslationShort", "orgTranslation",
+        "inactive");
+    // codes continue after the ones already generated, so generating twice does not collide
+    Integer existing = jdbcTemplate.queryForObject("select count(*) from " + insert.table
+        + " where " + insert.columns.get(0) + " like 'SYN%'", Integer.class);
+    int first = existing == null ? 0 : existing;
+    List<Object[]> rows = new ArrayList<>(Math.min(n, BATCH_SIZE));
+    for (int i = first; i < first + n; i++) {
+      String name = pick(random, ORG_WORDS) + " " + pick(random, ORG_WORDS) + " " + pick(random, ORG_WORDS);
+      rows.add(new Object[] { "SYN%05d".formatted(i), name.length() > 20 ? name.substring(0, 20) : name,
+          name + " at UCSB", random.nextDouble() < 0.1 });
+      if (rows.size() == BATCH_SIZE) {
+        insert.run(rows, added);
+        rows.clear();
+      }
+    }
+    insert.run(rows, added);
+  }
+
+  /**
+   * A time during office hours in the ten weeks before EPOCH: Monday to
+   * Thursday, in one of three two-hour windows, with most requests in the
+   * first half hour of a window.
+   */
+  static LocalDateTime officeHourTime(Random random) {
+    LocalDate day;
+    do {
+      day = EPOCH.toLocalDate().minusDays(1 + random.nextInt(70));
+    } while (day.getDayOfWeek().compareTo(DayOfWeek.THURSDAY) > 0);
+    int startHour = OFFICE_HOUR_STARTS[weighted(random, OFFICE_HOUR_WEIGHTS)];
+    // exponential, mean 30 minutes, cut off at the end of the window
+    int minute = (int) Math.min(119, -30 * Math.log(1 - random.nextDouble()));
+    return day.atTime(startHour, 0).plusMinutes(minute).plusSeconds(random.nextInt(60));
+  }
+
+  // cumulative Zipf probabilities for ranks 1..n
+  static double[] zipf(int n, double exponent) {
+    double[] cumulative = new double[n];
+    double total = 0;
+    for (int rank = 1; rank <= n; rank++) {
+      total += 1 / Math.pow(rank, exponent);
+      cumulative[rank - 1] = total;
+    }
+    for (int i = 0; i < n; i++) {
+      cumulative[i] /= total;
+    }
+    return cumulative;
+  }
+
+  static int sample(Random random, double[] cumulative) {
+    int index = Arrays.binarySearch(cumulative, random.nextDouble());
+    return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+  }
+
+  private static int weighted(Random random, double[] weights) {
+    double r = random.nextDouble();
+    for (int i = 0; i < weights.length - 1; i++) {
+      r -= weights[i];
+      if (r < 0) {
+        return i;
+      }
+    }
+    return weights.length - 1;
+  }
+
+  private static String sentence(Random random, int words) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        sb.append(' ');
+      }
+      sb.append(pick(random, WORDS));
+    }
+    return sb.toString();
+  }
+
+  private static String capitalize(String s) {
+    return s.isEmpty() ? s : Character.toUpperCase(s.charAt(0)) + s.substring(1);
+  }
+
+  private static <T> T pick(Random random, T[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private static <T> T pick(Random random, List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+
+  private static Timestamp timestamp(LocalDateTime time) {
+    return Timestamp.valueOf(time);
+  }
+
+  // lower-cased column name to length, for the table's varchar columns
+  private Map<String, Integer> varcharSizes(String table) {
+    return jdbcTemplate.execute((ConnectionCallback<Map<String, Integer>>) connection -> {
+      DatabaseMetaData metaData = connection.getMetaData();
+      Map<String, Integer> sizes = new HashMap<>();
+      // H2 keeps unquoted names in upper case, PostgreSQL in lower case
+      for (String name : List.of(table.toUpperCase(), table.toLowerCase())) {
+        try (ResultSet columns = metaData.getColumns(null, null, name, null)) {
+          while (columns.next()) {
+            if (columns.getInt("DATA_TYPE") == Types.VARCHAR) {
+              sizes.put(columns.getString("COLUMN_NAME").toLowerCase(), columns.getInt("COLUMN_SIZE"));
+            }
+          }
+        }
+        if (!sizes.isEmpty()) {
+          break;
+        }
+      }
+      return sizes;
+    });
+  }
+
+  /**
+   * A batch insert into the table an entity is mapped to, naming columns as
+   * Hibernate's naming strategy does.
+   */
+  private class Insert {
+    final String table;
+    final String idColumn;
+    final List<String> columns = new ArrayList<>();
+    final String sql;
+    final int[] maxLengths;
+
+    Insert(Class<?> entity, String... properties) {
+      AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory.getMetamodel()
+          .entityPersister(entity);
+      table = persister.getTableName();
+      idColumn = persister.getIdentifierColumnNames()[0];
+      for (String property : properties) {
+        columns.add(property.equals(persister.getIdentifierPropertyName())
+            ? idColumn
+            : persister.getPropertyColumnNames(property)[0]);
+      }
+      sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+          + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+      Map<String, Integer> sizes = varcharSizes(table);
+      maxLengths = columns.stream().mapToInt(c -> sizes.getOrDefault(c.toLowerCase(), Integer.MAX_VALUE)).toArray();
+    }
+
+    void run(List<Object[]> rows, Map<String, Integer> added) {
+      if (rows.isEmpty()) {
+        added.putIfAbsent(table, 0);
+        return;
+      }
+      for (Object[] row : rows) {
+        for (int i = 0; i < row.length; i++) {
+          if (row[i] instanceof String && ((String) row[i]).length() > maxLengths[i]) {
+            row[i] = ((String) row[i]).substring(0, maxLengths[i]);
+          }
+        }
+      }
+      for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+        List<Object[]> batch = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+      }
+      added.merge(table, rows.size(), Integer::sum);
+    }
+  }
+}
@@ -14,7 +14,7 @@ import javax.persistence.GeneratedValue;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity(name = "helprequest")
 public class HelpRequest {
     @Id
@@ -0,0 +1,47 @@
+package edu.ucsb.cs156.example.entities;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Help request counters for one (granularity, bucket, team, room).
+ * Maintained incrementally by HelpRequestRollupService.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "helprequestrollup")
+@Table(uniqueConstraints = @UniqueConstraint(name = "helprequestrollup_bucket_uk",
+    columnNames = { "granularity", "bucketStart", "teamId", "tableOrBreakoutRoom" }))
+public class HelpRequestRollup {
+
+  public enum Granularity {
+    HOUR, DAY
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long id;
+
+  @Enumerated(EnumType.STRING)
+  private Granularity granularity;
+  private LocalDateTime bucketStart;
+  private String teamId;
+  private String tableOrBreakoutRoom;
+  private long requestCount;
+  private long solvedCount;
+}
@@ -0,0 +1,57 @@
+package edu.ucsb.cs156.example.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One HTTP session, shared by all nodes.  Written by SharedSessionRepository;
+ * times are epoch milliseconds, and expiresAt is indexed for the sweeper.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "httpsession")
+@Table(indexes = @Index(name = "httpsession_expires_at_idx", columnList = "expiresAt"))
+public class HttpSessionRecord implements Persistable<String> {
+  @Id
+  private String id;
+  private String principalName;
+  private long creationTime;
+  private long lastAccessedTime;
+  private int maxInactiveSeconds;
+  private long expiresAt;
+
+  // encoded by SessionAttributeCodec
+  @Column(length = 1048576)
+  private byte[] attributes;
+
+  // lets save() insert new sessions without selecting them first
+  @Transient
+  @Builder.Default
+  private boolean newRecord = true;
+
+  @Override
+  public boolean isNew() {
+    return newRecord;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    newRecord = false;
+  }
+}
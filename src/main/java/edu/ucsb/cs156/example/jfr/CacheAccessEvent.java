@@ -0,0 +1,41 @@
+package edu.ucsb.cs156.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A lookup in one of the in-memory caches that report to
+ * /api/admin/metrics/caches.
+ */
+@Name("edu.ucsb.cs156.example.CacheAccess")
+@Label("Cache Access")
+@Category({ "UCSB Example", "Cache" })
+@Description("A lookup in an in-memory cache")
+@Enabled(false)
+@StackTrace(false)
+public class CacheAccessEvent extends Event {
+
+  @Label("Cache")
+  public String cache;
+
+  @Label("Hit")
+  public boolean hit;
+
+  /**
+   * Commits an event if cache access events are being recorded; otherwise
+   * does nothing, and the JIT removes the allocation.
+   */
+  public static void record(String cache, boolean hit) {
+    CacheAccessEvent event = new CacheAccessEvent();
+    if (event.isEnabled()) {
+      event.cache = cache;
+      event.hit = hit;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package edu.ucsb.cs156.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a controller handler method, emitted by LoggingAspect.
+ *
+ * Off unless the recording's settings enable it, e.g. with
+ * <code>jfr/ucsb-example.jfc</code>.
+ */
+@Name("edu.ucsb.cs156.example.ControllerInvocation")
+@Label("Controller Invocation")
+@Category({ "UCSB Example", "Web" })
+@Description("A call to a controller handler method")
+@Enabled(false)
+@StackTrace(false)
+public class ControllerInvocationEvent extends Event {
+
+  @Label("Handler")
+  @Description("Controller class and method, e.g. UCSBDatesController.allUCSBDates")
+  public String handler;
+
+  @Label("Endpoint")
+  @Description("Mapped HTTP method and path, e.g. GET /api/ucsbdates/all")
+  public String endpoint;
+
+  @Label("HTTP Method")
+  public String httpMethod;
+
+  @Label("Status")
+  @Description("Response status; 0 if the handler threw and the status is decided by an exception handler")
+  public int status;
+
+  @Label("Exception")
+  @Description("Class of the exception the handler threw, if any")
+  public String exception;
+}
@@ -0,0 +1,33 @@
+package edu.ucsb.cs156.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a Spring Data repository method, emitted by
+ * RepositoryMetricsAspect.
+ */
+@Name("edu.ucsb.cs156.example.RepositoryCall")
+@Label("Repository Call")
+@Category({ "UCSB Example", "Database" })
+@Description("A call to a Spring Data repository method")
+@Enabled(false)
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+  @Label("Method")
+  @Description("Repository interface and method, e.g. UserRepository.findByEmail")
+  public String method;
+
+  @Label("Rows")
+  @Description("Rows returned, or changed by a @Modifying query")
+  public long rows;
+
+  @Label("Failed")
+  public boolean failed;
+}
@@ -0,0 +1,44 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * The menu of one dining commons, grouped by station.  Immutable: menus are
+ * shared by every request that reads the snapshot, so the lists are
+ * unmodifiable copies.
+ */
+@Value
+public class DiningCommonsMenu {
+  String diningCommonsCode;
+  List<Station> stations;
+
+  @Builder
+  public DiningCommonsMenu(String diningCommonsCode, List<Station> stations) {
+    this.diningCommonsCode = diningCommonsCode;
+    this.stations = List.copyOf(stations);
+  }
+
+  @Value
+  public static class Station {
+    String station;
+    List<Item> items;
+
+    @Builder
+    public Station(String station, List<Item> items) {
+      this.station = station;
+      this.items = List.copyOf(items);
+    }
+  }
+
+  @Value
+  @AllArgsConstructor
+  @Builder
+  public static class Item {
+    long id;
+    String name;
+  }
+}
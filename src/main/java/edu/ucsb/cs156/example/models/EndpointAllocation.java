@@ -0,0 +1,29 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class EndpointAllocation {
+  private String handler;
+  private String endpoint;
+  private long count;
+  private long bytes;
+  private long maxBytes;
+  private long cpuMicros;
+
+  public long getBytesPerRequest() {
+    return count == 0 ? 0 : bytes / count;
+  }
+
+  public double getCpuMicrosPerRequest() {
+    return count == 0 ? 0.0 : (double) cpuMicros / count;
+  }
+}
@@ -0,0 +1,26 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class EndpointLatency {
+  private String endpoint;
+  private String handler;
+  private long count;
+  private long errors;
+  private double requestsPerSecond;
+  private double meanMicros;
+  private long p50Micros;
+  private long p90Micros;
+  private long p99Micros;
+  private long p999Micros;
+  private long maxMicros;
+}
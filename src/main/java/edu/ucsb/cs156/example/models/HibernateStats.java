@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Hibernate statistics for one window, from windowStart (the last reset) to
+ * windowEnd.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class HibernateStats {
+  private boolean enabled;
+  private Instant windowStart;
+  private Instant windowEnd;
+
+  private long sessionOpenCount;
+  private long sessionCloseCount;
+  private long transactionCount;
+  private long successfulTransactionCount;
+  private long connectCount;
+  private long prepareStatementCount;
+  private long flushCount;
+
+  private long entityLoadCount;
+  private long entityFetchCount;
+  private long entityInsertCount;
+  private long entityUpdateCount;
+  private long entityDeleteCount;
+  private long collectionLoadCount;
+  private long collectionFetchCount;
+  private long optimisticFailureCount;
+
+  private long queryExecutionCount;
+  private long queryExecutionMaxTimeMillis;
+  private String queryExecutionMaxTimeQuery;
+  private long queryPlanCacheHitCount;
+  private long queryPlanCacheMissCount;
+
+  private long secondLevelCacheHitCount;
+  private long secondLevelCacheMissCount;
+  private long secondLevelCachePutCount;
+  private List<CacheRegion> cacheRegions;
+
+  private List<Query> slowestQueries;
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor(access = AccessLevel.PROTECTED)
+  @Builder
+  public static class CacheRegion {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long elementCountInMemory;
+  }
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor(access = AccessLevel.PROTECTED)
+  @Builder
+  public static class Query {
+    private String query;
+    private long executionCount;
+    private long rowCount;
+    private long totalTimeMillis;
+    private double avgTimeMillis;
+    private long maxTimeMillis;
+  }
+}
@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class RepositoryMethodStats {
+  private String method;
+  private long count;
+  private long errors;
+  private long rows;
+  private long maxRows;
+  private double meanMicros;
+  private long p50Micros;
+  private long p90Micros;
+  private long p99Micros;
+  private long p999Micros;
+  private long maxMicros;
+  private long totalMillis;
+
+  public double getMeanRows() {
+    return count == 0 ? 0.0 : (double) rows / count;
+  }
+}
@@ -0,0 +1,63 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Where the time went while the application started, from the steps that
+ * Spring recorded with BufferingApplicationStartup.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class StartupTimeline {
+  // false when the application was not started with BufferingApplicationStartup
+  private boolean recorded;
+  private Instant startedAt;
+  // from JVM start, and from SpringApplication.run, until the context was ready
+  private long jvmMillis;
+  private long applicationMillis;
+  private int stepCount;
+
+  // ordered by selfMillis, descending
+  private List<Step> slowestSteps;
+  // ordered by totalMillis, descending
+  private List<StepTotal> stepTotals;
+
+  /**
+   * One recorded step, e.g. <code>spring.beans.instantiate</code> with tag
+   * <code>beanName=entityManagerFactory</code>.  selfMillis leaves out the
+   * time spent in nested steps.
+   */
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor(access = AccessLevel.PROTECTED)
+  @Builder
+  public static class Step {
+    private String name;
+    private String tags;
+    private long durationMillis;
+    private long selfMillis;
+  }
+
+  /**
+   * All steps with the same name, e.g. every <code>spring.beans.instantiate</code>.
+   */
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor(access = AccessLevel.PROTECTED)
+  @Builder
+  public static class StepTotal {
+    private String name;
+    private int count;
+    private long totalMillis;
+    private long selfMillis;
+  }
+}
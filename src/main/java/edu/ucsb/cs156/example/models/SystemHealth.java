@@ -0,0 +1,65 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Runtime health of this node at takenAt: memory, garbage collection,
+ * threads, the connection pool and the in-memory caches.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class SystemHealth {
+  private Instant takenAt;
+  private long uptimeMillis;
+  private int availableProcessors;
+  private double systemLoadAverage;
+
+  private long heapUsedBytes;
+  private long heapCommittedBytes;
+  private long heapMaxBytes;
+  private long nonHeapUsedBytes;
+  private long nonHeapCommittedBytes;
+
+  private List<GarbageCollector> garbageCollectors;
+
+  private int threadCount;
+  private int daemonThreadCount;
+  private int peakThreadCount;
+
+  // null when the application does not use a Hikari pool
+  private ConnectionPool connectionPool;
+
+  private List<CacheStats> caches;
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor(access = AccessLevel.PROTECTED)
+  @Builder
+  public static class GarbageCollector {
+    private String name;
+    private long collections;
+    private long collectionMillis;
+  }
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor(access = AccessLevel.PROTECTED)
+  @Builder
+  public static class ConnectionPool {
+    private String name;
+    private int active;
+    private int idle;
+    private int waiting;
+    private int total;
+    private int maximum;
+  }
+}
@@ -6,4 +6,5 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long> {
-}
\ No newline at end of file
+  Iterable<HelpRequest> findAllBySolved(boolean solved);
+}
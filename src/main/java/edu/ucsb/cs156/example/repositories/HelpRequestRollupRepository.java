@@ -0,0 +1,33 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface HelpRequestRollupRepository extends CrudRepository<HelpRequestRollup, Long> {
+  Iterable<HelpRequestRollup> findAllByGranularityAndBucketStartBetweenOrderByBucketStart(
+      HelpRequestRollup.Granularity granularity, LocalDateTime from, LocalDateTime to);
+
+  // matches no row if either count would go below zero
+  @Transactional
+  @Modifying
+  @Query("update helprequestrollup r"
+      + " set r.requestCount = r.requestCount + :requests, r.solvedCount = r.solvedCount + :solved"
+      + " where r.granularity = :granularity and r.bucketStart = :bucketStart"
+      + " and r.teamId = :teamId and r.tableOrBreakoutRoom = :tableOrBreakoutRoom"
+      + " and r.requestCount + :requests >= 0 and r.solvedCount + :solved >= 0")
+  int increment(@Param("granularity") HelpRequestRollup.Granularity granularity,
+      @Param("bucketStart") LocalDateTime bucketStart,
+      @Param("teamId") String teamId,
+      @Param("tableOrBreakoutRoom") String tableOrBreakoutRoom,
+      @Param("requests") long requests,
+      @Param("solved") long solved);
+}
@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.HttpSessionRecord;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface HttpSessionRecordRepository extends CrudRepository<HttpSessionRecord, String> {
+
+  @Transactional
+  @Modifying
+  @Query("delete from httpsession s where s.expiresAt < :cutoff")
+  int deleteExpired(@Param("cutoff") long cutoff);
+
+  @Transactional
+  @Modifying
+  @Query("delete from httpsession s where s.id in :ids")
+  int deleteAllByIdIn(@Param("ids") Collection<String> ids);
+
+  // never moves lastAccessedTime backwards, so a late touch cannot undo a newer write
+  @Transactional
+  @Modifying
+  @Query("update httpsession s set s.lastAccessedTime = :lastAccessedTime, s.expiresAt = :expiresAt"
+      + " where s.id = :id and s.lastAccessedTime < :lastAccessedTime")
+  int touch(@Param("id") String id, @Param("lastAccessedTime") long lastAccessedTime,
+      @Param("expiresAt") long expiresAt);
+
+  /**
+   * Moves the access and expiry times of a batch of sessions forward, in one
+   * transaction, leaving their attributes alone.
+   */
+  @Transactional
+  default void touchAll(Collection<HttpSessionRecord> records) {
+    for (HttpSessionRecord record : records) {
+      touch(record.getId(), record.getLastAccessedTime(), record.getExpiresAt());
+    }
+  }
+
+  /**
+   * Inserts a session that was created on this node and never saved, without
+   * selecting it first.
+   */
+  default void insert(HttpSessionRecord record) {
+    record.setNewRecord(true);
+    save(record);
+  }
+
+  /**
+   * Writes a saved session's changes.  Returns 0 if there is no row for it
+   * any more, e.g. because another node deleted it at logout; the row is not
+   * put back.
+   */
+  @Transactional
+  @Modifying
+  @Query("update httpsession s set s.principalName = :#{#record.principalName},"
+      + " s.creationTime = :#{#record.creationTime}, s.lastAccessedTime = :#{#record.lastAccessedTime},"
+      + " s.maxInactiveSeconds = :#{#record.maxInactiveSeconds}, s.expiresAt = :#{#record.expiresAt},"
+      + " s.attributes = :#{#record.attributes} where s.id = :#{#record.id}")
+  int update(@Param("record") HttpSessionRecord record);
+
+  /**
+   * Moves a saved session to a new id (e.g. at login), in one transaction.
+   * Returns false, writing nothing, if the row under the original id is gone.
+   */
+  @Transactional
+  default boolean replace(String originalId, HttpSessionRecord record) {
+    if (deleteAllByIdIn(List.of(originalId)) == 0) {
+      return false;
+    }
+    insert(record);
+    return true;
+  }
+}
@@ -0,0 +1,136 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.jfr.CacheAccessEvent;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides whether an email belongs to an admin.
+ *
+ * Emails listed in <code>app.admin.emails</code> are admins, checked against a
+ * hash set.  For everyone else the <code>admin</code> column of
+ * <code>users</code> decides; the answer is cached for
+ * <code>app.admin.cacheTtlSeconds</code>, so a burst of logins at the start of
+ * section costs one query per user, not one per login.  Code that changes a
+ * user's admin flag calls {@link #invalidate(String)}.
+ */
+
+@Slf4j
+@Service("adminResolution")
+public class AdminResolutionService implements CacheStatsProvider {
+
+  private record CachedAdmin(boolean admin, Instant expires) {
+  }
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Value("${app.admin.cacheTtlSeconds:60}")
+  long ttlSeconds = 60;
+
+  @Value("${app.admin.cacheMaxEntries:10000}")
+  int maxEntries = 10000;
+
+  Clock clock = Clock.systemUTC();
+
+  private volatile Set<String> adminEmails = Set.of();
+
+  private final ConcurrentHashMap<String, CachedAdmin> cache = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @Value("${app.admin.emails}")
+  void setAdminEmails(List<String> adminEmails) {
+    this.adminEmails = Set.copyOf(new HashSet<>(adminEmails));
+  }
+
+  /**
+   * True if the email is listed in <code>app.admin.emails</code>; never queries.
+   */
+  public boolean isConfiguredAdmin(String email) {
+    return email != null && adminEmails.contains(email);
+  }
+
+  /**
+   * True if the email is listed in <code>app.admin.emails</code> or belongs to
+   * a user whose <code>admin</code> column is set.
+   */
+  public boolean isAdmin(String email) {
+    if (email == null) {
+      return false;
+    }
+    if (isConfiguredAdmin(email)) {
+      return true;
+    }
+
+    Instant now = clock.instant();
+    CachedAdmin cached = cache.get(email);
+    if (cached != null && now.isBefore(cached.expires())) {
+      hits.increment();
+      CacheAccessEvent.record("adminResolution", true);
+      return cached.admin();
+    }
+    misses.increment();
+    CacheAccessEvent.record("adminResolution", false);
+
+    Optional<User> u = userRepository.findByEmail(email);
+    boolean admin = u.isPresent() && u.get().getAdmin();
+    if (cache.size() >= maxEntries) {
+      prune(now);
+    }
+    cache.put(email, new CachedAdmin(admin, now.plusSeconds(ttlSeconds)));
+    return admin;
+  }
+
+  /**
+   * Drops the cached answer for one email; call after changing that user's admin flag.
+   */
+  public void invalidate(String email) {
+    if (email != null) {
+      cache.remove(email);
+    }
+  }
+
+  public void invalidateAll() {
+    cache.clear();
+  }
+
+  @Override
+  public CacheStats getCacheStats() {
+    return CacheStats.builder()
+        .name("adminResolution")
+        .hits(hits.sum())
+        .misses(misses.sum())
+        .evictions(evictions.sum())
+        .size(cache.size())
+        .build();
+  }
+
+  // Drops expired entries, or everything if they are all still fresh.
+  private void prune(Instant now) {
+    int before = cache.size();
+    cache.values().removeIf(c -> !now.isBefore(c.expires()));
+    if (cache.size() >= maxEntries) {
+      cache.clear();
+    }
+    evictions.add(Math.max(0, before - cache.size()));
+    log.debug("admin resolution cache pruned from {} to {} entries", before, cache.size());
+  }
+}
@@ -0,0 +1,87 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.EndpointAllocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Bytes allocated and CPU time used per handler, recorded by
+ * AllocationAccountingFilter and reported at /api/admin/metrics/allocation.
+ *
+ * The counters are LongAdders, which stripe their cells across threads, so
+ * concurrent requests to the same handler do not contend on one counter.
+ */
+
+@Service("allocationMetrics")
+public class AllocationMetricsService {
+
+  private final ConcurrentHashMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the recorder for a handler such as
+   * <code>UsersController.users</code>, served at <code>endpoint</code>.
+   */
+  public Recorder recorder(String handler, String endpoint) {
+    return recorders.computeIfAbsent(handler, h -> new Recorder(h, endpoint));
+  }
+
+  /**
+   * Returns the handlers that have a recorder, most bytes per request first.
+   */
+  public List<EndpointAllocation> getAllocations() {
+    List<EndpointAllocation> allocations = new ArrayList<>();
+    for (Recorder recorder : recorders.values()) {
+      allocations.add(recorder.toAllocation());
+    }
+    allocations.sort(Comparator.comparingLong(EndpointAllocation::getBytesPerRequest).reversed()
+        .thenComparing(EndpointAllocation::getHandler));
+    return allocations;
+  }
+
+  public static class Recorder {
+    private final String handler;
+    private final String endpoint;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+    private final LongAdder cpuNanos = new LongAdder();
+
+    Recorder(String handler, String endpoint) {
+      this.handler = handler;
+      this.endpoint = endpoint;
+    }
+
+    /**
+     * @param allocatedBytes bytes the request thread allocated, or -1 if unknown
+     * @param cpuNanos       CPU time the request thread used, or -1 if unknown
+     */
+    public void record(long allocatedBytes, long cpuNanos) {
+      count.increment();
+      if (allocatedBytes > 0) {
+        bytes.add(allocatedBytes);
+        maxBytes.accumulate(allocatedBytes);
+      }
+      if (cpuNanos > 0) {
+        this.cpuNanos.add(cpuNanos);
+      }
+    }
+
+    EndpointAllocation toAllocation() {
+      return EndpointAllocation.builder()
+          .handler(handler)
+          .endpoint(endpoint)
+          .count(count.sum())
+          .bytes(bytes.sum())
+          .maxBytes(maxBytes.get())
+          .cpuMicros(cpuNanos.sum() / 1000)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.CacheStats;
+
+/**
+ * Implemented by in-memory caches so their hit/miss counts can be reported
+ * at /api/admin/metrics/caches.
+ */
+public interface CacheStatsProvider {
+  CacheStats getCacheStats();
+}
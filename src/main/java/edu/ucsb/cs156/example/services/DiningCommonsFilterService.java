@@ -0,0 +1,109 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.util.FlagIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Filters dining commons by hasSackMeal, hasTakeOutMeal and hasDiningCam
+ * without a query.
+ *
+ * The commons are held in a {@link FlagIndex} ordered by code;
+ * UCSBDiningCommonsController reports every mutation, and each one builds a
+ * new index and swaps it in.
+ */
+
+@Slf4j
+@Service("diningCommonsFilter")
+public class DiningCommonsFilterService {
+
+  private static final Map<String, Predicate<UCSBDiningCommons>> FLAGS = Map.of(
+      "hasSackMeal", UCSBDiningCommons::getHasSackMeal,
+      "hasTakeOutMeal", UCSBDiningCommons::getHasTakeOutMeal,
+      "hasDiningCam", UCSBDiningCommons::getHasDiningCam);
+
+  @Autowired
+  UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
+
+  // Guarded by "this"
+  private final TreeMap<String, UCSBDiningCommons> commonsByCode = new TreeMap<>();
+
+  // null until first use; replaced, never modified
+  private volatile FlagIndex<UCSBDiningCommons> index;
+
+  /**
+   * Returns the commons that have all (or any) of the given flags, ordered by code.
+   *
+   * @throws IllegalArgumentException if a flag is not one of the three above
+   */
+  public List<UCSBDiningCommons> filter(Collection<String> flags, FlagIndex.Match match) {
+    return getIndex().matching(flags, match);
+  }
+
+  /**
+   * Called after a commons is created or updated.
+   */
+  public synchronized void upsert(UCSBDiningCommons commons) {
+    if (index == null) {
+      return;
+    }
+    commonsByCode.put(commons.getCode(), copyOf(commons));
+    rebuild();
+  }
+
+  /**
+   * Called after a commons is deleted.
+   */
+  public synchronized void remove(String code) {
+    if (index == null) {
+      return;
+    }
+    if (commonsByCode.remove(code) != null) {
+      rebuild();
+    }
+  }
+
+  private FlagIndex<UCSBDiningCommons> getIndex() {
+    FlagIndex<UCSBDiningCommons> current = index;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (index == null) {
+        for (UCSBDiningCommons commons : ucsbDiningCommonsRepository.findAll()) {
+          commonsByCode.put(commons.getCode(), copyOf(commons));
+        }
+        rebuild();
+        log.info("dining commons flag index loaded with {} commons", commonsByCode.size());
+      }
+      return index;
+    }
+  }
+
+  private void rebuild() {
+    index = new FlagIndex<>(commonsByCode.values(), FLAGS);
+  }
+
+  // Entities are mutable, so the index keeps its own copies.
+  private static UCSBDiningCommons copyOf(UCSBDiningCommons commons) {
+    return UCSBDiningCommons.builder()
+        .code(commons.getCode())
+        .name(commons.getName())
+        .hasSackMeal(commons.getHasSackMeal())
+        .hasTakeOutMeal(commons.getHasTakeOutMeal())
+        .hasDiningCam(commons.getHasDiningCam())
+        .latitude(commons.getLatitude())
+        .longitude(commons.getLongitude())
+        .build();
+  }
+}
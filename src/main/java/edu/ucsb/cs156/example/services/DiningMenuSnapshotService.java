@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.DiningCommonsMenu;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.util.StringDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Precomputed commons -&gt; station -&gt; items menus.
+ *
+ * Menus are immutable and published as one map that is swapped atomically;
+ * UCSBDiningCommonsMenuItemController reports every mutation and only the
+ * affected commons are rebuilt.  Commons codes and station names repeat on
+ * every item, so the item store keeps them dictionary-encoded and the
+ * published menus share one interned String per distinct value.
+ */
+
+@Slf4j
+@Service("diningMenuSnapshot")
+public class DiningMenuSnapshotService {
+
+  // codes index into the dictionary
+  private record EncodedItem(long id, int diningCommonsCode, int station, String name) {
+  }
+
+  private static final Comparator<DiningCommonsMenu.Item> ITEM_ORDER = Comparator
+      .comparing(DiningCommonsMenu.Item::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+      .thenComparingLong(DiningCommonsMenu.Item::getId);
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
+
+  private final StringDictionary dictionary = new StringDictionary();
+
+  // Guarded by "this"
+  private final Map<Long, EncodedItem> items = new HashMap<>();
+
+  // null until first use; replaced, never modified
+  private volatile Map<String, DiningCommonsMenu> snapshot;
+
+  /**
+   * Returns the menu for one commons; a commons without items has no stations.
+   */
+  public DiningCommonsMenu getMenu(String diningCommonsCode) {
+    DiningCommonsMenu menu = getSnapshot().get(diningCommonsCode);
+    if (menu == null) {
+      return DiningCommonsMenu.builder()
+          .diningCommonsCode(diningCommonsCode)
+          .stations(Collections.emptyList())
+          .build();
+    }
+    return menu;
+  }
+
+  /**
+   * Called after a menu item is created or updated.
+   */
+  public synchronized void upsert(UCSBDiningCommonsMenuItem menuItem) {
+    if (snapshot == null) {
+      return;
+    }
+    EncodedItem previous = items.get(menuItem.getId());
+    EncodedItem current = encode(menuItem);
+    items.put(current.id(), current);
+
+    if (previous != null && previous.diningCommonsCode() != current.diningCommonsCode()) {
+      publish(previous.diningCommonsCode(), current.diningCommonsCode());
+    } else {
+      publish(current.diningCommonsCode());
+    }
+  }
+
+  /**
+   * Called after a menu item is deleted.
+   */
+  public synchronized void remove(long id) {
+    if (snapshot == null) {
+      return;
+    }
+    EncodedItem previous = items.remove(id);
+    if (previous != null) {
+      publish(previous.diningCommonsCode());
+    }
+  }
+
+  public int getDictionarySize() {
+    return dictionary.size();
+  }
+
+  private Map<String, DiningCommonsMenu> getSnapshot() {
+    Map<String, DiningCommonsMenu> current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot == null) {
+        for (UCSBDiningCommonsMenuItem menuItem : ucsbDiningCommonsMenuItemRepository.findAll()) {
+          EncodedItem encoded = encode(menuItem);
+          items.put(encoded.id(), encoded);
+        }
+        Map<String, DiningCommonsMenu> menus = new HashMap<>();
+        for (EncodedItem item : items.values()) {
+          String code = dictionary.decode(item.diningCommonsCode());
+          menus.computeIfAbsent(code, c -> build(item.diningCommonsCode()));
+        }
+        snapshot = Collections.unmodifiableMap(menus);
+        log.info("dining menu snapshot loaded with {} items in {} commons", items.size(), menus.size());
+      }
+      return snapshot;
+    }
+  }
+
+  // Rebuilds the given commons and swaps in a new snapshot.
+  private void publish(int... diningCommonsCodes) {
+    Map<String, DiningCommonsMenu> menus = new HashMap<>(snapshot);
+    for (int diningCommonsCode : diningCommonsCodes) {
+      DiningCommonsMenu menu = build(diningCommonsCode);
+      if (menu.getStations().isEmpty()) {
+        menus.remove(menu.getDiningCommonsCode());
+      } else {
+        menus.put(menu.getDiningCommonsCode(), menu);
+      }
+    }
+    snapshot = Collections.unmodifiableMap(menus);
+  }
+
+  private DiningCommonsMenu build(int diningCommonsCode) {
+    TreeMap<String, List<DiningCommonsMenu.Item>> byStation = new TreeMap<>();
+    for (EncodedItem item : items.values()) {
+      if (item.diningCommonsCode() == diningCommonsCode) {
+        byStation.computeIfAbsent(dictionary.decode(item.station()), s -> new ArrayList<>())
+            .add(new DiningCommonsMenu.Item(item.id(), item.name()));
+      }
+    }
+
+    List<DiningCommonsMenu.Station> stations = new ArrayList<>(byStation.size());
+    byStation.forEach((station, stationItems) -> {
+      stationItems.sort(ITEM_ORDER);
+      stations.add(new DiningCommonsMenu.Station(station, stationItems));
+    });
+
+    return DiningCommonsMenu.builder()
+        .diningCommonsCode(dictionary.decode(diningCommonsCode))
+        .stations(stations)
+        .build();
+  }
+
+  private EncodedItem encode(UCSBDiningCommonsMenuItem menuItem) {
+    return new EncodedItem(
+        menuItem.getId(),
+        dictionary.encode(nullToEmpty(menuItem.getDiningCommonsCode())),
+        dictionary.encode(nullToEmpty(menuItem.getStation())),
+        menuItem.getName());
+  }
+
+  private static String nullToEmpty(String s) {
+    return s == null ? "" : s;
+  }
+}
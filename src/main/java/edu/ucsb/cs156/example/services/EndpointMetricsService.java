@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.EndpointLatency;
+import edu.ucsb.cs156.example.util.LatencyHistogram;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Latency, error and request counts per controller endpoint, recorded by
+ * LoggingAspect and reported at /api/admin/metrics/endpoints.
+ *
+ * Callers look up an endpoint's {@link Recorder} once and keep it, so
+ * recording a request does not touch the map.
+ */
+
+@Service("endpointMetrics")
+public class EndpointMetricsService {
+
+  Clock clock = Clock.systemUTC();
+
+  private final ConcurrentHashMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the recorder for an endpoint such as <code>GET /api/ucsbdates/all</code>.
+   */
+  public Recorder recorder(String endpoint, String handler) {
+    return recorders.computeIfAbsent(endpoint, e -> new Recorder(e, handler, clock.millis()));
+  }
+
+  /**
+   * Returns the endpoints that have a recorder, ordered by endpoint.
+   */
+  public List<EndpointLatency> getLatencies() {
+    long now = clock.millis();
+    List<EndpointLatency> latencies = new ArrayList<>();
+    for (Recorder recorder : recorders.values()) {
+      latencies.add(recorder.toLatency(now));
+    }
+    latencies.sort(Comparator.comparing(EndpointLatency::getEndpoint));
+    return latencies;
+  }
+
+  public static class Recorder {
+    private final String endpoint;
+    private final String handler;
+    private final long createdAt;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    Recorder(String endpoint, String handler, long createdAt) {
+      this.endpoint = endpoint;
+      this.handler = handler;
+      this.createdAt = createdAt;
+    }
+
+    /**
+     * @param nanos  how long the handler ran
+     * @param failed true if the handler threw
+     */
+    public void record(long nanos, boolean failed) {
+      histogram.record(nanos);
+      if (failed) {
+        errors.increment();
+      }
+    }
+
+    EndpointLatency toLatency(long now) {
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      double seconds = Math.max(now - createdAt, 1000) / 1000.0;
+      return EndpointLatency.builder()
+          .endpoint(endpoint)
+          .handler(handler)
+          .count(snapshot.getCount())
+          .errors(errors.sum())
+          .requestsPerSecond(snapshot.getCount() / seconds)
+          .meanMicros(snapshot.getMean() / 1000.0)
+          .p50Micros(snapshot.valueAt(50) / 1000)
+          .p90Micros(snapshot.valueAt(90) / 1000)
+          .p99Micros(snapshot.valueAt(99) / 1000)
+          .p999Micros(snapshot.valueAt(99.9) / 1000)
+          .maxMicros(snapshot.getMax() / 1000)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * In-memory queue of unsolved help requests, ordered by requestTime.
+ *
+ * The queue is loaded from the database once (on first use) and is then kept
+ * in sync by HelpRequestController, which reports every post, update and
+ * delete.  Connected clients receive a snapshot when they subscribe, followed
+ * by incremental events:
+ *
+ * <ul>
+ * <li><code>add</code>: a request was added to the queue or changed while still unsolved</li>
+ * <li><code>solve</code>: a request in the queue was marked solved</li>
+ * <li><code>remove</code>: a request in the queue was deleted</li>
+ * </ul>
+ *
+ * Clients should treat <code>add</code> as an upsert keyed by id.
+ *
+ * Each client has its own queue of events waiting to be sent, drained in
+ * order by a background thread, so a slow or stalled client holds up neither
+ * the controller's writes nor the other clients.  Each event goes to the
+ * clients that were subscribed when the change was made.  A client that falls
+ * <code>app.helprequest.queue.maxPendingEvents</code> events behind is
+ * dropped and its stream completed; it can subscribe again for a fresh
+ * snapshot.
+ */
+
+@Slf4j
+@Service("helpRequestQueue")
+public class HelpRequestQueueService {
+
+  public static final String SNAPSHOT_EVENT = "snapshot";
+  public static final String ADD_EVENT = "add";
+  public static final String SOLVE_EVENT = "solve";
+  public static final String REMOVE_EVENT = "remove";
+
+  private record Subscriber(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> pending,
+      AtomicBoolean draining) {
+    Subscriber(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> pending) {
+      this(emitter, pending, new AtomicBoolean());
+    }
+  }
+
+  private static final Comparator<HelpRequest> QUEUE_ORDER = Comparator
+      .comparing(HelpRequest::getRequestTime, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+      .thenComparingLong(HelpRequest::getId);
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Value("${app.helprequest.queue.emitterTimeoutMillis:1800000}")
+  private long emitterTimeoutMillis;
+
+  @Value("${app.helprequest.queue.maxPendingEvents:100}")
+  int maxPendingEvents = 100;
+
+  // Guarded by "this"; readers take a copy under the lock.
+  private final TreeSet<HelpRequest> queue = new TreeSet<>(QUEUE_ORDER);
+  private final Map<Long, HelpRequest> queuedById = new HashMap<>();
+  private boolean loaded = false;
+
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+  // runs at most one drain per subscriber at a time
+  private final ExecutorService sender;
+
+  public HelpRequestQueueService() {
+    this(newSender());
+  }
+
+  HelpRequestQueueService(ExecutorService sender) {
+    this.sender = sender;
+  }
+
+  // one thread per subscriber that is being sent to, at most
+  private static ExecutorService newSender() {
+    AtomicInteger threads = new AtomicInteger();
+    return Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "help-request-queue-sender-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Returns the unsolved help requests, oldest first.
+   */
+  public synchronized List<HelpRequest> getQueue() {
+    ensureLoaded();
+    return new ArrayList<>(queue);
+  }
+
+  /**
+   * Registers a new client; the first event it receives is a snapshot of the queue.
+   */
+  public synchronized SseEmitter subscribe() {
+    ensureLoaded();
+    SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(maxPendingEvents));
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    offer(subscriber, SseEmitter.event().name(SNAPSHOT_EVENT).data(new ArrayList<>(queue)));
+    return emitter;
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Called after a help request is created or updated.
+   */
+  public synchronized void upsert(HelpRequest helpRequest) {
+    if (!loaded) {
+      // the row is already committed, so the initial load will pick it up
+      return;
+    }
+    HelpRequest previous = queuedById.remove(helpRequest.getId());
+    if (previous != null) {
+      queue.remove(previous);
+    }
+
+    if (helpRequest.getSolved()) {
+      if (previous != null) {
+        broadcast(SOLVE_EVENT, copyOf(helpRequest));
+      }
+      return;
+    }
+
+    HelpRequest copy = copyOf(helpRequest);
+    queue.add(copy);
+    queuedById.put(copy.getId(), copy);
+    broadcast(ADD_EVENT, copy);
+  }
+
+  /**
+   * Called after a help request is deleted.
+   */
+  public synchronized void remove(long id) {
+    if (!loaded) {
+      return;
+    }
+    HelpRequest previous = queuedById.remove(id);
+    if (previous != null) {
+      queue.remove(previous);
+      broadcast(REMOVE_EVENT, previous);
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    for (HelpRequest helpRequest : helpRequestRepository.findAllBySolved(false)) {
+      HelpRequest copy = copyOf(helpRequest);
+      queue.add(copy);
+      queuedById.put(copy.getId(), copy);
+    }
+    loaded = true;
+    log.info("help request queue loaded with {} unsolved requests", queue.size());
+  }
+
+  // called with the lock held; only the sending happens outside it
+  private void broadcast(String eventName, Object data) {
+    for (Subscriber subscriber : subscribers) {
+      offer(subscriber, SseEmitter.event().name(eventName).data(data));
+    }
+  }
+
+  private void offer(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+    if (!subscriber.pending().offer(event)) {
+      log.info("dropping help request queue subscriber that is {} events behind", maxPendingEvents);
+      subscribers.remove(subscriber);
+      subscriber.pending().clear();
+      // complete() waits for a send in progress, so not on this thread
+      execute(subscriber.emitter()::complete);
+      return;
+    }
+    if (subscriber.draining().compareAndSet(false, true)) {
+      execute(() -> drain(subscriber));
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    do {
+      SseEmitter.SseEventBuilder event;
+      while ((event = subscriber.pending().poll()) != null) {
+        if (!send(subscriber.emitter(), event)) {
+          subscribers.remove(subscriber);
+          subscriber.pending().clear();
+          return;
+        }
+      }
+      subscriber.draining().set(false);
+      // an event offered after the last poll but before draining was cleared
+    } while (!subscriber.pending().isEmpty() && subscriber.draining().compareAndSet(false, true));
+  }
+
+  private void execute(Runnable task) {
+    try {
+      sender.execute(task);
+    } catch (RejectedExecutionException e) {
+      log.debug("help request queue is shut down; not sending");
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    sender.shutdownNow();
+  }
+
+  private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+    try {
+      emitter.send(event);
+      return true;
+    } catch (IOException | IllegalStateException e) {
+      log.debug("dropping help request queue subscriber: {}", e.toString());
+      emitter.completeWithError(e);
+      return false;
+    }
+  }
+
+  // Entities are mutable, so the queue keeps its own copies.
+  private static HelpRequest copyOf(HelpRequest helpRequest) {
+    return HelpRequest.builder()
+        .id(helpRequest.getId())
+        .requesterEmail(helpRequest.getRequesterEmail())
+        .teamId(helpRequest.getTeamId())
+        .tableOrBreakoutRoom(helpRequest.getTableOrBreakoutRoom())
+        .requestTime(helpRequest.getRequestTime())
+        .explanation(helpRequest.getExplanation())
+        .solved(helpRequest.getSolved())
+        .build();
+  }
+}
@@ -0,0 +1,190 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup.Granularity;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps per-hour and per-day help request counters by teamId and
+ * tableOrBreakoutRoom, so staffing reports never scan the helprequest table.
+ *
+ * HelpRequestController reports inserts, updates and deletes, inside the
+ * transaction that writes the help request; each one turns into a constant
+ * number of single-row increments.  A request counts in the bucket of its
+ * requestTime; solvedCount follows the solved flag.
+ *
+ * When the application starts with an empty rollup table, the counters are
+ * built from the existing help requests first.  A decrement for a bucket that
+ * has no row, or whose counts it would take below zero, is logged and skipped
+ * rather than stored as a negative count.
+ */
+
+@Slf4j
+@Service("helpRequestRollups")
+public class HelpRequestRollupService {
+
+  @Autowired
+  HelpRequestRollupRepository helpRequestRollupRepository;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  private record Bucket(Granularity granularity, LocalDateTime bucketStart, String teamId,
+      String tableOrBreakoutRoom) {
+  }
+
+  @PostConstruct
+  void backfillIfEmpty() {
+    try {
+      new TransactionTemplate(transactionManager).executeWithoutResult(status -> backfill());
+    } catch (DataIntegrityViolationException e) {
+      log.info("helprequestrollup was backfilled concurrently by another instance");
+    }
+  }
+
+  /**
+   * Builds the counters from the helprequest table if there are none yet.
+   *
+   * @return the number of rollup rows written
+   */
+  int backfill() {
+    if (helpRequestRollupRepository.count() > 0) {
+      return 0;
+    }
+    Map<Bucket, HelpRequestRollup> rollups = new LinkedHashMap<>();
+    for (HelpRequest helpRequest : helpRequestRepository.findAll()) {
+      if (helpRequest.getRequestTime() == null) {
+        continue;
+      }
+      for (Granularity granularity : Granularity.values()) {
+        HelpRequestRollup rollup = rollups.computeIfAbsent(bucketOf(granularity, helpRequest),
+            HelpRequestRollupService::emptyRollup);
+        rollup.setRequestCount(rollup.getRequestCount() + 1);
+        rollup.setSolvedCount(rollup.getSolvedCount() + (helpRequest.getSolved() ? 1 : 0));
+      }
+    }
+    helpRequestRollupRepository.saveAll(List.copyOf(rollups.values()));
+    if (!rollups.isEmpty()) {
+      log.info("helprequestrollup backfilled with {} rows", rollups.size());
+    }
+    return rollups.size();
+  }
+
+  public Iterable<HelpRequestRollup> getRollups(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+    return helpRequestRollupRepository.findAllByGranularityAndBucketStartBetweenOrderByBucketStart(
+        granularity, truncate(from, granularity), to);
+  }
+
+  public void recordCreated(HelpRequest helpRequest) {
+    apply(helpRequest, 1);
+  }
+
+  public void recordDeleted(HelpRequest helpRequest) {
+    apply(helpRequest, -1);
+  }
+
+  /**
+   * @param before the values before the update
+   * @param after  the values after the update
+   */
+  public void recordUpdated(HelpRequest before, HelpRequest after) {
+    boolean sameBucket = Objects.equals(before.getRequestTime(), after.getRequestTime())
+        && Objects.equals(before.getTeamId(), after.getTeamId())
+        && Objects.equals(before.getTableOrBreakoutRoom(), after.getTableOrBreakoutRoom());
+
+    if (!sameBucket) {
+      apply(before, -1);
+      apply(after, 1);
+    } else if (before.getSolved() != after.getSolved()) {
+      long solvedDelta = after.getSolved() ? 1 : -1;
+      for (Granularity granularity : Granularity.values()) {
+        increment(granularity, after, 0, solvedDelta);
+      }
+    }
+  }
+
+  private void apply(HelpRequest helpRequest, long sign) {
+    long solved = helpRequest.getSolved() ? sign : 0;
+    for (Granularity granularity : Granularity.values()) {
+      increment(granularity, helpRequest, sign, solved);
+    }
+  }
+
+  private void increment(Granularity granularity, HelpRequest helpRequest, long requests, long solved) {
+    if (helpRequest.getRequestTime() == null) {
+      return;
+    }
+    Bucket bucket = bucketOf(granularity, helpRequest);
+    if (increment(bucket, requests, solved) > 0) {
+      return;
+    }
+    if (requests < 0 || solved < 0) {
+      log.warn("no helprequestrollup row for {} with counts to take {} requests, {} solved from; skipping",
+          bucket, -requests, -solved);
+      return;
+    }
+    createEmptyRow(bucket);
+    increment(bucket, requests, solved);
+  }
+
+  private int increment(Bucket bucket, long requests, long solved) {
+    return helpRequestRollupRepository.increment(bucket.granularity(), bucket.bucketStart(), bucket.teamId(),
+        bucket.tableOrBreakoutRoom(), requests, solved);
+  }
+
+  // In its own transaction, so losing the race to create the row does not
+  // roll back the caller's; a zero row left behind by a rollback is harmless.
+  private void createEmptyRow(Bucket bucket) {
+    TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    try {
+      requiresNew.executeWithoutResult(status -> helpRequestRollupRepository.save(emptyRollup(bucket)));
+    } catch (DataIntegrityViolationException e) {
+      log.debug("helprequestrollup row created concurrently");
+    }
+  }
+
+  private static Bucket bucketOf(Granularity granularity, HelpRequest helpRequest) {
+    return new Bucket(granularity, truncate(helpRequest.getRequestTime(), granularity),
+        nullToEmpty(helpRequest.getTeamId()), nullToEmpty(helpRequest.getTableOrBreakoutRoom()));
+  }
+
+  private static HelpRequestRollup emptyRollup(Bucket bucket) {
+    return HelpRequestRollup.builder()
+        .granularity(bucket.granularity())
+        .bucketStart(bucket.bucketStart())
+        .teamId(bucket.teamId())
+        .tableOrBreakoutRoom(bucket.tableOrBreakoutRoom())
+        .build();
+  }
+
+  private static LocalDateTime truncate(LocalDateTime time, Granularity granularity) {
+    return time.truncatedTo(granularity == Granularity.HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+  }
+
+  private static String nullToEmpty(String s) {
+    return s == null ? "" : s;
+  }
+}
@@ -0,0 +1,171 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.HibernateStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hibernate's own statistics (sessions, queries, entity loads, flushes and
+ * second-level cache regions), switched on and off at runtime.
+ *
+ * Statistics cost a little on every session, so they start off unless
+ * <code>app.hibernate.statistics.enabled=true</code>.  Counts accumulate in a
+ * window that {@link #reset()} closes; the closed window is kept so a load
+ * test can be compared with the run before it.
+ */
+
+@Slf4j
+@Service("hibernateStatistics")
+public class HibernateStatisticsService {
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Value("${app.hibernate.statistics.enabled:false}")
+  boolean enabledAtStartup = false;
+
+  @Value("${app.hibernate.statistics.slowestQueries:10}")
+  int slowestQueries = 10;
+
+  Clock clock = Clock.systemUTC();
+
+  // Guarded by "this"
+  private HibernateStats previous;
+
+  @PostConstruct
+  public void init() {
+    statistics().setStatisticsEnabled(enabledAtStartup);
+  }
+
+  public boolean isEnabled() {
+    return statistics().isStatisticsEnabled();
+  }
+
+  /**
+   * Turns statistics on or off; turning them on starts a new window.
+   */
+  public synchronized void setEnabled(boolean enabled) {
+    Statistics statistics = statistics();
+    if (enabled && !statistics.isStatisticsEnabled()) {
+      statistics.clear();
+    }
+    statistics.setStatisticsEnabled(enabled);
+    log.info("hibernate statistics {}", enabled ? "enabled" : "disabled");
+  }
+
+  /**
+   * Returns the statistics for the current window.
+   */
+  public HibernateStats getStats() {
+    return snapshot(statistics());
+  }
+
+  /**
+   * Closes the current window, starts a new one and returns the closed one.
+   */
+  public synchronized HibernateStats reset() {
+    Statistics statistics = statistics();
+    previous = snapshot(statistics);
+    statistics.clear();
+    return previous;
+  }
+
+  /**
+   * Returns the window closed by the last {@link #reset()}, if any.
+   */
+  public synchronized Optional<HibernateStats> getPrevious() {
+    return Optional.ofNullable(previous);
+  }
+
+  Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  private HibernateStats snapshot(Statistics statistics) {
+    return HibernateStats.builder()
+        .enabled(statistics.isStatisticsEnabled())
+        .windowStart(Instant.ofEpochMilli(statistics.getStartTime()))
+        .windowEnd(clock.instant())
+        .sessionOpenCount(statistics.getSessionOpenCount())
+        .sessionCloseCount(statistics.getSessionCloseCount())
+        .transactionCount(statistics.getTransactionCount())
+        .successfulTransactionCount(statistics.getSuccessfulTransactionCount())
+        .connectCount(statistics.getConnectCount())
+        .prepareStatementCount(statistics.getPrepareStatementCount())
+        .flushCount(statistics.getFlushCount())
+        .entityLoadCount(statistics.getEntityLoadCount())
+        .entityFetchCount(statistics.getEntityFetchCount())
+        .entityInsertCount(statistics.getEntityInsertCount())
+        .entityUpdateCount(statistics.getEntityUpdateCount())
+        .entityDeleteCount(statistics.getEntityDeleteCount())
+        .collectionLoadCount(statistics.getCollectionLoadCount())
+        .collectionFetchCount(statistics.getCollectionFetchCount())
+        .optimisticFailureCount(statistics.getOptimisticFailureCount())
+        .queryExecutionCount(statistics.getQueryExecutionCount())
+        .queryExecutionMaxTimeMillis(statistics.getQueryExecutionMaxTime())
+        .queryExecutionMaxTimeQuery(statistics.getQueryExecutionMaxTimeQueryString())
+        .queryPlanCacheHitCount(statistics.getQueryPlanCacheHitCount())
+        .queryPlanCacheMissCount(statistics.getQueryPlanCacheMissCount())
+        .secondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount())
+        .secondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount())
+        .secondLevelCachePutCount(statistics.getSecondLevelCachePutCount())
+        .cacheRegions(cacheRegions(statistics))
+        .slowestQueries(slowestQueries(statistics))
+        .build();
+  }
+
+  private static List<HibernateStats.CacheRegion> cacheRegions(Statistics statistics) {
+    List<HibernateStats.CacheRegion> regions = new ArrayList<>();
+    for (String name : statistics.getSecondLevelCacheRegionNames()) {
+      CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+      regions.add(HibernateStats.CacheRegion.builder()
+          .region(name)
+          .hitCount(region.getHitCount())
+          .missCount(region.getMissCount())
+          .putCount(region.getPutCount())
+          .elementCountInMemory(region.getElementCountInMemory())
+          .build());
+    }
+    regions.sort(Comparator.comparing(HibernateStats.CacheRegion::getRegion));
+    return regions;
+  }
+
+  // the queries that took the most time in total
+  private List<HibernateStats.Query> slowestQueries(Statistics statistics) {
+    List<HibernateStats.Query> queries = new ArrayList<>();
+    for (String query : statistics.getQueries()) {
+      QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+      if (queryStatistics.getExecutionCount() == 0) {
+        continue;
+      }
+      queries.add(HibernateStats.Query.builder()
+          .query(query)
+          .executionCount(queryStatistics.getExecutionCount())
+          .rowCount(queryStatistics.getExecutionRowCount())
+          .totalTimeMillis(queryStatistics.getExecutionTotalTime())
+          .avgTimeMillis(queryStatistics.getExecutionAvgTimeAsDouble())
+          .maxTimeMillis(queryStatistics.getExecutionMaxTime())
+          .build());
+    }
+    queries.sort(Comparator.comparingLong(HibernateStats.Query::getTotalTimeMillis).reversed()
+        .thenComparing(Comparator.comparingLong(HibernateStats.Query::getMaxTimeMillis).reversed()));
+    return queries.size() > slowestQueries ? List.copyOf(queries.subList(0, slowestQueries)) : queries;
+  }
+}
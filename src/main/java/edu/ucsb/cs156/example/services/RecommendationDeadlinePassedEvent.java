@@ -0,0 +1,17 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Recommendation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by {@link RecommendationDeadlineService} when a recommendation
+ * that is not done passes its dateNeeded.  Listen for it with
+ * <code>@EventListener</code> to send notifications.
+ */
+
+@Data
+@AllArgsConstructor
+public class RecommendationDeadlinePassedEvent {
+  private Recommendation recommendation;
+}
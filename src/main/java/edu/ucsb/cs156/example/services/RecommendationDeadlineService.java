@@ -0,0 +1,194 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.util.HashedTimingWheel;
+import edu.ucsb.cs156.example.util.TimeKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Index of recommendations that are not done, ordered by dateNeeded.
+ *
+ * The index is loaded from the database once (on first use) and is then kept
+ * in sync by RecommendationController.  Each indexed recommendation also has a
+ * timer on a {@link HashedTimingWheel}; when its deadline passes while it is
+ * still not done, a {@link RecommendationDeadlinePassedEvent} is published.
+ */
+
+@Slf4j
+@Service("recommendationDeadlines")
+public class RecommendationDeadlineService {
+
+  @Autowired
+  RecommendationRepository recommendationRepository;
+
+  @Autowired
+  ApplicationEventPublisher applicationEventPublisher;
+
+  @Value("${app.recommendation.deadlines.tickMillis:1000}")
+  private long tickMillis = 1000;
+
+  @Value("${app.recommendation.deadlines.wheelSize:512}")
+  private int wheelSize = 512;
+
+  Clock clock = Clock.systemDefaultZone();
+
+  private final ConcurrentSkipListMap<TimeKey, Recommendation> byDeadline = new ConcurrentSkipListMap<>();
+
+  // Guarded by "this"
+  private final Map<Long, TimeKey> keysById = new HashMap<>();
+  private final Map<Long, HashedTimingWheel.Timeout> timeoutsById = new HashMap<>();
+  private HashedTimingWheel timingWheel;
+  private volatile boolean loaded = false;
+
+  /**
+   * Returns recommendations that are not done and are needed between now and
+   * now + <code>within</code>, soonest first.
+   *
+   * @param within         how far ahead to look
+   * @param professorEmail if not null, only recommendations for this professor
+   */
+  public List<Recommendation> dueWithin(Duration within, String professorEmail) {
+    ensureLoaded();
+    LocalDateTime now = LocalDateTime.now(clock);
+    ConcurrentNavigableMap<TimeKey, Recommendation> window = byDeadline.subMap(
+        TimeKey.first(now), true,
+        TimeKey.last(now.plus(within)), true);
+
+    List<Recommendation> result = new ArrayList<>();
+    for (Recommendation recommendation : window.values()) {
+      if (professorEmail == null || professorEmail.equals(recommendation.getProfessorEmail())) {
+        result.add(recommendation);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Called after a recommendation is created or updated.
+   */
+  public synchronized void upsert(Recommendation recommendation) {
+    if (!loaded) {
+      // the row is already committed, so the initial load will pick it up
+      return;
+    }
+    removeFromIndex(recommendation.getId());
+    addToIndex(copyOf(recommendation));
+  }
+
+  /**
+   * Called after a recommendation is deleted.
+   */
+  public synchronized void remove(long id) {
+    if (!loaded) {
+      return;
+    }
+    removeFromIndex(id);
+  }
+
+  public int size() {
+    return byDeadline.size();
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    if (timingWheel != null) {
+      timingWheel.close();
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      for (Recommendation recommendation : recommendationRepository.findAllByDone(false)) {
+        addToIndex(copyOf(recommendation));
+      }
+      loaded = true;
+      log.info("recommendation deadline index loaded with {} open recommendations", byDeadline.size());
+    }
+  }
+
+  private void addToIndex(Recommendation recommendation) {
+    if (recommendation.getDone() || recommendation.getDateNeeded() == null) {
+      return;
+    }
+    TimeKey key = new TimeKey(recommendation.getDateNeeded(), recommendation.getId());
+    byDeadline.put(key, recommendation);
+    keysById.put(recommendation.getId(), key);
+
+    if (recommendation.getDateNeeded().isAfter(LocalDateTime.now(clock))) {
+      HashedTimingWheel.Timeout timeout = getTimingWheel().schedule(
+          recommendation.getDateNeeded().atZone(clock.getZone()).toInstant(),
+          () -> deadlinePassed(key));
+      timeoutsById.put(recommendation.getId(), timeout);
+    }
+  }
+
+  private void removeFromIndex(long id) {
+    TimeKey key = keysById.remove(id);
+    if (key != null) {
+      byDeadline.remove(key);
+    }
+    HashedTimingWheel.Timeout timeout = timeoutsById.remove(id);
+    if (timeout != null) {
+      timeout.cancel();
+    }
+  }
+
+  // Runs on the timing wheel thread
+  void deadlinePassed(TimeKey key) {
+    Recommendation recommendation;
+    synchronized (this) {
+      timeoutsById.remove(key.id());
+      recommendation = byDeadline.get(key);
+    }
+    if (recommendation != null) {
+      log.info("recommendation {} for {} passed its deadline {}", recommendation.getId(),
+          recommendation.getProfessorEmail(), recommendation.getDateNeeded());
+      applicationEventPublisher.publishEvent(new RecommendationDeadlinePassedEvent(recommendation));
+    }
+  }
+
+  private HashedTimingWheel getTimingWheel() {
+    if (timingWheel == null) {
+      timingWheel = new HashedTimingWheel("recommendation-deadlines", clock,
+          Duration.ofMillis(tickMillis), wheelSize);
+    }
+    return timingWheel;
+  }
+
+  // Entities are mutable, so the index keeps its own copies.
+  private static Recommendation copyOf(Recommendation recommendation) {
+    return Recommendation.builder()
+        .id(recommendation.getId())
+        .requesterEmail(recommendation.getRequesterEmail())
+        .professorEmail(recommendation.getProfessorEmail())
+        .explanation(recommendation.getExplanation())
+        .dateRequested(recommendation.getDateRequested())
+        .dateNeeded(recommendation.getDateNeeded())
+        .done(recommendation.getDone())
+        .build();
+  }
+}
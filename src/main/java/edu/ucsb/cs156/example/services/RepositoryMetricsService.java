@@ -0,0 +1,91 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.RepositoryMethodStats;
+import edu.ucsb.cs156.example.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Call counts, latency and rows per repository method, recorded by
+ * RepositoryMetricsAspect and reported at /api/admin/metrics/repositories.
+ *
+ * Latency is measured around the repository proxy, so it includes the
+ * transaction and the mapping of results, i.e. what the caller waits for.
+ */
+
+@Service("repositoryMetrics")
+public class RepositoryMetricsService {
+
+  private final ConcurrentHashMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the recorder for a method such as <code>UserRepository.findByEmail</code>.
+   */
+  public Recorder recorder(String method) {
+    return recorders.computeIfAbsent(method, Recorder::new);
+  }
+
+  /**
+   * Returns the methods that have a recorder, slowest in total first.
+   */
+  public List<RepositoryMethodStats> getStats() {
+    List<RepositoryMethodStats> stats = new ArrayList<>();
+    for (Recorder recorder : recorders.values()) {
+      stats.add(recorder.toStats());
+    }
+    stats.sort(Comparator.comparingLong(RepositoryMethodStats::getTotalMillis).reversed()
+        .thenComparing(RepositoryMethodStats::getMethod));
+    return stats;
+  }
+
+  public static class Recorder {
+    private final String method;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAccumulator maxRows = new LongAccumulator(Math::max, 0);
+
+    Recorder(String method) {
+      this.method = method;
+    }
+
+    public void recordSuccess(long nanos, long rowCount) {
+      histogram.record(nanos);
+      totalNanos.add(nanos);
+      rows.add(rowCount);
+      maxRows.accumulate(rowCount);
+    }
+
+    public void recordFailure(long nanos) {
+      histogram.record(nanos);
+      totalNanos.add(nanos);
+      errors.increment();
+    }
+
+    RepositoryMethodStats toStats() {
+      LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+      return RepositoryMethodStats.builder()
+          .method(method)
+          .count(snapshot.getCount())
+          .errors(errors.sum())
+          .rows(rows.sum())
+          .maxRows(maxRows.get())
+          .meanMicros(snapshot.getMean() / 1000.0)
+          .p50Micros(snapshot.valueAt(50) / 1000)
+          .p90Micros(snapshot.valueAt(90) / 1000)
+          .p99Micros(snapshot.valueAt(99) / 1000)
+          .p999Micros(snapshot.valueAt(99.9) / 1000)
+          .maxMicros(snapshot.getMax() / 1000)
+          .totalMillis(totalNanos.sum() / 1_000_000)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,302 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.HttpSessionRecord;
+import edu.ucsb.cs156.example.jfr.CacheAccessEvent;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.repositories.HttpSessionRecordRepository;
+import edu.ucsb.cs156.example.util.SessionAttributeCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * HTTP sessions shared by all nodes through the httpsession table, with a
+ * per-node near-cache in front of it.
+ *
+ * Enabled by <code>app.session.shared=true</code>.  Reads are served from the
+ * near-cache for <code>app.session.nearCacheSeconds</code> after a session was
+ * loaded or saved on this node, so most requests never touch the database; in
+ * exchange a change made on another node can take that long to show up here.
+ *
+ * New sessions, attribute changes (such as a login) and deletes (such as a
+ * logout) are written before save or deleteById returns; other nodes see them
+ * once their near-cache copy is older than nearCacheSeconds.  Only sessions
+ * created on this node are inserted: a change to any other session is an
+ * update, and if its row is gone (another node deleted it) the session is
+ * dropped from the near-cache rather than written back.  Only a request that
+ * just moves lastAccessedTime is
+ * buffered: it is written at most once per <code>app.session.touchSeconds</code>,
+ * in a batch flushed every <code>app.session.flushMillis</code>, and only
+ * moves the stored access and expiry times forward.  Expired rows are deleted
+ * by a sweeper using the index on expiresAt.
+ */
+
+@Slf4j
+@Service("sharedSessions")
+@ConditionalOnProperty(name = "app.session.shared", havingValue = "true")
+public class SharedSessionRepository implements SessionRepository<MapSession>, CacheStatsProvider {
+
+  // record holds this node's latest view; writtenAccessTime is the lastAccessedTime last buffered for writing
+  private record Cached(HttpSessionRecord record, long loadedAt, long writtenAccessTime) {
+  }
+
+  @Autowired
+  HttpSessionRecordRepository httpSessionRecordRepository;
+
+  @Value("${server.servlet.session.timeout:30m}")
+  Duration maxInactiveInterval = Duration.ofMinutes(30);
+
+  @Value("${app.session.nearCacheSeconds:5}")
+  long nearCacheSeconds = 5;
+
+  @Value("${app.session.touchSeconds:60}")
+  long touchSeconds = 60;
+
+  Clock clock = Clock.systemUTC();
+
+  private final ConcurrentHashMap<String, Cached> nearCache = new ConcurrentHashMap<>();
+
+  // Sessions created on this node and not saved yet, with their creation time; only these are inserted
+  private final ConcurrentHashMap<String, Long> unsaved = new ConcurrentHashMap<>();
+
+  // Touches waiting for the next flush; guarded by "this"
+  private Map<String, HttpSessionRecord> pendingTouches = new LinkedHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @Override
+  public MapSession createSession() {
+    MapSession session = new MapSession();
+    session.setCreationTime(clock.instant());
+    session.setLastAccessedTime(session.getCreationTime());
+    session.setMaxInactiveInterval(maxInactiveInterval);
+    unsaved.put(session.getId(), clock.millis());
+    return session;
+  }
+
+  @Override
+  public void save(MapSession session) {
+    long now = clock.millis();
+    HttpSessionRecord record = toRecord(session);
+
+    // the id may have changed since the session was created
+    if (unsaved.remove(session.getOriginalId()) != null) {
+      httpSessionRecordRepository.insert(record);
+      nearCache.put(record.getId(), new Cached(record, now, record.getLastAccessedTime()));
+      return;
+    }
+
+    if (!session.getId().equals(session.getOriginalId())) {
+      // the id changed (e.g. at login); the row moves to the new id
+      String originalId = session.getOriginalId();
+      forget(originalId);
+      if (!httpSessionRecordRepository.replace(originalId, record)) {
+        log.debug("session {} was deleted elsewhere; not saving it as {}", originalId, record.getId());
+        return;
+      }
+      nearCache.put(record.getId(), new Cached(record, now, record.getLastAccessedTime()));
+      return;
+    }
+
+    Cached cached = nearCache.get(session.getId());
+    boolean onlyTouched = cached != null
+        && Arrays.equals(cached.record().getAttributes(), record.getAttributes())
+        && cached.record().getMaxInactiveSeconds() == record.getMaxInactiveSeconds();
+    if (!onlyTouched) {
+      if (httpSessionRecordRepository.update(record) == 0) {
+        log.debug("session {} was deleted elsewhere; not saving it", record.getId());
+        forget(record.getId());
+        return;
+      }
+      nearCache.put(record.getId(), new Cached(record, now, record.getLastAccessedTime()));
+      return;
+    }
+    if (record.getLastAccessedTime() - cached.writtenAccessTime() < touchSeconds * 1000) {
+      // keep loadedAt, so changes from other nodes are still picked up
+      nearCache.put(record.getId(), new Cached(record, cached.loadedAt(), cached.writtenAccessTime()));
+      return;
+    }
+
+    synchronized (this) {
+      pendingTouches.put(record.getId(), record);
+    }
+    nearCache.put(record.getId(), new Cached(record, now, record.getLastAccessedTime()));
+  }
+
+  @Override
+  public MapSession findById(String id) {
+    long now = clock.millis();
+    Cached cached = nearCache.get(id);
+    if (cached != null && now - cached.loadedAt() < nearCacheSeconds * 1000) {
+      hits.increment();
+      CacheAccessEvent.record("sharedSessions", true);
+      return live(cached.record(), now);
+    }
+    misses.increment();
+    CacheAccessEvent.record("sharedSessions", false);
+
+    Optional<HttpSessionRecord> stored = httpSessionRecordRepository.findById(id);
+    if (stored.isEmpty()) {
+      nearCache.remove(id);
+      return null;
+    }
+    HttpSessionRecord record = stored.get();
+    synchronized (this) {
+      // a touch from this node that is not written yet is newer than the row
+      HttpSessionRecord touch = pendingTouches.get(id);
+      if (touch != null && touch.getLastAccessedTime() > record.getLastAccessedTime()) {
+        record.setLastAccessedTime(touch.getLastAccessedTime());
+        record.setExpiresAt(touch.getExpiresAt());
+      }
+    }
+
+    nearCache.put(id, new Cached(record, now, record.getLastAccessedTime()));
+    return live(record, now);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    forget(id);
+    unsaved.remove(id);
+    httpSessionRecordRepository.deleteAllByIdIn(List.of(id));
+  }
+
+  private void forget(String id) {
+    nearCache.remove(id);
+    synchronized (this) {
+      pendingTouches.remove(id);
+    }
+  }
+
+  /**
+   * Writes the buffered touches; runs every <code>app.session.flushMillis</code>.
+   */
+  @Scheduled(fixedDelayString = "${app.session.flushMillis:1000}")
+  public void flush() {
+    Map<String, HttpSessionRecord> batch;
+    synchronized (this) {
+      if (pendingTouches.isEmpty()) {
+        return;
+      }
+      batch = pendingTouches;
+      pendingTouches = new LinkedHashMap<>();
+    }
+
+    try {
+      httpSessionRecordRepository.touchAll(batch.values());
+      log.debug("flushed {} session touches", batch.size());
+    } catch (RuntimeException e) {
+      log.warn("could not write {} session touches, will retry", batch.size(), e);
+      synchronized (this) {
+        // keep anything touched since the batch was taken
+        Map<String, HttpSessionRecord> retry = new LinkedHashMap<>(batch);
+        retry.putAll(pendingTouches);
+        pendingTouches = retry;
+      }
+    }
+  }
+
+  /**
+   * Deletes expired sessions; runs every <code>app.session.sweepMillis</code>.
+   * Stored expiry times can lag by up to touchSeconds, so the cutoff does too.
+   */
+  @Scheduled(fixedDelayString = "${app.session.sweepMillis:60000}")
+  public void sweep() {
+    long now = clock.millis();
+    int deleted = httpSessionRecordRepository.deleteExpired(now - touchSeconds * 1000);
+    int before = nearCache.size();
+    nearCache.values().removeIf(c -> now - c.loadedAt() >= nearCacheSeconds * 1000);
+    evictions.add(before - nearCache.size());
+    // created but never saved, e.g. because the request failed
+    unsaved.values().removeIf(createdAt -> now - createdAt >= maxInactiveInterval.toMillis());
+    if (deleted > 0) {
+      log.info("swept {} expired sessions", deleted);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  @Override
+  public CacheStats getCacheStats() {
+    return CacheStats.builder()
+        .name("sharedSessions")
+        .hits(hits.sum())
+        .misses(misses.sum())
+        .evictions(evictions.sum())
+        .size(nearCache.size())
+        .build();
+  }
+
+  // Decodes a fresh session the caller may modify, or returns null (and deletes the session) if it has expired.
+  // Stored access times can lag by up to touchSeconds, so expiry allows for that.
+  private MapSession live(HttpSessionRecord record, long now) {
+    if (record.getMaxInactiveSeconds() >= 0 && now >= record.getExpiresAt() + touchSeconds * 1000) {
+      deleteById(record.getId());
+      return null;
+    }
+    MapSession session = new MapSession(record.getId());
+    session.setCreationTime(Instant.ofEpochMilli(record.getCreationTime()));
+    session.setLastAccessedTime(Instant.ofEpochMilli(record.getLastAccessedTime()));
+    session.setMaxInactiveInterval(Duration.ofSeconds(record.getMaxInactiveSeconds()));
+    SessionAttributeCodec.decode(record.getAttributes()).forEach(session::setAttribute);
+    return session;
+  }
+
+  private static HttpSessionRecord toRecord(MapSession session) {
+    long accessTime = session.getLastAccessedTime().toEpochMilli();
+    return HttpSessionRecord.builder()
+        .id(session.getId())
+        .principalName(principalName(session))
+        .creationTime(session.getCreationTime().toEpochMilli())
+        .lastAccessedTime(accessTime)
+        .maxInactiveSeconds((int) session.getMaxInactiveInterval().getSeconds())
+        .expiresAt(accessTime + session.getMaxInactiveInterval().toMillis())
+        .attributes(SessionAttributeCodec.encode(attributeMap(session)))
+        .build();
+  }
+
+  private static Map<String, Object> attributeMap(MapSession session) {
+    Map<String, Object> attributes = new TreeMap<>();
+    for (String name : session.getAttributeNames()) {
+      attributes.put(name, session.getAttribute(name));
+    }
+    return attributes;
+  }
+
+  private static String principalName(MapSession session) {
+    Object context = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+    if (context instanceof SecurityContext) {
+      Authentication authentication = ((SecurityContext) context).getAuthentication();
+      return authentication == null ? null : authentication.getName();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.StartupTimeline;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Service;
+
+/**
+ * Summarizes the startup steps recorded by the BufferingApplicationStartup
+ * that ExampleApplication starts with, for /api/systemInfo/startup, and logs
+ * the slowest of them once the application is ready.
+ */
+
+@Slf4j
+@Service("startupTimeline")
+public class StartupTimelineService {
+
+  static final int LOGGED_STEPS = 10;
+
+  @Autowired
+  ConfigurableApplicationContext applicationContext;
+
+  Clock clock = Clock.systemUTC();
+
+  long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+  private volatile Instant readyAt;
+
+  @EventListener
+  public void onApplicationReady(ApplicationReadyEvent event) {
+    readyAt = clock.instant();
+    StartupTimeline timeline = getStartupTimeline(LOGGED_STEPS);
+    if (!timeline.getRecorded()) {
+      return;
+    }
+    log.info("started in {} ms ({} ms since JVM start), {} steps recorded; slowest: {}",
+        timeline.getApplicationMillis(), timeline.getJvmMillis(), timeline.getStepCount(),
+        timeline.getSlowestSteps().stream()
+            .map(step -> step.getName() + " " + step.getTags() + " " + step.getSelfMillis() + " ms")
+            .collect(Collectors.joining(", ")));
+  }
+
+  /**
+   * Returns the <code>top</code> slowest steps by their own time, and the
+   * total time of each kind of step.
+   */
+  public StartupTimeline getStartupTimeline(int top) {
+    ApplicationStartup startup = applicationContext.getApplicationStartup();
+    if (!(startup instanceof BufferingApplicationStartup)) {
+      return StartupTimeline.builder()
+          .recorded(false)
+          .slowestSteps(List.of())
+          .stepTotals(List.of())
+          .build();
+    }
+
+    org.springframework.boot.context.metrics.buffering.StartupTimeline timeline =
+        ((BufferingApplicationStartup) startup).getBufferedTimeline();
+    List<TimelineEvent> events = timeline.getEvents();
+
+    Map<Long, Long> childMillis = new HashMap<>();
+    for (TimelineEvent event : events) {
+      Long parentId = event.getStartupStep().getParentId();
+      if (parentId != null) {
+        childMillis.merge(parentId, event.getDuration().toMillis(), Long::sum);
+      }
+    }
+
+    List<StartupTimeline.Step> steps = new ArrayList<>(events.size());
+    Map<String, StartupTimeline.StepTotal> totals = new HashMap<>();
+    for (TimelineEvent event : events) {
+      StartupStep step = event.getStartupStep();
+      long duration = event.getDuration().toMillis();
+      long self = Math.max(0, duration - childMillis.getOrDefault(step.getId(), 0L));
+      steps.add(new StartupTimeline.Step(step.getName(), tagsOf(step), duration, self));
+      StartupTimeline.StepTotal total = totals.computeIfAbsent(step.getName(),
+          name -> new StartupTimeline.StepTotal(name, 0, 0, 0));
+      total.setCount(total.getCount() + 1);
+      total.setTotalMillis(total.getTotalMillis() + duration);
+      total.setSelfMillis(total.getSelfMillis() + self);
+    }
+    steps.sort(Comparator.comparingLong(StartupTimeline.Step::getSelfMillis).reversed());
+    List<StartupTimeline.StepTotal> stepTotals = new ArrayList<>(totals.values());
+    stepTotals.sort(Comparator.comparingLong(StartupTimeline.StepTotal::getTotalMillis).reversed());
+
+    Instant ready = readyAt != null ? readyAt : clock.instant();
+    return StartupTimeline.builder()
+        .recorded(true)
+        .startedAt(timeline.getStartTime())
+        .jvmMillis(ready.toEpochMilli() - jvmStartMillis)
+        .applicationMillis(ready.toEpochMilli() - timeline.getStartTime().toEpochMilli())
+        .stepCount(events.size())
+        .slowestSteps(List.copyOf(steps.subList(0, Math.min(top, steps.size()))))
+        .stepTotals(stepTotals)
+        .build();
+  }
+
+  // e.g. "beanName=entityManagerFactory"
+  private static String tagsOf(StartupStep step) {
+    StringJoiner tags = new StringJoiner(", ");
+    for (StartupStep.Tag tag : step.getTags()) {
+      tags.add(tag.getKey() + "=" + tag.getValue());
+    }
+    return tags.toString();
+  }
+}
@@ -0,0 +1,131 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.models.SystemHealth;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Snapshots the node's runtime health (memory, GC, threads, the Hikari pool
+ * and cache hit ratios) every <code>app.systemHealth.snapshotMillis</code>
+ * (default 10 seconds), so reading it at /api/systemInfo/health costs no
+ * more than returning the last snapshot.
+ */
+
+@Service("systemHealth")
+public class SystemHealthService {
+
+  @Autowired(required = false)
+  DataSource dataSource;
+
+  @Autowired(required = false)
+  List<CacheStatsProvider> cacheStatsProviders = new ArrayList<>();
+
+  Clock clock = Clock.systemUTC();
+
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+  private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+  private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+  private volatile SystemHealth latest;
+
+  /**
+   * Returns the latest snapshot, taking the first one if there is none yet.
+   */
+  public SystemHealth getSystemHealth() {
+    SystemHealth health = latest;
+    return health != null ? health : refresh();
+  }
+
+  @Scheduled(fixedDelayString = "${app.systemHealth.snapshotMillis:10000}")
+  public SystemHealth refresh() {
+    MemoryUsage heap = memory.getHeapMemoryUsage();
+    MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+
+    List<SystemHealth.GarbageCollector> collectors = new ArrayList<>();
+    for (GarbageCollectorMXBean collector : garbageCollectors) {
+      collectors.add(SystemHealth.GarbageCollector.builder()
+          .name(collector.getName())
+          .collections(Math.max(collector.getCollectionCount(), 0))
+          .collectionMillis(Math.max(collector.getCollectionTime(), 0))
+          .build());
+    }
+
+    List<CacheStats> caches = new ArrayList<>();
+    cacheStatsProviders.forEach(provider -> caches.add(provider.getCacheStats()));
+    caches.sort(Comparator.comparing(CacheStats::getName));
+
+    SystemHealth health = SystemHealth.builder()
+        .takenAt(clock.instant())
+        .uptimeMillis(runtime.getUptime())
+        .availableProcessors(operatingSystem.getAvailableProcessors())
+        .systemLoadAverage(operatingSystem.getSystemLoadAverage())
+        .heapUsedBytes(heap.getUsed())
+        .heapCommittedBytes(heap.getCommitted())
+        .heapMaxBytes(heap.getMax())
+        .nonHeapUsedBytes(nonHeap.getUsed())
+        .nonHeapCommittedBytes(nonHeap.getCommitted())
+        .garbageCollectors(collectors)
+        .threadCount(threads.getThreadCount())
+        .daemonThreadCount(threads.getDaemonThreadCount())
+        .peakThreadCount(threads.getPeakThreadCount())
+        .connectionPool(connectionPool())
+        .caches(caches)
+        .build();
+    latest = health;
+    return health;
+  }
+
+  private SystemHealth.ConnectionPool connectionPool() {
+    HikariDataSource hikari = hikari();
+    if (hikari == null) {
+      return null;
+    }
+    SystemHealth.ConnectionPool.ConnectionPoolBuilder pool = SystemHealth.ConnectionPool.builder()
+        .name(hikari.getPoolName())
+        .maximum(hikari.getMaximumPoolSize());
+    // null until the pool hands out its first connection
+    HikariPoolMXBean mxBean = hikari.getHikariPoolMXBean();
+    if (mxBean != null) {
+      pool.active(mxBean.getActiveConnections())
+          .idle(mxBean.getIdleConnections())
+          .waiting(mxBean.getThreadsAwaitingConnection())
+          .total(mxBean.getTotalConnections());
+    }
+    return pool.build();
+  }
+
+  // looks through wrappers such as StatementCountingDataSource
+  private HikariDataSource hikari() {
+    if (dataSource == null) {
+      return null;
+    }
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+    } catch (SQLException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.util.TimeKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Read-through, time-ordered snapshot of all UCSB dates.
+ *
+ * Readers use an immutable NavigableMap keyed by localDateTime without
+ * locking or querying; UCSBDatesController reports every mutation, and each
+ * one builds a new map (copy-on-write) and swaps it in.  Dates are written
+ * rarely and read on every calendar render, so copying on write is cheap.
+ */
+
+@Slf4j
+@Service("ucsbDateIndex")
+public class UCSBDateIndexService {
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  Clock clock = Clock.systemDefaultZone();
+
+  // null until first use
+  private volatile NavigableMap<TimeKey, UCSBDate> snapshot;
+
+  /**
+   * Returns the dates between <code>start</code> and <code>end</code> (inclusive), in order.
+   */
+  public List<UCSBDate> between(LocalDateTime start, LocalDateTime end) {
+    if (end.isBefore(start)) {
+      return Collections.emptyList();
+    }
+    return new ArrayList<>(getSnapshot()
+        .subMap(TimeKey.first(start), true, TimeKey.last(end), true)
+        .values());
+  }
+
+  /**
+   * Returns the next <code>count</code> dates at or after the current time, in order.
+   */
+  public List<UCSBDate> upcoming(int count) {
+    List<UCSBDate> result = new ArrayList<>();
+    Iterator<UCSBDate> it = getSnapshot()
+        .tailMap(TimeKey.first(LocalDateTime.now(clock)), true)
+        .values().iterator();
+    while (result.size() < count && it.hasNext()) {
+      result.add(it.next());
+    }
+    return result;
+  }
+
+  /**
+   * Called after a date is created or updated.
+   */
+  public synchronized void upsert(UCSBDate ucsbDate) {
+    if (snapshot == null) {
+      return;
+    }
+    TreeMap<TimeKey, UCSBDate> copy = new TreeMap<>(snapshot);
+    copy.values().removeIf(d -> d.getId() == ucsbDate.getId());
+    put(copy, copyOf(ucsbDate));
+    snapshot = Collections.unmodifiableNavigableMap(copy);
+  }
+
+  /**
+   * Called after a date is deleted.
+   */
+  public synchronized void remove(long id) {
+    if (snapshot == null) {
+      return;
+    }
+    TreeMap<TimeKey, UCSBDate> copy = new TreeMap<>(snapshot);
+    copy.values().removeIf(d -> d.getId() == id);
+    snapshot = Collections.unmodifiableNavigableMap(copy);
+  }
+
+  private NavigableMap<TimeKey, UCSBDate> getSnapshot() {
+    NavigableMap<TimeKey, UCSBDate> current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot == null) {
+        TreeMap<TimeKey, UCSBDate> loaded = new TreeMap<>();
+        for (UCSBDate ucsbDate : ucsbDateRepository.findAll()) {
+          put(loaded, copyOf(ucsbDate));
+        }
+        snapshot = Collections.unmodifiableNavigableMap(loaded);
+        log.info("ucsb date index loaded with {} dates", loaded.size());
+      }
+      return snapshot;
+    }
+  }
+
+  private static void put(TreeMap<TimeKey, UCSBDate> map, UCSBDate ucsbDate) {
+    if (ucsbDate.getLocalDateTime() != null) {
+      map.put(new TimeKey(ucsbDate.getLocalDateTime(), ucsbDate.getId()), ucsbDate);
+    }
+  }
+
+  // Entities are mutable, so the snapshot keeps its own copies.
+  private static UCSBDate copyOf(UCSBDate ucsbDate) {
+    return UCSBDate.builder()
+        .id(ucsbDate.getId())
+        .quarterYYYYQ(ucsbDate.getQuarterYYYYQ())
+        .name(ucsbDate.getName())
+        .localDateTime(ucsbDate.getLocalDateTime())
+        .build();
+  }
+}
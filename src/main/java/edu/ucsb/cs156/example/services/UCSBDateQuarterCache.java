@@ -0,0 +1,160 @@
+package edu.ucsb.cs156.example.services;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.jfr.CacheAccessEvent;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of <code>findAllByQuarterYYYYQ</code> results, one bucket per quarter.
+ *
+ * The buckets for the current and next quarter are pinned; all other quarters
+ * share <code>app.ucsbdates.quarterCache.maxQuarters</code> LRU slots.
+ * UCSBDatesController invalidates only the quarters touched by a write.
+ *
+ * Entities are mutable, so buckets hold copies of what the repository
+ * returned and every lookup hands out copies of those.
+ */
+
+@Slf4j
+@Service("ucsbDateQuarterCache")
+public class UCSBDateQuarterCache implements CacheStatsProvider {
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Value("${app.ucsbdates.quarterCache.maxQuarters:8}")
+  int maxQuarters = 8;
+
+  Clock clock = Clock.systemDefaultZone();
+
+  // Guarded by "this"
+  private final Map<String, List<UCSBDate>> pinned = new HashMap<>();
+  private final LinkedHashMap<String, List<UCSBDate>> lru = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Long> generations = new HashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Returns the dates for a quarter, e.g. <code>20222</code> for Spring 2022.
+   */
+  public List<UCSBDate> findAllByQuarterYYYYQ(String quarterYYYYQ) {
+    long generation;
+    synchronized (this) {
+      List<UCSBDate> cached = pinned.containsKey(quarterYYYYQ) ? pinned.get(quarterYYYYQ) : lru.get(quarterYYYYQ);
+      if (cached != null) {
+        hits.increment();
+        CacheAccessEvent.record("ucsbDateQuarterCache", true);
+        return copiesOf(cached);
+      }
+      misses.increment();
+      CacheAccessEvent.record("ucsbDateQuarterCache", false);
+      generation = generations.getOrDefault(quarterYYYYQ, 0L);
+    }
+
+    List<UCSBDate> loaded = copiesOf(ucsbDateRepository.findAllByQuarterYYYYQ(quarterYYYYQ));
+
+    synchronized (this) {
+      // skip the fill if a write invalidated this quarter while we were loading
+      if (generations.getOrDefault(quarterYYYYQ, 0L) == generation) {
+        store(quarterYYYYQ, Collections.unmodifiableList(copiesOf(loaded)));
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Drops the cached dates for a quarter; called after a write to that quarter.
+   */
+  public synchronized void invalidate(String quarterYYYYQ) {
+    if (quarterYYYYQ == null) {
+      return;
+    }
+    generations.merge(quarterYYYYQ, 1L, Long::sum);
+    pinned.remove(quarterYYYYQ);
+    lru.remove(quarterYYYYQ);
+  }
+
+  @Override
+  public synchronized CacheStats getCacheStats() {
+    return CacheStats.builder()
+        .name("ucsbDateQuarterCache")
+        .hits(hits.sum())
+        .misses(misses.sum())
+        .evictions(evictions.sum())
+        .size(pinned.size() + lru.size())
+        .build();
+  }
+
+  /**
+   * The quarters that are never evicted: the current one and the next one.
+   * Quarters are numbered 1 (winter) to 4 (fall) and approximated by calendar
+   * month, which is close enough for choosing what to pin.
+   */
+  public Set<String> pinnedQuarters() {
+    LocalDate today = LocalDate.now(clock);
+    int year = today.getYear();
+    int quarter = (today.getMonthValue() - 1) / 3 + 1;
+    String current = "%d%d".formatted(year, quarter);
+    String next = quarter == 4 ? "%d1".formatted(year + 1) : "%d%d".formatted(year, quarter + 1);
+    return Set.of(current, next);
+  }
+
+  private void store(String quarterYYYYQ, List<UCSBDate> dates) {
+    Set<String> pinnedQuarters = pinnedQuarters();
+
+    // quarters roll over; move buckets that are no longer pinned into the LRU
+    pinned.keySet().removeIf(q -> {
+      if (pinnedQuarters.contains(q)) {
+        return false;
+      }
+      lru.put(q, pinned.get(q));
+      return true;
+    });
+
+    if (pinnedQuarters.contains(quarterYYYYQ)) {
+      lru.remove(quarterYYYYQ);
+      pinned.put(quarterYYYYQ, dates);
+    } else {
+      lru.put(quarterYYYYQ, dates);
+    }
+
+    while (lru.size() > maxQuarters) {
+      String eldest = lru.keySet().iterator().next();
+      lru.remove(eldest);
+      evictions.increment();
+      log.debug("evicted quarter {} from ucsb date quarter cache", eldest);
+    }
+  }
+
+  private static List<UCSBDate> copiesOf(Iterable<UCSBDate> ucsbDates) {
+    List<UCSBDate> copies = new ArrayList<>();
+    for (UCSBDate ucsbDate : ucsbDates) {
+      copies.add(UCSBDate.builder()
+          .id(ucsbDate.getId())
+          .quarterYYYYQ(ucsbDate.getQuarterYYYYQ())
+          .name(ucsbDate.getName())
+          .localDateTime(ucsbDate.getLocalDateTime())
+          .build());
+    }
+    return copies;
+  }
+}
@@ -0,0 +1,89 @@
+package edu.ucsb.cs156.example.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable index of boolean flags over a fixed list of values.
+ *
+ * Each value gets a dense ordinal (its position in the list) and each flag a
+ * {@link BitSet} with one bit per ordinal, so combining flags is a handful of
+ * word-wide ANDs or ORs instead of a scan.  Any entity with boolean columns
+ * can be indexed by naming its flags, e.g.
+ * <code>Map.of("inactive", UCSBOrganization::getInactive)</code>.
+ * To change the values, build a new index.
+ */
+public final class FlagIndex<T> {
+
+  public enum Match {
+    ALL, ANY
+  }
+
+  private final List<T> values;
+  private final Map<String, BitSet> bits;
+
+  /**
+   * @param values the values, in the order results should be returned
+   * @param flags  flag name -&gt; whether a value has that flag
+   */
+  public FlagIndex(Collection<? extends T> values, Map<String, ? extends Predicate<? super T>> flags) {
+    this.values = List.copyOf(values);
+    Map<String, BitSet> built = new LinkedHashMap<>();
+    flags.forEach((name, predicate) -> {
+      BitSet set = new BitSet(this.values.size());
+      for (int ordinal = 0; ordinal < this.values.size(); ordinal++) {
+        if (predicate.test(this.values.get(ordinal))) {
+          set.set(ordinal);
+        }
+      }
+      built.put(name, set);
+    });
+    this.bits = Collections.unmodifiableMap(built);
+  }
+
+  /**
+   * Returns the values that have all (or any) of the given flags, in index
+   * order.  With no flags, <code>ALL</code> matches every value and
+   * <code>ANY</code> matches none.
+   *
+   * @throws IllegalArgumentException if a flag is not indexed
+   */
+  public List<T> matching(Collection<String> flags, Match match) {
+    BitSet result = new BitSet(values.size());
+    if (match == Match.ALL) {
+      result.set(0, values.size());
+    }
+    for (String flag : flags) {
+      BitSet set = bits.get(flag);
+      if (set == null) {
+        throw new IllegalArgumentException("unknown flag: " + flag);
+      }
+      if (match == Match.ALL) {
+        result.and(set);
+      } else {
+        result.or(set);
+      }
+    }
+
+    List<T> matches = new ArrayList<>(result.cardinality());
+    for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+      matches.add(values.get(ordinal));
+    }
+    return matches;
+  }
+
+  public Set<String> getFlags() {
+    return bits.keySet();
+  }
+
+  public int size() {
+    return values.size();
+  }
+}
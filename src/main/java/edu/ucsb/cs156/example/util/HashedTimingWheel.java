@@ -0,0 +1,202 @@
+package edu.ucsb.cs156.example.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A hashed timing wheel for a large number of coarse-grained timers.
+ *
+ * Timers are hashed into <code>wheelSize</code> buckets by their deadline tick;
+ * timers further away than one revolution carry a round count.  A single
+ * daemon thread advances the wheel once per tick and runs the tasks that have
+ * expired, so scheduling and cancelling are O(1) and no table is polled.
+ *
+ * Tasks run on the wheel thread and should be short; a task that throws is
+ * logged and does not stop the wheel.
+ *
+ * @see <a href="http://www.cs.columbia.edu/~nahum/w6998/papers/sosp87-timing-wheels.pdf">Varghese and Lauck, Hashed and Hierarchical Timing Wheels</a>
+ */
+
+@Slf4j
+public class HashedTimingWheel implements AutoCloseable {
+
+  /**
+   * Handle for a scheduled task.
+   */
+  public static final class Timeout {
+    private final Runnable task;
+    private final long deadlineTick;
+    private long remainingRounds;
+    private volatile boolean cancelled;
+
+    private Timeout(Runnable task, long deadlineTick) {
+      this.task = task;
+      this.deadlineTick = deadlineTick;
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  private final String name;
+  private final Clock clock;
+  private final long tickMillis;
+  private final int mask;
+  private final Queue<Timeout>[] buckets;
+  private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+  private final long startMillis;
+  private final boolean startWorker;
+
+  // only touched by the wheel thread
+  private long currentTick = 0;
+
+  private Thread worker;
+  private volatile boolean stopped = false;
+
+  /**
+   * @param name       thread name
+   * @param clock      clock used to compute deadlines
+   * @param tickDuration resolution of the wheel
+   * @param wheelSize  number of buckets; rounded up to a power of two
+   */
+  public HashedTimingWheel(String name, Clock clock, Duration tickDuration, int wheelSize) {
+    this(name, clock, tickDuration, wheelSize, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  HashedTimingWheel(String name, Clock clock, Duration tickDuration, int wheelSize, boolean startWorker) {
+    if (tickDuration.toMillis() <= 0) {
+      throw new IllegalArgumentException("tickDuration must be at least 1ms");
+    }
+    if (wheelSize <= 0) {
+      throw new IllegalArgumentException("wheelSize must be positive");
+    }
+    int size = Integer.highestOneBit(wheelSize - 1) << 1;
+    if (size <= 0) {
+      size = 1;
+    }
+    this.name = name;
+    this.clock = clock;
+    this.tickMillis = tickDuration.toMillis();
+    this.mask = size - 1;
+    this.buckets = new Queue[size];
+    for (int i = 0; i < size; i++) {
+      buckets[i] = new ArrayDeque<>();
+    }
+    this.startMillis = clock.millis();
+    this.startWorker = startWorker;
+  }
+
+  public int getWheelSize() {
+    return buckets.length;
+  }
+
+  /**
+   * Schedules <code>task</code> to run at (or shortly after) <code>deadline</code>.
+   * Deadlines in the past run on the next tick.
+   */
+  public Timeout schedule(Instant deadline, Runnable task) {
+    if (stopped) {
+      throw new IllegalStateException("timing wheel %s is stopped".formatted(name));
+    }
+    long deadlineTick = Math.max(0, ceilDiv(deadline.toEpochMilli() - startMillis, tickMillis));
+    Timeout timeout = new Timeout(task, deadlineTick);
+    pending.add(timeout);
+    startIfNeeded();
+    return timeout;
+  }
+
+  /**
+   * Advances the wheel to the current time and runs expired tasks.
+   * Package-private so tests can drive the wheel without the worker thread.
+   */
+  void advance() {
+    long nowTick = (clock.millis() - startMillis) / tickMillis;
+    transferPending();
+    while (currentTick <= nowTick) {
+      expire(buckets[(int) (currentTick & mask)]);
+      currentTick++;
+      transferPending();
+    }
+  }
+
+  private void transferPending() {
+    Timeout timeout;
+    while ((timeout = pending.poll()) != null) {
+      if (timeout.cancelled) {
+        continue;
+      }
+      long tick = Math.max(timeout.deadlineTick, currentTick);
+      timeout.remainingRounds = (tick - currentTick) / buckets.length;
+      buckets[(int) (tick & mask)].add(timeout);
+    }
+  }
+
+  private void expire(Queue<Timeout> bucket) {
+    Iterator<Timeout> it = bucket.iterator();
+    while (it.hasNext()) {
+      Timeout timeout = it.next();
+      if (timeout.cancelled) {
+        it.remove();
+      } else if (timeout.remainingRounds <= 0) {
+        it.remove();
+        run(timeout);
+      } else {
+        timeout.remainingRounds--;
+      }
+    }
+  }
+
+  private void run(Timeout timeout) {
+    try {
+      timeout.task.run();
+    } catch (RuntimeException e) {
+      log.warn("timing wheel {} task failed", name, e);
+    }
+  }
+
+  private synchronized void startIfNeeded() {
+    if (worker != null || stopped || !startWorker) {
+      return;
+    }
+    worker = new Thread(this::runWorker, name);
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  private void runWorker() {
+    while (!stopped) {
+      try {
+        Thread.sleep(tickMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      advance();
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    stopped = true;
+    if (worker != null) {
+      worker.interrupt();
+    }
+  }
+
+  private static long ceilDiv(long x, long y) {
+    return -Math.floorDiv(-x, y);
+  }
+}
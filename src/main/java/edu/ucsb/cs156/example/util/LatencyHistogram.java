@@ -0,0 +1,163 @@
+package edu.ucsb.cs156.example.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ *
+ * Buckets are log-linear, as in HdrHistogram: values below 32 are exact, and
+ * every power of two above that is split into 32 equal sub-buckets, so a
+ * reported value is within about 3% of the recorded one.  Values of 2^36 ns
+ * (about 69 seconds) and more share the last bucket.
+ *
+ * Writers pick one of several stripes by thread id, so concurrent requests
+ * rarely increment the same cache line, and recording is a couple of atomic
+ * adds.  Readers merge the stripes into a {@link Snapshot}; a snapshot taken
+ * while values are being recorded may miss the newest ones.
+ *
+ * Each stripe is an array of 1,026 longs, about 8 KB, created when a thread
+ * that maps to it first records.  There are as many stripes as CPUs, rounded
+ * up to a power of two and at most 16, so a busy endpoint (or repository
+ * method) costs up to about 131 KB on a machine with 16 or more CPUs, and
+ * about 8 KB on one with a single CPU.
+ */
+public class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 5;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int MAX_EXPONENT = 36;
+  static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+  static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+  // slots after the buckets in each stripe
+  private static final int SUM = BUCKETS;
+  private static final int MAX = BUCKETS + 1;
+
+  private static final int STRIPES = stripeCount();
+
+  // created on first use, so an idle endpoint only costs this array of STRIPES references
+  private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+    AtomicLongArray stripe = stripe();
+    stripe.incrementAndGet(bucketOf(value));
+    stripe.addAndGet(SUM, value);
+    long max = stripe.get(MAX);
+    while (value > max && !stripe.weakCompareAndSetVolatile(MAX, max, value)) {
+      max = stripe.get(MAX);
+    }
+  }
+
+  public Snapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    long sum = 0;
+    long max = 0;
+    for (int s = 0; s < STRIPES; s++) {
+      AtomicLongArray stripe = stripes.get(s);
+      if (stripe == null) {
+        continue;
+      }
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] += stripe.get(i);
+      }
+      sum += stripe.get(SUM);
+      max = Math.max(max, stripe.get(MAX));
+    }
+    return new Snapshot(counts, sum, max);
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  // The largest value that falls into the bucket.
+  static long highestValueIn(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  private AtomicLongArray stripe() {
+    int index = (int) (mix(Thread.currentThread().getId()) & (STRIPES - 1));
+    AtomicLongArray stripe = stripes.get(index);
+    if (stripe == null) {
+      stripes.compareAndSet(index, null, new AtomicLongArray(BUCKETS + 2));
+      stripe = stripes.get(index);
+    }
+    return stripe;
+  }
+
+  private static long mix(long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 32);
+  }
+
+  // a power of two, at least the number of CPUs, at most 16
+  private static int stripeCount() {
+    int cpus = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+    return Integer.highestOneBit(Math.max(cpus, 1) * 2 - 1);
+  }
+
+  /**
+   * Merged counts at one point in time.
+   */
+  public static class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    Snapshot(long[] counts, long sum, long max) {
+      long total = 0;
+      for (long c : counts) {
+        total += c;
+      }
+      this.counts = counts;
+      this.count = total;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    public double getMean() {
+      return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value that <code>percentile</code> percent of the recorded
+     * values are at or below, e.g. <code>valueAt(99.9)</code>; 0 if nothing
+     * was recorded.
+     */
+    public long valueAt(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(highestValueIn(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
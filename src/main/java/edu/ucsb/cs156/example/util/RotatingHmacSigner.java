@@ -0,0 +1,144 @@
+package edu.ucsb.cs156.example.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HMAC-SHA256 signatures with signing keys that rotate on a fixed schedule.
+ *
+ * The key for each rotation epoch (<code>now / rotation</code>) is derived
+ * from a shared secret, so every node that has the secret derives the same
+ * keys at the same time without talking to the others.  Tokens name the epoch
+ * they were signed in; a token verifies under the current or the previous
+ * epoch's key, so a rotation never invalidates a token issued just before it.
+ *
+ * The derived keys only limit how long a token is good for; they are no
+ * protection once the secret itself leaks.  To replace the secret, put the
+ * new one first in the list and keep the old one after it: tokens are signed
+ * with the first secret and verify under any of them, so the old secret can
+ * be dropped once the tokens signed with it have expired.
+ *
+ * A token looks like <code>payload.epoch.signature</code>, with payload and
+ * signature base64url-encoded.  The purpose is part of the signed data, so a
+ * token signed for one purpose does not verify for another.
+ */
+public class RotatingHmacSigner {
+
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final List<byte[]> secrets;
+  private final long rotationMillis;
+  private final Clock clock;
+
+  // one map per secret, from epoch to derived key
+  private final List<ConcurrentHashMap<Long, SecretKeySpec>> keys = new ArrayList<>();
+
+  public RotatingHmacSigner(byte[] secret, Duration rotation, Clock clock) {
+    this(List.of(secret), rotation, clock);
+  }
+
+  /**
+   * @param secrets the current secret first, then any previous ones that
+   *                tokens may still be signed with
+   */
+  public RotatingHmacSigner(List<byte[]> secrets, Duration rotation, Clock clock) {
+    if (secrets.isEmpty()) {
+      throw new IllegalArgumentException("at least one secret is required");
+    }
+    for (byte[] secret : secrets) {
+      if (secret.length < 32) {
+        throw new IllegalArgumentException("secret must be at least 32 bytes");
+      }
+    }
+    if (rotation.isNegative() || rotation.isZero()) {
+      throw new IllegalArgumentException("rotation must be positive");
+    }
+    this.secrets = secrets.stream().map(byte[]::clone).toList();
+    this.rotationMillis = rotation.toMillis();
+    this.clock = clock;
+    for (int i = 0; i < secrets.size(); i++) {
+      keys.add(new ConcurrentHashMap<>());
+    }
+  }
+
+  public String sign(String purpose, byte[] payload) {
+    long epoch = currentEpoch();
+    String body = ENCODER.encodeToString(payload) + "." + epoch;
+    return body + "." + ENCODER.encodeToString(mac(key(0, epoch), purpose, body));
+  }
+
+  /**
+   * Returns the payload if the token was signed with any of this signer's
+   * secrets for <code>purpose</code> in the current or previous epoch.
+   */
+  public Optional<byte[]> verify(String purpose, String token) {
+    if (token == null) {
+      return Optional.empty();
+    }
+    int lastDot = token.lastIndexOf('.');
+    int epochDot = lastDot < 0 ? -1 : token.lastIndexOf('.', lastDot - 1);
+    if (epochDot < 0) {
+      return Optional.empty();
+    }
+    try {
+      long epoch = Long.parseLong(token.substring(epochDot + 1, lastDot));
+      long current = currentEpoch();
+      if (epoch != current && epoch != current - 1) {
+        return Optional.empty();
+      }
+      String body = token.substring(0, lastDot);
+      byte[] signature = DECODER.decode(token.substring(lastDot + 1));
+      for (int i = 0; i < secrets.size(); i++) {
+        if (MessageDigest.isEqual(signature, mac(key(i, epoch), purpose, body))) {
+          return Optional.of(DECODER.decode(token.substring(0, epochDot)));
+        }
+      }
+      return Optional.empty();
+    } catch (IllegalArgumentException e) {
+      // not a number or not base64
+      return Optional.empty();
+    }
+  }
+
+  long currentEpoch() {
+    return Math.floorDiv(clock.millis(), rotationMillis);
+  }
+
+  private SecretKeySpec key(int secret, long epoch) {
+    ConcurrentHashMap<Long, SecretKeySpec> secretKeys = keys.get(secret);
+    SecretKeySpec key = secretKeys.get(epoch);
+    if (key == null) {
+      key = new SecretKeySpec(
+          mac(new SecretKeySpec(secrets.get(secret), ALGORITHM), "key", Long.toString(epoch)), ALGORITHM);
+      // only the current and previous epochs are ever used
+      secretKeys.keySet().removeIf(e -> e < epoch - 1);
+      secretKeys.put(epoch, key);
+    }
+    return key;
+  }
+
+  private static byte[] mac(SecretKeySpec key, String purpose, String data) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      mac.update(purpose.getBytes(StandardCharsets.UTF_8));
+      mac.update((byte) 0);
+      return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(ALGORITHM + " is not available", e);
+    }
+  }
+}
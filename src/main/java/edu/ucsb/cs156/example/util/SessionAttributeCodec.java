@@ -0,0 +1,339 @@
+package edu.ucsb.cs156.example.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.util.SerializationUtils;
+
+/**
+ * Binary encoding of session attributes.
+ *
+ * The attribute that matters for almost every request, the security context
+ * holding an OAuth2AuthenticationToken, is written field by field: user
+ * attributes, authority names and the registration id, with the user
+ * attributes stored once even though OAuth2UserAuthority repeats them.  That
+ * is a fraction of the size of its Java serialization and does not break when
+ * Spring Security's classes change.  Strings, numbers, booleans and lists or
+ * maps of them are written the same way; anything else falls back to Java
+ * serialization.  Authentication details are not kept.
+ */
+public final class SessionAttributeCodec {
+
+  private static final int VERSION = 1;
+
+  // attribute kinds
+  private static final byte JAVA = 0;
+  private static final byte OAUTH2_SECURITY_CONTEXT = 1;
+  private static final byte PLAIN = 2;
+
+  // plain value types
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte TRUE = 2;
+  private static final byte FALSE = 3;
+  private static final byte INT = 4;
+  private static final byte LONG = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte LIST = 7;
+  private static final byte MAP = 8;
+
+  // authority types
+  private static final byte SIMPLE_AUTHORITY = 0;
+  private static final byte USER_AUTHORITY_SAME_ATTRIBUTES = 1;
+  private static final byte USER_AUTHORITY = 2;
+
+  private SessionAttributeCodec() {
+  }
+
+  public static byte[] encode(Map<String, Object> attributes) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeInt(attributes.size());
+      for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+        writeString(out, attribute.getKey());
+        writeAttribute(out, attribute.getValue());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  public static Map<String, Object> decode(byte[] encoded) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+      int version = in.readUnsignedByte();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("unknown session attribute encoding " + version);
+      }
+      int count = in.readInt();
+      Map<String, Object> attributes = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        String name = readString(in);
+        attributes.put(name, readAttribute(in));
+      }
+      return attributes;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeAttribute(DataOutputStream out, Object value) throws IOException {
+    if (isCompactSecurityContext(value)) {
+      out.writeByte(OAUTH2_SECURITY_CONTEXT);
+      writeToken(out, (OAuth2AuthenticationToken) ((SecurityContext) value).getAuthentication());
+    } else if (isPlain(value)) {
+      out.writeByte(PLAIN);
+      writeValue(out, value);
+    } else {
+      out.writeByte(JAVA);
+      byte[] serialized = SerializationUtils.serialize(value);
+      out.writeInt(serialized.length);
+      out.write(serialized);
+    }
+  }
+
+  private static Object readAttribute(DataInputStream in) throws IOException {
+    byte kind = in.readByte();
+    switch (kind) {
+      case OAUTH2_SECURITY_CONTEXT:
+        return new SecurityContextImpl(readToken(in));
+      case PLAIN:
+        return readValue(in);
+      case JAVA:
+        byte[] serialized = new byte[in.readInt()];
+        in.readFully(serialized);
+        return SerializationUtils.deserialize(serialized);
+      default:
+        throw new IllegalArgumentException("unknown session attribute kind " + kind);
+    }
+  }
+
+  // Only exact classes, so subclasses with extra state (e.g. OIDC users) use Java serialization.
+  private static boolean isCompactSecurityContext(Object value) {
+    if (value == null || value.getClass() != SecurityContextImpl.class) {
+      return false;
+    }
+    Authentication authentication = ((SecurityContext) value).getAuthentication();
+    if (authentication == null || authentication.getClass() != OAuth2AuthenticationToken.class) {
+      return false;
+    }
+    OAuth2User user = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+    return user.getClass() == DefaultOAuth2User.class
+        && nameAttributeKey(user) != null
+        && isPlain(user.getAttributes())
+        && compactAuthorities(user.getAuthorities())
+        && compactAuthorities(authentication.getAuthorities());
+  }
+
+  private static boolean compactAuthorities(Collection<? extends GrantedAuthority> authorities) {
+    for (GrantedAuthority authority : authorities) {
+      Class<?> type = authority.getClass();
+      if (type != SimpleGrantedAuthority.class
+          && !(type == OAuth2UserAuthority.class && isPlain(((OAuth2UserAuthority) authority).getAttributes()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // DefaultOAuth2User does not expose the key of its name attribute; find the attribute that holds the name.
+  private static String nameAttributeKey(OAuth2User user) {
+    String name = user.getName();
+    if (Objects.equals(user.getAttributes().get("sub"), name)) {
+      return "sub";
+    }
+    for (Map.Entry<String, Object> attribute : user.getAttributes().entrySet()) {
+      if (attribute.getValue() != null && attribute.getValue().toString().equals(name)) {
+        return attribute.getKey();
+      }
+    }
+    return null;
+  }
+
+  private static void writeToken(DataOutputStream out, OAuth2AuthenticationToken token) throws IOException {
+    OAuth2User user = token.getPrincipal();
+    writeString(out, token.getAuthorizedClientRegistrationId());
+    writeString(out, nameAttributeKey(user));
+    writeValue(out, user.getAttributes());
+    writeAuthorities(out, user.getAuthorities(), user.getAttributes());
+    writeAuthorities(out, token.getAuthorities(), user.getAttributes());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static OAuth2AuthenticationToken readToken(DataInputStream in) throws IOException {
+    String registrationId = readString(in);
+    String nameAttributeKey = readString(in);
+    Map<String, Object> attributes = (Map<String, Object>) readValue(in);
+    List<GrantedAuthority> userAuthorities = readAuthorities(in, attributes);
+    List<GrantedAuthority> tokenAuthorities = readAuthorities(in, attributes);
+    DefaultOAuth2User user = new DefaultOAuth2User(userAuthorities, attributes, nameAttributeKey);
+    return new OAuth2AuthenticationToken(user, tokenAuthorities, registrationId);
+  }
+
+  private static void writeAuthorities(DataOutputStream out, Collection<? extends GrantedAuthority> authorities,
+      Map<String, Object> userAttributes) throws IOException {
+    out.writeInt(authorities.size());
+    for (GrantedAuthority authority : authorities) {
+      if (authority instanceof OAuth2UserAuthority) {
+        Map<String, Object> attributes = ((OAuth2UserAuthority) authority).getAttributes();
+        if (attributes.equals(userAttributes)) {
+          out.writeByte(USER_AUTHORITY_SAME_ATTRIBUTES);
+          writeString(out, authority.getAuthority());
+        } else {
+          out.writeByte(USER_AUTHORITY);
+          writeString(out, authority.getAuthority());
+          writeValue(out, attributes);
+        }
+      } else {
+        out.writeByte(SIMPLE_AUTHORITY);
+        writeString(out, authority.getAuthority());
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<GrantedAuthority> readAuthorities(DataInputStream in, Map<String, Object> userAttributes)
+      throws IOException {
+    int count = in.readInt();
+    List<GrantedAuthority> authorities = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      byte type = in.readByte();
+      String authority = readString(in);
+      switch (type) {
+        case USER_AUTHORITY_SAME_ATTRIBUTES:
+          authorities.add(new OAuth2UserAuthority(authority, userAttributes));
+          break;
+        case USER_AUTHORITY:
+          authorities.add(new OAuth2UserAuthority(authority, (Map<String, Object>) readValue(in)));
+          break;
+        default:
+          authorities.add(new SimpleGrantedAuthority(authority));
+      }
+    }
+    return authorities;
+  }
+
+  private static boolean isPlain(Object value) {
+    if (value == null || value instanceof String || value instanceof Boolean
+        || value instanceof Integer || value instanceof Long || value instanceof Double) {
+      return true;
+    }
+    if (value instanceof List) {
+      return ((List<?>) value).stream().allMatch(SessionAttributeCodec::isPlain);
+    }
+    if (value instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!(entry.getKey() instanceof String) || !isPlain(entry.getValue())) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static void writeValue(DataOutputStream out, Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      out.writeByte(INT);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      out.writeByte(LIST);
+      out.writeInt(list.size());
+      for (Object element : list) {
+        writeValue(out, element);
+      }
+    } else {
+      Map<?, ?> map = (Map<?, ?>) value;
+      out.writeByte(MAP);
+      out.writeInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeString(out, (String) entry.getKey());
+        writeValue(out, entry.getValue());
+      }
+    }
+  }
+
+  private static Object readValue(DataInputStream in) throws IOException {
+    byte type = in.readByte();
+    switch (type) {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case INT:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case DOUBLE:
+        return in.readDouble();
+      case LIST:
+        int size = in.readInt();
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue(in));
+        }
+        return list;
+      case MAP:
+        int entries = in.readInt();
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+          String key = readString(in);
+          map.put(key, readValue(in));
+        }
+        return map;
+      default:
+        throw new IllegalArgumentException("unknown session value type " + type);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] utf8 = new byte[in.readInt()];
+    in.readFully(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+}
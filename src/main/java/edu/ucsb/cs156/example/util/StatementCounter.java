@@ -0,0 +1,62 @@
+package edu.ucsb.cs156.example.util;
+
+/**
+ * Per-thread count of the SQL statements sent through a
+ * {@link StatementCountingDataSource}.
+ *
+ * A request runs on one thread, so the count taken at the start and end of a
+ * request is the number of statements it issued.  When a warning threshold is
+ * set, the stack of the first statement over it is kept, which usually points
+ * straight at the loop that is issuing one query per row.
+ */
+public final class StatementCounter {
+
+  private static final class Counter {
+    long count;
+    long warnAbove = Long.MAX_VALUE;
+    Throwable firstOver;
+  }
+
+  private static final ThreadLocal<Counter> COUNTER = ThreadLocal.withInitial(Counter::new);
+
+  private StatementCounter() {
+  }
+
+  public static void increment() {
+    Counter counter = COUNTER.get();
+    counter.count++;
+    if (counter.count > counter.warnAbove && counter.firstOver == null) {
+      counter.firstOver = new Throwable("statement " + counter.count + " issued here");
+    }
+  }
+
+  /**
+   * Statements issued on this thread so far.
+   */
+  public static long count() {
+    return COUNTER.get().count;
+  }
+
+  /**
+   * Starts counting a request; the stack of statement
+   * <code>warnAbove + 1</code> will be kept.
+   */
+  public static void startRequest(long warnAbove) {
+    Counter counter = COUNTER.get();
+    counter.count = 0;
+    counter.warnAbove = warnAbove;
+    counter.firstOver = null;
+  }
+
+  /**
+   * Ends the request started by {@link #startRequest(long)} and returns where
+   * it went over the threshold, or null if it did not.
+   */
+  public static Throwable endRequest() {
+    Counter counter = COUNTER.get();
+    Throwable firstOver = counter.firstOver;
+    counter.warnAbove = Long.MAX_VALUE;
+    counter.firstOver = null;
+    return firstOver;
+  }
+}
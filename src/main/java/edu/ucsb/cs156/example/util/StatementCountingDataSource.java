@@ -0,0 +1,91 @@
+package edu.ucsb.cs156.example.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource whose statements count each execute call with
+ * {@link StatementCounter}.  A batch counts as one statement, since it is one
+ * round trip to the database.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+  public StatementCountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrap(Connection.class, obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password));
+  }
+
+  /**
+   * Closes the target, e.g. the connection pool, when the context shuts down.
+   */
+  @Override
+  public void close() throws Exception {
+    if (obtainTargetDataSource() instanceof AutoCloseable) {
+      ((AutoCloseable) obtainTargetDataSource()).close();
+    }
+  }
+
+  private static <T> T wrap(Class<T> type, T target) {
+    return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+        new Class<?>[] { type }, new Handler(target)));
+  }
+
+  private static class Handler implements InvocationHandler {
+    private final Object target;
+
+    Handler(Object target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          break;
+      }
+      if (target instanceof Statement && method.getName().startsWith("execute")) {
+        StatementCounter.increment();
+      }
+
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+
+      // createStatement, prepareStatement and prepareCall
+      if (target instanceof Connection && result instanceof Statement) {
+        return wrapStatement(method.getReturnType(), result);
+      }
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrapStatement(Class<?> type, Object statement) {
+      return wrap((Class<Object>) type, statement);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package edu.ucsb.cs156.example.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for low-cardinality strings such as station names and
+ * dining commons codes.  Each distinct value gets a small int code and one
+ * canonical String instance, so repeated values cost four bytes instead of a
+ * String each.  Codes are never reused; the dictionary only grows, which is
+ * fine for the handful of distinct values it is meant for.
+ */
+public class StringDictionary {
+
+  private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+
+  // Guarded by "this"; written only while adding a new value.
+  private final List<String> values = new ArrayList<>();
+
+  /**
+   * Returns the code for <code>value</code>, adding it if it is new.
+   */
+  public int encode(String value) {
+    Integer code = codes.get(value);
+    if (code != null) {
+      return code;
+    }
+    synchronized (this) {
+      return codes.computeIfAbsent(value, v -> {
+        values.add(v);
+        return values.size() - 1;
+      });
+    }
+  }
+
+  public synchronized String decode(int code) {
+    return values.get(code);
+  }
+
+  public synchronized int size() {
+    return values.size();
+  }
+}
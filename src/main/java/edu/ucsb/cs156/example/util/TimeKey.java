@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.util;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Sort key for in-memory time indexes: orders by time, then by entity id so
+ * that entities sharing a timestamp get distinct keys.
+ */
+public record TimeKey(LocalDateTime time, long id) implements Comparable<TimeKey> {
+
+  private static final Comparator<TimeKey> ORDER = Comparator
+      .comparing(TimeKey::time)
+      .thenComparingLong(TimeKey::id);
+
+  /** The smallest key at <code>time</code>; use as an inclusive lower bound. */
+  public static TimeKey first(LocalDateTime time) {
+    return new TimeKey(time, Long.MIN_VALUE);
+  }
+
+  /** The largest key at <code>time</code>; use as an inclusive upper bound. */
+  public static TimeKey last(LocalDateTime time) {
+    return new TimeKey(time, Long.MAX_VALUE);
+  }
+
+  @Override
+  public int compareTo(TimeKey other) {
+    return ORDER.compare(this, other);
+  }
+}
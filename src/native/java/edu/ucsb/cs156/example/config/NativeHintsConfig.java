@@ -0,0 +1,141 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.TreeMap;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.hint.AotProxyHint;
+import org.springframework.nativex.hint.NativeHint;
+import org.springframework.nativex.hint.ProxyBits;
+import org.springframework.nativex.hint.ResourceHint;
+import org.springframework.nativex.hint.SerializationHint;
+import org.springframework.nativex.hint.TypeAccess;
+import org.springframework.nativex.hint.TypeHint;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponseType;
+import org.springframework.security.web.savedrequest.DefaultSavedRequest;
+import org.springframework.security.web.savedrequest.SavedCookie;
+
+import ch.qos.logback.classic.AsyncAppender;
+import edu.ucsb.cs156.example.aop.LoggingAspect;
+import edu.ucsb.cs156.example.aop.RepositoryMetricsAspect;
+import edu.ucsb.cs156.example.controllers.ApiDocsController;
+import edu.ucsb.cs156.example.controllers.ArticlesController;
+import edu.ucsb.cs156.example.controllers.CSRFController;
+import edu.ucsb.cs156.example.controllers.FrontendController;
+import edu.ucsb.cs156.example.controllers.FrontendProxyController;
+import edu.ucsb.cs156.example.controllers.HelpRequestController;
+import edu.ucsb.cs156.example.controllers.HibernateStatsController;
+import edu.ucsb.cs156.example.controllers.MenuItemReviewController;
+import edu.ucsb.cs156.example.controllers.MetricsController;
+import edu.ucsb.cs156.example.controllers.RecommendationController;
+import edu.ucsb.cs156.example.controllers.SystemInfoController;
+import edu.ucsb.cs156.example.controllers.UCSBDatesController;
+import edu.ucsb.cs156.example.controllers.UCSBDiningCommonsController;
+import edu.ucsb.cs156.example.controllers.UCSBDiningCommonsMenuItemController;
+import edu.ucsb.cs156.example.controllers.UCSBOrganizationController;
+import edu.ucsb.cs156.example.controllers.UserInfoController;
+import edu.ucsb.cs156.example.controllers.UsersController;
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+import edu.ucsb.cs156.example.entities.HttpSessionRecord;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.models.DiningCommonsMenu;
+import edu.ucsb.cs156.example.models.EndpointAllocation;
+import edu.ucsb.cs156.example.models.EndpointLatency;
+import edu.ucsb.cs156.example.models.HibernateStats;
+import edu.ucsb.cs156.example.models.RepositoryMethodStats;
+import edu.ucsb.cs156.example.models.StartupTimeline;
+import edu.ucsb.cs156.example.models.SystemHealth;
+import edu.ucsb.cs156.example.models.SystemInfo;
+
+/**
+ * Hints for the native image built by the <code>native</code> Maven profile
+ * (see docs/native.md), for what Spring AOT cannot work out from the bean
+ * definitions:
+ *
+ * <ul>
+ * <li>entities and models, which Hibernate and Jackson create and read
+ * reflectively, and the session cookie's payload;</li>
+ * <li>the controllers, which LoggingAspect and method security advise through
+ * class proxies that have to be generated at build time;</li>
+ * <li>the OAuth2 authorization request and saved request, which the
+ * authorization request cookie and the session codec Java-serialize;</li>
+ * <li>the Swagger document, the frontend and Swagger UI, served from the
+ * classpath.</li>
+ * </ul>
+ *
+ * The Lombok builders need no hints: they are ordinary generated methods,
+ * called directly, and what they build is covered with the entities and
+ * models.  RepositoryMetricsAspect is added to the JDK proxies Spring Data
+ * already makes for the repositories, which Spring AOT registers itself.
+ *
+ * This class is only compiled by the native profile, from src/native/java.
+ */
+@Configuration(proxyBeanMethods = false)
+@NativeHint(types = @TypeHint(types = {
+    Article.class, HelpRequest.class, HelpRequestRollup.class, HttpSessionRecord.class, MenuItemReview.class,
+    Recommendation.class, UCSBDate.class, UCSBDiningCommons.class, UCSBDiningCommonsMenuItem.class,
+    UCSBOrganization.class, User.class,
+    CacheStats.class, CurrentUser.class, DiningCommonsMenu.class, DiningCommonsMenu.Station.class,
+    DiningCommonsMenu.Item.class, EndpointAllocation.class, EndpointLatency.class, HibernateStats.class,
+    HibernateStats.CacheRegion.class, HibernateStats.Query.class, RepositoryMethodStats.class,
+    StartupTimeline.class, StartupTimeline.Step.class, StartupTimeline.StepTotal.class, SystemHealth.class,
+    SystemHealth.GarbageCollector.class, SystemHealth.ConnectionPool.class, SystemInfo.class
+}, typeNames = "edu.ucsb.cs156.example.config.SessionTokenCookies$Payload", access = {
+    TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS, TypeAccess.DECLARED_METHODS
+}))
+@NativeHint(types = {
+    @TypeHint(types = { LoggingAspect.class, RepositoryMetricsAspect.class }, access = {
+        TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_METHODS
+    }),
+    // configured by name in logback-spring.xml and application*.properties
+    @TypeHint(types = AsyncAppender.class, access = { TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.PUBLIC_METHODS }),
+    @TypeHint(typeNames = { "org.hibernate.dialect.H2Dialect", "org.hibernate.dialect.PostgreSQL9Dialect" })
+}, aotProxies = {
+    @AotProxyHint(targetClass = ApiDocsController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = ArticlesController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = CSRFController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = FrontendController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = FrontendProxyController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = HelpRequestController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = HibernateStatsController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = MenuItemReviewController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = MetricsController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = RecommendationController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = SystemInfoController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = UCSBDatesController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = UCSBDiningCommonsController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = UCSBDiningCommonsMenuItemController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = UCSBOrganizationController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = UserInfoController.class, proxyFeatures = ProxyBits.IS_STATIC),
+    @AotProxyHint(targetClass = UsersController.class, proxyFeatures = ProxyBits.IS_STATIC)
+})
+@NativeHint(serializables = @SerializationHint(types = {
+    OAuth2AuthorizationRequest.class, OAuth2AuthorizationResponseType.class, AuthorizationGrantType.class,
+    DefaultSavedRequest.class, SavedCookie.class,
+    ArrayList.class, HashMap.class, LinkedHashMap.class, LinkedHashSet.class, TreeMap.class, Locale.class,
+    String[].class
+}, typeNames = {
+    "java.util.Collections$UnmodifiableMap", "java.util.Collections$UnmodifiableSet",
+    "java.util.Collections$UnmodifiableCollection", "java.lang.String$CaseInsensitiveComparator"
+}))
+@NativeHint(resources = @ResourceHint(patterns = {
+    "api-docs/.*", "public/.*", "META-INF/resources/webjars/springfox-swagger-ui/.*"
+}))
+public class NativeHintsConfig {
+}
@@ -3,16 +3,25 @@ package edu.ucsb.cs156.example;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.repository.Repository;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
+import edu.ucsb.cs156.example.util.StatementCounter;
+
 import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.io.UnsupportedEncodingException;
 import java.util.Map;
 
@@ -31,8 +40,38 @@ public abstract class ControllerTestCase {
   @Autowired
   public ObjectMapper mapper;
 
+  @Autowired
+  public ApplicationContext applicationContext;
+
   protected Map<String, Object> responseToJson(MvcResult result) throws UnsupportedEncodingException, JsonProcessingException {
     String responseString = result.getResponse().getContentAsString();
     return mapper.readValue(responseString, Map.class);
   }
+
+  /**
+   * Performs a request and fails if it issues more than
+   * <code>maxQueries</code> queries.  With mocked repositories, each call to
+   * a repository counts as one query; SQL statements sent through a
+   * StatementCountingDataSource count too.  Calls a mocked service makes
+   * are not counted, so only use it where the controller calls repositories
+   * itself.
+   */
+  protected ResultActions performWithQueryBudget(int maxQueries, RequestBuilder request) throws Exception {
+    long before = queryCount();
+    ResultActions result = mockMvc.perform(request);
+    long queries = queryCount() - before;
+    assertTrue(queries <= maxQueries,
+        "expected at most %d queries but the request issued %d".formatted(maxQueries, queries));
+    return result;
+  }
+
+  private long queryCount() {
+    long count = StatementCounter.count();
+    for (Object repository : applicationContext.getBeansOfType(Repository.class).values()) {
+      if (Mockito.mockingDetails(repository).isMock()) {
+        count += Mockito.mockingDetails(repository).getInvocations().size();
+      }
+    }
+    return count;
+  }
 }
@@ -0,0 +1,153 @@
+package edu.ucsb.cs156.example.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.jfr.CacheAccessEvent;
+import edu.ucsb.cs156.example.jfr.ControllerInvocationEvent;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.EndpointMetricsService;
+import edu.ucsb.cs156.example.services.RepositoryMetricsService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class JfrEventsTests {
+
+  @RequestMapping("/api/things")
+  static class ThingsController {
+    @GetMapping("/all")
+    public String all() {
+      return "all";
+    }
+
+    @GetMapping("/broken")
+    public String broken() {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  @AfterEach
+  void cleanup() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static Configuration bundledConfiguration() throws Exception {
+    try (Reader reader = new InputStreamReader(
+        JfrEventsTests.class.getResourceAsStream("/jfr/ucsb-example.jfc"), StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    }
+  }
+
+  private static List<RecordedEvent> record(Runnable work) throws Exception {
+    Path file = Files.createTempFile("ucsb-example", ".jfr");
+    try (Recording recording = new Recording(bundledConfiguration())) {
+      recording.start();
+      work.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(e -> e.getEventType().getName().startsWith("edu.ucsb.cs156.example."))
+          .toList();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static Optional<RecordedEvent> find(List<RecordedEvent> events, String type, String field, String value) {
+    return events.stream()
+        .filter(e -> e.getEventType().getName().equals("edu.ucsb.cs156.example." + type))
+        .filter(e -> value.equals(e.getString(field)))
+        .findFirst();
+  }
+
+  @Test
+  void events_are_off_unless_a_recording_enables_them() throws Exception {
+    assertFalse(new ControllerInvocationEvent().isEnabled());
+
+    Configuration configuration = bundledConfiguration();
+    assertEquals("true", configuration.getSettings().get("edu.ucsb.cs156.example.ControllerInvocation#enabled"));
+    assertEquals("true", configuration.getSettings().get("edu.ucsb.cs156.example.RepositoryCall#enabled"));
+    assertEquals("true", configuration.getSettings().get("edu.ucsb.cs156.example.CacheAccess#enabled"));
+  }
+
+  @Test
+  void repository_calls_create_no_event_unless_a_recording_enables_it() throws Exception {
+    assertNull(RepositoryMetricsAspect.beginEvent());
+
+    record(() -> assertNotNull(RepositoryMetricsAspect.beginEvent()));
+    assertNull(RepositoryMetricsAspect.beginEvent());
+  }
+
+  @Test
+  void aspects_and_caches_emit_events_when_recording() throws Exception {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+        new MockHttpServletRequest("GET", "/api/things/all"), new MockHttpServletResponse()));
+
+    LoggingAspect loggingAspect = new LoggingAspect();
+    loggingAspect.endpointMetricsService = new EndpointMetricsService();
+    AspectJProxyFactory controllerFactory = new AspectJProxyFactory(new ThingsController());
+    controllerFactory.setProxyTargetClass(true);
+    controllerFactory.addAspect(loggingAspect);
+    ThingsController controller = controllerFactory.getProxy();
+
+    RepositoryMetricsAspect repositoryAspect = new RepositoryMetricsAspect();
+    repositoryAspect.repositoryMetricsService = new RepositoryMetricsService();
+    UserRepository fake = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+        new Class<?>[] { UserRepository.class },
+        (proxy, method, args) -> Optional.of(User.builder().email("cgaucho@ucsb.edu").build()));
+    AspectJProxyFactory repositoryFactory = new AspectJProxyFactory(fake);
+    repositoryFactory.addInterface(UserRepository.class);
+    repositoryFactory.addAspect(repositoryAspect);
+    UserRepository userRepository = repositoryFactory.getProxy();
+
+    List<RecordedEvent> events = record(() -> {
+      controller.all();
+      assertThrows(ResponseStatusException.class, controller::broken);
+      userRepository.findByEmail("cgaucho@ucsb.edu");
+      CacheAccessEvent.record("ucsbDateQuarterCache", true);
+    });
+
+    RecordedEvent all = find(events, "ControllerInvocation", "handler", "ThingsController.all").get();
+    assertEquals("GET /api/things/all", all.getString("endpoint"));
+    assertEquals("GET", all.getString("httpMethod"));
+    assertEquals(200, all.getInt("status"));
+
+    RecordedEvent broken = find(events, "ControllerInvocation", "handler", "ThingsController.broken").get();
+    assertEquals(400, broken.getInt("status"));
+    assertEquals(ResponseStatusException.class.getName(), broken.getString("exception"));
+
+    RecordedEvent findByEmail = find(events, "RepositoryCall", "method", "UserRepository.findByEmail").get();
+    assertEquals(1, findByEmail.getLong("rows"));
+    assertFalse(findByEmail.getBoolean("failed"));
+
+    assertTrue(find(events, "CacheAccess", "cache", "ucsbDateQuarterCache").get().getBoolean("hit"));
+  }
+}
@@ -0,0 +1,126 @@
+package edu.ucsb.cs156.example.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.http.HttpStatus;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import edu.ucsb.cs156.example.models.EndpointLatency;
+import edu.ucsb.cs156.example.services.EndpointMetricsService;
+
+class LoggingAspectTests {
+
+  @RequestMapping("/api/things")
+  static class ThingsController {
+    @GetMapping("/all")
+    public String all() {
+      return "all";
+    }
+
+    @GetMapping("")
+    public String one(@RequestParam long id) {
+      if (id < 0) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+      }
+      return "thing " + id;
+    }
+
+    @RequestMapping("/any")
+    public String any() {
+      return "any";
+    }
+  }
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(LoggingAspect.class);
+  private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+  private EndpointMetricsService metrics;
+  private LoggingAspect aspect;
+
+  @BeforeEach
+  void setup() {
+    logged.start();
+    logger.addAppender(logged);
+    metrics = new EndpointMetricsService();
+    aspect = new LoggingAspect();
+    aspect.endpointMetricsService = metrics;
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/things/all");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @AfterEach
+  void cleanup() {
+    logger.detachAppender(logged);
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private ThingsController proxy() {
+    AspectJProxyFactory factory = new AspectJProxyFactory(new ThingsController());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    return factory.getProxy();
+  }
+
+  @Test
+  void controller_calls_are_recorded_per_endpoint() {
+    ThingsController controller = proxy();
+
+    assertEquals("all", controller.all());
+    assertEquals("all", controller.all());
+    assertEquals("thing 1", controller.one(1));
+    assertThrows(ResponseStatusException.class, () -> controller.one(-1));
+    assertEquals("any", controller.any());
+
+    List<EndpointLatency> latencies = metrics.getLatencies();
+    assertEquals(3, latencies.size());
+    assertEquals("* /api/things/any", latencies.get(0).getEndpoint());
+    assertEquals("GET /api/things", latencies.get(1).getEndpoint());
+    assertEquals("ThingsController.one", latencies.get(1).getHandler());
+    assertEquals(2, latencies.get(1).getCount());
+    assertEquals(1, latencies.get(1).getErrors());
+    assertEquals("GET /api/things/all", latencies.get(2).getEndpoint());
+    assertEquals(2, latencies.get(2).getCount());
+    assertEquals(0, latencies.get(2).getErrors());
+  }
+
+  @Test
+  void requests_are_logged_with_per_handler_sampling() {
+    aspect.environment = new MockEnvironment()
+        .withProperty("app.logging.requests.sampleEvery.ThingsController.any", "0");
+    ThingsController controller = proxy();
+
+    controller.all();
+    controller.any();
+    controller.all();
+
+    assertEquals(2, logged.list.size());
+    assertEquals("===== GET /api/things/all handled by all in " + ThingsController.class.getName(),
+        logged.list.get(0).getFormattedMessage());
+  }
+
+  @Test
+  void endpoint_names_from_request_mapping_info() {
+    assertEquals("GET /api/ucsbdates/all", LoggingAspect.endpointOf(
+        RequestMappingInfo.paths("/api/ucsbdates/all").methods(RequestMethod.GET).build()));
+    assertEquals("* /error", LoggingAspect.endpointOf(RequestMappingInfo.paths("/error").build()));
+  }
+}
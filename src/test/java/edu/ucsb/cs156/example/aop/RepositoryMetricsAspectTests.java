@@ -0,0 +1,80 @@
+package edu.ucsb.cs156.example.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.data.domain.PageImpl;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.RepositoryMethodStats;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.RepositoryMetricsService;
+
+class RepositoryMetricsAspectTests {
+
+  // stands in for the proxy Spring Data creates for a repository interface
+  private static UserRepository fakeUserRepository() {
+    return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+        new Class<?>[] { UserRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+          case "findByEmail" -> "cgaucho@ucsb.edu".equals(args[0])
+              ? Optional.of(User.builder().email("cgaucho@ucsb.edu").build())
+              : Optional.empty();
+          case "findAll" -> List.of(User.builder().build(), User.builder().build());
+          case "count" -> 2L;
+          default -> throw new DataRetrievalFailureException("down");
+        });
+  }
+
+  @Test
+  void repository_calls_are_recorded_per_interface_method() {
+    RepositoryMetricsService metrics = new RepositoryMetricsService();
+    RepositoryMetricsAspect aspect = new RepositoryMetricsAspect();
+    aspect.repositoryMetricsService = metrics;
+
+    AspectJProxyFactory factory = new AspectJProxyFactory(fakeUserRepository());
+    factory.addInterface(UserRepository.class);
+    factory.addAspect(aspect);
+    UserRepository userRepository = factory.getProxy();
+
+    userRepository.findByEmail("cgaucho@ucsb.edu");
+    userRepository.findByEmail("nobody@ucsb.edu");
+    userRepository.findByEmail("cgaucho@ucsb.edu");
+    userRepository.findAll();
+    userRepository.count();
+    assertThrows(DataRetrievalFailureException.class, () -> userRepository.deleteById(1L));
+
+    List<RepositoryMethodStats> stats = metrics.getStats();
+    RepositoryMethodStats findByEmail = stats.stream()
+        .filter(s -> s.getMethod().equals("UserRepository.findByEmail")).findFirst().get();
+    assertEquals(3, findByEmail.getCount());
+    assertEquals(2, findByEmail.getRows());
+    assertEquals(1, findByEmail.getMaxRows());
+
+    RepositoryMethodStats findAll = stats.stream()
+        .filter(s -> s.getMethod().equals("UserRepository.findAll")).findFirst().get();
+    assertEquals(2, findAll.getRows());
+
+    RepositoryMethodStats deleteById = stats.stream()
+        .filter(s -> s.getMethod().equals("UserRepository.deleteById")).findFirst().get();
+    assertEquals(1, deleteById.getErrors());
+    assertEquals(4, stats.size());
+  }
+
+  @Test
+  void rows_by_result_type() {
+    assertEquals(0, RepositoryMetricsAspect.rows(null, false));
+    assertEquals(3, RepositoryMetricsAspect.rows(List.of(1, 2, 3), false));
+    assertEquals(0, RepositoryMetricsAspect.rows(Optional.empty(), false));
+    assertEquals(2, RepositoryMetricsAspect.rows(new PageImpl<>(List.of(1, 2)), false));
+    assertEquals(1, RepositoryMetricsAspect.rows(42L, false));
+    assertEquals(42, RepositoryMetricsAspect.rows(42, true));
+    assertEquals(1, RepositoryMetricsAspect.rows(User.builder().build(), false));
+  }
+}
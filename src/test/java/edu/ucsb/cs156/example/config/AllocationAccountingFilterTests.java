@@ -0,0 +1,114 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.sun.management.ThreadMXBean;
+
+import edu.ucsb.cs156.example.models.EndpointAllocation;
+import edu.ucsb.cs156.example.services.AllocationMetricsService;
+
+class AllocationAccountingFilterTests {
+
+  static class Handlers {
+    public List<String> users() {
+      return List.of();
+    }
+  }
+
+  private static FilterChain dispatchTo(String pattern, Runnable work) throws Exception {
+    HandlerMethod handlerMethod = new HandlerMethod(new Handlers(), Handlers.class.getMethod("users"));
+    return (request, response) -> {
+      request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handlerMethod);
+      request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+      work.run();
+    };
+  }
+
+  @Test
+  void records_the_difference_in_the_threads_counters_per_handler() throws Exception {
+    ThreadMXBean threads = mock(ThreadMXBean.class);
+    when(threads.isThreadAllocatedMemorySupported()).thenReturn(true);
+    when(threads.isThreadAllocatedMemoryEnabled()).thenReturn(true);
+    when(threads.isCurrentThreadCpuTimeSupported()).thenReturn(true);
+    when(threads.isThreadCpuTimeEnabled()).thenReturn(true);
+    when(threads.getCurrentThreadAllocatedBytes()).thenReturn(1_000L, 51_000L, 60_000L, 90_000L);
+    when(threads.getCurrentThreadCpuTime()).thenReturn(5_000_000L, 7_000_000L, 7_000_000L, 8_000_000L);
+
+    AllocationMetricsService service = new AllocationMetricsService();
+    AllocationAccountingFilter filter = new AllocationAccountingFilter(service, threads);
+    FilterChain chain = dispatchTo("/api/admin/users", () -> {
+    });
+
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/admin/users"), new MockHttpServletResponse(), chain);
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/admin/users"), new MockHttpServletResponse(), chain);
+
+    List<EndpointAllocation> allocations = service.getAllocations();
+    assertEquals(1, allocations.size());
+    EndpointAllocation allocation = allocations.get(0);
+    assertEquals("Handlers.users", allocation.getHandler());
+    assertEquals("GET /api/admin/users", allocation.getEndpoint());
+    assertEquals(2, allocation.getCount());
+    assertEquals(80_000, allocation.getBytes());
+    assertEquals(50_000, allocation.getMaxBytes());
+    assertEquals(3_000, allocation.getCpuMicros());
+  }
+
+  @Test
+  void records_requests_that_throw() throws Exception {
+    AllocationMetricsService service = new AllocationMetricsService();
+    AllocationAccountingFilter filter = new AllocationAccountingFilter(service,
+        (ThreadMXBean) ManagementFactory.getThreadMXBean());
+    FilterChain chain = dispatchTo("/api/admin/users", () -> {
+      throw new IllegalStateException("boom");
+    });
+
+    assertThrows(IllegalStateException.class, () -> filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/admin/users"), new MockHttpServletResponse(), chain));
+
+    assertEquals(1, service.getAllocations().get(0).getCount());
+  }
+
+  @Test
+  void measures_real_allocation_when_the_jvm_supports_it() throws Exception {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    AllocationMetricsService service = new AllocationMetricsService();
+    AllocationAccountingFilter filter = new AllocationAccountingFilter(service, threads);
+    List<byte[]> garbage = new ArrayList<>();
+    FilterChain chain = dispatchTo("/api/admin/users", () -> garbage.add(new byte[1 << 20]));
+
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/admin/users"), new MockHttpServletResponse(), chain);
+
+    if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+      assertTrue(service.getAllocations().get(0).getBytes() >= 1 << 20);
+    }
+  }
+
+  @Test
+  void ignores_requests_no_controller_handled() throws Exception {
+    AllocationMetricsService service = new AllocationMetricsService();
+    AllocationAccountingFilter filter = new AllocationAccountingFilter(service,
+        (ThreadMXBean) ManagementFactory.getThreadMXBean());
+
+    filter.doFilter(new MockHttpServletRequest("GET", "/static/js/main.js"), new MockHttpServletResponse(),
+        (request, response) -> {
+        });
+
+    assertEquals(0, service.getAllocations().size());
+  }
+}
@@ -0,0 +1,41 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import edu.ucsb.cs156.example.controllers.UCSBDatesController;
+import edu.ucsb.cs156.example.services.HelpRequestRollupService;
+import edu.ucsb.cs156.example.services.HibernateStatisticsService;
+import edu.ucsb.cs156.example.services.SharedSessionRepository;
+import edu.ucsb.cs156.example.services.SystemHealthService;
+
+class LazyInitializationConfigTests {
+
+  @Test
+  void beans_with_scheduled_methods_are_eager() {
+    assertTrue(LazyInitializationConfig.isEager(SystemHealthService.class));
+    assertTrue(LazyInitializationConfig.isEager(SharedSessionRepository.class));
+  }
+
+  @Test
+  void beans_with_post_construct_methods_are_eager() {
+    assertTrue(LazyInitializationConfig.isEager(HibernateStatisticsService.class));
+    assertTrue(LazyInitializationConfig.isEager(HelpRequestRollupService.class));
+  }
+
+  @Test
+  void the_database_beans_are_eager() {
+    assertTrue(LazyInitializationConfig.isEager(DataSource.class));
+    assertTrue(LazyInitializationConfig.isEager(LocalContainerEntityManagerFactoryBean.class));
+  }
+
+  @Test
+  void other_beans_are_lazy() {
+    assertFalse(LazyInitializationConfig.isEager(UCSBDatesController.class));
+  }
+}
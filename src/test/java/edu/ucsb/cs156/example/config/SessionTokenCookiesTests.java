@@ -0,0 +1,180 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.Cookie;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import edu.ucsb.cs156.example.util.MutableClock;
+import edu.ucsb.cs156.example.util.RotatingHmacSigner;
+
+class SessionTokenCookiesTests {
+
+  private MutableClock clock;
+  private RotatingHmacSigner signer;
+  private Set<String> admins;
+  private SessionTokenCookies cookies;
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock(Instant.parse("2022-10-01T17:00:00Z"));
+    signer = new RotatingHmacSigner(
+        "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), Duration.ofHours(24), clock);
+    admins = new HashSet<>(Set.of("cgaucho@ucsb.edu"));
+    cookies = new SessionTokenCookies(signer, "SESSION_TOKEN", Duration.ofMinutes(30), Duration.ofHours(1), true,
+        admins::contains, clock);
+  }
+
+  private Set<String> roles(OAuth2AuthenticationToken authentication) {
+    return authentication.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+  }
+
+  private OAuth2AuthenticationToken login() {
+    List<GrantedAuthority> authorities = List.of(
+        new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+    DefaultOAuth2User user = new DefaultOAuth2User(authorities, Map.of(
+        "sub", "115856948234298493496",
+        "email", "cgaucho@ucsb.edu",
+        "name", "Chris Gaucho",
+        "email_verified", true,
+        "at_hash", "dropped"), "sub");
+    return new OAuth2AuthenticationToken(user, authorities, "google");
+  }
+
+  // the cookie value from the last Set-Cookie header, or null if it clears the cookie
+  private String cookieValue(MockHttpServletResponse response) {
+    List<String> headers = response.getHeaders(HttpHeaders.SET_COOKIE);
+    if (headers.isEmpty()) {
+      return null;
+    }
+    String header = headers.get(headers.size() - 1);
+    String value = header.substring("SESSION_TOKEN=".length(), header.indexOf(';'));
+    return value.isEmpty() ? null : value;
+  }
+
+  private MockHttpServletRequest requestWith(String value) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setCookies(new Cookie("SESSION_TOKEN", value));
+    return request;
+  }
+
+  private String issue() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    cookies.issue(new MockHttpServletRequest(), response, login());
+    assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).contains("HttpOnly"));
+    assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).contains("Secure"));
+    return cookieValue(response);
+  }
+
+  @Test
+  void issued_cookie_authenticates_with_the_same_user_and_roles() throws Exception {
+    String value = issue();
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    OAuth2AuthenticationToken authentication = cookies.read(requestWith(value), response).get();
+
+    assertEquals("google", authentication.getAuthorizedClientRegistrationId());
+    assertEquals("cgaucho@ucsb.edu", authentication.getPrincipal().getAttribute("email"));
+    assertEquals(Boolean.TRUE, authentication.getPrincipal().getAttribute("email_verified"));
+    assertNull(authentication.getPrincipal().getAttribute("at_hash"));
+    assertEquals("115856948234298493496", authentication.getName());
+    assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), roles(authentication));
+    // fresh cookies are not rewritten
+    assertNull(cookieValue(response));
+  }
+
+  @Test
+  void cookie_is_refreshed_in_the_second_half_of_its_life_until_the_max_lifetime() throws Exception {
+    String value = issue();
+
+    clock.advance(Duration.ofMinutes(20));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(cookies.read(requestWith(value), response).isPresent());
+    String refreshed = cookieValue(response);
+
+    clock.advance(Duration.ofMinutes(20));
+    assertEquals(Optional.empty(), cookies.read(requestWith(value), new MockHttpServletResponse()));
+    response = new MockHttpServletResponse();
+    assertTrue(cookies.read(requestWith(refreshed), response).isPresent());
+    String refreshedAgain = cookieValue(response);
+
+    // one hour after login the cookie expires for good
+    clock.advance(Duration.ofMinutes(20));
+    assertEquals(Optional.empty(), cookies.read(requestWith(refreshedAgain), new MockHttpServletResponse()));
+  }
+
+  @Test
+  void refresh_picks_up_a_change_to_the_admin_role() throws Exception {
+    String value = issue();
+    admins.remove("cgaucho@ucsb.edu");
+
+    // a fresh cookie keeps the roles it was issued with
+    clock.advance(Duration.ofMinutes(10));
+    assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"),
+        roles(cookies.read(requestWith(value), new MockHttpServletResponse()).get()));
+
+    clock.advance(Duration.ofMinutes(10));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertEquals(Set.of("ROLE_USER"), roles(cookies.read(requestWith(value), response).get()));
+    String refreshed = cookieValue(response);
+    assertEquals(Set.of("ROLE_USER"), roles(cookies.read(requestWith(refreshed), new MockHttpServletResponse()).get()));
+
+    admins.add("cgaucho@ucsb.edu");
+    clock.advance(Duration.ofMinutes(20));
+    assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"),
+        roles(cookies.read(requestWith(refreshed), new MockHttpServletResponse()).get()));
+  }
+
+  @Test
+  void secure_flag_comes_from_configuration_not_the_request() throws Exception {
+    SessionTokenCookies insecure = new SessionTokenCookies(signer, "SESSION_TOKEN", Duration.ofMinutes(30),
+        Duration.ofHours(1), false, admins::contains, clock);
+    MockHttpServletRequest httpsRequest = new MockHttpServletRequest();
+    httpsRequest.setSecure(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    insecure.issue(httpsRequest, response, login());
+    assertFalse(response.getHeader(HttpHeaders.SET_COOKIE).contains("Secure"));
+
+    // issue() checks that the configured cookie is Secure on a plain HTTP request
+    issue();
+  }
+
+  @Test
+  void missing_or_bad_cookies_do_not_authenticate() {
+    assertEquals(Optional.empty(), cookies.read(new MockHttpServletRequest(), new MockHttpServletResponse()));
+    assertEquals(Optional.empty(), cookies.read(requestWith("not-a-token"), new MockHttpServletResponse()));
+  }
+
+  @Test
+  void clear_expires_the_cookie() {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    cookies.clear(new MockHttpServletRequest(), response);
+
+    assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).startsWith("SESSION_TOKEN=;"));
+    assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+  }
+}
@@ -0,0 +1,74 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// the documents are in src/test/resources/api-docs-test; security.json is left out on purpose
+@WebMvcTest(controllers = ApiDocsController.class)
+@TestPropertySource(properties = {
+    "springfox.documentation.enabled=false",
+    "app.apiDocs.location=classpath:api-docs-test/"
+})
+public class ApiDocsControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Test
+  public void swagger_document_is_served_with_an_etag() throws Exception {
+    MvcResult response = mockMvc.perform(get("/api/docs"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/json"))
+        .andExpect(header().string("Cache-Control", "max-age=3600, public"))
+        .andReturn();
+
+    assertEquals("{\"swagger\":\"2.0\",\"info\":{\"title\":\"test\"},\"paths\":{}}",
+        response.getResponse().getContentAsString());
+    assertNotNull(response.getResponse().getHeader("ETag"));
+  }
+
+  @Test
+  public void a_client_with_the_current_etag_gets_not_modified() throws Exception {
+    String eTag = mockMvc.perform(get("/api/docs"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    MvcResult response = mockMvc.perform(get("/api/docs").header("If-None-Match", eTag))
+        .andExpect(status().isNotModified())
+        .andReturn();
+
+    assertEquals("", response.getResponse().getContentAsString());
+  }
+
+  @Test
+  public void a_client_with_an_old_etag_gets_the_document() throws Exception {
+    mockMvc.perform(get("/api/docs").header("If-None-Match", "\"0123456789abcdef\""))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void swagger_ui_configuration_is_served() throws Exception {
+    mockMvc.perform(get("/swagger-resources"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].url").value("/api/docs"));
+    mockMvc.perform(get("/swagger-resources/configuration/ui"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.deepLinking").value(true));
+  }
+
+  @Test
+  public void a_document_that_was_not_generated_is_not_found() throws Exception {
+    mockMvc.perform(get("/swagger-resources/configuration/security"))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -90,7 +90,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findById(eq(7L))).thenReturn(Optional.of(article));
 
         // act
-        MvcResult response = mockMvc.perform(get("/api/articles?id=7"))
+        MvcResult response = performWithQueryBudget(1, get("/api/articles?id=7"))
                 .andExpect(status().isOk()).andReturn();
 
         // assert
@@ -110,7 +110,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findById(eq(7L))).thenReturn(Optional.empty());
 
         // act
-        MvcResult response = mockMvc.perform(get("/api/articles?id=7"))
+        MvcResult response = performWithQueryBudget(1, get("/api/articles?id=7"))
                 .andExpect(status().isNotFound()).andReturn();
 
         // assert
@@ -152,7 +152,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findAll()).thenReturn(expectedArticles);
 
         // act
-        MvcResult response = mockMvc.perform(get("/api/articles/all"))
+        MvcResult response = performWithQueryBudget(1, get("/api/articles/all"))
                 .andExpect(status().isOk()).andReturn();
 
         // assert
@@ -181,7 +181,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.save(eq(article1))).thenReturn(article1);
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(1,
                 post("/api/articles/post?title=test&url=test&explanation=test&email=test&localDateTime=2022-01-03T00:00:00")
                         .with(csrf()))
                 .andExpect(status().isOk()).andReturn();
@@ -211,7 +211,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findById(eq(15L))).thenReturn(Optional.of(article1));
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(2,
                 delete("/api/articles?id=15")
                         .with(csrf()))
                 .andExpect(status().isOk()).andReturn();
@@ -233,7 +233,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findById(eq(15L))).thenReturn(Optional.empty());
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(1,
                 delete("/api/articles?id=15")
                         .with(csrf()))
                 .andExpect(status().isNotFound()).andReturn();
@@ -273,7 +273,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findById(eq(67L))).thenReturn(Optional.of(article1));
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(2,
                 put("/api/articles?id=67")
                         .contentType(MediaType.APPLICATION_JSON)
                         .characterEncoding("utf-8")
@@ -308,7 +308,7 @@ public class ArticlesControllerTests extends ControllerTestCase {
         when(articleRepository.findById(eq(67L))).thenReturn(Optional.empty());
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(1,
                 put("/api/articles?id=67")
                         .contentType(MediaType.APPLICATION_JSON)
                         .characterEncoding("utf-8")
@@ -4,7 +4,10 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.HelpRequestQueueService;
+import edu.ucsb.cs156.example.services.HelpRequestRollupService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +19,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +46,12 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        HelpRequestQueueService helpRequestQueueService;
+
+        @MockBean
+        HelpRequestRollupService helpRequestRollupService;
+
         // Authorization tests for /api/helprequest/admin/all
 
         @Test
@@ -100,7 +110,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findById(eq(7L))).thenReturn(Optional.of(helpRequest));
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/helprequest?id=7"))
+                MvcResult response = performWithQueryBudget(1, get("/api/helprequest?id=7"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
@@ -120,7 +130,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findById(eq(7L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/helprequest?id=7"))
+                MvcResult response = performWithQueryBudget(1, get("/api/helprequest?id=7"))
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
@@ -164,7 +174,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findAll()).thenReturn(expectedHelpRequests);
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/helprequest/all"))
+                MvcResult response = performWithQueryBudget(1, get("/api/helprequest/all"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
@@ -175,6 +185,121 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @Test
+        public void logged_out_users_cannot_get_queue() throws Exception {
+                mockMvc.perform(get("/api/helprequest/queue"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_queue() throws Exception {
+
+                // arrange
+                LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
+
+                HelpRequest helpRequest1 = HelpRequest.builder()
+                                .id(1L)
+                                .requesterEmail("irenecho@ucsb.edu")
+                                .teamId("6pm-4")
+                                .tableOrBreakoutRoom("10")
+                                .requestTime(ldt1)
+                                .explanation("need help with team02")
+                                .solved(false)
+                                .build();
+
+                ArrayList<HelpRequest> expectedQueue = new ArrayList<>(Arrays.asList(helpRequest1));
+                when(helpRequestQueueService.getQueue()).thenReturn(expectedQueue);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/queue"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestQueueService, times(1)).getQueue();
+                verify(helpRequestRepository, times(0)).findAll();
+                String expectedJson = mapper.writeValueAsString(expectedQueue);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_stream_queue() throws Exception {
+                mockMvc.perform(get("/api/helprequest/queue/stream"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_queue() throws Exception {
+
+                // arrange
+                SseEmitter emitter = new SseEmitter();
+                when(helpRequestQueueService.subscribe()).thenReturn(emitter);
+
+                // act
+                mockMvc.perform(get("/api/helprequest/queue/stream"))
+                                .andExpect(request().asyncStarted());
+
+                // assert
+                verify(helpRequestQueueService, times(1)).subscribe();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void regular_users_cannot_get_stats() throws Exception {
+                mockMvc.perform(get("/api/helprequest/stats?from=2022-01-03T00:00:00&to=2022-01-04T00:00:00"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_get_hourly_stats() throws Exception {
+
+                // arrange
+                LocalDateTime from = LocalDateTime.parse("2022-01-03T00:00:00");
+                LocalDateTime to = LocalDateTime.parse("2022-01-04T00:00:00");
+
+                HelpRequestRollup rollup = HelpRequestRollup.builder()
+                                .id(1L)
+                                .granularity(HelpRequestRollup.Granularity.HOUR)
+                                .bucketStart(LocalDateTime.parse("2022-01-03T10:00:00"))
+                                .teamId("6pm-4")
+                                .tableOrBreakoutRoom("10")
+                                .requestCount(3)
+                                .solvedCount(2)
+                                .build();
+
+                ArrayList<HelpRequestRollup> expected = new ArrayList<>(Arrays.asList(rollup));
+                when(helpRequestRollupService.getRollups(HelpRequestRollup.Granularity.HOUR, from, to)).thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/helprequest/stats?granularity=hour&from=2022-01-03T00:00:00&to=2022-01-04T00:00:00"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestRepository, times(0)).findAll();
+                String expectedJson = mapper.writeValueAsString(expected);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_get_daily_stats() throws Exception {
+                mockMvc.perform(get("/api/helprequest/stats?granularity=day&from=2022-01-03T00:00:00&to=2022-01-04T00:00:00"))
+                                .andExpect(status().isOk());
+                verify(helpRequestRollupService, times(1)).getRollups(HelpRequestRollup.Granularity.DAY,
+                                LocalDateTime.parse("2022-01-03T00:00:00"), LocalDateTime.parse("2022-01-04T00:00:00"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void stats_rejects_unknown_granularity() throws Exception {
+                mockMvc.perform(get("/api/helprequest/stats?granularity=week&from=2022-01-03T00:00:00&to=2022-01-04T00:00:00"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_helprequest() throws Exception {
@@ -194,13 +319,15 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.save(eq(helpRequest1))).thenReturn(helpRequest1);
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 post("/api/helprequest/post?requesterEmail=irenecho@ucsb.edu&teamId=6pm-4&tableOrBreakoutRoom=10&requestTime=2022-01-03T00:00:00&explanation=team02&solved=true")
                                                 .with(csrf()))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
                 verify(helpRequestRepository, times(1)).save(helpRequest1);
+                verify(helpRequestQueueService, times(1)).upsert(helpRequest1);
+                verify(helpRequestRollupService, times(1)).recordCreated(helpRequest1);
                 String expectedJson = mapper.writeValueAsString(helpRequest1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -225,7 +352,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findById(eq(15L))).thenReturn(Optional.of(helpRequest1));
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(2,
                                 delete("/api/helprequest?id=15")
                                                 .with(csrf()))
                                 .andExpect(status().isOk()).andReturn();
@@ -233,6 +360,8 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 // assert
                 verify(helpRequestRepository, times(1)).findById(15L);
                 verify(helpRequestRepository, times(1)).delete(any());
+                verify(helpRequestQueueService, times(1)).remove(15L);
+                verify(helpRequestRollupService, times(1)).recordDeleted(helpRequest1);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("Help request with id 15 deleted", json.get("message"));
@@ -247,7 +376,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findById(eq(15L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 delete("/api/helprequest?id=15")
                                                 .with(csrf()))
                                 .andExpect(status().isNotFound()).andReturn();
@@ -289,7 +418,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findById(eq(67L))).thenReturn(Optional.of(helpRequestOrig));
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(2,
                                 put("/api/helprequest?id=67")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
@@ -300,6 +429,15 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 // assert
                 verify(helpRequestRepository, times(1)).findById(67L);
                 verify(helpRequestRepository, times(1)).save(helpRequestEdited); // should be saved with correct user
+                verify(helpRequestQueueService, times(1)).upsert(helpRequestEdited);
+                verify(helpRequestRollupService, times(1)).recordUpdated(eq(HelpRequest.builder()
+                                .requesterEmail("irenecho@ucsb.edu")
+                                .teamId("6pm-4")
+                                .tableOrBreakoutRoom("9")
+                                .requestTime(ldt1)
+                                .explanation("team02")
+                                .solved(false)
+                                .build()), eq(helpRequestEdited));
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -325,7 +463,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 when(helpRequestRepository.findById(eq(67L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 put("/api/helprequest?id=67")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
@@ -0,0 +1,117 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.HibernateStats;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.HibernateStatisticsService;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@WebMvcTest(controllers = HibernateStatsController.class)
+@Import(TestConfig.class)
+public class HibernateStatsControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  HibernateStatisticsService hibernateStatisticsService;
+
+  private final HibernateStats stats = HibernateStats.builder()
+      .enabled(true)
+      .windowStart(Instant.parse("2022-10-01T16:00:00Z"))
+      .windowEnd(Instant.parse("2022-10-01T17:00:00Z"))
+      .sessionOpenCount(12)
+      .entityLoadCount(40)
+      .cacheRegions(List.of())
+      .slowestQueries(List.of(HibernateStats.Query.builder()
+          .query("select u from users u")
+          .executionCount(3)
+          .rowCount(6)
+          .totalTimeMillis(12)
+          .avgTimeMillis(4.0)
+          .maxTimeMillis(6)
+          .build()))
+      .build();
+
+  @Test
+  public void logged_out_users_cannot_get_stats() throws Exception {
+    mockMvc.perform(get("/api/admin/hibernate-stats"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void regular_users_cannot_get_stats() throws Exception {
+    mockMvc.perform(get("/api/admin/hibernate-stats"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void admin_can_get_stats() throws Exception {
+    when(hibernateStatisticsService.getStats()).thenReturn(stats);
+
+    MvcResult response = mockMvc.perform(get("/api/admin/hibernate-stats"))
+        .andExpect(status().isOk()).andReturn();
+
+    assertEquals(mapper.writeValueAsString(stats), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void admin_can_reset_and_get_the_previous_window() throws Exception {
+    when(hibernateStatisticsService.reset()).thenReturn(stats);
+    when(hibernateStatisticsService.getPrevious()).thenReturn(Optional.of(stats));
+
+    MvcResult reset = mockMvc.perform(post("/api/admin/hibernate-stats/reset").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+    MvcResult previous = mockMvc.perform(get("/api/admin/hibernate-stats/previous"))
+        .andExpect(status().isOk()).andReturn();
+
+    verify(hibernateStatisticsService).reset();
+    assertEquals(mapper.writeValueAsString(stats), reset.getResponse().getContentAsString());
+    assertEquals(mapper.writeValueAsString(stats), previous.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void previous_window_is_not_found_before_a_reset() throws Exception {
+    when(hibernateStatisticsService.getPrevious()).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/admin/hibernate-stats/previous"))
+        .andExpect(status().isNotFound());
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void admin_can_turn_statistics_on() throws Exception {
+    when(hibernateStatisticsService.getStats()).thenReturn(stats);
+
+    MvcResult response = mockMvc.perform(put("/api/admin/hibernate-stats/enabled?enabled=true").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    verify(hibernateStatisticsService).setEnabled(true);
+    Map<String, Object> json = responseToJson(response);
+    assertEquals(true, json.get("enabled"));
+    assertEquals("2022-10-01T16:00:00Z", json.get("windowStart"));
+  }
+}
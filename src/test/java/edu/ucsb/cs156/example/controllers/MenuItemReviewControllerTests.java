@@ -96,7 +96,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findById(eq(123L))).thenReturn(Optional.of(menuItemReview));
 
         // act
-        MvcResult response = mockMvc.perform(get("/api/MenuItemReview?id=123"))
+        MvcResult response = performWithQueryBudget(1, get("/api/MenuItemReview?id=123"))
             .andExpect(status().isOk()).andReturn();
 
         // assert
@@ -116,7 +116,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findById(eq(123L))).thenReturn(Optional.empty());
 
         // act
-        MvcResult response = mockMvc.perform(get("/api/MenuItemReview?id=123"))
+        MvcResult response = performWithQueryBudget(1, get("/api/MenuItemReview?id=123"))
             .andExpect(status().isNotFound()).andReturn();
 
         // assert
@@ -148,7 +148,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findAll()).thenReturn(expectedMenuItemReviews);
 
         // act
-        MvcResult response = mockMvc.perform(get("/api/MenuItemReview/all"))
+        MvcResult response = performWithQueryBudget(1, get("/api/MenuItemReview/all"))
             .andExpect(status().isOk()).andReturn();
 
         // assert
@@ -177,7 +177,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.save(eq(menuItemReview))).thenReturn(menuItemReview);
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(1,
             post("/api/MenuItemReview/post?itemId=27&reviewerEmail=cgaucho@ucsb.edu&stars=3&dateReviewed=2022-04-20T00:00:00&comments=bland af")
                 .with(csrf()))
             .andExpect(status().isOk()).andReturn();
@@ -207,7 +207,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findById(eq(123L))).thenReturn(Optional.of(menuItemReview));
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(2,
             delete("/api/MenuItemReview?id=123")
                 .with(csrf()))
             .andExpect(status().isOk()).andReturn();
@@ -229,7 +229,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findById(eq(123L))).thenReturn(Optional.empty());
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(1,
             delete("/api/MenuItemReview?id=123")
                 .with(csrf()))
             .andExpect(status().isNotFound()).andReturn();
@@ -270,7 +270,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findById(eq(123L))).thenReturn(Optional.of(menuItemReviewOrig));
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(2,
             put("/api/MenuItemReview?id=123")
                 .contentType(MediaType.APPLICATION_JSON)
                 .characterEncoding("utf-8")
@@ -305,7 +305,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         when(menuItemReviewRepository.findById(eq(123L))).thenReturn(Optional.empty());
 
         // act
-        MvcResult response = mockMvc.perform(
+        MvcResult response = performWithQueryBudget(1,
             put("/api/MenuItemReview?id=123")
                 .contentType(MediaType.APPLICATION_JSON)
                 .characterEncoding("utf-8")
@@ -0,0 +1,196 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.models.EndpointAllocation;
+import edu.ucsb.cs156.example.models.EndpointLatency;
+import edu.ucsb.cs156.example.models.RepositoryMethodStats;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.AllocationMetricsService;
+import edu.ucsb.cs156.example.services.EndpointMetricsService;
+import edu.ucsb.cs156.example.services.RepositoryMetricsService;
+import edu.ucsb.cs156.example.services.UCSBDateQuarterCache;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+@WebMvcTest(controllers = MetricsController.class)
+@Import(TestConfig.class)
+public class MetricsControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  UCSBDateQuarterCache ucsbDateQuarterCache;
+
+  @MockBean
+  EndpointMetricsService endpointMetricsService;
+
+  @MockBean
+  RepositoryMetricsService repositoryMetricsService;
+
+  @MockBean
+  AllocationMetricsService allocationMetricsService;
+
+  @Test
+  public void caches__logged_out() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/caches"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void caches__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/caches"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void caches__admin_logged_in() throws Exception {
+
+    // arrange
+    CacheStats stats = CacheStats.builder()
+        .name("ucsbDateQuarterCache")
+        .hits(3)
+        .misses(1)
+        .evictions(0)
+        .size(1)
+        .build();
+    when(ucsbDateQuarterCache.getCacheStats()).thenReturn(stats);
+    // the admin resolution cache comes from TestConfig and has not been used
+    CacheStats adminStats = CacheStats.builder()
+        .name("adminResolution")
+        .build();
+    String expectedJson = mapper.writeValueAsString(List.of(adminStats, stats));
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/admin/metrics/caches"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+    assertEquals(0.75, stats.getHitRatio());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void endpoints__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/endpoints"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void endpoints__admin_logged_in() throws Exception {
+
+    // arrange
+    EndpointLatency latency = EndpointLatency.builder()
+        .endpoint("GET /api/ucsbdates/all")
+        .handler("UCSBDatesController.allUCSBDates")
+        .count(10)
+        .errors(1)
+        .requestsPerSecond(0.5)
+        .meanMicros(1200.5)
+        .p50Micros(900)
+        .p90Micros(2000)
+        .p99Micros(4000)
+        .p999Micros(4000)
+        .maxMicros(4100)
+        .build();
+    when(endpointMetricsService.getLatencies()).thenReturn(List.of(latency));
+    String expectedJson = mapper.writeValueAsString(List.of(latency));
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/admin/metrics/endpoints"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void repositories__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/repositories"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void repositories__admin_logged_in() throws Exception {
+
+    // arrange
+    RepositoryMethodStats stats = RepositoryMethodStats.builder()
+        .method("UserRepository.findByEmail")
+        .count(4)
+        .errors(0)
+        .rows(3)
+        .maxRows(1)
+        .meanMicros(250.0)
+        .p50Micros(200)
+        .p90Micros(400)
+        .p99Micros(400)
+        .p999Micros(400)
+        .maxMicros(410)
+        .totalMillis(1)
+        .build();
+    when(repositoryMetricsService.getStats()).thenReturn(List.of(stats));
+    String expectedJson = mapper.writeValueAsString(List.of(stats));
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/admin/metrics/repositories"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+    assertEquals(0.75, stats.getMeanRows());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void allocation__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/metrics/allocation"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void allocation__admin_logged_in() throws Exception {
+
+    // arrange
+    EndpointAllocation allocation = EndpointAllocation.builder()
+        .handler("UsersController.users")
+        .endpoint("GET /api/admin/users")
+        .count(4)
+        .bytes(400_000)
+        .maxBytes(160_000)
+        .cpuMicros(2_000)
+        .build();
+    when(allocationMetricsService.getAllocations()).thenReturn(List.of(allocation));
+    String expectedJson = mapper.writeValueAsString(List.of(allocation));
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/admin/metrics/allocation"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    assertEquals(expectedJson, response.getResponse().getContentAsString());
+    assertEquals(100_000, allocation.getBytesPerRequest());
+    assertEquals(500.0, allocation.getCpuMicrosPerRequest());
+  }
+}
@@ -5,6 +5,7 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Recommendation;
 import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.services.RecommendationDeadlineService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,6 +22,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import java.util.Optional;
@@ -42,6 +44,9 @@ public class RecommendationControllerTests extends ControllerTestCase {
 	@MockBean
 	UserRepository userRepository;
 
+	@MockBean
+	RecommendationDeadlineService recommendationDeadlineService;
+
 	// Authorization tests for /api/Recommendation/admin/all
 	
 	@Test
@@ -100,7 +105,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findById(eq(7L))).thenReturn(Optional.of(recommendation));
 
 		// act
-		MvcResult response = mockMvc.perform(get("/api/Recommendation?id=7"))
+		MvcResult response = performWithQueryBudget(1, get("/api/Recommendation?id=7"))
                                 .andExpect(status().isOk()).andReturn();
 
 		// assert
@@ -119,7 +124,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findById(eq(7L))).thenReturn(Optional.empty());
 
 		// act
-		MvcResult response = mockMvc.perform(get("/api/Recommendation?id=7"))
+		MvcResult response = performWithQueryBudget(1, get("/api/Recommendation?id=7"))
 				.andExpect(status().isNotFound()).andReturn();
 
 		// assert
@@ -164,7 +169,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findAll()).thenReturn(expectedRecs);
 
 		// act
-		MvcResult response = mockMvc.perform(get("/api/Recommendation/all"))
+		MvcResult response = performWithQueryBudget(1, get("/api/Recommendation/all"))
 			        .andExpect(status().isOk()).andReturn();
 
 		// assert
@@ -174,6 +179,59 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		assertEquals(expectedJson, responseString);
 	}
 
+	@Test
+	public void logged_out_users_cannot_get_due() throws Exception {
+		mockMvc.perform(get("/api/Recommendation/due"))
+				.andExpect(status().is(403));
+	}
+
+	@WithMockUser(roles = { "USER" })
+	@Test
+	public void logged_in_user_can_get_due_recommendations_for_a_professor() throws Exception {
+		// arrange
+		Recommendation recommendation = Recommendation.builder()
+			.id(3L)
+			.requesterEmail("alu@ucsb.edu")
+			.professorEmail("phtcon@ucsb.edu")
+			.explanation("PhD")
+			.dateRequested(LocalDateTime.parse("2022-01-03T00:00:00"))
+			.dateNeeded(LocalDateTime.parse("2022-01-10T00:00:00"))
+			.done(false)
+			.build();
+
+		ArrayList<Recommendation> expected = new ArrayList<>(Arrays.asList(recommendation));
+		when(recommendationDeadlineService.dueWithin(Duration.ofDays(3), "phtcon@ucsb.edu")).thenReturn(expected);
+
+		// act
+		MvcResult response = mockMvc.perform(get("/api/Recommendation/due?within=P3D&professorEmail=phtcon@ucsb.edu"))
+				.andExpect(status().isOk()).andReturn();
+
+		// assert
+		verify(recommendationDeadlineService, times(1)).dueWithin(Duration.ofDays(3), "phtcon@ucsb.edu");
+		verify(recommendationRepository, times(0)).findAll();
+		assertEquals(mapper.writeValueAsString(expected), response.getResponse().getContentAsString());
+	}
+
+	@WithMockUser(roles = { "USER" })
+	@Test
+	public void due_defaults_to_seven_days_for_all_professors() throws Exception {
+		// act
+		mockMvc.perform(get("/api/Recommendation/due"))
+				.andExpect(status().isOk()).andReturn();
+
+		// assert
+		verify(recommendationDeadlineService, times(1)).dueWithin(Duration.ofDays(7), null);
+	}
+
+	@WithMockUser(roles = { "USER" })
+	@Test
+	public void due_rejects_a_negative_period() throws Exception {
+		mockMvc.perform(get("/api/Recommendation/due?within=-P1D"))
+				.andExpect(status().isBadRequest());
+
+		verify(recommendationDeadlineService, times(0)).dueWithin(any(), any());
+	}
+
 	@WithMockUser(roles = { "ADMIN", "USER" })
 	@Test
 	public void an_admin_user_can_post_a_new_recommendation() throws Exception {
@@ -193,13 +251,14 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.save(eq(recommendation))).thenReturn(recommendation);
 
 		// act
-		MvcResult response = mockMvc.perform(
+		MvcResult response = performWithQueryBudget(1,
 				post("/api/Recommendation/post?requesterEmail=alu@ucsb.edu&professorEmail=phtcon@ucsb.edu&explanation=PhD&dateRequested=2022-01-03T00:00:00&dateNeeded=2022-11-03T00:00:00&done=true")
 						.with(csrf()))
 				.andExpect(status().isOk()).andReturn();
 
 		// assert
 		verify(recommendationRepository, times(1)).save(recommendation);
+		verify(recommendationDeadlineService, times(1)).upsert(recommendation);
 		String expectedJson = mapper.writeValueAsString(recommendation);
 		String responseString = response.getResponse().getContentAsString();
 		assertEquals(expectedJson, responseString);
@@ -225,7 +284,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findById(eq(15L))).thenReturn(Optional.of(recommendation));
 
 		// act
-		MvcResult response = mockMvc.perform(
+		MvcResult response = performWithQueryBudget(2,
 				delete("/api/Recommendation?id=15")
 						.with(csrf()))
 				.andExpect(status().isOk()).andReturn();
@@ -233,6 +292,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		// assert
 		verify(recommendationRepository, times(1)).findById(15L);
 		verify(recommendationRepository, times(1)).delete(any());
+		verify(recommendationDeadlineService, times(1)).remove(15L);
 
 		Map<String, Object> json = responseToJson(response);
 		assertEquals("Recommendation with id 15 deleted", json.get("message"));
@@ -246,7 +306,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findById(eq(15L))).thenReturn(Optional.empty());
 
 		// act
-		MvcResult response = mockMvc.perform(
+		MvcResult response = performWithQueryBudget(1,
 				delete("/api/Recommendation?id=15")
 						.with(csrf()))
 				.andExpect(status().isNotFound()).andReturn();
@@ -290,7 +350,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findById(eq(67L))).thenReturn(Optional.of(recommendationOrig));
 
 		// act
-		MvcResult response = mockMvc.perform(
+		MvcResult response = performWithQueryBudget(2,
 				put("/api/Recommendation?id=67")
 						.contentType(MediaType.APPLICATION_JSON)
 						.characterEncoding("utf-8")
@@ -301,6 +361,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		// assert
 		verify(recommendationRepository, times(1)).findById(67L);
 		verify(recommendationRepository, times(1)).save(recommendationEdited); // should be saved with correct user/updated info?
+		verify(recommendationDeadlineService, times(1)).upsert(recommendationEdited);
 		String responseString = response.getResponse().getContentAsString();
 		assertEquals(requestBody, responseString);
 	}
@@ -325,7 +386,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 		when(recommendationRepository.findById(eq(67L))).thenReturn(Optional.empty());
 
 		// act
-		MvcResult response = mockMvc.perform(
+		MvcResult response = performWithQueryBudget(1,
 				put("/api/Recommendation?id=67")
 						.contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
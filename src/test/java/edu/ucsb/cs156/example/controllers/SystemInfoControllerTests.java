@@ -1,8 +1,13 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.models.StartupTimeline;
+import edu.ucsb.cs156.example.models.SystemHealth;
 import edu.ucsb.cs156.example.models.SystemInfo;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.StartupTimelineService;
+import edu.ucsb.cs156.example.services.SystemHealthService;
 import edu.ucsb.cs156.example.services.SystemInfoService;
 
 import org.junit.jupiter.api.Test;
@@ -16,6 +21,9 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.Instant;
+import java.util.List;
+
 @WebMvcTest(controllers = SystemInfoController.class)
 public class SystemInfoControllerTests extends ControllerTestCase {
 
@@ -25,6 +33,12 @@ public class SystemInfoControllerTests extends ControllerTestCase {
   @MockBean
   SystemInfoService mockSystemInfoService;
 
+  @MockBean
+  SystemHealthService mockSystemHealthService;
+
+  @MockBean
+  StartupTimelineService mockStartupTimelineService;
+
   @Test
   public void systemInfo__logged_out() throws Exception {
     mockMvc.perform(get("/api/systemInfo"))
@@ -61,4 +75,76 @@ public class SystemInfoControllerTests extends ControllerTestCase {
     String responseString = response.getResponse().getContentAsString();
     assertEquals(expectedJson, responseString);
   }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void systemHealth__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/systemInfo/health"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void systemHealth__admin_logged_in() throws Exception {
+
+    // arrange
+    SystemHealth health = SystemHealth.builder()
+        .takenAt(Instant.parse("2022-10-01T17:00:00Z"))
+        .uptimeMillis(60_000)
+        .availableProcessors(4)
+        .heapUsedBytes(100_000_000)
+        .heapMaxBytes(500_000_000)
+        .garbageCollectors(List.of(SystemHealth.GarbageCollector.builder()
+            .name("G1 Young Generation").collections(12).collectionMillis(80).build()))
+        .threadCount(30)
+        .connectionPool(SystemHealth.ConnectionPool.builder()
+            .name("HikariPool-1").active(2).idle(8).waiting(0).total(10).maximum(10).build())
+        .caches(List.of(CacheStats.builder().name("ucsbDateQuarterCache").hits(9).misses(1).build()))
+        .build();
+    when(mockSystemHealthService.getSystemHealth()).thenReturn(health);
+    String expectedJson = mapper.writeValueAsString(health);
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/systemInfo/health"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void startupTimeline__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/systemInfo/startup"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void startupTimeline__admin_logged_in() throws Exception {
+    // arrange
+    StartupTimeline timeline = StartupTimeline.builder()
+        .recorded(true)
+        .startedAt(Instant.parse("2022-10-01T17:00:00Z"))
+        .jvmMillis(15_000)
+        .applicationMillis(14_000)
+        .stepCount(600)
+        .slowestSteps(List.of(StartupTimeline.Step.builder()
+            .name("spring.beans.instantiate").tags("beanName=entityManagerFactory")
+            .durationMillis(2_000).selfMillis(1_900).build()))
+        .stepTotals(List.of(StartupTimeline.StepTotal.builder()
+            .name("spring.beans.instantiate").count(500).totalMillis(9_000).selfMillis(6_000).build()))
+        .build();
+    when(mockStartupTimelineService.getStartupTimeline(5)).thenReturn(timeline);
+    String expectedJson = mapper.writeValueAsString(timeline);
+
+    // act
+    MvcResult response = mockMvc.perform(get("/api/systemInfo/startup").param("top", "5"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
 }
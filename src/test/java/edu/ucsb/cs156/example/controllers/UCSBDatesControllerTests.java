@@ -5,6 +5,8 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.UCSBDateIndexService;
+import edu.ucsb.cs156.example.services.UCSBDateQuarterCache;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,6 +44,12 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        UCSBDateIndexService ucsbDateIndexService;
+
+        @MockBean
+        UCSBDateQuarterCache ucsbDateQuarterCache;
+
         // Authorization tests for /api/ucsbdates/admin/all
 
         @Test
@@ -97,7 +105,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findById(eq(7L))).thenReturn(Optional.of(ucsbDate));
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/ucsbdates?id=7"))
+                MvcResult response = performWithQueryBudget(1, get("/api/ucsbdates?id=7"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
@@ -117,7 +125,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findById(eq(7L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/ucsbdates?id=7"))
+                MvcResult response = performWithQueryBudget(1, get("/api/ucsbdates?id=7"))
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
@@ -155,7 +163,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findAll()).thenReturn(expectedDates);
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/ucsbdates/all"))
+                MvcResult response = performWithQueryBudget(1, get("/api/ucsbdates/all"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
@@ -166,6 +174,111 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @Test
+        public void logged_out_users_cannot_get_quarter() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/quarter?quarterYYYYQ=20222"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_dates_for_a_quarter() throws Exception {
+
+                // arrange
+                UCSBDate ucsbDate1 = UCSBDate.builder()
+                                .id(1L)
+                                .name("firstDayOfClasses")
+                                .quarterYYYYQ("20222")
+                                .localDateTime(LocalDateTime.parse("2022-03-28T00:00:00"))
+                                .build();
+
+                ArrayList<UCSBDate> expectedDates = new ArrayList<>(Arrays.asList(ucsbDate1));
+                when(ucsbDateQuarterCache.findAllByQuarterYYYYQ("20222")).thenReturn(expectedDates);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/quarter?quarterYYYYQ=20222"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateQuarterCache, times(1)).findAllByQuarterYYYYQ("20222");
+                String expectedJson = mapper.writeValueAsString(expectedDates);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_range() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/range?start=2022-01-01T00:00:00&end=2022-02-01T00:00:00"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_dates_in_range() throws Exception {
+
+                // arrange
+                UCSBDate ucsbDate1 = UCSBDate.builder()
+                                .id(1L)
+                                .name("firstDayOfClasses")
+                                .quarterYYYYQ("20222")
+                                .localDateTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .build();
+
+                ArrayList<UCSBDate> expectedDates = new ArrayList<>(Arrays.asList(ucsbDate1));
+                when(ucsbDateIndexService.between(LocalDateTime.parse("2022-01-01T00:00:00"),
+                                LocalDateTime.parse("2022-02-01T00:00:00"))).thenReturn(expectedDates);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/range?start=2022-01-01T00:00:00&end=2022-02-01T00:00:00"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateRepository, times(0)).findAll();
+                String expectedJson = mapper.writeValueAsString(expectedDates);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_upcoming() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/upcoming"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_upcoming_dates() throws Exception {
+
+                // arrange
+                UCSBDate ucsbDate1 = UCSBDate.builder()
+                                .id(1L)
+                                .name("lastDayOfClasses")
+                                .quarterYYYYQ("20222")
+                                .localDateTime(LocalDateTime.parse("2022-03-11T00:00:00"))
+                                .build();
+
+                ArrayList<UCSBDate> expectedDates = new ArrayList<>(Arrays.asList(ucsbDate1));
+                when(ucsbDateIndexService.upcoming(3)).thenReturn(expectedDates);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdates/upcoming?count=3"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDateIndexService, times(1)).upcoming(3);
+                String expectedJson = mapper.writeValueAsString(expectedDates);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void upcoming_defaults_to_ten_dates() throws Exception {
+                mockMvc.perform(get("/api/ucsbdates/upcoming"))
+                                .andExpect(status().isOk());
+                verify(ucsbDateIndexService, times(1)).upcoming(10);
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_ucsbdate() throws Exception {
@@ -182,13 +295,15 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.save(eq(ucsbDate1))).thenReturn(ucsbDate1);
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 post("/api/ucsbdates/post?name=firstDayOfClasses&quarterYYYYQ=20222&localDateTime=2022-01-03T00:00:00")
                                                 .with(csrf()))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
                 verify(ucsbDateRepository, times(1)).save(ucsbDate1);
+                verify(ucsbDateIndexService, times(1)).upsert(ucsbDate1);
+                verify(ucsbDateQuarterCache, times(1)).invalidate("20222");
                 String expectedJson = mapper.writeValueAsString(ucsbDate1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -210,7 +325,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findById(eq(15L))).thenReturn(Optional.of(ucsbDate1));
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(2,
                                 delete("/api/ucsbdates?id=15")
                                                 .with(csrf()))
                                 .andExpect(status().isOk()).andReturn();
@@ -218,6 +333,8 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDateRepository, times(1)).findById(15L);
                 verify(ucsbDateRepository, times(1)).delete(any());
+                verify(ucsbDateIndexService, times(1)).remove(15L);
+                verify(ucsbDateQuarterCache, times(1)).invalidate("20222");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDate with id 15 deleted", json.get("message"));
@@ -232,7 +349,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findById(eq(15L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 delete("/api/ucsbdates?id=15")
                                                 .with(csrf()))
                                 .andExpect(status().isNotFound()).andReturn();
@@ -268,7 +385,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findById(eq(67L))).thenReturn(Optional.of(ucsbDateOrig));
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(2,
                                 put("/api/ucsbdates?id=67")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
@@ -279,6 +396,9 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDateRepository, times(1)).findById(67L);
                 verify(ucsbDateRepository, times(1)).save(ucsbDateEdited); // should be saved with correct user
+                verify(ucsbDateIndexService, times(1)).upsert(ucsbDateEdited);
+                verify(ucsbDateQuarterCache, times(1)).invalidate("20222"); // quarter it moved out of
+                verify(ucsbDateQuarterCache, times(1)).invalidate("20232"); // quarter it moved into
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -301,7 +421,7 @@ public class UCSBDatesControllerTests extends ControllerTestCase {
                 when(ucsbDateRepository.findById(eq(67L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 put("/api/ucsbdates?id=67")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
@@ -4,10 +4,15 @@ import edu.ucsb.cs156.example.repositories.UserRepository;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.models.DiningCommonsMenu;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.DiningCommonsFilterService;
+import edu.ucsb.cs156.example.services.DiningMenuSnapshotService;
+import edu.ucsb.cs156.example.util.FlagIndex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -40,6 +45,12 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        DiningMenuSnapshotService diningMenuSnapshotService;
+
+        @MockBean
+        DiningCommonsFilterService diningCommonsFilterService;
+
         // Authorization tests for /api/ucsbdiningcommons/admin/all
 
         @Test
@@ -98,7 +109,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findById(eq("carrillo"))).thenReturn(Optional.of(commons));
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=carrillo"))
+                MvcResult response = performWithQueryBudget(1, get("/api/ucsbdiningcommons?code=carrillo"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
@@ -118,7 +129,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findById(eq("munger-hall"))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons?code=munger-hall"))
+                MvcResult response = performWithQueryBudget(1, get("/api/ucsbdiningcommons?code=munger-hall"))
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
@@ -161,7 +172,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findAll()).thenReturn(expectedCommons);
 
                 // act
-                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/all"))
+                MvcResult response = performWithQueryBudget(1, get("/api/ucsbdiningcommons/all"))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
@@ -172,6 +183,94 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @Test
+        public void logged_out_users_cannot_get_menu() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/menu?code=ortega"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_menu() throws Exception {
+
+                // arrange
+                DiningCommonsMenu menu = DiningCommonsMenu.builder()
+                                .diningCommonsCode("ortega")
+                                .stations(List.of(new DiningCommonsMenu.Station("Entrees",
+                                                List.of(new DiningCommonsMenu.Item(1L, "Baked Pesto Pasta")))))
+                                .build();
+                when(diningMenuSnapshotService.getMenu("ortega")).thenReturn(menu);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/menu?code=ortega"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(diningMenuSnapshotService, times(1)).getMenu("ortega");
+                String expectedJson = mapper.writeValueAsString(menu);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_filter() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/filter?features=hasSackMeal"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_by_features() throws Exception {
+
+                // arrange
+                UCSBDiningCommons ortega = UCSBDiningCommons.builder()
+                                .name("Ortega")
+                                .code("ortega")
+                                .hasSackMeal(true)
+                                .hasTakeOutMeal(true)
+                                .hasDiningCam(true)
+                                .latitude(34.410987)
+                                .longitude(-119.84709)
+                                .build();
+                ArrayList<UCSBDiningCommons> expected = new ArrayList<>(Arrays.asList(ortega));
+                when(diningCommonsFilterService.filter(List.of("hasSackMeal", "hasDiningCam"), FlagIndex.Match.ANY))
+                                .thenReturn(expected);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommons/filter?features=hasSackMeal,hasDiningCam&match=any"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsRepository, times(0)).findAll();
+                String expectedJson = mapper.writeValueAsString(expected);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void filter_defaults_to_matching_all_features() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/filter?features=hasTakeOutMeal"))
+                                .andExpect(status().isOk());
+                verify(diningCommonsFilterService, times(1)).filter(List.of("hasTakeOutMeal"), FlagIndex.Match.ALL);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void filter_rejects_unknown_match() throws Exception {
+                mockMvc.perform(get("/api/ucsbdiningcommons/filter?features=hasTakeOutMeal&match=some"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void filter_rejects_unknown_feature() throws Exception {
+                when(diningCommonsFilterService.filter(List.of("hasPizza"), FlagIndex.Match.ALL))
+                                .thenThrow(new IllegalArgumentException("unknown flag: hasPizza"));
+                mockMvc.perform(get("/api/ucsbdiningcommons/filter?features=hasPizza"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_commons() throws Exception {
@@ -190,13 +289,14 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.save(eq(ortega))).thenReturn(ortega);
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 post("/api/ucsbdiningcommons/post?name=Ortega&code=ortega&hasSackMeal=true&hasTakeOutMeal=true&hasDiningCam=true&latitude=34.410987&longitude=-119.84709")
                                                 .with(csrf()))
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).save(ortega);
+                verify(diningCommonsFilterService, times(1)).upsert(ortega);
                 String expectedJson = mapper.writeValueAsString(ortega);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -220,7 +320,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findById(eq("portola"))).thenReturn(Optional.of(portola));
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(2,
                                 delete("/api/ucsbdiningcommons?code=portola")
                                                 .with(csrf()))
                                 .andExpect(status().isOk()).andReturn();
@@ -228,6 +328,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).findById("portola");
                 verify(ucsbDiningCommonsRepository, times(1)).delete(any());
+                verify(diningCommonsFilterService, times(1)).remove("portola");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommons with id portola deleted", json.get("message"));
@@ -242,7 +343,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findById(eq("munger-hall"))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 delete("/api/ucsbdiningcommons?code=munger-hall")
                                                 .with(csrf()))
                                 .andExpect(status().isNotFound()).andReturn();
@@ -283,7 +384,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findById(eq("carrillo"))).thenReturn(Optional.of(carrilloOrig));
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(2,
                                 put("/api/ucsbdiningcommons?code=carrillo")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
@@ -294,6 +395,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 // assert
                 verify(ucsbDiningCommonsRepository, times(1)).findById("carrillo");
                 verify(ucsbDiningCommonsRepository, times(1)).save(carrilloEdited); // should be saved with updated info
+                verify(diningCommonsFilterService, times(1)).upsert(carrilloEdited);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -318,7 +420,7 @@ public class UCSBDiningCommonsControllerTests extends ControllerTestCase {
                 when(ucsbDiningCommonsRepository.findById(eq("munger-hall"))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 put("/api/ucsbdiningcommons?code=munger-hall")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
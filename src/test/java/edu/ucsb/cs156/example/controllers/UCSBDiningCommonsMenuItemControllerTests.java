@@ -5,6 +5,7 @@ import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.DiningMenuSnapshotService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,6 +41,9 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
     @MockBean
     UserRepository userRepository;
 
+    @MockBean
+    DiningMenuSnapshotService diningMenuSnapshotService;
+
     //Authorization tests for /api/ucsbdiningcommonsmenuitem/admin/all
 
     @Test
@@ -95,7 +99,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             when(ucsbDiningCommonsMenuItemRepository.findById(eq(1L))).thenReturn(Optional.of(menuItem));
 
             //act
-            MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem?id=1"))
+            MvcResult response = performWithQueryBudget(1, get("/api/ucsbdiningcommonsmenuitem?id=1"))
                 .andExpect(status().isOk()).andReturn();
             
             // assert
@@ -115,7 +119,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             when(ucsbDiningCommonsMenuItemRepository.findById(eq(1L))).thenReturn(Optional.empty());
 
             //act
-            MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem?id=1"))
+            MvcResult response = performWithQueryBudget(1, get("/api/ucsbdiningcommonsmenuitem?id=1"))
                 .andExpect(status().isNotFound()).andReturn();
 
             //assert
@@ -148,7 +152,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(expectedMenuItems);
 
             //act
-            MvcResult response = mockMvc.perform(get("/api/ucsbdiningcommonsmenuitem/all"))
+            MvcResult response = performWithQueryBudget(1, get("/api/ucsbdiningcommonsmenuitem/all"))
                 .andExpect(status().isOk()).andReturn();
 
             //assert
@@ -179,6 +183,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
 
             //Assert
             verify(ucsbDiningCommonsMenuItemRepository,times(1)).save(menuItem);
+            verify(diningMenuSnapshotService,times(1)).upsert(menuItem);
             String expectedJson = mapper.writeValueAsString(menuItem);
             String responseString = response.getResponse().getContentAsString();
             assertEquals(expectedJson, responseString);
@@ -198,7 +203,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             when(ucsbDiningCommonsMenuItemRepository.findById(eq(8L))).thenReturn(Optional.of(menuItem));
 
             //act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(2,
                 delete("/api/ucsbdiningcommonsmenuitem?id=8")
                 .with(csrf()))
                 .andExpect(status().isOk()).andReturn();
@@ -206,6 +211,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             //assert
             verify(ucsbDiningCommonsMenuItemRepository,times(1)).findById(8L);
             verify(ucsbDiningCommonsMenuItemRepository,times(1)).delete(any());
+            verify(diningMenuSnapshotService,times(1)).remove(8L);
 
             Map<String, Object> json = responseToJson(response);
             assertEquals("UCSBDiningCommonsMenuItem with id 8 deleted", json.get("message"));
@@ -220,7 +226,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             when(ucsbDiningCommonsMenuItemRepository.findById(eq(1L))).thenReturn(Optional.empty());
 
             // act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(1,
                 delete("/api/ucsbdiningcommonsmenuitem?id=1")
                                 .with(csrf()))
                 .andExpect(status().isNotFound()).andReturn();
@@ -251,7 +257,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             when(ucsbDiningCommonsMenuItemRepository.findById(eq(8L))).thenReturn(Optional.of(menuItem));
 
             //act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(2,
                                 put("/api/ucsbdiningcommonsmenuitem?id=8")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
@@ -262,6 +268,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
             //assert
             verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(8L);
             verify(ucsbDiningCommonsMenuItemRepository, times(1)).save(menuItemTwo); // should be saved with updated info
+            verify(diningMenuSnapshotService, times(1)).upsert(menuItemTwo);
             String responseString = response.getResponse().getContentAsString();
             assertEquals(requestBody, responseString);
         }
@@ -282,7 +289,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                 when(ucsbDiningCommonsMenuItemRepository.findById(eq(8L))).thenReturn(Optional.empty());
 
                 // act
-                MvcResult response = mockMvc.perform(
+                MvcResult response = performWithQueryBudget(1,
                                 put("/api/ucsbdiningcommonsmenuitem?id=8")
                                                 .contentType(MediaType.APPLICATION_JSON)
                                                 .characterEncoding("utf-8")
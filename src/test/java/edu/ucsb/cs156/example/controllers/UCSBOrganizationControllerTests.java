@@ -95,7 +95,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findById(eq("ZPR"))).thenReturn(Optional.of(org));
 
             // act
-            MvcResult response = mockMvc.perform(get("/api/ucsborganization?orgCode=ZPR"))
+            MvcResult response = performWithQueryBudget(1, get("/api/ucsborganization?orgCode=ZPR"))
                             .andExpect(status().isOk()).andReturn();
 
             // assert
@@ -115,7 +115,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findById(eq("AAA"))).thenReturn(Optional.empty());
 
             // act
-            MvcResult response = mockMvc.perform(get("/api/ucsborganization?orgCode=AAA"))
+            MvcResult response = performWithQueryBudget(1, get("/api/ucsborganization?orgCode=AAA"))
                             .andExpect(status().isNotFound()).andReturn();
 
             // assert
@@ -151,7 +151,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findAll()).thenReturn(expectedOrgs);
 
             // act
-            MvcResult response = mockMvc.perform(get("/api/ucsborganization/all"))
+            MvcResult response = performWithQueryBudget(1, get("/api/ucsborganization/all"))
                             .andExpect(status().isOk()).andReturn();
 
             // assert
@@ -176,7 +176,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.save(eq(org))).thenReturn(org);
 
             // act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(1,
                             post("/api/ucsborganization/post?orgCode=ORG&orgTranslationShort=O&orgTranslation=ORGANIZATION&inactive=true")
                                             .with(csrf()))
                             .andExpect(status().isOk()).andReturn();
@@ -202,7 +202,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findById(eq("KRC"))).thenReturn(Optional.of(krc));
 
             // act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(2,
                             delete("/api/ucsborganization?orgCode=KRC")
                                             .with(csrf()))
                             .andExpect(status().isOk()).andReturn();
@@ -224,7 +224,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findById(eq("AAA"))).thenReturn(Optional.empty());
 
             // act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(1,
                             delete("/api/ucsborganization?orgCode=AAA")
                                             .with(csrf()))
                             .andExpect(status().isNotFound()).andReturn();
@@ -258,7 +258,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findById(eq("t"))).thenReturn(Optional.of(t1));
 
             // act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(2,
                             put("/api/ucsborganization?orgCode=t")
                                             .contentType(MediaType.APPLICATION_JSON)
                                             .characterEncoding("utf-8")
@@ -290,7 +290,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
             when(ucsbOrganizationRepository.findById(eq("AAA"))).thenReturn(Optional.empty());
 
             // act
-            MvcResult response = mockMvc.perform(
+            MvcResult response = performWithQueryBudget(1,
                             put("/api/ucsborganization?orgCode=AAA")
                                             .contentType(MediaType.APPLICATION_JSON)
                                             .characterEncoding("utf-8")
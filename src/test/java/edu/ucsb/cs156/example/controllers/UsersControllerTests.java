@@ -60,7 +60,7 @@ public class UsersControllerTests extends ControllerTestCase {
     
     // act
 
-    MvcResult response = mockMvc.perform(get("/api/admin/users"))
+    MvcResult response = performWithQueryBudget(1, get("/api/admin/users"))
         .andExpect(status().isOk()).andReturn();
 
     // assert
@@ -0,0 +1,137 @@
+package edu.ucsb.cs156.example.datagen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRollupRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.SyntheticDataConfig;
+import edu.ucsb.cs156.example.testconfig.SyntheticDataConfig.SyntheticData;
+
+@DataJpaTest
+@Import(SyntheticDataConfig.class)
+@TestPropertySource(properties = "app.datagen.scale=0.02")
+class SyntheticDataGeneratorTests {
+
+  @Autowired
+  SyntheticData syntheticData;
+
+  @Autowired
+  SyntheticDataGenerator generator;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  UCSBDiningCommonsRepository diningCommonsRepository;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository menuItemRepository;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  HelpRequestRollupRepository helpRequestRollupRepository;
+
+  @Test
+  void every_table_is_filled_at_the_scale() {
+    Map<String, Integer> added = syntheticData.added();
+    assertEquals(10, added.size(), added.toString());
+    assertEquals(4, userRepository.count());
+    assertEquals(4, diningCommonsRepository.count());
+    assertEquals(6, menuItemRepository.count());
+    assertEquals(4_000, menuItemReviewRepository.count());
+    assertEquals(400, helpRequestRepository.count());
+    added.values().forEach(rows -> assertTrue(rows > 0, added.toString()));
+  }
+
+  @Test
+  void reviews_favor_a_few_items() {
+    List<MenuItemReview> reviews = new ArrayList<>();
+    menuItemReviewRepository.findAll().forEach(reviews::add);
+    Map<Long, Long> reviewsPerItem = reviews.stream()
+        .collect(Collectors.groupingBy(MenuItemReview::getItemId, Collectors.counting()));
+    long most = reviewsPerItem.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    long least = reviewsPerItem.values().stream().mapToLong(Long::longValue).min().orElse(0);
+    // Zipf(1.1) over 6 items: the top item gets about 45%, the last about 6%
+    assertTrue(most > 0.35 * 4_000, reviewsPerItem.toString());
+    assertTrue(most > 4 * least, reviewsPerItem.toString());
+  }
+
+  @Test
+  void help_requests_fall_in_office_hours_and_match_the_rollups() {
+    long solved = 0;
+    for (HelpRequest helpRequest : helpRequestRepository.findAll()) {
+      LocalDateTime time = helpRequest.getRequestTime();
+      assertTrue(time.getDayOfWeek().compareTo(DayOfWeek.THURSDAY) <= 0, time.toString());
+      assertTrue(List.of(10, 11, 14, 15, 18, 19).contains(time.getHour()), time.toString());
+      solved += helpRequest.getSolved() ? 1 : 0;
+    }
+
+    for (HelpRequestRollup.Granularity granularity : HelpRequestRollup.Granularity.values()) {
+      long requests = 0;
+      long solvedInRollups = 0;
+      for (HelpRequestRollup rollup : helpRequestRollupRepository
+          .findAllByGranularityAndBucketStartBetweenOrderByBucketStart(granularity,
+              LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2100, 1, 1, 0, 0))) {
+        requests += rollup.getRequestCount();
+        solvedInRollups += rollup.getSolvedCount();
+      }
+      assertEquals(400, requests);
+      assertEquals(solved, solvedInRollups);
+    }
+  }
+
+  @Test
+  void the_same_seed_generates_the_same_rows() {
+    List<HelpRequest> first = new ArrayList<>();
+    helpRequestRepository.findAll().forEach(first::add);
+
+    // rolled back with the test's transaction
+    generator.generate(0.02, 1);
+
+    List<HelpRequest> all = new ArrayList<>();
+    helpRequestRepository.findAll().forEach(all::add);
+    assertEquals(800, all.size());
+    assertEquals(8, userRepository.count());
+    for (int i = 0; i < first.size(); i++) {
+      HelpRequest a = first.get(i);
+      HelpRequest b = all.get(first.size() + i);
+      assertEquals(a.getRequestTime(), b.getRequestTime());
+      assertEquals(a.getTeamId(), b.getTeamId());
+      assertEquals(a.getTableOrBreakoutRoom(), b.getTableOrBreakoutRoom());
+      assertEquals(a.getExplanation(), b.getExplanation());
+      assertEquals(a.getSolved(), b.getSolved());
+    }
+  }
+
+  @Test
+  void scale_must_be_positive() {
+    assertThrows(IllegalArgumentException.class, () -> generator.generate(0, 1));
+  }
+}
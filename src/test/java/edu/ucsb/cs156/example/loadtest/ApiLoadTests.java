@@ -0,0 +1,442 @@
+package edu.ucsb.cs156.example.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.ExampleApplication;
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.testconfig.SyntheticDataConfig;
+import edu.ucsb.cs156.example.testconfig.SyntheticDataConfig.SyntheticData;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a mix of reads and writes against the whole application, from many
+ * concurrent users, and fails if p99 latency or throughput is worse than
+ * the stored baseline by more than the allowed margin.
+ *
+ * Not part of the normal build; run it with <code>mvn -Ploadtest test</code>.
+ * See docs/load-testing.md for the knobs and for updating the baseline.
+ */
+@Slf4j
+@Tag("loadtest")
+@SpringBootTest(classes = ApiLoadTests.LoadTestApplication.class, properties = {
+    "app.datagen.scale=0.01",
+    "app.logging.requests.sampleEvery=0",
+    "app.sql.countStatements=false",
+    "logging.level.sql=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "logging.level.edu.ucsb.cs156.example.testconfig.MockCurrentUserServiceImpl=WARN"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ApiLoadTests {
+
+  static final Path BASELINE = Path.of("src/test/resources/loadtest/baseline.json");
+  static final Path RESULT = Path.of("target/loadtest/result.json");
+
+  /**
+   * The application, less the production CurrentUserServiceImpl, which
+   * MockCurrentUserServiceImpl replaces.
+   */
+  @Configuration
+  @EnableAutoConfiguration
+  @AutoConfigurationPackage(basePackageClasses = ExampleApplication.class)
+  @ComponentScan(basePackageClasses = ExampleApplication.class, excludeFilters = {
+      @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+      @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ExampleApplication.class),
+      @ComponentScan.Filter(type = FilterType.REGEX,
+          pattern = "edu\\.ucsb\\.cs156\\.example\\.services\\.CurrentUserServiceImpl")
+  })
+  @Import(SyntheticDataConfig.class)
+  static class LoadTestApplication {
+  }
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ObjectMapper mapper;
+
+  @Autowired
+  SyntheticData syntheticData;
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  ArticleRepository articleRepository;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  RecommendationRepository recommendationRepository;
+
+  @Autowired
+  UCSBDiningCommonsRepository diningCommonsRepository;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository menuItemRepository;
+
+  @Autowired
+  UCSBOrganizationRepository organizationRepository;
+
+  private static final RequestPostProcessor ADMIN = user("admin").roles("ADMIN", "USER");
+
+  @Test
+  void api_meets_baseline() throws Exception {
+    int users = Integer.getInteger("loadtest.users", 32);
+    int writePercent = Integer.getInteger("loadtest.writePercent", 20);
+    Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmupSeconds", 10));
+    Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 30));
+
+    LoadRunner runner = new LoadRunner(mockMvc, operations(), users, writePercent, warmup, duration, 1);
+    LoadReport report = runner.run();
+
+    Files.createDirectories(RESULT.getParent());
+    mapper.writerWithDefaultPrettyPrinter().writeValue(RESULT.toFile(), report);
+    log.info("load test: {} users, {} requests in {}s, {} req/s, p50 {}us, p99 {}us, {} errors",
+        report.users(), report.requests(), String.format("%.1f", report.seconds()),
+        String.format("%.0f", report.requestsPerSecond()), report.p50Micros(), report.p99Micros(), report.errors());
+    report.operations().forEach((name, operation) -> log.info("  {}: {}", name, operation));
+
+    double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+    assertTrue(report.errorRate() <= maxErrorRate,
+        "error rate " + report.errorRate() + " is above " + maxErrorRate + "; see " + RESULT);
+
+    if (Boolean.getBoolean("loadtest.updateBaseline")) {
+      Files.copy(RESULT, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+      log.info("baseline updated: {}", BASELINE);
+      return;
+    }
+    if (!Files.exists(BASELINE)) {
+      log.warn("no baseline at {}; run with -Dloadtest.updateBaseline=true to create one", BASELINE);
+      return;
+    }
+    LoadReport baseline;
+    try (InputStream in = Files.newInputStream(BASELINE)) {
+      baseline = mapper.readValue(in, LoadReport.class);
+    }
+    double maxP99Regression = Double.parseDouble(System.getProperty("loadtest.maxP99Regression", "0.25"));
+    double maxThroughputRegression = Double.parseDouble(
+        System.getProperty("loadtest.maxThroughputRegression", "0.15"));
+    List<String> regressions = report.regressionsFrom(baseline, maxP99Regression, maxThroughputRegression);
+    assertTrue(regressions.isEmpty(), String.join("; ", regressions) + "; see " + RESULT);
+  }
+
+  // The mix: mostly lookups by id and small queries, some full listings,
+  // and creates, updates and deletes.  Updates go to seeded rows; deletes
+  // only remove rows the run itself created.
+  private List<Operation> operations() {
+    log.info("seeded {}", syntheticData.added());
+    List<Long> dates = ids(ucsbDateRepository.findAll(), UCSBDate::getId);
+    List<Long> articles = ids(articleRepository.findAll(), Article::getId);
+    List<Long> helpRequests = ids(helpRequestRepository.findAll(), HelpRequest::getId);
+    List<Long> reviews = ids(menuItemReviewRepository.findAll(), MenuItemReview::getId);
+    List<Long> recommendations = ids(recommendationRepository.findAll(), Recommendation::getId);
+    List<UCSBDiningCommonsMenuItem> menuItems = rows(menuItemRepository.findAll());
+    List<UCSBOrganization> organizations = rows(organizationRepository.findAll());
+    // updates write back what is there, so the filter and menu reads see the same data throughout
+    List<UCSBDiningCommons> seededCommons = rows(diningCommonsRepository.findAll());
+    List<String> commons = new ArrayList<>();
+    seededCommons.forEach(c -> commons.add(c.getCode()));
+    IdPool createdDates = new IdPool();
+    IdPool createdArticles = new IdPool();
+    IdPool createdHelpRequests = new IdPool();
+    IdPool createdReviews = new IdPool();
+    IdPool createdMenuItems = new IdPool();
+    IdPool createdOrganizations = new IdPool();
+    IdPool createdRecommendations = new IdPool();
+    IdPool createdCommons = new IdPool();
+    // codes are keys, so each created row needs a new one
+    AtomicInteger nextCode = new AtomicInteger();
+
+    return List.of(
+        Operation.read("GET /api/ucsbdates/all", 1, r -> as(get("/api/ucsbdates/all"))),
+        Operation.read("GET /api/ucsbdates", 4, r -> as(get("/api/ucsbdates").param("id", any(r, dates)))),
+        Operation.read("GET /api/ucsbdates/upcoming", 2, r -> as(get("/api/ucsbdates/upcoming"))),
+        Operation.read("GET /api/ucsbdates/range", 2, r -> {
+          LocalDateTime start = dateTime(r);
+          return as(get("/api/ucsbdates/range")
+              .param("start", start.toString()).param("end", start.plusDays(30).toString()));
+        }),
+        Operation.write("POST /api/ucsbdates/post", 2, r -> as(post("/api/ucsbdates/post")
+            .param("quarterYYYYQ", "20224")
+            .param("name", "load test")
+            .param("localDateTime", dateTime(r).toString())))
+            .andThen(created(createdDates)),
+        Operation.write("PUT /api/ucsbdates", 2, r -> as(put("/api/ucsbdates").param("id", any(r, dates))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(json(UCSBDate.builder()
+                .quarterYYYYQ("20224").name("load test " + r.nextInt(100)).localDateTime(dateTime(r)).build())))),
+        Operation.write("DELETE /api/ucsbdates", 1, r -> deleteCreated("/api/ucsbdates", createdDates)),
+
+        Operation.read("GET /api/articles/all", 1, r -> as(get("/api/articles/all"))),
+        Operation.read("GET /api/articles", 4, r -> as(get("/api/articles").param("id", any(r, articles)))),
+        Operation.write("POST /api/articles/post", 2, r -> as(post("/api/articles/post")
+            .param("title", "load test")
+            .param("url", "https://example.org/load-test")
+            .param("explanation", "created by the load test")
+            .param("email", "loadtest@ucsb.edu")
+            .param("localDateTime", dateTime(r).toString())))
+            .andThen(created(createdArticles)),
+        Operation.write("PUT /api/articles", 2, r -> as(put("/api/articles").param("id", any(r, articles))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(json(Article.builder()
+                .title("load test " + r.nextInt(100)).url("https://example.org/load-test")
+                .explanation("updated by the load test").email("loadtest@ucsb.edu")
+                .dateAdded(dateTime(r)).build())))),
+        Operation.write("DELETE /api/articles", 1, r -> deleteCreated("/api/articles", createdArticles)),
+
+        Operation.read("GET /api/helprequest", 4, r -> as(get("/api/helprequest").param("id", any(r, helpRequests)))),
+        Operation.read("GET /api/helprequest/queue", 3, r -> as(get("/api/helprequest/queue"))),
+        Operation.read("GET /api/helprequest/stats", 1, r -> {
+          LocalDateTime from = dateTime(r);
+          return as(get("/api/helprequest/stats")
+              .param("granularity", r.nextBoolean() ? "hour" : "day")
+              .param("from", from.toString()).param("to", from.plusDays(7).toString()));
+        }),
+        Operation.write("POST /api/helprequest/post", 2, r -> as(post("/api/helprequest/post")
+            .param("requesterEmail", "loadtest@ucsb.edu")
+            .param("teamId", "lt-" + r.nextInt(20))
+            .param("tableOrBreakoutRoom", String.valueOf(r.nextInt(10)))
+            .param("requestTime", dateTime(r).toString())
+            .param("explanation", "created by the load test")
+            .param("solved", "false")))
+            .andThen(created(createdHelpRequests)),
+        Operation.write("PUT /api/helprequest", 2, r -> as(put("/api/helprequest").param("id", any(r, helpRequests))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(json(HelpRequest.builder()
+                .requesterEmail("loadtest@ucsb.edu").teamId("lt-" + r.nextInt(20))
+                .tableOrBreakoutRoom(String.valueOf(r.nextInt(10))).requestTime(dateTime(r))
+                .explanation("updated by the load test").solved(r.nextBoolean()).build())))),
+        Operation.write("DELETE /api/helprequest", 1, r -> deleteCreated("/api/helprequest", createdHelpRequests)),
+
+        Operation.read("GET /api/MenuItemReview", 3, r -> as(get("/api/MenuItemReview").param("id", any(r, reviews)))),
+        Operation.write("POST /api/MenuItemReview/post", 2, r -> as(post("/api/MenuItemReview/post")
+            .param("itemId", String.valueOf(1 + r.nextInt(100)))
+            .param("reviewerEmail", "loadtest@ucsb.edu")
+            .param("stars", String.valueOf(1 + r.nextInt(5)))
+            .param("dateReviewed", dateTime(r).toString())
+            .param("comments", "created by the load test")))
+            .andThen(created(createdReviews)),
+        Operation.write("PUT /api/MenuItemReview", 1, r -> as(put("/api/MenuItemReview").param("id", any(r, reviews))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(json(MenuItemReview.builder()
+                .itemId(1 + r.nextInt(100)).reviewerEmail("loadtest@ucsb.edu").stars(1 + r.nextInt(5))
+                .dateReviewed(dateTime(r)).comments("updated by the load test").build())))),
+        Operation.write("DELETE /api/MenuItemReview", 1, r -> deleteCreated("/api/MenuItemReview", createdReviews)),
+
+        Operation.read("GET /api/ucsbdiningcommonsmenuitem", 2, r -> as(get("/api/ucsbdiningcommonsmenuitem")
+            .param("id", String.valueOf(pick(r, menuItems).getId())))),
+        Operation.read("GET /api/ucsbdiningcommonsmenuitem/all", 1,
+            r -> as(get("/api/ucsbdiningcommonsmenuitem/all"))),
+        Operation.write("POST /api/ucsbdiningcommonsmenuitem/post", 2,
+            r -> as(post("/api/ucsbdiningcommonsmenuitem/post")
+                .param("diningCommonsCode", pick(r, commons))
+                .param("name", "load test " + r.nextInt(100))
+                .param("station", "Load Test")))
+            .andThen(created(createdMenuItems)),
+        Operation.write("PUT /api/ucsbdiningcommonsmenuitem", 1, r -> {
+          UCSBDiningCommonsMenuItem item = pick(r, menuItems);
+          return as(put("/api/ucsbdiningcommonsmenuitem").param("id", String.valueOf(item.getId()))
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(json(UCSBDiningCommonsMenuItem.builder()
+                  .diningCommonsCode(item.getDiningCommonsCode()).name("load test " + r.nextInt(100))
+                  .station(item.getStation()).build())));
+        }),
+        Operation.write("DELETE /api/ucsbdiningcommonsmenuitem", 1,
+            r -> deleteCreated("/api/ucsbdiningcommonsmenuitem", createdMenuItems)),
+
+        Operation.read("GET /api/Recommendation", 2,
+            r -> as(get("/api/Recommendation").param("id", any(r, recommendations)))),
+        Operation.read("GET /api/Recommendation/due", 2, r -> as(get("/api/Recommendation/due"))),
+        Operation.write("POST /api/Recommendation/post", 1, r -> {
+          LocalDateTime requested = dateTime(r);
+          return as(post("/api/Recommendation/post")
+              .param("requesterEmail", "loadtest@ucsb.edu")
+              .param("professorEmail", "professor" + r.nextInt(40) + "@ucsb.edu")
+              .param("explanation", "created by the load test")
+              .param("dateRequested", requested.toString())
+              .param("dateNeeded", requested.plusDays(14).toString())
+              .param("done", "false"));
+        }).andThen(created(createdRecommendations)),
+        Operation.write("PUT /api/Recommendation", 1, r -> {
+          LocalDateTime requested = dateTime(r);
+          return as(put("/api/Recommendation").param("id", any(r, recommendations))
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(json(Recommendation.builder()
+                  .requesterEmail("loadtest@ucsb.edu").professorEmail("professor" + r.nextInt(40) + "@ucsb.edu")
+                  .explanation("updated by the load test").dateRequested(requested)
+                  .dateNeeded(requested.plusDays(14)).done(r.nextBoolean()).build())));
+        }),
+        Operation.write("DELETE /api/Recommendation", 1,
+            r -> deleteCreated("/api/Recommendation", createdRecommendations)),
+
+        Operation.read("GET /api/ucsbdiningcommons/all", 1, r -> as(get("/api/ucsbdiningcommons/all"))),
+        Operation.read("GET /api/ucsbdiningcommons/menu", 2,
+            r -> as(get("/api/ucsbdiningcommons/menu").param("code", pick(r, commons)))),
+        Operation.read("GET /api/ucsbdiningcommons/filter", 1,
+            r -> as(get("/api/ucsbdiningcommons/filter").param("features", "hasSackMeal"))),
+        Operation.write("POST /api/ucsbdiningcommons/post", 1, r -> as(post("/api/ucsbdiningcommons/post")
+            .param("code", "load-test-" + nextCode.incrementAndGet())
+            .param("name", "Load Test")
+            .param("hasSackMeal", "false")
+            .param("hasTakeOutMeal", "true")
+            .param("hasDiningCam", "false")
+            .param("latitude", "34.4")
+            .param("longitude", "-119.8")))
+            .andThen(created(createdCommons, "code")),
+        Operation.write("PUT /api/ucsbdiningcommons", 1, r -> {
+          UCSBDiningCommons seeded = pick(r, seededCommons);
+          return as(put("/api/ucsbdiningcommons").param("code", seeded.getCode())
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(json(seeded)));
+        }),
+        Operation.write("DELETE /api/ucsbdiningcommons", 1,
+            r -> deleteCreated("/api/ucsbdiningcommons", "code", createdCommons)),
+
+        Operation.read("GET /api/ucsborganization/all", 1, r -> as(get("/api/ucsborganization/all"))),
+        Operation.read("GET /api/ucsborganization", 2, r -> as(get("/api/ucsborganization")
+            .param("orgCode", pick(r, organizations).getOrgCode()))),
+        Operation.write("POST /api/ucsborganization/post", 1, r -> as(post("/api/ucsborganization/post")
+            .param("orgCode", "LT" + nextCode.incrementAndGet())
+            .param("orgTranslationShort", "Load Test")
+            .param("orgTranslation", "Load Test Organization")
+            .param("inactive", "false")))
+            .andThen(created(createdOrganizations, "orgCode")),
+        Operation.write("PUT /api/ucsborganization", 1, r -> {
+          UCSBOrganization organization = pick(r, organizations);
+          return as(put("/api/ucsborganization").param("orgCode", organization.getOrgCode())
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(json(UCSBOrganization.builder()
+                  .orgCode(organization.getOrgCode()).orgTranslationShort(organization.getOrgTranslationShort())
+                  .orgTranslation("Load Test " + r.nextInt(100)).inactive(organization.getInactive()).build())));
+        }),
+        Operation.write("DELETE /api/ucsborganization", 1,
+            r -> deleteCreated("/api/ucsborganization", "orgCode", createdOrganizations)),
+
+        Operation.read("GET /api/currentUser", 2, r -> as(get("/api/currentUser"))));
+  }
+
+  private static MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request) {
+    return request.with(ADMIN).with(csrf());
+  }
+
+  private static MockHttpServletRequestBuilder deleteCreated(String path, IdPool pool) {
+    return deleteCreated(path, "id", pool);
+  }
+
+  private static MockHttpServletRequestBuilder deleteCreated(String path, String idParam, IdPool pool) {
+    String id = pool.take();
+    return id == null ? null : as(delete(path).param(idParam, id));
+  }
+
+  private Consumer<MvcResult> created(IdPool pool) {
+    return created(pool, "id");
+  }
+
+  private Consumer<MvcResult> created(IdPool pool, String idField) {
+    return result -> {
+      try {
+        pool.add(mapper.readTree(result.getResponse().getContentAsString()).get(idField).asText());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+
+  private String json(Object value) {
+    try {
+      return mapper.writeValueAsString(value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> List<Long> ids(Iterable<T> rows, ToLongFunction<T> id) {
+    List<Long> ids = new ArrayList<>();
+    rows.forEach(row -> ids.add(id.applyAsLong(row)));
+    assertTrue(!ids.isEmpty(), "no seeded rows");
+    return ids;
+  }
+
+  private static <T> List<T> rows(Iterable<T> rows) {
+    List<T> list = new ArrayList<>();
+    rows.forEach(list::add);
+    assertTrue(!list.isEmpty(), "no seeded rows");
+    return list;
+  }
+
+  private static String any(Random random, List<Long> ids) {
+    return String.valueOf(ids.get(random.nextInt(ids.size())));
+  }
+
+  private static <T> T pick(Random random, List<T> rows) {
+    return rows.get(random.nextInt(rows.size()));
+  }
+
+  // a time in the 2022 academic year
+  private static LocalDateTime dateTime(Random random) {
+    return LocalDateTime.of(2021, 9, 20, 8, 0).plusMinutes(15L * random.nextInt(4 * 24 * 270));
+  }
+}
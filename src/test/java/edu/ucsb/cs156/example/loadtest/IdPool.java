@@ -0,0 +1,23 @@
+package edu.ucsb.cs156.example.loadtest;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Ids of rows created during a load run, for the operations that delete
+ * them, so that a run never deletes the seeded data other operations read.
+ */
+public class IdPool {
+
+  private final ConcurrentLinkedQueue<String> ids = new ConcurrentLinkedQueue<>();
+
+  public void add(String id) {
+    ids.add(id);
+  }
+
+  /**
+   * Removes and returns an id, or null if there is none.
+   */
+  public String take() {
+    return ids.poll();
+  }
+}
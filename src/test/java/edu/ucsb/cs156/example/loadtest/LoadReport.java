@@ -0,0 +1,63 @@
+package edu.ucsb.cs156.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What one load run measured; written to target/loadtest/result.json and
+ * compared with src/test/resources/loadtest/baseline.json.
+ */
+public record LoadReport(
+    int users,
+    int writePercent,
+    double seconds,
+    long requests,
+    long errors,
+    double requestsPerSecond,
+    long p50Micros,
+    long p90Micros,
+    long p99Micros,
+    long maxMicros,
+    Map<String, OperationReport> operations) {
+
+  public record OperationReport(long requests, long errors, long p50Micros, long p99Micros) {
+  }
+
+  public double errorRate() {
+    return requests == 0 ? 0.0 : (double) errors / requests;
+  }
+
+  /**
+   * Describes how this run is worse than <code>baseline</code>: a p99 more
+   * than <code>maxP99Regression</code> (e.g. 0.25 for 25%) above it, or a
+   * throughput more than <code>maxThroughputRegression</code> below it.
+   * Empty if neither.  A run with other users, writePercent or operations
+   * than the baseline cannot be compared with it, and is reported as that.
+   */
+  public List<String> regressionsFrom(LoadReport baseline, double maxP99Regression,
+      double maxThroughputRegression) {
+    List<String> regressions = new ArrayList<>();
+    if (users != baseline.users() || writePercent != baseline.writePercent()) {
+      regressions.add(String.format(
+          "ran %d users with %d%% writes, but the baseline ran %d users with %d%% writes; record a new baseline",
+          users, writePercent, baseline.users(), baseline.writePercent()));
+      return regressions;
+    }
+    if (!operations.keySet().equals(baseline.operations().keySet())) {
+      regressions.add("the operations differ from the baseline's; record a new baseline");
+      return regressions;
+    }
+    long p99Limit = (long) (baseline.p99Micros() * (1 + maxP99Regression));
+    if (p99Micros > p99Limit) {
+      regressions.add(String.format("p99 %dus is above %dus (baseline %dus + %.0f%%)",
+          p99Micros, p99Limit, baseline.p99Micros(), maxP99Regression * 100));
+    }
+    double throughputLimit = baseline.requestsPerSecond() * (1 - maxThroughputRegression);
+    if (requestsPerSecond < throughputLimit) {
+      regressions.add(String.format("throughput %.0f req/s is below %.0f req/s (baseline %.0f req/s - %.0f%%)",
+          requestsPerSecond, throughputLimit, baseline.requestsPerSecond(), maxThroughputRegression * 100));
+    }
+    return regressions;
+  }
+}
@@ -0,0 +1,170 @@
+package edu.ucsb.cs156.example.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import edu.ucsb.cs156.example.util.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives a mix of operations through MockMvc from concurrent virtual users,
+ * each sending its next request as soon as the previous one returns (a
+ * closed workload), and records latency per operation.
+ *
+ * Requests made during the warmup are not recorded.  A response outside
+ * 2xx, or an exception, counts as an error.  Reads and writes are weighted
+ * separately, so that <code>writePercent</code> of the requests are writes
+ * whatever the individual weights are.
+ */
+@Slf4j
+public class LoadRunner {
+
+  private final MockMvc mockMvc;
+  private final List<Operation> operations;
+  private final int users;
+  private final int writePercent;
+  private final Duration warmup;
+  private final Duration duration;
+  private final long seed;
+
+  private final Map<String, Recorder> recorders = new TreeMap<>();
+  private final LatencyHistogram overall = new LatencyHistogram();
+  private final double[] cumulative;
+
+  private volatile boolean measuring;
+  private volatile boolean stopped;
+
+  private static class Recorder {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final LongAdder errors = new LongAdder();
+  }
+
+  public LoadRunner(MockMvc mockMvc, List<Operation> operations, int users, int writePercent, Duration warmup,
+      Duration duration, long seed) {
+    this.mockMvc = mockMvc;
+    this.operations = List.copyOf(operations);
+    this.users = users;
+    this.writePercent = writePercent;
+    this.warmup = warmup;
+    this.duration = duration;
+    this.seed = seed;
+    this.operations.forEach(operation -> recorders.put(operation.getName(), new Recorder()));
+    this.cumulative = cumulativeShares(this.operations, writePercent);
+  }
+
+  // each operation's share of the requests, accumulated
+  static double[] cumulativeShares(List<Operation> operations, int writePercent) {
+    double readWeight = operations.stream().filter(o -> !o.isWrite()).mapToInt(Operation::getWeight).sum();
+    double writeWeight = operations.stream().filter(Operation::isWrite).mapToInt(Operation::getWeight).sum();
+    double writeShare = writeWeight == 0 ? 0 : readWeight == 0 ? 1 : writePercent / 100.0;
+    double[] cumulative = new double[operations.size()];
+    double total = 0;
+    for (int i = 0; i < operations.size(); i++) {
+      Operation operation = operations.get(i);
+      total += operation.isWrite()
+          ? writeShare * operation.getWeight() / writeWeight
+          : (1 - writeShare) * operation.getWeight() / readWeight;
+      cumulative[i] = total;
+    }
+    return cumulative;
+  }
+
+  public LoadReport run() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(users);
+    CountDownLatch done = new CountDownLatch(users);
+    for (int u = 0; u < users; u++) {
+      Random random = new Random(seed + u);
+      executor.execute(() -> {
+        try {
+          while (!stopped) {
+            step(random);
+          }
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+
+    Thread.sleep(warmup.toMillis());
+    measuring = true;
+    long start = System.nanoTime();
+    Thread.sleep(duration.toMillis());
+    measuring = false;
+    double seconds = (System.nanoTime() - start) / 1e9;
+    stopped = true;
+    done.await(1, TimeUnit.MINUTES);
+    executor.shutdownNow();
+
+    return report(seconds);
+  }
+
+  private void step(Random random) {
+    Operation operation = pick(random);
+    RequestBuilder request = operation.request(random);
+    if (request == null) {
+      return;
+    }
+    long start = System.nanoTime();
+    boolean failed;
+    try {
+      MvcResult result = mockMvc.perform(request).andReturn();
+      int status = result.getResponse().getStatus();
+      failed = status < 200 || status >= 300;
+      if (!failed) {
+        operation.succeeded(result);
+      } else {
+        log.debug("{} returned {}", operation.getName(), status);
+      }
+    } catch (Exception e) {
+      log.debug("{} threw {}", operation.getName(), e.toString());
+      failed = true;
+    }
+    long nanos = System.nanoTime() - start;
+    if (measuring) {
+      Recorder recorder = recorders.get(operation.getName());
+      recorder.histogram.record(nanos);
+      overall.record(nanos);
+      if (failed) {
+        recorder.errors.increment();
+      }
+    }
+  }
+
+  private Operation pick(Random random) {
+    double r = random.nextDouble();
+    for (int i = 0; i < cumulative.length; i++) {
+      if (r < cumulative[i]) {
+        return operations.get(i);
+      }
+    }
+    return operations.get(operations.size() - 1);
+  }
+
+  private LoadReport report(double seconds) {
+    Map<String, LoadReport.OperationReport> byOperation = new TreeMap<>();
+    long errors = 0;
+    for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+      LatencyHistogram.Snapshot snapshot = entry.getValue().histogram.snapshot();
+      long operationErrors = entry.getValue().errors.sum();
+      errors += operationErrors;
+      byOperation.put(entry.getKey(), new LoadReport.OperationReport(snapshot.getCount(), operationErrors,
+          snapshot.valueAt(50) / 1000, snapshot.valueAt(99) / 1000));
+    }
+    LatencyHistogram.Snapshot snapshot = overall.snapshot();
+    return new LoadReport(users, writePercent, seconds, snapshot.getCount(), errors,
+        snapshot.getCount() / seconds, snapshot.valueAt(50) / 1000, snapshot.valueAt(90) / 1000,
+        snapshot.valueAt(99) / 1000, snapshot.getMax() / 1000, byOperation);
+  }
+}
@@ -0,0 +1,75 @@
+package edu.ucsb.cs156.example.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LoadRunnerTests {
+
+  private static Operation read(int weight) {
+    return Operation.read("read" + weight, weight, r -> null);
+  }
+
+  private static Operation write(int weight) {
+    return Operation.write("write" + weight, weight, r -> null);
+  }
+
+  @Test
+  void writes_get_writePercent_of_requests_whatever_the_weights() {
+    double[] cumulative = LoadRunner.cumulativeShares(List.of(read(3), read(1), write(1), write(4)), 20);
+
+    assertEquals(0.60, cumulative[0], 1e-9);
+    assertEquals(0.80, cumulative[1], 1e-9);
+    assertEquals(0.84, cumulative[2], 1e-9);
+    assertEquals(1.00, cumulative[3], 1e-9);
+  }
+
+  @Test
+  void a_mix_of_only_reads_ignores_writePercent() {
+    double[] cumulative = LoadRunner.cumulativeShares(List.of(read(1), read(1)), 20);
+
+    assertEquals(0.5, cumulative[0], 1e-9);
+    assertEquals(1.0, cumulative[1], 1e-9);
+  }
+
+  private static LoadReport report(double requestsPerSecond, long p99Micros) {
+    return report(32, 20, requestsPerSecond, p99Micros);
+  }
+
+  private static LoadReport report(int users, int writePercent, double requestsPerSecond, long p99Micros) {
+    return new LoadReport(users, writePercent, 30, 1000, 0, requestsPerSecond, 100, 200, p99Micros, 2000,
+        Map.of("read1", new LoadReport.OperationReport(1000, 0, 100, p99Micros)));
+  }
+
+  @Test
+  void no_regressions_within_the_margins() {
+    assertTrue(report(260, 1240).regressionsFrom(report(300, 1000), 0.25, 0.15).isEmpty());
+  }
+
+  @Test
+  void regressions_beyond_the_margins_are_described() {
+    List<String> regressions = report(250, 1300).regressionsFrom(report(300, 1000), 0.25, 0.15);
+
+    assertEquals(List.of(
+        "p99 1300us is above 1250us (baseline 1000us + 25%)",
+        "throughput 250 req/s is below 255 req/s (baseline 300 req/s - 15%)"), regressions);
+  }
+
+  @Test
+  void runs_with_other_options_or_operations_are_not_compared() {
+    assertEquals(List.of(
+        "ran 64 users with 20% writes, but the baseline ran 32 users with 20% writes; record a new baseline"),
+        report(64, 20, 600, 1000).regressionsFrom(report(300, 1000), 0.25, 0.15));
+    assertEquals(List.of(
+        "ran 32 users with 50% writes, but the baseline ran 32 users with 20% writes; record a new baseline"),
+        report(32, 50, 300, 1000).regressionsFrom(report(300, 1000), 0.25, 0.15));
+
+    LoadReport otherMix = new LoadReport(32, 20, 30, 1000, 0, 300, 100, 200, 1000, 2000, Map.of());
+    assertEquals(List.of("the operations differ from the baseline's; record a new baseline"),
+        otherMix.regressionsFrom(report(300, 1000), 0.25, 0.15));
+  }
+}
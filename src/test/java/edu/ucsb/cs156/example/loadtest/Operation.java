@@ -0,0 +1,74 @@
+package edu.ucsb.cs156.example.loadtest;
+
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * One kind of request in a load mix, e.g. <code>GET /api/ucsbdates/all</code>.
+ *
+ * The request function may return null when the operation cannot run right
+ * now (e.g. a delete with nothing left to delete); the virtual user then
+ * picks another one.
+ */
+public class Operation {
+
+  private final String name;
+  private final boolean write;
+  private final int weight;
+  private final Function<Random, RequestBuilder> request;
+  private final Consumer<MvcResult> onSuccess;
+
+  private Operation(String name, boolean write, int weight, Function<Random, RequestBuilder> request,
+      Consumer<MvcResult> onSuccess) {
+    if (weight <= 0) {
+      throw new IllegalArgumentException("weight must be positive: " + name);
+    }
+    this.name = name;
+    this.write = write;
+    this.weight = weight;
+    this.request = request;
+    this.onSuccess = onSuccess;
+  }
+
+  public static Operation read(String name, int weight, Function<Random, RequestBuilder> request) {
+    return new Operation(name, false, weight, request, result -> {
+    });
+  }
+
+  public static Operation write(String name, int weight, Function<Random, RequestBuilder> request) {
+    return new Operation(name, true, weight, request, result -> {
+    });
+  }
+
+  /**
+   * Returns a copy that also passes each successful result to
+   * <code>onSuccess</code>, e.g. to remember the id of a created row.
+   */
+  public Operation andThen(Consumer<MvcResult> onSuccess) {
+    return new Operation(name, write, weight, request, this.onSuccess.andThen(onSuccess));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isWrite() {
+    return write;
+  }
+
+  public int getWeight() {
+    return weight;
+  }
+
+  RequestBuilder request(Random random) {
+    return request.apply(random);
+  }
+
+  void succeeded(MvcResult result) {
+    onSuccess.accept(result);
+  }
+}
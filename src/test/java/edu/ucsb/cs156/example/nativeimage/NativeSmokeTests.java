@@ -0,0 +1,299 @@
+package edu.ucsb.cs156.example.nativeimage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.config.SessionTokenCookies;
+import edu.ucsb.cs156.example.util.RotatingHmacSigner;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the executable built by the native profile and runs create, read,
+ * list, update and delete against each CRUD controller over HTTP, with the
+ * production profile on an in-memory H2 database.
+ *
+ * Requests are authenticated as an admin with a session cookie signed here
+ * (<code>app.auth.stateless</code>, with a secret both sides know), so no
+ * OAuth provider is needed.
+ *
+ * Runs with <code>mvn -Pnative verify</code>.  The command it starts is
+ * <code>native.command</code>, so it can also be pointed at the JVM build,
+ * e.g. <code>-Dnative.command="java -jar target/example-1.1.0.jar"</code>.
+ */
+@Slf4j
+@Tag("native")
+public class NativeSmokeTests {
+
+  private static final String SECRET = "native-smoke-test-secret-0123456789abcdef";
+  private static final String CSRF = UUID.randomUUID().toString();
+  private static final Path LOG = Path.of("target", "native-smoke.log");
+
+  private static final HttpClient client = HttpClient.newHttpClient();
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static Process process;
+  private static String baseUrl;
+  private static String cookies;
+
+  // keyParam names the request parameter that identifies a row, keyField the JSON field it comes from
+  private record Crud(String path, String keyParam, String keyField, Map<String, String> create,
+      Map<String, Object> update, String updatedField) {
+  }
+
+  @BeforeAll
+  static void start() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>(List.of(
+        System.getProperty("native.command", "target/example").trim().split("\\s+")));
+    command.addAll(List.of(
+        "--server.port=" + port,
+        "--spring.profiles.active=production",
+        "--spring.datasource.url=jdbc:h2:mem:smoke;DB_CLOSE_ON_EXIT=FALSE",
+        "--spring.datasource.username=sa",
+        "--spring.datasource.password=",
+        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "--app.auth.stateless=true",
+        "--app.auth.token.secret=" + SECRET));
+    Files.createDirectories(LOG.getParent());
+    log.info("starting {}", command.get(0));
+    process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(LOG.toFile()).start();
+    baseUrl = "http://localhost:" + port;
+    cookies = "SESSION_TOKEN=" + sessionToken() + "; XSRF-TOKEN=" + CSRF;
+
+    long startupSeconds = Long.getLong("native.startupSeconds", 60);
+    long deadline = System.nanoTime() + Duration.ofSeconds(startupSeconds).toNanos();
+    long started = System.nanoTime();
+    while (true) {
+      assertTrue(process.isAlive(), () -> "exited with " + process.exitValue() + " while starting; see " + LOG);
+      assertTrue(System.nanoTime() < deadline, "not listening after " + startupSeconds + "s; see " + LOG);
+      try {
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/csrf")).build(),
+            HttpResponse.BodyHandlers.discarding());
+        break;
+      } catch (IOException e) {
+        Thread.sleep(50);
+      }
+    }
+    log.info("answering requests {} ms after launch", Duration.ofNanos(System.nanoTime() - started).toMillis());
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (process != null) {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  // signed the way SecurityConfig signs it after an OAuth2 login
+  private static String sessionToken() throws IOException {
+    RotatingHmacSigner signer = new RotatingHmacSigner(SECRET.getBytes(StandardCharsets.UTF_8),
+        Duration.ofHours(24), Clock.systemUTC());
+    SessionTokenCookies sessionTokenCookies = new SessionTokenCookies(signer, "SESSION_TOKEN",
+        Duration.ofMinutes(30), Duration.ofHours(12), false, email -> true, Clock.systemUTC());
+    List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_MEMBER", "ROLE_ADMIN");
+    DefaultOAuth2User user = new DefaultOAuth2User(authorities, Map.of(
+        "sub", "native-smoke-test", "email", "smoketest@ucsb.edu", "name", "Smoke Test",
+        "given_name", "Smoke", "family_name", "Test", "email_verified", true), "sub");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    sessionTokenCookies.issue(new MockHttpServletRequest(), response,
+        new OAuth2AuthenticationToken(user, authorities, "google"));
+    String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+    return setCookie.substring("SESSION_TOKEN=".length(), setCookie.indexOf(';'));
+  }
+
+  @Test
+  void current_user_is_the_signed_in_admin() throws Exception {
+    JsonNode currentUser = json(send("GET", "/api/currentUser", Map.of(), null), 200);
+    assertEquals("smoketest@ucsb.edu", currentUser.get("user").get("email").asText());
+  }
+
+  @Test
+  void swagger_document_is_served_from_the_classpath() throws Exception {
+    JsonNode document = json(send("GET", "/api/docs", Map.of(), null), 200);
+    assertEquals("2.0", document.get("swagger").asText());
+  }
+
+  @Test
+  void crud_ucsbdates() throws Exception {
+    crud(new Crud("/api/ucsbdates", "id", "id",
+        params("quarterYYYYQ", "20224", "name", "smoke test", "localDateTime", "2022-10-03T08:00:00"),
+        values("quarterYYYYQ", "20224", "name", "smoke test updated", "localDateTime", "2022-10-04T08:00:00"),
+        "name"));
+  }
+
+  @Test
+  void crud_articles() throws Exception {
+    crud(new Crud("/api/articles", "id", "id",
+        params("title", "smoke test", "url", "https://example.org/smoke", "explanation", "created",
+            "email", "smoketest@ucsb.edu", "localDateTime", "2022-10-03T08:00:00"),
+        values("title", "smoke test updated", "url", "https://example.org/smoke", "explanation", "updated",
+            "email", "smoketest@ucsb.edu", "dateAdded", "2022-10-04T08:00:00"),
+        "title"));
+  }
+
+  @Test
+  void crud_helprequest() throws Exception {
+    crud(new Crud("/api/helprequest", "id", "id",
+        params("requesterEmail", "smoketest@ucsb.edu", "teamId", "s22-5pm-3", "tableOrBreakoutRoom", "7",
+            "requestTime", "2022-10-03T08:00:00", "explanation", "created", "solved", "false"),
+        values("requesterEmail", "smoketest@ucsb.edu", "teamId", "s22-5pm-3", "tableOrBreakoutRoom", "7",
+            "requestTime", "2022-10-03T08:00:00", "explanation", "updated", "solved", true),
+        "explanation"));
+  }
+
+  @Test
+  void crud_menuitemreview() throws Exception {
+    crud(new Crud("/api/MenuItemReview", "id", "id",
+        params("itemId", "1", "reviewerEmail", "smoketest@ucsb.edu", "stars", "4",
+            "dateReviewed", "2022-10-03T08:00:00", "comments", "created"),
+        values("itemId", 1, "reviewerEmail", "smoketest@ucsb.edu", "stars", 5,
+            "dateReviewed", "2022-10-03T08:00:00", "comments", "updated"),
+        "comments"));
+  }
+
+  @Test
+  void crud_recommendation() throws Exception {
+    crud(new Crud("/api/Recommendation", "id", "id",
+        params("requesterEmail", "smoketest@ucsb.edu", "professorEmail", "professor@ucsb.edu",
+            "explanation", "created", "dateRequested", "2022-10-03T08:00:00", "dateNeeded", "2022-11-03T08:00:00",
+            "done", "false"),
+        values("requesterEmail", "smoketest@ucsb.edu", "professorEmail", "professor@ucsb.edu",
+            "explanation", "updated", "dateRequested", "2022-10-03T08:00:00", "dateNeeded", "2022-11-03T08:00:00",
+            "done", true),
+        "explanation"));
+  }
+
+  @Test
+  void crud_ucsbdiningcommons() throws Exception {
+    crud(new Crud("/api/ucsbdiningcommons", "code", "code",
+        params("code", "smoke", "name", "Smoke Test", "hasSackMeal", "true", "hasTakeOutMeal", "false",
+            "hasDiningCam", "true", "latitude", "34.41", "longitude", "-119.84"),
+        values("code", "smoke", "name", "Smoke Test Updated", "hasSackMeal", true, "hasTakeOutMeal", true,
+            "hasDiningCam", true, "latitude", 34.41, "longitude", -119.84),
+        "name"));
+  }
+
+  @Test
+  void crud_ucsbdiningcommonsmenuitem() throws Exception {
+    crud(new Crud("/api/ucsbdiningcommonsmenuitem", "id", "id",
+        params("diningCommonsCode", "ortega", "name", "Smoke Test", "station", "Entrees"),
+        values("diningCommonsCode", "ortega", "name", "Smoke Test Updated", "station", "Entrees"),
+        "name"));
+  }
+
+  @Test
+  void crud_ucsborganization() throws Exception {
+    crud(new Crud("/api/ucsborganization", "orgCode", "orgCode",
+        params("orgCode", "SMOKE", "orgTranslationShort", "Smoke", "orgTranslation", "Smoke Test",
+            "inactive", "false"),
+        values("orgCode", "SMOKE", "orgTranslationShort", "Smoke", "orgTranslation", "Smoke Test Updated",
+            "inactive", true),
+        "orgTranslation"));
+  }
+
+  private void crud(Crud crud) throws Exception {
+    JsonNode created = json(send("POST", crud.path() + "/post", crud.create(), null), 200);
+    String key = created.get(crud.keyField()).asText();
+    Map<String, String> byKey = Map.of(crud.keyParam(), key);
+
+    JsonNode read = json(send("GET", crud.path(), byKey, null), 200);
+    assertEquals(created, read);
+
+    JsonNode all = json(send("GET", crud.path() + "/all", Map.of(), null), 200);
+    assertTrue(all.findValuesAsText(crud.keyField()).contains(key), crud.path() + "/all is missing " + key);
+
+    JsonNode updated = json(send("PUT", crud.path(), byKey, mapper.writeValueAsString(crud.update())), 200);
+    assertEquals(crud.update().get(crud.updatedField()).toString(), updated.get(crud.updatedField()).asText());
+
+    send("DELETE", crud.path(), byKey, null, 200);
+    send("GET", crud.path(), byKey, null, 404);
+  }
+
+  private static HttpResponse<String> send(String method, String path, Map<String, String> params, String body)
+      throws Exception {
+    String query = params.entrySet().stream()
+        .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+        .collect(Collectors.joining("&"));
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path + (query.isEmpty() ? "" : "?" + query)))
+        .header("Cookie", cookies)
+        .header("X-XSRF-TOKEN", CSRF)
+        .timeout(Duration.ofSeconds(30));
+    if (body == null) {
+      request.method(method, HttpRequest.BodyPublishers.noBody());
+    } else {
+      request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static HttpResponse<String> send(String method, String path, Map<String, String> params, String body,
+      int expectedStatus) throws Exception {
+    HttpResponse<String> response = send(method, path, params, body);
+    assertEquals(expectedStatus, response.statusCode(),
+        method + " " + path + " " + params + ": " + response.body());
+    return response;
+  }
+
+  private static JsonNode json(HttpResponse<String> response, int expectedStatus) throws IOException {
+    assertEquals(expectedStatus, response.statusCode(),
+        response.request().method() + " " + response.request().uri() + ": " + response.body());
+    return mapper.readTree(response.body());
+  }
+
+  private static Map<String, String> params(String... namesAndValues) {
+    Map<String, String> params = new LinkedHashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      params.put(namesAndValues[i], namesAndValues[i + 1]);
+    }
+    return params;
+  }
+
+  private static Map<String, Object> values(Object... namesAndValues) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      values.put((String) namesAndValues[i], namesAndValues[i + 1]);
+    }
+    return values;
+  }
+}
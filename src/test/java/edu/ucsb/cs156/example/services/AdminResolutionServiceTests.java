@@ -0,0 +1,108 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class AdminResolutionServiceTests {
+
+  private UserRepository userRepository;
+  private MutableClock clock;
+  private AdminResolutionService service;
+
+  @BeforeEach
+  void setup() {
+    userRepository = mock(UserRepository.class);
+    clock = new MutableClock(Instant.parse("2022-10-01T17:00:00Z"), ZoneOffset.UTC);
+    service = new AdminResolutionService();
+    service.userRepository = userRepository;
+    service.clock = clock;
+    service.setAdminEmails(List.of("phtcon@ucsb.edu", "cgaucho@ucsb.edu"));
+    when(userRepository.findByEmail("ldelplaya@ucsb.edu"))
+        .thenReturn(Optional.of(User.builder().email("ldelplaya@ucsb.edu").admin(true).build()));
+    when(userRepository.findByEmail("student@ucsb.edu"))
+        .thenReturn(Optional.of(User.builder().email("student@ucsb.edu").admin(false).build()));
+  }
+
+  @Test
+  void configured_admins_never_query() {
+    assertTrue(service.isAdmin("cgaucho@ucsb.edu"));
+    assertTrue(service.isConfiguredAdmin("phtcon@ucsb.edu"));
+    assertFalse(service.isConfiguredAdmin("ldelplaya@ucsb.edu"));
+    assertFalse(service.isAdmin(null));
+    verify(userRepository, never()).findByEmail(any());
+  }
+
+  @Test
+  void database_answers_are_cached_until_they_expire() {
+    assertTrue(service.isAdmin("ldelplaya@ucsb.edu"));
+    assertTrue(service.isAdmin("ldelplaya@ucsb.edu"));
+    assertFalse(service.isAdmin("student@ucsb.edu"));
+    assertFalse(service.isAdmin("student@ucsb.edu"));
+    assertFalse(service.isAdmin("nobody@ucsb.edu"));
+    verify(userRepository, times(1)).findByEmail("ldelplaya@ucsb.edu");
+    verify(userRepository, times(1)).findByEmail("student@ucsb.edu");
+
+    clock.advance(Duration.ofSeconds(60));
+    assertTrue(service.isAdmin("ldelplaya@ucsb.edu"));
+    verify(userRepository, times(2)).findByEmail("ldelplaya@ucsb.edu");
+
+    CacheStats stats = service.getCacheStats();
+    assertEquals("adminResolution", stats.getName());
+    assertEquals(2, stats.getHits());
+    assertEquals(4, stats.getMisses());
+    assertEquals(3, stats.getSize());
+  }
+
+  @Test
+  void invalidate_forces_a_new_lookup() {
+    assertFalse(service.isAdmin("student@ucsb.edu"));
+    when(userRepository.findByEmail("student@ucsb.edu"))
+        .thenReturn(Optional.of(User.builder().email("student@ucsb.edu").admin(true).build()));
+
+    service.invalidate("student@ucsb.edu");
+    service.invalidate(null);
+    assertTrue(service.isAdmin("student@ucsb.edu"));
+
+    service.invalidateAll();
+    assertTrue(service.isAdmin("student@ucsb.edu"));
+    verify(userRepository, times(3)).findByEmail("student@ucsb.edu");
+  }
+
+  @Test
+  void full_cache_drops_expired_entries_first() {
+    service.maxEntries = 2;
+    service.isAdmin("ldelplaya@ucsb.edu");
+    clock.advance(Duration.ofSeconds(30));
+    service.isAdmin("student@ucsb.edu");
+    clock.advance(Duration.ofSeconds(30));
+
+    service.isAdmin("nobody@ucsb.edu");
+    assertEquals(2, service.getCacheStats().getSize());
+    assertEquals(1, service.getCacheStats().getEvictions());
+
+    service.isAdmin("somebody@ucsb.edu");
+    assertEquals(1, service.getCacheStats().getSize());
+    assertEquals(3, service.getCacheStats().getEvictions());
+  }
+}
@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.models.EndpointAllocation;
+
+class AllocationMetricsServiceTests {
+
+  @Test
+  void allocations_are_summed_per_handler_and_sorted_by_bytes_per_request() {
+    AllocationMetricsService service = new AllocationMetricsService();
+
+    AllocationMetricsService.Recorder users = service.recorder("UsersController.users", "GET /api/admin/users");
+    assertSame(users, service.recorder("UsersController.users", "GET /api/admin/users"));
+    users.record(100_000, 2_000_000);
+    users.record(300_000, 4_000_000);
+
+    AllocationMetricsService.Recorder dates = service.recorder("UCSBDatesController.allUCSBDates",
+        "GET /api/ucsbdates/all");
+    dates.record(500_000, -1);
+
+    service.recorder("UCSBDatesController.deleteUCSBDate", "DELETE /api/ucsbdates");
+
+    List<EndpointAllocation> allocations = service.getAllocations();
+
+    assertEquals(3, allocations.size());
+    assertEquals("UCSBDatesController.allUCSBDates", allocations.get(0).getHandler());
+    assertEquals(500_000, allocations.get(0).getBytesPerRequest());
+    assertEquals(0, allocations.get(0).getCpuMicros());
+
+    EndpointAllocation allocation = allocations.get(1);
+    assertEquals("GET /api/admin/users", allocation.getEndpoint());
+    assertEquals(2, allocation.getCount());
+    assertEquals(400_000, allocation.getBytes());
+    assertEquals(300_000, allocation.getMaxBytes());
+    assertEquals(200_000, allocation.getBytesPerRequest());
+    assertEquals(6_000, allocation.getCpuMicros());
+    assertEquals(3_000.0, allocation.getCpuMicrosPerRequest());
+
+    assertEquals(0, allocations.get(2).getCount());
+    assertEquals(0, allocations.get(2).getBytesPerRequest());
+    assertEquals(0.0, allocations.get(2).getCpuMicrosPerRequest());
+  }
+}
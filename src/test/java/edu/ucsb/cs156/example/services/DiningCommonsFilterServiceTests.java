@@ -0,0 +1,83 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.util.FlagIndex;
+
+class DiningCommonsFilterServiceTests {
+
+  private UCSBDiningCommonsRepository repository;
+  private DiningCommonsFilterService service;
+
+  private UCSBDiningCommons commons(String code, boolean sackMeal, boolean takeOut, boolean diningCam) {
+    return UCSBDiningCommons.builder()
+        .code(code)
+        .name(code)
+        .hasSackMeal(sackMeal)
+        .hasTakeOutMeal(takeOut)
+        .hasDiningCam(diningCam)
+        .build();
+  }
+
+  private List<String> codes(List<String> features, FlagIndex.Match match) {
+    return service.filter(features, match).stream()
+        .map(UCSBDiningCommons::getCode)
+        .collect(Collectors.toList());
+  }
+
+  @BeforeEach
+  void setup() {
+    repository = mock(UCSBDiningCommonsRepository.class);
+    service = new DiningCommonsFilterService();
+    service.ucsbDiningCommonsRepository = repository;
+    when(repository.findAll()).thenReturn(List.of(
+        commons("portola", false, true, true),
+        commons("carrillo", false, false, true),
+        commons("ortega", true, true, true)));
+  }
+
+  @Test
+  void filters_by_all_or_any_features_ordered_by_code() {
+    assertEquals(List.of("ortega", "portola"), codes(List.of("hasTakeOutMeal", "hasDiningCam"), FlagIndex.Match.ALL));
+    assertEquals(List.of("ortega"), codes(List.of("hasSackMeal"), FlagIndex.Match.ANY));
+    assertEquals(List.of("carrillo", "ortega", "portola"), codes(List.of(), FlagIndex.Match.ALL));
+
+    service.filter(List.of("hasSackMeal"), FlagIndex.Match.ALL);
+    verify(repository, times(1)).findAll();
+  }
+
+  @Test
+  void upsert_and_remove_update_the_index() {
+    codes(List.of(), FlagIndex.Match.ALL);
+
+    UCSBDiningCommons carrillo = commons("carrillo", true, false, true);
+    service.upsert(carrillo);
+    carrillo.setHasSackMeal(false);
+    service.upsert(commons("de-la-guerra", true, true, false));
+    service.remove("ortega");
+    service.remove("munger-hall");
+
+    assertEquals(List.of("carrillo", "de-la-guerra"), codes(List.of("hasSackMeal"), FlagIndex.Match.ALL));
+    assertEquals(List.of("carrillo", "de-la-guerra", "portola"), codes(List.of(), FlagIndex.Match.ALL));
+  }
+
+  @Test
+  void mutations_before_first_use_are_left_to_the_load() {
+    service.upsert(commons("de-la-guerra", true, true, false));
+    service.remove("ortega");
+
+    assertEquals(List.of("carrillo", "ortega", "portola"), codes(List.of(), FlagIndex.Match.ALL));
+  }
+}
@@ -0,0 +1,120 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.DiningCommonsMenu;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+
+class DiningMenuSnapshotServiceTests {
+
+  private UCSBDiningCommonsMenuItemRepository repository;
+  private DiningMenuSnapshotService service;
+
+  private UCSBDiningCommonsMenuItem item(long id, String code, String name, String station) {
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(id)
+        .diningCommonsCode(code)
+        .name(name)
+        .station(station)
+        .build();
+  }
+
+  @BeforeEach
+  void setup() {
+    repository = mock(UCSBDiningCommonsMenuItemRepository.class);
+    service = new DiningMenuSnapshotService();
+    service.ucsbDiningCommonsMenuItemRepository = repository;
+    when(repository.findAll()).thenReturn(List.of(
+        item(1L, "ortega", "Pasta", new String("Entrees")),
+        item(2L, "ortega", "Cookie", "Desserts"),
+        item(3L, "ortega", "Burrito", new String("Entrees")),
+        item(4L, "portola", "Pizza", "Entrees")));
+  }
+
+  @Test
+  void menu_is_grouped_by_station_and_sorted() {
+    DiningCommonsMenu menu = service.getMenu("ortega");
+
+    assertEquals("ortega", menu.getDiningCommonsCode());
+    assertEquals(List.of("Desserts", "Entrees"),
+        menu.getStations().stream().map(DiningCommonsMenu.Station::getStation).toList());
+    assertEquals(List.of("Burrito", "Pasta"),
+        menu.getStations().get(1).getItems().stream().map(DiningCommonsMenu.Item::getName).toList());
+
+    // three distinct station/commons values plus "Entrees" shared across commons
+    assertEquals(4, service.getDictionarySize());
+    assertSame(menu.getStations().get(1).getStation(), service.getMenu("portola").getStations().get(0).getStation());
+    verify(repository, times(1)).findAll();
+  }
+
+  @Test
+  void published_menus_cannot_be_changed() {
+    DiningCommonsMenu menu = service.getMenu("ortega");
+
+    assertThrows(UnsupportedOperationException.class, () -> menu.getStations().clear());
+    assertThrows(UnsupportedOperationException.class, () -> menu.getStations().get(0).getItems().clear());
+    assertEquals(2, service.getMenu("ortega").getStations().size());
+  }
+
+  @Test
+  void unknown_commons_has_no_stations() {
+    assertEquals(List.of(), service.getMenu("carrillo").getStations());
+  }
+
+  @Test
+  void mutations_rebuild_only_the_affected_commons() {
+    DiningCommonsMenu portola = service.getMenu("portola");
+    DiningCommonsMenu ortega = service.getMenu("ortega");
+
+    service.upsert(item(5L, "ortega", "Salad", "Salads"));
+
+    assertSame(portola, service.getMenu("portola"));
+    assertNotSame(ortega, service.getMenu("ortega"));
+    assertEquals(3, service.getMenu("ortega").getStations().size());
+  }
+
+  @Test
+  void moving_an_item_updates_both_commons() {
+    service.getMenu("ortega");
+
+    service.upsert(item(4L, "ortega", "Pizza", "Entrees"));
+
+    assertEquals(List.of(), service.getMenu("portola").getStations());
+    assertEquals(List.of("Burrito", "Pasta", "Pizza"),
+        service.getMenu("ortega").getStations().get(1).getItems().stream()
+            .map(DiningCommonsMenu.Item::getName).toList());
+  }
+
+  @Test
+  void remove_drops_the_item() {
+    service.getMenu("ortega");
+
+    service.remove(2L);
+    service.remove(42L);
+
+    assertEquals(List.of("Entrees"),
+        service.getMenu("ortega").getStations().stream().map(DiningCommonsMenu.Station::getStation).toList());
+  }
+
+  @Test
+  void mutations_before_first_load_are_picked_up_from_the_database() {
+    service.upsert(item(5L, "ortega", "Salad", "Salads"));
+    service.remove(1L);
+    verify(repository, times(0)).findAll();
+
+    assertEquals(2, service.getMenu("ortega").getStations().size());
+  }
+}
@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.models.EndpointLatency;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class EndpointMetricsServiceTests {
+
+  @Test
+  void recorders_report_counts_rates_and_percentiles() {
+    MutableClock clock = new MutableClock(Instant.parse("2022-10-01T17:00:00Z"));
+    EndpointMetricsService service = new EndpointMetricsService();
+    service.clock = clock;
+
+    EndpointMetricsService.Recorder all = service.recorder("GET /api/ucsbdates/all", "UCSBDatesController.allUCSBDates");
+    assertSame(all, service.recorder("GET /api/ucsbdates/all", "UCSBDatesController.allUCSBDates"));
+    for (int i = 1; i <= 100; i++) {
+      all.record(i * 10_000L, i % 25 == 0);
+    }
+    service.recorder("DELETE /api/ucsbdates", "UCSBDatesController.deleteUCSBDate");
+    clock.advance(Duration.ofSeconds(20));
+
+    List<EndpointLatency> latencies = service.getLatencies();
+
+    assertEquals(2, latencies.size());
+    assertEquals("DELETE /api/ucsbdates", latencies.get(0).getEndpoint());
+    assertEquals(0, latencies.get(0).getCount());
+    assertEquals(0, latencies.get(0).getP99Micros());
+
+    EndpointLatency latency = latencies.get(1);
+    assertEquals("UCSBDatesController.allUCSBDates", latency.getHandler());
+    assertEquals(100, latency.getCount());
+    assertEquals(4, latency.getErrors());
+    assertEquals(5.0, latency.getRequestsPerSecond());
+    assertEquals(505.0, latency.getMeanMicros(), 0.001);
+    assertEquals(500, latency.getP50Micros(), 16);
+    assertEquals(990, latency.getP99Micros(), 31);
+    assertEquals(1000, latency.getP999Micros());
+    assertEquals(1000, latency.getMaxMicros());
+  }
+}
@@ -0,0 +1,237 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+
+class HelpRequestQueueServiceTests {
+
+  private HelpRequestRepository helpRequestRepository;
+  private HelpRequestQueueService helpRequestQueueService;
+  private List<Runnable> pending;
+
+  private HelpRequest helpRequest(long id, String requestTime, boolean solved) {
+    return HelpRequest.builder()
+        .id(id)
+        .requesterEmail("irenecho@ucsb.edu")
+        .teamId("6pm-4")
+        .tableOrBreakoutRoom("10")
+        .requestTime(LocalDateTime.parse(requestTime))
+        .explanation("need help")
+        .solved(solved)
+        .build();
+  }
+
+  @BeforeEach
+  void setup() {
+    helpRequestRepository = mock(HelpRequestRepository.class);
+    pending = new ArrayList<>();
+    helpRequestQueueService = new HelpRequestQueueService(new QueueingExecutor(pending));
+    helpRequestQueueService.helpRequestRepository = helpRequestRepository;
+  }
+
+  @Test
+  void queue_is_loaded_once_and_ordered_by_request_time() {
+    HelpRequest later = helpRequest(1L, "2022-01-03T10:00:00", false);
+    HelpRequest earlier = helpRequest(2L, "2022-01-03T09:00:00", false);
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList(later, earlier));
+
+    List<HelpRequest> queue = helpRequestQueueService.getQueue();
+    helpRequestQueueService.getQueue();
+
+    assertEquals(Arrays.asList(earlier, later), queue);
+    verify(helpRequestRepository, times(1)).findAllBySolved(false);
+  }
+
+  @Test
+  void upsert_adds_moves_and_solves_requests() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList(
+        helpRequest(1L, "2022-01-03T09:00:00", false)));
+    helpRequestQueueService.getQueue();
+
+    helpRequestQueueService.upsert(helpRequest(2L, "2022-01-03T08:00:00", false));
+    assertEquals(Arrays.asList(2L, 1L), ids(helpRequestQueueService.getQueue()));
+
+    helpRequestQueueService.upsert(helpRequest(2L, "2022-01-03T11:00:00", false));
+    assertEquals(Arrays.asList(1L, 2L), ids(helpRequestQueueService.getQueue()));
+
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", true));
+    assertEquals(Arrays.asList(2L), ids(helpRequestQueueService.getQueue()));
+
+    // a solved request that was never queued is ignored
+    helpRequestQueueService.upsert(helpRequest(3L, "2022-01-03T07:00:00", true));
+    assertEquals(Arrays.asList(2L), ids(helpRequestQueueService.getQueue()));
+  }
+
+  @Test
+  void queue_keeps_its_own_copies() {
+    HelpRequest hr = helpRequest(1L, "2022-01-03T09:00:00", false);
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList());
+    helpRequestQueueService.getQueue();
+
+    helpRequestQueueService.upsert(hr);
+    hr.setSolved(true);
+
+    assertEquals(false, helpRequestQueueService.getQueue().get(0).getSolved());
+  }
+
+  @Test
+  void remove_deletes_request_from_queue() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList(
+        helpRequest(1L, "2022-01-03T09:00:00", false),
+        helpRequest(2L, "2022-01-03T10:00:00", false)));
+    helpRequestQueueService.getQueue();
+
+    helpRequestQueueService.remove(1L);
+    helpRequestQueueService.remove(42L);
+
+    assertEquals(Arrays.asList(2L), ids(helpRequestQueueService.getQueue()));
+  }
+
+  @Test
+  void changes_before_first_load_are_picked_up_from_the_database() {
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", false));
+    helpRequestQueueService.remove(1L);
+    verify(helpRequestRepository, times(0)).findAllBySolved(false);
+
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList(
+        helpRequest(5L, "2022-01-03T09:00:00", false)));
+    assertEquals(Arrays.asList(5L), ids(helpRequestQueueService.getQueue()));
+  }
+
+  @Test
+  void subscribe_registers_a_subscriber() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList());
+
+    helpRequestQueueService.subscribe();
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", false));
+
+    assertEquals(1, helpRequestQueueService.getSubscriberCount());
+    assertTrue(helpRequestQueueService.getQueue().size() == 1);
+  }
+
+  @Test
+  void events_are_sent_outside_the_write_path() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList());
+
+    helpRequestQueueService.subscribe();
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", false));
+    helpRequestQueueService.remove(1L);
+
+    // nothing has been sent yet; the writes did not wait for the subscriber,
+    // whose three events are sent in order by one drain
+    assertEquals(1, pending.size());
+    assertEquals(0, helpRequestQueueService.getQueue().size());
+    runPending();
+    assertEquals(1, helpRequestQueueService.getSubscriberCount());
+
+    helpRequestQueueService.upsert(helpRequest(2L, "2022-01-03T09:00:00", false));
+    assertEquals(1, pending.size());
+  }
+
+  @Test
+  void each_subscriber_is_sent_to_by_its_own_drain() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList());
+
+    helpRequestQueueService.subscribe();
+    helpRequestQueueService.subscribe();
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", false));
+
+    // one stalled drain does not hold up the other
+    assertEquals(2, pending.size());
+    pending.remove(1).run();
+    helpRequestQueueService.upsert(helpRequest(2L, "2022-01-03T09:00:00", false));
+    assertEquals(2, pending.size());
+  }
+
+  @Test
+  void subscriber_that_falls_behind_is_dropped_and_completed() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList());
+    helpRequestQueueService.maxPendingEvents = 2;
+
+    helpRequestQueueService.subscribe();
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", false));
+    helpRequestQueueService.subscribe();
+    helpRequestQueueService.upsert(helpRequest(2L, "2022-01-03T10:00:00", false));
+
+    // the first subscriber had a snapshot and an add waiting; the second is one behind
+    assertEquals(1, helpRequestQueueService.getSubscriberCount());
+    assertEquals(3, pending.size());
+    runPending();
+    assertEquals(1, helpRequestQueueService.getSubscriberCount());
+  }
+
+  @Test
+  void changes_with_no_subscribers_send_nothing() {
+    when(helpRequestRepository.findAllBySolved(false)).thenReturn(Arrays.asList());
+    helpRequestQueueService.getQueue();
+
+    helpRequestQueueService.upsert(helpRequest(1L, "2022-01-03T09:00:00", false));
+
+    assertEquals(0, pending.size());
+  }
+
+  private void runPending() {
+    List<Runnable> tasks = new ArrayList<>(pending);
+    pending.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  // collects tasks instead of running them
+  private static class QueueingExecutor extends AbstractExecutorService {
+    private final List<Runnable> pending;
+
+    QueueingExecutor(List<Runnable> pending) {
+      this.pending = pending;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      pending.add(command);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return true;
+    }
+  }
+
+  private static List<Long> ids(List<HelpRequest> helpRequests) {
+    return helpRequests.stream().map(HelpRequest::getId).toList();
+  }
+}
@@ -0,0 +1,104 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup.Granularity;
+import edu.ucsb.cs156.example.repositories.HelpRequestRollupRepository;
+
+/**
+ * The increment query against the database.  Not run in a test transaction,
+ * so each increment commits as it does in the application.
+ */
+@DataJpaTest
+@Import(HelpRequestRollupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HelpRequestRollupServiceDatabaseTests {
+
+  private static final LocalDateTime HOUR = LocalDateTime.parse("2022-01-03T10:00:00");
+  private static final LocalDateTime DAY = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  @Autowired
+  HelpRequestRollupService service;
+
+  @Autowired
+  HelpRequestRollupRepository repository;
+
+  private final HelpRequest helpRequest = HelpRequest.builder()
+      .id(1L)
+      .requesterEmail("irenecho@ucsb.edu")
+      .teamId("6pm-4")
+      .tableOrBreakoutRoom("10")
+      .requestTime(LocalDateTime.parse("2022-01-03T10:15:00"))
+      .explanation("need help")
+      .solved(true)
+      .build();
+
+  @AfterEach
+  void cleanup() {
+    repository.deleteAll();
+  }
+
+  private List<HelpRequestRollup> rollups() {
+    List<HelpRequestRollup> rollups = new ArrayList<>();
+    repository.findAllByGranularityAndBucketStartBetweenOrderByBucketStart(Granularity.HOUR, HOUR, HOUR)
+        .forEach(rollups::add);
+    return rollups;
+  }
+
+  private void saveRow(Granularity granularity, LocalDateTime bucketStart, long requests, long solved) {
+    repository.save(HelpRequestRollup.builder()
+        .granularity(granularity)
+        .bucketStart(bucketStart)
+        .teamId("6pm-4")
+        .tableOrBreakoutRoom("10")
+        .requestCount(requests)
+        .solvedCount(solved)
+        .build());
+  }
+
+  @Test
+  void created_and_deleted_requests_move_the_counts() {
+    service.recordCreated(helpRequest);
+    service.recordCreated(helpRequest);
+    service.recordDeleted(helpRequest);
+
+    assertEquals(1, rollups().get(0).getRequestCount());
+    assertEquals(1, rollups().get(0).getSolvedCount());
+  }
+
+  @Test
+  void deleting_a_request_whose_bucket_row_is_zero_leaves_it_at_zero() {
+    saveRow(Granularity.HOUR, HOUR, 0, 0);
+    saveRow(Granularity.DAY, DAY, 0, 0);
+
+    service.recordDeleted(helpRequest);
+
+    assertEquals(0, rollups().get(0).getRequestCount());
+    assertEquals(0, rollups().get(0).getSolvedCount());
+  }
+
+  @Test
+  void unsolving_a_request_never_takes_solved_below_zero() {
+    saveRow(Granularity.HOUR, HOUR, 1, 0);
+    saveRow(Granularity.DAY, DAY, 1, 0);
+
+    service.recordUpdated(helpRequest, helpRequest.toBuilder().solved(false).build());
+
+    assertEquals(1, rollups().get(0).getRequestCount());
+    assertEquals(0, rollups().get(0).getSolvedCount());
+  }
+}
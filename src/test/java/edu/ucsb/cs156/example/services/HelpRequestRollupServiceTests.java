@@ -0,0 +1,189 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup;
+import edu.ucsb.cs156.example.entities.HelpRequestRollup.Granularity;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRollupRepository;
+
+class HelpRequestRollupServiceTests {
+
+  private static final LocalDateTime HOUR = LocalDateTime.parse("2022-01-03T10:00:00");
+  private static final LocalDateTime DAY = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  private HelpRequestRollupRepository repository;
+  private HelpRequestRepository helpRequestRepository;
+  private HelpRequestRollupService service;
+
+  private final HelpRequest helpRequest = HelpRequest.builder()
+      .id(1L)
+      .requesterEmail("irenecho@ucsb.edu")
+      .teamId("6pm-4")
+      .tableOrBreakoutRoom("10")
+      .requestTime(LocalDateTime.parse("2022-01-03T10:15:00"))
+      .explanation("need help")
+      .solved(false)
+      .build();
+
+  @BeforeEach
+  void setup() {
+    repository = mock(HelpRequestRollupRepository.class);
+    service = new HelpRequestRollupService();
+    service.helpRequestRollupRepository = repository;
+    helpRequestRepository = mock(HelpRequestRepository.class);
+    service.helpRequestRepository = helpRequestRepository;
+    service.transactionManager = mock(PlatformTransactionManager.class);
+    when(repository.increment(any(), any(), anyString(), anyString(), anyLong(), anyLong())).thenReturn(1);
+  }
+
+  @Test
+  void created_request_increments_hour_and_day_buckets() {
+    service.recordCreated(helpRequest.toBuilder().solved(true).build());
+
+    verify(repository).increment(Granularity.HOUR, HOUR, "6pm-4", "10", 1, 1);
+    verify(repository).increment(Granularity.DAY, DAY, "6pm-4", "10", 1, 1);
+  }
+
+  @Test
+  void deleted_request_decrements_its_buckets() {
+    service.recordDeleted(helpRequest);
+
+    verify(repository).increment(Granularity.HOUR, HOUR, "6pm-4", "10", -1, 0);
+    verify(repository).increment(Granularity.DAY, DAY, "6pm-4", "10", -1, 0);
+  }
+
+  @Test
+  void solving_a_request_only_moves_the_solved_count() {
+    service.recordUpdated(helpRequest, helpRequest.toBuilder().solved(true).build());
+    service.recordUpdated(helpRequest.toBuilder().solved(true).build(), helpRequest);
+
+    verify(repository).increment(Granularity.HOUR, HOUR, "6pm-4", "10", 0, 1);
+    verify(repository).increment(Granularity.HOUR, HOUR, "6pm-4", "10", 0, -1);
+  }
+
+  @Test
+  void update_without_changes_to_bucket_or_solved_does_nothing() {
+    service.recordUpdated(helpRequest, helpRequest.toBuilder().explanation("still stuck").build());
+
+    verify(repository, never()).increment(any(), any(), anyString(), anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void moving_a_request_moves_its_counts() {
+    service.recordUpdated(helpRequest, helpRequest.toBuilder().tableOrBreakoutRoom("11").solved(true).build());
+
+    verify(repository).increment(Granularity.HOUR, HOUR, "6pm-4", "10", -1, 0);
+    verify(repository).increment(Granularity.HOUR, HOUR, "6pm-4", "11", 1, 1);
+  }
+
+  @Test
+  void missing_bucket_row_is_created_empty_and_then_incremented() {
+    when(repository.increment(any(), any(), anyString(), anyString(), anyLong(), anyLong())).thenReturn(0, 1);
+
+    service.recordCreated(helpRequest.toBuilder().teamId(null).build());
+
+    verify(repository).save(HelpRequestRollup.builder()
+        .granularity(Granularity.HOUR)
+        .bucketStart(HOUR)
+        .teamId("")
+        .tableOrBreakoutRoom("10")
+        .build());
+    verify(repository, times(2)).increment(Granularity.HOUR, HOUR, "", "10", 1, 0);
+  }
+
+  @Test
+  void concurrently_created_row_is_incremented_instead() {
+    when(repository.increment(any(), any(), anyString(), anyString(), anyLong(), anyLong())).thenReturn(0);
+    when(repository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+    service.recordCreated(helpRequest);
+
+    verify(repository, times(2)).increment(Granularity.HOUR, HOUR, "6pm-4", "10", 1, 0);
+  }
+
+  @Test
+  void decrement_of_a_missing_bucket_is_skipped_not_stored_negative() {
+    when(repository.increment(any(), any(), anyString(), anyString(), anyLong(), anyLong())).thenReturn(0);
+
+    service.recordDeleted(helpRequest);
+    service.recordUpdated(helpRequest, helpRequest.toBuilder().tableOrBreakoutRoom("11").build());
+
+    verify(repository, times(2)).increment(Granularity.HOUR, HOUR, "6pm-4", "10", -1, 0);
+    verify(repository, times(2)).save(any());
+    verify(repository).save(HelpRequestRollup.builder()
+        .granularity(Granularity.HOUR)
+        .bucketStart(HOUR)
+        .teamId("6pm-4")
+        .tableOrBreakoutRoom("11")
+        .build());
+    verify(repository).save(HelpRequestRollup.builder()
+        .granularity(Granularity.DAY)
+        .bucketStart(DAY)
+        .teamId("6pm-4")
+        .tableOrBreakoutRoom("11")
+        .build());
+  }
+
+  @Test
+  void empty_rollup_table_is_backfilled_from_help_requests() {
+    when(repository.count()).thenReturn(0L);
+    when(helpRequestRepository.findAll()).thenReturn(List.of(
+        helpRequest,
+        helpRequest.toBuilder().id(2L).requestTime(LocalDateTime.parse("2022-01-03T10:45:00")).solved(true).build(),
+        helpRequest.toBuilder().id(3L).requestTime(LocalDateTime.parse("2022-01-03T14:00:00")).build(),
+        helpRequest.toBuilder().id(4L).requestTime(null).build()));
+
+    assertEquals(3, service.backfill());
+
+    verify(repository).saveAll(List.of(
+        HelpRequestRollup.builder().granularity(Granularity.HOUR).bucketStart(HOUR)
+            .teamId("6pm-4").tableOrBreakoutRoom("10").requestCount(2).solvedCount(1).build(),
+        HelpRequestRollup.builder().granularity(Granularity.DAY).bucketStart(DAY)
+            .teamId("6pm-4").tableOrBreakoutRoom("10").requestCount(3).solvedCount(1).build(),
+        HelpRequestRollup.builder().granularity(Granularity.HOUR).bucketStart(LocalDateTime.parse("2022-01-03T14:00:00"))
+            .teamId("6pm-4").tableOrBreakoutRoom("10").requestCount(1).solvedCount(0).build()));
+  }
+
+  @Test
+  void existing_rollups_are_not_backfilled_again() {
+    when(repository.count()).thenReturn(5L);
+
+    assertEquals(0, service.backfill());
+
+    verify(helpRequestRepository, never()).findAll();
+    verify(repository, never()).saveAll(any());
+  }
+
+  @Test
+  void request_without_time_is_not_counted() {
+    service.recordCreated(helpRequest.toBuilder().requestTime(null).build());
+
+    verify(repository, never()).increment(any(), any(), anyString(), anyString(), anyLong(), anyLong());
+  }
+
+  @Test
+  void rollups_are_read_from_the_start_of_the_first_bucket() {
+    service.getRollups(Granularity.DAY, LocalDateTime.parse("2022-01-03T10:15:00"), HOUR);
+
+    verify(repository).findAllByGranularityAndBucketStartBetweenOrderByBucketStart(eq(Granularity.DAY), eq(DAY), eq(HOUR));
+  }
+}
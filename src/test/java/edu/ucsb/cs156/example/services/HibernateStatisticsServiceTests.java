@@ -0,0 +1,154 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import edu.ucsb.cs156.example.models.HibernateStats;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class HibernateStatisticsServiceTests {
+
+  private Statistics statistics;
+  private HibernateStatisticsService service;
+
+  private static QueryStatistics query(long count, long totalMillis, long maxMillis) {
+    QueryStatistics queryStatistics = mock(QueryStatistics.class);
+    when(queryStatistics.getExecutionCount()).thenReturn(count);
+    when(queryStatistics.getExecutionRowCount()).thenReturn(count * 2);
+    when(queryStatistics.getExecutionTotalTime()).thenReturn(totalMillis);
+    when(queryStatistics.getExecutionAvgTimeAsDouble()).thenReturn(count == 0 ? 0.0 : (double) totalMillis / count);
+    when(queryStatistics.getExecutionMaxTime()).thenReturn(maxMillis);
+    return queryStatistics;
+  }
+
+  @BeforeEach
+  void setup() {
+    statistics = mock(Statistics.class);
+    SessionFactory sessionFactory = mock(SessionFactory.class);
+    when(sessionFactory.getStatistics()).thenReturn(statistics);
+    EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+
+    service = new HibernateStatisticsService();
+    service.entityManagerFactory = entityManagerFactory;
+    service.clock = new MutableClock(Instant.parse("2022-10-01T17:00:00Z"));
+    service.slowestQueries = 2;
+
+    when(statistics.getStartTime()).thenReturn(Instant.parse("2022-10-01T16:00:00Z").toEpochMilli());
+    when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[0]);
+    when(statistics.getQueries()).thenReturn(new String[0]);
+  }
+
+  @Test
+  void statistics_start_as_configured() {
+    service.init();
+    verify(statistics).setStatisticsEnabled(false);
+
+    service.enabledAtStartup = true;
+    service.init();
+    verify(statistics).setStatisticsEnabled(true);
+  }
+
+  @Test
+  void enabling_starts_a_new_window() {
+    when(statistics.isStatisticsEnabled()).thenReturn(false);
+    service.setEnabled(true);
+
+    InOrder order = inOrder(statistics);
+    order.verify(statistics).clear();
+    order.verify(statistics).setStatisticsEnabled(true);
+
+    when(statistics.isStatisticsEnabled()).thenReturn(true);
+    service.setEnabled(false);
+    verify(statistics).setStatisticsEnabled(false);
+  }
+
+  @Test
+  void enabling_when_already_enabled_keeps_the_window() {
+    when(statistics.isStatisticsEnabled()).thenReturn(true);
+    service.setEnabled(true);
+
+    verify(statistics, never()).clear();
+    assertTrue(service.isEnabled());
+  }
+
+  @Test
+  void stats_include_counts_regions_and_the_slowest_queries() {
+    when(statistics.isStatisticsEnabled()).thenReturn(true);
+    when(statistics.getSessionOpenCount()).thenReturn(12L);
+    when(statistics.getFlushCount()).thenReturn(3L);
+    when(statistics.getEntityLoadCount()).thenReturn(40L);
+    when(statistics.getQueryExecutionCount()).thenReturn(9L);
+    when(statistics.getQueryExecutionMaxTime()).thenReturn(25L);
+    when(statistics.getQueryExecutionMaxTimeQueryString()).thenReturn("select u from users u");
+
+    CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+    when(region.getHitCount()).thenReturn(7L);
+    when(region.getMissCount()).thenReturn(1L);
+    when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[] { "ucsbdates" });
+    when(statistics.getDomainDataRegionStatistics("ucsbdates")).thenReturn(region);
+
+    when(statistics.getQueries()).thenReturn(new String[] { "fast", "slow", "never", "medium" });
+    QueryStatistics fast = query(5, 5, 2);
+    QueryStatistics slow = query(1, 25, 25);
+    QueryStatistics never = query(0, 0, 0);
+    QueryStatistics medium = query(3, 12, 6);
+    when(statistics.getQueryStatistics("fast")).thenReturn(fast);
+    when(statistics.getQueryStatistics("slow")).thenReturn(slow);
+    when(statistics.getQueryStatistics("never")).thenReturn(never);
+    when(statistics.getQueryStatistics("medium")).thenReturn(medium);
+
+    HibernateStats stats = service.getStats();
+
+    assertTrue(stats.getEnabled());
+    assertEquals(Instant.parse("2022-10-01T16:00:00Z"), stats.getWindowStart());
+    assertEquals(Instant.parse("2022-10-01T17:00:00Z"), stats.getWindowEnd());
+    assertEquals(12, stats.getSessionOpenCount());
+    assertEquals(3, stats.getFlushCount());
+    assertEquals(40, stats.getEntityLoadCount());
+    assertEquals(9, stats.getQueryExecutionCount());
+    assertEquals("select u from users u", stats.getQueryExecutionMaxTimeQuery());
+    assertEquals(1, stats.getCacheRegions().size());
+    assertEquals(7, stats.getCacheRegions().get(0).getHitCount());
+
+    List<HibernateStats.Query> slowest = stats.getSlowestQueries();
+    assertEquals(2, slowest.size());
+    assertEquals("slow", slowest.get(0).getQuery());
+    assertEquals("medium", slowest.get(1).getQuery());
+    assertEquals(3, slowest.get(1).getExecutionCount());
+    assertEquals(6, slowest.get(1).getRowCount());
+    assertEquals(4.0, slowest.get(1).getAvgTimeMillis());
+  }
+
+  @Test
+  void reset_closes_the_window_and_keeps_it() {
+    assertFalse(service.getPrevious().isPresent());
+    when(statistics.getEntityLoadCount()).thenReturn(40L);
+
+    HibernateStats closed = service.reset();
+
+    verify(statistics).clear();
+    assertEquals(40, closed.getEntityLoadCount());
+    assertSame(closed, service.getPrevious().get());
+  }
+}
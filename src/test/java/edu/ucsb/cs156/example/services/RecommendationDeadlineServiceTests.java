@@ -0,0 +1,122 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.util.MutableClock;
+import edu.ucsb.cs156.example.util.TimeKey;
+
+class RecommendationDeadlineServiceTests {
+
+  private RecommendationRepository recommendationRepository;
+  private ApplicationEventPublisher applicationEventPublisher;
+  private RecommendationDeadlineService recommendationDeadlineService;
+
+  private Recommendation recommendation(long id, String professorEmail, String dateNeeded, boolean done) {
+    return Recommendation.builder()
+        .id(id)
+        .requesterEmail("alu@ucsb.edu")
+        .professorEmail(professorEmail)
+        .explanation("PhD")
+        .dateRequested(LocalDateTime.parse("2022-01-01T00:00:00"))
+        .dateNeeded(LocalDateTime.parse(dateNeeded))
+        .done(done)
+        .build();
+  }
+
+  @BeforeEach
+  void setup() {
+    recommendationRepository = mock(RecommendationRepository.class);
+    applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    recommendationDeadlineService = new RecommendationDeadlineService();
+    recommendationDeadlineService.recommendationRepository = recommendationRepository;
+    recommendationDeadlineService.applicationEventPublisher = applicationEventPublisher;
+    recommendationDeadlineService.clock = new MutableClock(Instant.parse("2022-01-03T00:00:00Z"));
+  }
+
+  @AfterEach
+  void teardown() {
+    recommendationDeadlineService.shutdown();
+  }
+
+  @Test
+  void due_within_returns_open_recommendations_in_window_soonest_first() {
+    when(recommendationRepository.findAllByDone(false)).thenReturn(Arrays.asList(
+        recommendation(1L, "phtcon@ucsb.edu", "2022-01-08T00:00:00", false),
+        recommendation(2L, "phtcon@ucsb.edu", "2022-01-05T00:00:00", false),
+        recommendation(3L, "phtcon@ucsb.edu", "2022-01-20T00:00:00", false),
+        recommendation(4L, "phtcon@ucsb.edu", "2022-01-02T00:00:00", false),
+        recommendation(5L, "other@ucsb.edu", "2022-01-04T00:00:00", false)));
+
+    assertEquals(List.of(5L, 2L, 1L), ids(recommendationDeadlineService.dueWithin(Duration.ofDays(7), null)));
+    assertEquals(List.of(2L, 1L),
+        ids(recommendationDeadlineService.dueWithin(Duration.ofDays(7), "phtcon@ucsb.edu")));
+    verify(recommendationRepository, times(1)).findAllByDone(false);
+  }
+
+  @Test
+  void upsert_and_remove_keep_the_index_in_sync() {
+    when(recommendationRepository.findAllByDone(false)).thenReturn(Arrays.asList(
+        recommendation(1L, "phtcon@ucsb.edu", "2022-01-08T00:00:00", false)));
+    assertEquals(1, recommendationDeadlineService.dueWithin(Duration.ofDays(7), null).size());
+
+    recommendationDeadlineService.upsert(recommendation(2L, "phtcon@ucsb.edu", "2022-01-04T00:00:00", false));
+    assertEquals(List.of(2L, 1L), ids(recommendationDeadlineService.dueWithin(Duration.ofDays(7), null)));
+
+    // moving a deadline re-orders it
+    recommendationDeadlineService.upsert(recommendation(2L, "phtcon@ucsb.edu", "2022-01-09T00:00:00", false));
+    assertEquals(List.of(1L, 2L), ids(recommendationDeadlineService.dueWithin(Duration.ofDays(7), null)));
+
+    // done recommendations leave the index
+    recommendationDeadlineService.upsert(recommendation(1L, "phtcon@ucsb.edu", "2022-01-08T00:00:00", true));
+    assertEquals(List.of(2L), ids(recommendationDeadlineService.dueWithin(Duration.ofDays(7), null)));
+
+    recommendationDeadlineService.remove(2L);
+    assertEquals(0, recommendationDeadlineService.size());
+  }
+
+  @Test
+  void changes_before_first_load_are_picked_up_from_the_database() {
+    recommendationDeadlineService.upsert(recommendation(1L, "phtcon@ucsb.edu", "2022-01-08T00:00:00", false));
+    recommendationDeadlineService.remove(1L);
+    verify(recommendationRepository, times(0)).findAllByDone(false);
+    assertEquals(0, recommendationDeadlineService.size());
+  }
+
+  @Test
+  void passed_deadline_publishes_event_only_while_still_open() {
+    Recommendation open = recommendation(1L, "phtcon@ucsb.edu", "2022-01-08T00:00:00", false);
+    when(recommendationRepository.findAllByDone(false)).thenReturn(Arrays.asList(open));
+    recommendationDeadlineService.dueWithin(Duration.ofDays(7), null);
+
+    recommendationDeadlineService.deadlinePassed(
+        new TimeKey(open.getDateNeeded(), 1L));
+    verify(applicationEventPublisher, times(1)).publishEvent(new RecommendationDeadlinePassedEvent(open));
+
+    recommendationDeadlineService.remove(1L);
+    recommendationDeadlineService.deadlinePassed(
+        new TimeKey(open.getDateNeeded(), 1L));
+    verify(applicationEventPublisher, times(1)).publishEvent(any(Object.class));
+  }
+
+  private static List<Long> ids(List<Recommendation> recommendations) {
+    return recommendations.stream().map(Recommendation::getId).toList();
+  }
+}
@@ -0,0 +1,40 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.models.RepositoryMethodStats;
+
+class RepositoryMetricsServiceTests {
+
+  @Test
+  void stats_are_ordered_by_total_time() {
+    RepositoryMetricsService service = new RepositoryMetricsService();
+    RepositoryMetricsService.Recorder findByEmail = service.recorder("UserRepository.findByEmail");
+    assertSame(findByEmail, service.recorder("UserRepository.findByEmail"));
+    RepositoryMetricsService.Recorder byQuarter = service.recorder("UCSBDateRepository.findAllByQuarterYYYYQ");
+
+    for (int i = 0; i < 10; i++) {
+      findByEmail.recordSuccess(200_000, 1);
+    }
+    byQuarter.recordSuccess(3_000_000, 40);
+    byQuarter.recordSuccess(1_000_000, 10);
+    byQuarter.recordFailure(1_000_000);
+
+    List<RepositoryMethodStats> stats = service.getStats();
+
+    assertEquals("UCSBDateRepository.findAllByQuarterYYYYQ", stats.get(0).getMethod());
+    assertEquals(3, stats.get(0).getCount());
+    assertEquals(1, stats.get(0).getErrors());
+    assertEquals(50, stats.get(0).getRows());
+    assertEquals(40, stats.get(0).getMaxRows());
+    assertEquals(5, stats.get(0).getTotalMillis());
+    assertEquals(2, stats.get(1).getTotalMillis());
+    assertEquals(1.0, stats.get(1).getMeanRows());
+    assertEquals(200.0, stats.get(1).getMeanMicros(), 0.001);
+  }
+}
@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.session.MapSession;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.repositories.HttpSessionRecordRepository;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+/**
+ * Two nodes sharing the httpsession table.  Not run in a test transaction,
+ * since each call to the store has its own, as it does in the application.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SharedSessionRepositoryDatabaseTests {
+
+  @Autowired
+  HttpSessionRecordRepository repository;
+
+  private SharedSessionRepository nodeA;
+  private SharedSessionRepository nodeB;
+
+  @BeforeEach
+  void setup() {
+    MutableClock clock = new MutableClock(Instant.now());
+    nodeA = node(clock);
+    nodeB = node(clock);
+  }
+
+  private SharedSessionRepository node(MutableClock clock) {
+    SharedSessionRepository node = new SharedSessionRepository();
+    node.httpSessionRecordRepository = repository;
+    node.clock = clock;
+    return node;
+  }
+
+  @Test
+  void changes_from_one_node_are_stored_for_the_other() {
+    MapSession session = nodeA.createSession();
+    nodeA.save(session);
+
+    MapSession found = nodeB.findById(session.getId());
+    found.setAttribute("theme", "dark");
+    nodeB.save(found);
+    String originalId = found.getId();
+    found.changeSessionId();
+    nodeB.save(found);
+
+    assertTrue(repository.findById(originalId).isEmpty());
+    assertEquals(found.getId(), repository.findById(found.getId()).get().getId());
+    assertEquals("dark", nodeA.findById(found.getId()).getAttribute("theme"));
+  }
+
+  @Test
+  void session_deleted_by_one_node_is_not_saved_back_by_the_other() {
+    MapSession session = nodeA.createSession();
+    nodeA.save(session);
+    MapSession found = nodeB.findById(session.getId());
+
+    nodeA.deleteById(session.getId());
+    found.setAttribute("theme", "dark");
+    nodeB.save(found);
+
+    assertTrue(repository.findById(session.getId()).isEmpty());
+    assertNull(nodeB.findById(session.getId()));
+  }
+
+  @Test
+  void session_deleted_by_one_node_is_not_moved_to_a_new_id_by_the_other() {
+    MapSession session = nodeA.createSession();
+    nodeA.save(session);
+    MapSession found = nodeB.findById(session.getId());
+
+    nodeA.deleteById(session.getId());
+    found.changeSessionId();
+    nodeB.save(found);
+
+    assertTrue(repository.findById(found.getId()).isEmpty());
+    assertNull(nodeB.findById(found.getId()));
+  }
+}
@@ -0,0 +1,326 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.session.MapSession;
+
+import edu.ucsb.cs156.example.entities.HttpSessionRecord;
+import edu.ucsb.cs156.example.repositories.HttpSessionRecordRepository;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class SharedSessionRepositoryTests {
+
+  private HttpSessionRecordRepository repository;
+  private MutableClock clock;
+  private SharedSessionRepository sessions;
+
+  @BeforeEach
+  void setup() {
+    repository = mock(HttpSessionRecordRepository.class);
+    clock = new MutableClock(Instant.parse("2022-10-01T17:00:00Z"));
+    sessions = new SharedSessionRepository();
+    sessions.httpSessionRecordRepository = repository;
+    sessions.clock = clock;
+    when(repository.update(any())).thenReturn(1);
+    when(repository.replace(anyString(), any())).thenReturn(true);
+  }
+
+  private SharedSessionRepository otherNode() {
+    SharedSessionRepository otherNode = new SharedSessionRepository();
+    otherNode.httpSessionRecordRepository = repository;
+    otherNode.clock = clock;
+    return otherNode;
+  }
+
+  private List<HttpSessionRecord> insertedRecords(int inserts) {
+    ArgumentCaptor<HttpSessionRecord> captor = ArgumentCaptor.forClass(HttpSessionRecord.class);
+    verify(repository, times(inserts)).insert(captor.capture());
+    return captor.getAllValues();
+  }
+
+  private List<HttpSessionRecord> updatedRecords(int updates) {
+    ArgumentCaptor<HttpSessionRecord> captor = ArgumentCaptor.forClass(HttpSessionRecord.class);
+    verify(repository, times(updates)).update(captor.capture());
+    return captor.getAllValues();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<HttpSessionRecord> touchedRecords(int flushes) {
+    ArgumentCaptor<Collection<HttpSessionRecord>> captor = ArgumentCaptor.forClass(Collection.class);
+    verify(repository, times(flushes)).touchAll(captor.capture());
+    List<HttpSessionRecord> records = new ArrayList<>();
+    captor.getAllValues().forEach(records::addAll);
+    return records;
+  }
+
+  private MapSession loggedInSession() {
+    MapSession session = sessions.createSession();
+    DefaultOAuth2User user = new DefaultOAuth2User(List.of(new SimpleGrantedAuthority("ROLE_USER")),
+        java.util.Map.of("sub", "1", "email", "cgaucho@ucsb.edu"), "sub");
+    session.setAttribute("SPRING_SECURITY_CONTEXT",
+        new SecurityContextImpl(new OAuth2AuthenticationToken(user, user.getAuthorities(), "google")));
+    return session;
+  }
+
+  @Test
+  void new_session_is_written_through_and_served_from_the_near_cache() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    MapSession found = sessions.findById(session.getId());
+    assertEquals(session.getAttributeNames(), found.getAttributeNames());
+    assertNotSame(session, found);
+    verify(repository, never()).findById(anyString());
+
+    sessions.flush();
+    verify(repository, never()).touchAll(any());
+    assertEquals(session.getId(), record.getId());
+    assertEquals("1", record.getPrincipalName());
+    assertEquals(clock.millis() + Duration.ofMinutes(30).toMillis(), record.getExpiresAt());
+    assertEquals(1, sessions.getCacheStats().getHits());
+  }
+
+  @Test
+  void touches_are_buffered_and_written_at_most_once_per_touch_interval() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+
+    clock.advance(Duration.ofSeconds(30));
+    MapSession found = sessions.findById(session.getId());
+    found.setLastAccessedTime(clock.instant());
+    sessions.save(found);
+    sessions.flush();
+    verify(repository, never()).touchAll(any());
+
+    clock.advance(Duration.ofSeconds(31));
+    found = sessions.findById(session.getId());
+    found.setLastAccessedTime(clock.instant());
+    sessions.save(found);
+    insertedRecords(1);
+    verify(repository, never()).update(any());
+    sessions.flush();
+    sessions.flush();
+    assertEquals(clock.millis(), touchedRecords(1).get(0).getLastAccessedTime());
+  }
+
+  @Test
+  void attribute_changes_are_written_immediately() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+
+    MapSession found = sessions.findById(session.getId());
+    found.setAttribute("theme", "dark");
+    sessions.save(found);
+
+    insertedRecords(1);
+    assertEquals(session.getId(), updatedRecords(1).get(0).getId());
+    verify(repository, never()).touchAll(any());
+  }
+
+  @Test
+  void session_deleted_on_another_node_is_not_saved_back() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+    SharedSessionRepository otherNode = otherNode();
+    MapSession found = otherNode.findById(session.getId());
+
+    // logout on this node, while the other node still has the session in its near-cache
+    sessions.deleteById(session.getId());
+    when(repository.findById(session.getId())).thenReturn(Optional.empty());
+    when(repository.update(any())).thenReturn(0);
+    found.setAttribute("theme", "dark");
+    otherNode.save(found);
+
+    insertedRecords(1);
+    updatedRecords(1);
+    assertNull(otherNode.findById(session.getId()));
+    verify(repository, times(2)).findById(session.getId());
+  }
+
+  @Test
+  void session_deleted_on_another_node_is_not_moved_to_a_new_id() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+    SharedSessionRepository otherNode = otherNode();
+    MapSession found = otherNode.findById(session.getId());
+
+    when(repository.replace(anyString(), any())).thenReturn(false);
+    when(repository.findById(anyString())).thenReturn(Optional.empty());
+    found.changeSessionId();
+    otherNode.save(found);
+
+    insertedRecords(1);
+    assertNull(otherNode.findById(found.getId()));
+  }
+
+  @Test
+  void new_session_whose_id_changed_before_it_was_saved_is_inserted() {
+    MapSession session = loggedInSession();
+    session.changeSessionId();
+    sessions.save(session);
+
+    assertEquals(session.getId(), insertedRecords(1).get(0).getId());
+    verify(repository, never()).replace(anyString(), any());
+  }
+
+  @Test
+  void cache_miss_reads_the_database() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+
+    SharedSessionRepository otherNode = otherNode();
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+    when(repository.findById("missing")).thenReturn(Optional.empty());
+
+    MapSession found = otherNode.findById(session.getId());
+    assertEquals("1", ((SecurityContextImpl) found.getAttribute("SPRING_SECURITY_CONTEXT"))
+        .getAuthentication().getName());
+    otherNode.findById(session.getId());
+    assertNull(otherNode.findById("missing"));
+    verify(repository, times(1)).findById(session.getId());
+    assertEquals(2, otherNode.getCacheStats().getMisses());
+
+    // after the near-cache window the database is read again
+    clock.advance(Duration.ofSeconds(5));
+    otherNode.findById(session.getId());
+    verify(repository, times(2)).findById(session.getId());
+  }
+
+  @Test
+  void changed_id_moves_the_row_and_deletes_are_written_immediately() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    String originalId = session.getId();
+    when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+    MapSession found = sessions.findById(originalId);
+    found.changeSessionId();
+    sessions.save(found);
+    insertedRecords(1);
+    ArgumentCaptor<HttpSessionRecord> moved = ArgumentCaptor.forClass(HttpSessionRecord.class);
+    verify(repository).replace(eq(originalId), moved.capture());
+    assertEquals(found.getId(), moved.getValue().getId());
+    assertNull(sessions.findById(originalId));
+
+    sessions.deleteById(found.getId());
+    verify(repository).deleteAllByIdIn(List.of(found.getId()));
+    assertNull(sessions.findById(found.getId()));
+  }
+
+  @Test
+  void delete_drops_a_pending_touch() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+
+    clock.advance(Duration.ofSeconds(61));
+    MapSession found = sessions.findById(session.getId());
+    found.setLastAccessedTime(clock.instant());
+    sessions.save(found);
+    sessions.deleteById(session.getId());
+    sessions.flush();
+
+    verify(repository, never()).touchAll(any());
+  }
+
+  @Test
+  void expired_sessions_are_not_returned() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+
+    clock.advance(Duration.ofMinutes(30).plusSeconds(60));
+    assertNull(sessions.findById(session.getId()));
+  }
+
+  @Test
+  void failed_flush_is_retried() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+    clock.advance(Duration.ofSeconds(61));
+    MapSession found = sessions.findById(session.getId());
+    found.setLastAccessedTime(clock.instant());
+    sessions.save(found);
+    doThrow(new DataAccessResourceFailureException("down")).doNothing()
+        .when(repository).touchAll(any());
+
+    sessions.flush();
+    sessions.flush();
+
+    assertEquals(session.getId(), touchedRecords(2).get(1).getId());
+  }
+
+  @Test
+  void failed_write_through_is_not_hidden() {
+    doThrow(new DataAccessResourceFailureException("down")).when(repository).insert(any());
+
+    assertThrows(DataAccessResourceFailureException.class, () -> sessions.save(loggedInSession()));
+  }
+
+  @Test
+  void sweep_deletes_expired_rows_and_old_cache_entries() {
+    sessions.save(loggedInSession());
+    when(repository.deleteExpired(clock.millis() - 60_000)).thenReturn(3);
+
+    sessions.sweep();
+    assertEquals(1, sessions.getCacheStats().getSize());
+
+    clock.advance(Duration.ofSeconds(5));
+    when(repository.deleteExpired(clock.millis() - 60_000)).thenReturn(0);
+    sessions.sweep();
+    assertEquals(0, sessions.getCacheStats().getSize());
+    assertEquals(1, sessions.getCacheStats().getEvictions());
+  }
+
+  @Test
+  void shutdown_flushes() {
+    MapSession session = loggedInSession();
+    sessions.save(session);
+    HttpSessionRecord record = insertedRecords(1).get(0);
+    when(repository.findById(session.getId())).thenReturn(Optional.of(record));
+    clock.advance(Duration.ofSeconds(61));
+    MapSession found = sessions.findById(session.getId());
+    found.setLastAccessedTime(clock.instant());
+    sessions.save(found);
+
+    sessions.shutdown();
+    touchedRecords(1);
+  }
+}
@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import edu.ucsb.cs156.example.models.StartupTimeline;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class StartupTimelineServiceTests {
+
+  private static StartupTimelineService serviceFor(ApplicationStartup startup) {
+    ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+    when(context.getApplicationStartup()).thenReturn(startup);
+    StartupTimelineService service = new StartupTimelineService();
+    service.applicationContext = context;
+    return service;
+  }
+
+  @Test
+  void nothing_is_recorded_without_BufferingApplicationStartup() {
+    StartupTimeline timeline = serviceFor(ApplicationStartup.DEFAULT).getStartupTimeline(10);
+
+    assertFalse(timeline.getRecorded());
+    assertEquals(List.of(), timeline.getSlowestSteps());
+    assertEquals(List.of(), timeline.getStepTotals());
+  }
+
+  @Test
+  void steps_are_reported_with_their_own_time_and_totals_by_name() throws InterruptedException {
+    BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+    StartupStep refresh = startup.start("spring.context.refresh");
+    StartupStep entityManagerFactory = startup.start("spring.beans.instantiate")
+        .tag("beanName", "entityManagerFactory");
+    Thread.sleep(30);
+    entityManagerFactory.end();
+    startup.start("spring.beans.instantiate").tag("beanName", "ucsbDatesController").end();
+    refresh.end();
+
+    StartupTimelineService service = serviceFor(startup);
+    service.clock = new MutableClock(Instant.now());
+    service.jvmStartMillis = Instant.now().toEpochMilli() - 5_000;
+    StartupTimeline timeline = service.getStartupTimeline(2);
+
+    assertTrue(timeline.getRecorded());
+    assertEquals(3, timeline.getStepCount());
+    assertTrue(timeline.getJvmMillis() >= 5_000);
+    assertTrue(timeline.getApplicationMillis() >= 30);
+
+    List<StartupTimeline.Step> slowest = timeline.getSlowestSteps();
+    assertEquals(2, slowest.size());
+    assertEquals("spring.beans.instantiate", slowest.get(0).getName());
+    assertEquals("beanName=entityManagerFactory", slowest.get(0).getTags());
+    assertTrue(slowest.get(0).getSelfMillis() >= 30);
+    assertTrue(slowest.get(0).getSelfMillis() >= slowest.get(1).getSelfMillis());
+
+    Map<String, StartupTimeline.StepTotal> totals = timeline.getStepTotals().stream()
+        .collect(Collectors.toMap(StartupTimeline.StepTotal::getName, t -> t));
+    assertEquals(2, totals.get("spring.beans.instantiate").getCount());
+    StartupTimeline.StepTotal refreshTotal = totals.get("spring.context.refresh");
+    assertEquals(1, refreshTotal.getCount());
+    // the refresh's own time leaves out the 30 ms spent creating entityManagerFactory
+    assertTrue(refreshTotal.getTotalMillis() >= 30);
+    assertTrue(refreshTotal.getSelfMillis() <= refreshTotal.getTotalMillis() - 30);
+  }
+}
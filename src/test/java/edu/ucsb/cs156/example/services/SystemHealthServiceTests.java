@@ -0,0 +1,77 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.models.SystemHealth;
+import edu.ucsb.cs156.example.util.MutableClock;
+import edu.ucsb.cs156.example.util.StatementCountingDataSource;
+
+class SystemHealthServiceTests {
+
+  @Test
+  void reads_return_the_last_snapshot_until_the_next_refresh() {
+    MutableClock clock = new MutableClock(Instant.parse("2022-10-01T17:00:00Z"));
+    SystemHealthService service = new SystemHealthService();
+    service.clock = clock;
+    service.cacheStatsProviders = List.of(
+        () -> CacheStats.builder().name("sharedSessions").hits(1).misses(3).build(),
+        () -> CacheStats.builder().name("adminResolution").hits(9).misses(1).build());
+
+    SystemHealth first = service.getSystemHealth();
+    clock.advance(Duration.ofSeconds(10));
+    assertSame(first, service.getSystemHealth());
+
+    SystemHealth second = service.refresh();
+    assertNotSame(first, second);
+    assertSame(second, service.getSystemHealth());
+    assertEquals(Instant.parse("2022-10-01T17:00:10Z"), second.getTakenAt());
+
+    assertTrue(second.getHeapUsedBytes() > 0);
+    assertTrue(second.getThreadCount() > 0);
+    assertTrue(second.getUptimeMillis() > 0);
+    assertFalse(second.getGarbageCollectors().isEmpty());
+    assertNull(second.getConnectionPool());
+    assertEquals("adminResolution", second.getCaches().get(0).getName());
+    assertEquals(0.9, second.getCaches().get(0).getHitRatio());
+    assertEquals(0.25, second.getCaches().get(1).getHitRatio());
+  }
+
+  @Test
+  void reports_the_hikari_pool_through_wrappers() throws Exception {
+    try (HikariDataSource hikari = new HikariDataSource()) {
+      hikari.setJdbcUrl("jdbc:h2:mem:systemhealth");
+      hikari.setPoolName("health-test");
+      hikari.setMaximumPoolSize(3);
+
+      SystemHealthService service = new SystemHealthService();
+      service.dataSource = new StatementCountingDataSource(hikari);
+
+      SystemHealth.ConnectionPool pool = service.refresh().getConnectionPool();
+      assertEquals("health-test", pool.getName());
+      assertEquals(3, pool.getMaximum());
+      assertEquals(0, pool.getActive());
+
+      try (Connection connection = hikari.getConnection()) {
+        pool = service.refresh().getConnectionPool();
+        assertEquals(1, pool.getActive());
+        assertEquals(0, pool.getWaiting());
+        assertTrue(pool.getTotal() >= 1);
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class UCSBDateIndexServiceTests {
+
+  private UCSBDateRepository ucsbDateRepository;
+  private UCSBDateIndexService ucsbDateIndexService;
+
+  private UCSBDate date(long id, String localDateTime) {
+    return UCSBDate.builder()
+        .id(id)
+        .quarterYYYYQ("20221")
+        .name("date" + id)
+        .localDateTime(localDateTime == null ? null : LocalDateTime.parse(localDateTime))
+        .build();
+  }
+
+  @BeforeEach
+  void setup() {
+    ucsbDateRepository = mock(UCSBDateRepository.class);
+    ucsbDateIndexService = new UCSBDateIndexService();
+    ucsbDateIndexService.ucsbDateRepository = ucsbDateRepository;
+    ucsbDateIndexService.clock = new MutableClock(Instant.parse("2022-01-10T00:00:00Z"));
+
+    when(ucsbDateRepository.findAll()).thenReturn(Arrays.asList(
+        date(1L, "2022-01-03T00:00:00"),
+        date(2L, "2022-03-11T00:00:00"),
+        date(3L, "2022-01-17T00:00:00"),
+        date(4L, "2022-01-17T00:00:00"),
+        date(5L, null)));
+  }
+
+  @Test
+  void between_returns_dates_in_range_in_order_and_loads_once() {
+    assertEquals(List.of(1L, 3L, 4L), ids(ucsbDateIndexService.between(
+        LocalDateTime.parse("2022-01-01T00:00:00"), LocalDateTime.parse("2022-01-17T00:00:00"))));
+    assertEquals(List.of(), ids(ucsbDateIndexService.between(
+        LocalDateTime.parse("2022-02-01T00:00:00"), LocalDateTime.parse("2022-01-01T00:00:00"))));
+    verify(ucsbDateRepository, times(1)).findAll();
+  }
+
+  @Test
+  void upcoming_returns_next_dates_after_now() {
+    assertEquals(List.of(3L, 4L), ids(ucsbDateIndexService.upcoming(2)));
+    assertEquals(List.of(3L, 4L, 2L), ids(ucsbDateIndexService.upcoming(10)));
+  }
+
+  @Test
+  void mutations_replace_the_snapshot() {
+    ucsbDateIndexService.upcoming(10);
+
+    ucsbDateIndexService.upsert(date(6L, "2022-01-12T00:00:00"));
+    ucsbDateIndexService.upsert(date(2L, "2022-01-11T00:00:00"));
+    ucsbDateIndexService.remove(3L);
+
+    assertEquals(List.of(2L, 6L, 4L), ids(ucsbDateIndexService.upcoming(10)));
+    verify(ucsbDateRepository, times(1)).findAll();
+  }
+
+  @Test
+  void mutations_before_first_load_are_picked_up_from_the_database() {
+    ucsbDateIndexService.upsert(date(6L, "2022-01-12T00:00:00"));
+    ucsbDateIndexService.remove(3L);
+    verify(ucsbDateRepository, times(0)).findAll();
+
+    assertEquals(List.of(3L, 4L, 2L), ids(ucsbDateIndexService.upcoming(10)));
+  }
+
+  private static List<Long> ids(List<UCSBDate> dates) {
+    return dates.stream().map(UCSBDate::getId).toList();
+  }
+}
@@ -0,0 +1,114 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.models.CacheStats;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.util.MutableClock;
+
+class UCSBDateQuarterCacheTests {
+
+  private UCSBDateRepository ucsbDateRepository;
+  private UCSBDateQuarterCache cache;
+
+  @BeforeEach
+  void setup() {
+    ucsbDateRepository = mock(UCSBDateRepository.class);
+    cache = new UCSBDateQuarterCache();
+    cache.ucsbDateRepository = ucsbDateRepository;
+    cache.maxQuarters = 2;
+    cache.clock = new MutableClock(Instant.parse("2022-11-15T00:00:00Z"));
+    for (String quarter : List.of("20211", "20212", "20213", "20224", "20231")) {
+      when(ucsbDateRepository.findAllByQuarterYYYYQ(quarter)).thenReturn(List.of(
+          UCSBDate.builder().id(1L).quarterYYYYQ(quarter).name("first").build()));
+    }
+  }
+
+  @Test
+  void pinned_quarters_are_current_and_next() {
+    assertEquals(Set.of("20224", "20231"), cache.pinnedQuarters());
+    cache.clock = new MutableClock(Instant.parse("2022-05-01T00:00:00Z"));
+    assertEquals(Set.of("20222", "20223"), cache.pinnedQuarters());
+  }
+
+  @Test
+  void repeated_lookups_hit_the_cache() {
+    assertEquals("20224", cache.findAllByQuarterYYYYQ("20224").get(0).getQuarterYYYYQ());
+    cache.findAllByQuarterYYYYQ("20224");
+    cache.findAllByQuarterYYYYQ("20224");
+
+    verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20224");
+    CacheStats stats = cache.getCacheStats();
+    assertEquals(2, stats.getHits());
+    assertEquals(1, stats.getMisses());
+    assertEquals(1, stats.getSize());
+  }
+
+  @Test
+  void cached_dates_are_not_shared_with_the_repository_or_callers() {
+    UCSBDate fromRepository = ucsbDateRepository.findAllByQuarterYYYYQ("20224").iterator().next();
+    cache.findAllByQuarterYYYYQ("20224").get(0).setName("changed by a caller");
+    fromRepository.setName("changed in the persistence context");
+
+    assertEquals("first", cache.findAllByQuarterYYYYQ("20224").get(0).getName());
+  }
+
+  @Test
+  void older_quarters_are_lru_evicted_but_pinned_quarters_are_not() {
+    cache.findAllByQuarterYYYYQ("20224");
+    cache.findAllByQuarterYYYYQ("20231");
+    cache.findAllByQuarterYYYYQ("20211");
+    cache.findAllByQuarterYYYYQ("20212");
+    cache.findAllByQuarterYYYYQ("20211"); // 20212 is now least recently used
+    cache.findAllByQuarterYYYYQ("20213"); // evicts 20212
+
+    cache.findAllByQuarterYYYYQ("20224");
+    cache.findAllByQuarterYYYYQ("20231");
+    cache.findAllByQuarterYYYYQ("20211");
+    cache.findAllByQuarterYYYYQ("20212");
+
+    verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20224");
+    verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20231");
+    verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20211");
+    verify(ucsbDateRepository, times(2)).findAllByQuarterYYYYQ("20212");
+    assertEquals(2, cache.getCacheStats().getEvictions());
+  }
+
+  @Test
+  void invalidate_only_drops_the_affected_quarter() {
+    cache.findAllByQuarterYYYYQ("20224");
+    cache.findAllByQuarterYYYYQ("20211");
+
+    cache.invalidate("20224");
+    cache.invalidate(null);
+    cache.findAllByQuarterYYYYQ("20224");
+    cache.findAllByQuarterYYYYQ("20211");
+
+    verify(ucsbDateRepository, times(2)).findAllByQuarterYYYYQ("20224");
+    verify(ucsbDateRepository, times(1)).findAllByQuarterYYYYQ("20211");
+  }
+
+  @Test
+  void buckets_that_are_no_longer_pinned_become_evictable() {
+    cache.findAllByQuarterYYYYQ("20224");
+    cache.clock = new MutableClock(Instant.parse("2023-05-01T00:00:00Z"));
+    cache.findAllByQuarterYYYYQ("20211");
+    cache.findAllByQuarterYYYYQ("20212");
+    cache.findAllByQuarterYYYYQ("20213");
+
+    cache.findAllByQuarterYYYYQ("20224");
+    verify(ucsbDateRepository, times(2)).findAllByQuarterYYYYQ("20224");
+  }
+}
@@ -0,0 +1,40 @@
+package edu.ucsb.cs156.example.testconfig;
+
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import edu.ucsb.cs156.example.datagen.SyntheticDataGenerator;
+
+/**
+ * Import into a <code>@DataJpaTest</code> to start from synthetic data,
+ * generated once per test context at <code>app.datagen.scale</code>
+ * (default 0.01) and <code>app.datagen.seed</code> (default 1).
+ */
+@TestConfiguration
+public class SyntheticDataConfig {
+
+  /**
+   * The rows added to each table.
+   */
+  public record SyntheticData(Map<String, Integer> added) {
+  }
+
+  @Bean
+  public SyntheticDataGenerator syntheticDataGenerator(DataSource dataSource,
+      EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager) {
+    return new SyntheticDataGenerator(dataSource, entityManagerFactory, transactionManager);
+  }
+
+  @Bean
+  public SyntheticData syntheticData(SyntheticDataGenerator generator,
+      @Value("${app.datagen.scale:0.01}") double scale, @Value("${app.datagen.seed:1}") long seed) {
+    return new SyntheticData(generator.generate(scale, seed));
+  }
+}
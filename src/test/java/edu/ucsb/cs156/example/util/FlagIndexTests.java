@@ -0,0 +1,57 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+class FlagIndexTests {
+
+  private final Map<String, Predicate<Integer>> flags = new LinkedHashMap<>();
+
+  private FlagIndex<Integer> index() {
+    flags.put("even", i -> i % 2 == 0);
+    flags.put("big", i -> i >= 100);
+    return new FlagIndex<>(List.of(3, 4, 150, 200, 7), flags);
+  }
+
+  @Test
+  void all_ands_the_flags_and_keeps_index_order() {
+    FlagIndex<Integer> index = index();
+
+    assertEquals(List.of(150, 200), index.matching(List.of("even", "big"), FlagIndex.Match.ALL));
+    assertEquals(List.of(4, 150, 200), index.matching(List.of("even"), FlagIndex.Match.ALL));
+    assertEquals(List.of(3, 4, 150, 200, 7), index.matching(List.of(), FlagIndex.Match.ALL));
+  }
+
+  @Test
+  void any_ors_the_flags() {
+    FlagIndex<Integer> index = index();
+
+    assertEquals(List.of(4, 150, 200), index.matching(List.of("even", "big"), FlagIndex.Match.ANY));
+    assertEquals(List.of(), index.matching(List.of(), FlagIndex.Match.ANY));
+  }
+
+  @Test
+  void unknown_flags_are_rejected() {
+    FlagIndex<Integer> index = index();
+
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> index.matching(List.of("odd"), FlagIndex.Match.ANY));
+    assertEquals("unknown flag: odd", e.getMessage());
+  }
+
+  @Test
+  void reports_flags_and_size() {
+    FlagIndex<Integer> index = index();
+
+    assertEquals(Set.of("even", "big"), index.getFlags());
+    assertEquals(5, index.size());
+  }
+}
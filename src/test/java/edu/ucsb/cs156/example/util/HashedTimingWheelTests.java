@@ -0,0 +1,118 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HashedTimingWheelTests {
+
+  private MutableClock clock;
+  private HashedTimingWheel wheel;
+  private List<String> fired;
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock(Instant.parse("2022-01-03T00:00:00Z"));
+    wheel = new HashedTimingWheel("test-wheel", clock, Duration.ofSeconds(1), 8, false);
+    fired = new ArrayList<>();
+  }
+
+  @Test
+  void wheel_size_is_rounded_up_to_a_power_of_two() {
+    assertEquals(8, wheel.getWheelSize());
+    assertEquals(16, new HashedTimingWheel("w", clock, Duration.ofSeconds(1), 9, false).getWheelSize());
+    assertEquals(1, new HashedTimingWheel("w", clock, Duration.ofSeconds(1), 1, false).getWheelSize());
+  }
+
+  @Test
+  void invalid_arguments_are_rejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new HashedTimingWheel("w", clock, Duration.ZERO, 8, false));
+    assertThrows(IllegalArgumentException.class,
+        () -> new HashedTimingWheel("w", clock, Duration.ofSeconds(1), 0, false));
+  }
+
+  @Test
+  void task_runs_when_deadline_passes_and_not_before() {
+    wheel.schedule(clock.instant().plusSeconds(3), () -> fired.add("a"));
+
+    clock.advance(Duration.ofSeconds(2));
+    wheel.advance();
+    assertEquals(List.of(), fired);
+
+    clock.advance(Duration.ofSeconds(1));
+    wheel.advance();
+    assertEquals(List.of("a"), fired);
+
+    clock.advance(Duration.ofSeconds(10));
+    wheel.advance();
+    assertEquals(List.of("a"), fired);
+  }
+
+  @Test
+  void deadlines_more_than_one_revolution_away_wait_for_their_round() {
+    wheel.schedule(clock.instant().plusSeconds(19), () -> fired.add("far"));
+    wheel.schedule(clock.instant().plusSeconds(3), () -> fired.add("near"));
+
+    clock.advance(Duration.ofSeconds(11));
+    wheel.advance();
+    assertEquals(List.of("near"), fired);
+
+    clock.advance(Duration.ofSeconds(8));
+    wheel.advance();
+    assertEquals(List.of("near", "far"), fired);
+  }
+
+  @Test
+  void past_deadlines_run_on_next_tick() {
+    clock.advance(Duration.ofSeconds(5));
+    wheel.advance();
+    wheel.schedule(clock.instant().minusSeconds(4), () -> fired.add("late"));
+
+    clock.advance(Duration.ofSeconds(1));
+    wheel.advance();
+    assertEquals(List.of("late"), fired);
+  }
+
+  @Test
+  void cancelled_tasks_do_not_run() {
+    HashedTimingWheel.Timeout pending = wheel.schedule(clock.instant().plusSeconds(2), () -> fired.add("pending"));
+    HashedTimingWheel.Timeout queued = wheel.schedule(clock.instant().plusSeconds(4), () -> fired.add("queued"));
+    wheel.advance();
+
+    pending.cancel();
+    queued.cancel();
+    clock.advance(Duration.ofSeconds(5));
+    wheel.advance();
+
+    assertTrue(pending.isCancelled());
+    assertEquals(List.of(), fired);
+  }
+
+  @Test
+  void a_failing_task_does_not_stop_the_wheel() {
+    wheel.schedule(clock.instant().plusSeconds(1), () -> {
+      throw new IllegalStateException("boom");
+    });
+    wheel.schedule(clock.instant().plusSeconds(1), () -> fired.add("b"));
+
+    clock.advance(Duration.ofSeconds(1));
+    wheel.advance();
+    assertEquals(List.of("b"), fired);
+  }
+
+  @Test
+  void a_closed_wheel_rejects_new_tasks() {
+    wheel.close();
+    assertThrows(IllegalStateException.class,
+        () -> wheel.schedule(clock.instant().plusSeconds(1), () -> fired.add("c")));
+  }
+}
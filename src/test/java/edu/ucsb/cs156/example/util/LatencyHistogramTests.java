@@ -0,0 +1,92 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTests {
+
+  @Test
+  void buckets_are_exact_below_32_and_within_about_3_percent_above() {
+    for (long v = 0; v < 32; v++) {
+      assertEquals(v, LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(v)));
+    }
+    for (long v = 32; v < LatencyHistogram.MAX_VALUE; v = v * 3 / 2 + 7) {
+      int bucket = LatencyHistogram.bucketOf(v);
+      long highest = LatencyHistogram.highestValueIn(bucket);
+      assertTrue(highest >= v && highest - v <= v / 32, "value " + v + " reported as " + highest);
+      assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+      assertEquals(bucket + 1, LatencyHistogram.bucketOf(highest + 1));
+    }
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(LatencyHistogram.MAX_VALUE));
+  }
+
+  @Test
+  void percentiles_of_uniform_values() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long ms = 1; ms <= 1000; ms++) {
+      histogram.record(ms * 1_000_000);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(1000, snapshot.getCount());
+    assertEquals(1_000_000_000L, snapshot.getMax());
+    assertEquals(500.5e6, snapshot.getMean(), 1.0);
+    assertWithin(500_000_000L, snapshot.valueAt(50));
+    assertWithin(990_000_000L, snapshot.valueAt(99));
+    assertWithin(999_000_000L, snapshot.valueAt(99.9));
+    assertEquals(1_000_000_000L, snapshot.valueAt(100));
+    assertWithin(1_000_000L, snapshot.valueAt(0));
+  }
+
+  @Test
+  void out_of_range_values_are_clamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(0, snapshot.valueAt(50));
+    assertEquals(LatencyHistogram.MAX_VALUE, snapshot.valueAt(100));
+  }
+
+  @Test
+  void empty_snapshot() {
+    LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+    assertEquals(0, snapshot.getCount());
+    assertEquals(0.0, snapshot.getMean());
+    assertEquals(0, snapshot.valueAt(99));
+  }
+
+  @Test
+  void concurrent_writers_are_all_counted() throws Exception {
+    LatencyHistogram histogram = new LatencyHistogram();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      long value = (t + 1) * 1000L;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          histogram.record(value);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(80_000, snapshot.getCount());
+    assertEquals(4500.0, snapshot.getMean(), 0.001);
+    assertEquals(8000, snapshot.getMax());
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    assertTrue(actual >= expected && actual - expected <= expected / 32,
+        "expected about " + expected + " but was " + actual);
+  }
+}
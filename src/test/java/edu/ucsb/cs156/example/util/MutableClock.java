@@ -0,0 +1,43 @@
+package edu.ucsb.cs156.example.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A clock for tests that only moves when told to.
+ */
+public class MutableClock extends Clock {
+  private Instant now;
+  private final ZoneId zone;
+
+  public MutableClock(Instant now) {
+    this(now, ZoneOffset.UTC);
+  }
+
+  public MutableClock(Instant now, ZoneId zone) {
+    this.now = now;
+    this.zone = zone;
+  }
+
+  public synchronized void advance(Duration duration) {
+    now = now.plus(duration);
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  @Override
+  public Clock withZone(ZoneId zone) {
+    return new MutableClock(now, zone);
+  }
+
+  @Override
+  public synchronized Instant instant() {
+    return now;
+  }
+}
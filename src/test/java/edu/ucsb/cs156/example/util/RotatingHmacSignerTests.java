@@ -0,0 +1,100 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RotatingHmacSignerTests {
+
+  private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] PAYLOAD = "{\"email\":\"cgaucho@ucsb.edu\"}".getBytes(StandardCharsets.UTF_8);
+
+  private MutableClock clock;
+  private RotatingHmacSigner signer;
+
+  @BeforeEach
+  void setup() {
+    clock = new MutableClock(Instant.parse("2022-10-01T00:30:00Z"));
+    signer = new RotatingHmacSigner(SECRET, Duration.ofHours(1), clock);
+  }
+
+  @Test
+  void signed_payload_verifies() {
+    String token = signer.sign("session", PAYLOAD);
+
+    assertArrayEquals(PAYLOAD, signer.verify("session", token).get());
+  }
+
+  @Test
+  void nodes_sharing_the_secret_accept_each_others_tokens() {
+    RotatingHmacSigner other = new RotatingHmacSigner(SECRET.clone(), Duration.ofHours(1), clock);
+
+    assertArrayEquals(PAYLOAD, other.verify("session", signer.sign("session", PAYLOAD)).get());
+  }
+
+  @Test
+  void tokens_survive_one_rotation_but_not_two() {
+    String token = signer.sign("session", PAYLOAD);
+
+    clock.advance(Duration.ofHours(1));
+    assertTrue(signer.verify("session", token).isPresent());
+
+    clock.advance(Duration.ofHours(1));
+    assertEquals(Optional.empty(), signer.verify("session", token));
+  }
+
+  @Test
+  void tampered_or_repurposed_tokens_are_rejected() {
+    String token = signer.sign("session", PAYLOAD);
+    String otherPayload = signer.sign("session", "{\"email\":\"admin@ucsb.edu\"}".getBytes(StandardCharsets.UTF_8));
+    String forged = otherPayload.substring(0, otherPayload.indexOf('.')) + token.substring(token.indexOf('.'));
+    RotatingHmacSigner otherSecret = new RotatingHmacSigner(
+        "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1), clock);
+
+    assertEquals(Optional.empty(), signer.verify("session", forged));
+    assertEquals(Optional.empty(), signer.verify("oauth2-authorization-request", token));
+    assertEquals(Optional.empty(), otherSecret.verify("session", token));
+    assertEquals(Optional.empty(), signer.verify("session", "garbage"));
+    assertEquals(Optional.empty(), signer.verify("session", "a.b.c"));
+    assertEquals(Optional.empty(), signer.verify("session", "a.1.!!"));
+    assertEquals(Optional.empty(), signer.verify("session", null));
+  }
+
+  @Test
+  void tokens_signed_with_a_previous_secret_verify_until_it_is_dropped() {
+    byte[] newSecret = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8);
+    RotatingHmacSigner replaced = new RotatingHmacSigner(List.of(newSecret, SECRET), Duration.ofHours(1), clock);
+    RotatingHmacSigner newOnly = new RotatingHmacSigner(newSecret, Duration.ofHours(1), clock);
+
+    String oldToken = signer.sign("session", PAYLOAD);
+    String newToken = replaced.sign("session", PAYLOAD);
+
+    assertArrayEquals(PAYLOAD, replaced.verify("session", oldToken).get());
+    assertArrayEquals(PAYLOAD, newOnly.verify("session", newToken).get());
+    assertEquals(Optional.empty(), signer.verify("session", newToken));
+    assertEquals(Optional.empty(), newOnly.verify("session", oldToken));
+  }
+
+  @Test
+  void short_secrets_and_bad_rotations_are_rejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new RotatingHmacSigner("short".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1), clock));
+    assertThrows(IllegalArgumentException.class,
+        () -> new RotatingHmacSigner(List.of(SECRET, "short".getBytes(StandardCharsets.UTF_8)),
+            Duration.ofHours(1), clock));
+    assertThrows(IllegalArgumentException.class,
+        () -> new RotatingHmacSigner(List.of(), Duration.ofHours(1), clock));
+    assertThrows(IllegalArgumentException.class,
+        () -> new RotatingHmacSigner(SECRET, Duration.ZERO, clock));
+  }
+}
@@ -0,0 +1,119 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.util.SerializationUtils;
+
+class SessionAttributeCodecTests {
+
+  private static final Map<String, Object> GOOGLE_ATTRIBUTES = Map.of(
+      "sub", "115856948234298493496",
+      "email", "cgaucho@ucsb.edu",
+      "name", "Chris Gaucho",
+      "given_name", "Chris",
+      "family_name", "Gaucho",
+      "picture", "https://lh3.googleusercontent.com/a/photo.jpg",
+      "email_verified", true,
+      "locale", "en",
+      "hd", "ucsb.edu");
+
+  private SecurityContextImpl loggedIn(Map<String, Object> attributes, String nameAttributeKey) {
+    List<GrantedAuthority> userAuthorities = List.of(
+        new OAuth2UserAuthority("ROLE_USER", attributes),
+        new SimpleGrantedAuthority("SCOPE_openid"));
+    List<GrantedAuthority> tokenAuthorities = List.of(
+        new OAuth2UserAuthority("ROLE_USER", attributes),
+        new SimpleGrantedAuthority("ROLE_ADMIN"),
+        new SimpleGrantedAuthority("ROLE_MEMBER"));
+    DefaultOAuth2User user = new DefaultOAuth2User(userAuthorities, attributes, nameAttributeKey);
+    return new SecurityContextImpl(new OAuth2AuthenticationToken(user, tokenAuthorities, "google"));
+  }
+
+  @Test
+  void oauth2_security_context_round_trips_compactly() {
+    SecurityContextImpl context = loggedIn(GOOGLE_ATTRIBUTES, "sub");
+    Map<String, Object> attributes = Map.of("SPRING_SECURITY_CONTEXT", context);
+
+    byte[] encoded = SessionAttributeCodec.encode(attributes);
+    Map<String, Object> decoded = SessionAttributeCodec.decode(encoded);
+
+    SecurityContextImpl copy = (SecurityContextImpl) decoded.get("SPRING_SECURITY_CONTEXT");
+    OAuth2AuthenticationToken token = (OAuth2AuthenticationToken) copy.getAuthentication();
+    assertEquals(context, copy);
+    assertEquals("google", token.getAuthorizedClientRegistrationId());
+    assertEquals("115856948234298493496", token.getName());
+    assertEquals(context.getAuthentication().getAuthorities(), token.getAuthorities());
+    assertEquals(((OAuth2AuthenticationToken) context.getAuthentication()).getPrincipal().getAuthorities(),
+        token.getPrincipal().getAuthorities());
+    assertTrue(token.isAuthenticated());
+    assertTrue(encoded.length * 3 < SerializationUtils.serialize(context).length,
+        "compact " + encoded.length + " vs java " + SerializationUtils.serialize(context).length);
+  }
+
+  @Test
+  void name_attribute_other_than_sub_is_kept() {
+    SecurityContextImpl context = loggedIn(Map.of("login", "cgaucho", "id", 42), "login");
+
+    SecurityContextImpl copy = (SecurityContextImpl) SessionAttributeCodec.decode(
+        SessionAttributeCodec.encode(Map.of("ctx", context))).get("ctx");
+
+    assertEquals("cgaucho", copy.getAuthentication().getName());
+    assertEquals(context, copy);
+  }
+
+  @Test
+  void authority_with_its_own_attributes_round_trips() {
+    Map<String, Object> attributes = Map.of("sub", "1");
+    DefaultOAuth2User user = new DefaultOAuth2User(
+        List.of(new OAuth2UserAuthority("ROLE_USER", Map.of("sub", "1", "extra", "x"))), attributes, "sub");
+    SecurityContextImpl context = new SecurityContextImpl(
+        new OAuth2AuthenticationToken(user, user.getAuthorities(), "google"));
+
+    Object copy = SessionAttributeCodec.decode(SessionAttributeCodec.encode(Map.of("ctx", context))).get("ctx");
+
+    assertEquals(context, copy);
+  }
+
+  @Test
+  void plain_values_round_trip() {
+    Map<String, Object> nested = new LinkedHashMap<>();
+    nested.put("list", Arrays.asList("a", null, 3L, 2.5, false));
+    nested.put("n", 7);
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    attributes.put("s", "value");
+    attributes.put("t", true);
+    attributes.put("nothing", null);
+    attributes.put("nested", nested);
+
+    assertEquals(attributes, SessionAttributeCodec.decode(SessionAttributeCodec.encode(attributes)));
+  }
+
+  @Test
+  void other_serializable_values_fall_back_to_java_serialization() {
+    Map<String, Object> attributes = Map.of(
+        "when", Instant.parse("2022-10-01T17:00:00Z"),
+        "anonymous", new SecurityContextImpl());
+
+    assertEquals(attributes, SessionAttributeCodec.decode(SessionAttributeCodec.encode(attributes)));
+  }
+
+  @Test
+  void unknown_versions_are_rejected() {
+    assertThrows(IllegalArgumentException.class, () -> SessionAttributeCodec.decode(new byte[] { 9, 0, 0, 0, 0 }));
+  }
+}
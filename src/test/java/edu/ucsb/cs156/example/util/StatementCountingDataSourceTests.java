@@ -0,0 +1,64 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class StatementCountingDataSourceTests {
+
+  @Test
+  void executes_are_counted_per_thread_and_batches_count_once() throws Exception {
+    StatementCountingDataSource dataSource = new StatementCountingDataSource(
+        new DriverManagerDataSource("jdbc:h2:mem:statementcounting;DB_CLOSE_DELAY=-1"));
+    long before = StatementCounter.count();
+
+    try (Connection connection = dataSource.getConnection()) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("create table thing (id int primary key)");
+      }
+      try (PreparedStatement insert = connection.prepareStatement("insert into thing values (?)")) {
+        for (int i = 0; i < 5; i++) {
+          insert.setInt(1, i);
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+      try (PreparedStatement select = connection.prepareStatement("select count(*) from thing where id < ?")) {
+        select.setInt(1, 3);
+        try (ResultSet resultSet = select.executeQuery()) {
+          resultSet.next();
+          assertEquals(3, resultSet.getInt(1));
+        }
+        assertTrue(select.equals(select));
+      }
+    }
+
+    assertEquals(3, StatementCounter.count() - before);
+  }
+
+  @Test
+  void first_statement_over_the_threshold_is_remembered() {
+    StatementCounter.startRequest(2);
+    StatementCounter.increment();
+    StatementCounter.increment();
+    assertNull(StatementCounter.endRequest());
+
+    StatementCounter.startRequest(2);
+    for (int i = 0; i < 5; i++) {
+      StatementCounter.increment();
+    }
+    Throwable firstOver = StatementCounter.endRequest();
+    assertNotNull(firstOver);
+    assertEquals("statement 3 issued here", firstOver.getMessage());
+    assertEquals(5, StatementCounter.count());
+  }
+}
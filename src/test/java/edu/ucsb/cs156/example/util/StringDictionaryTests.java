@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class StringDictionaryTests {
+
+  @Test
+  void equal_strings_share_a_code_and_an_instance() {
+    StringDictionary dictionary = new StringDictionary();
+
+    int a = dictionary.encode("Entrees");
+    int b = dictionary.encode(new String("Entrees"));
+    int c = dictionary.encode("Desserts");
+
+    assertEquals(a, b);
+    assertEquals(1, c);
+    assertEquals("Desserts", dictionary.decode(c));
+    assertSame(dictionary.decode(a), dictionary.decode(b));
+    assertEquals(2, dictionary.size());
+  }
+}